@@ -0,0 +1,26 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag dari isi halaman statistik. Data grafik dimuat terpisah dari /charts/data, sehingga
+ * kerangka halaman hanya berubah jika template atau user berubah dan kunjungan berikutnya
+ * dijawab 304 tanpa isi.
+ */
+@Component
+public class ChartPageEtagFilter extends ShallowEtagHeaderFilter {
+    static final String PATH = "/charts";
+
+    public ChartPageEtagFilter() {
+        // ETag lemah: Tomcat tidak mengompresi (gzip) respons dengan ETag kuat
+        setWriteWeakETag(true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !PATH.equals(path);
+    }
+}
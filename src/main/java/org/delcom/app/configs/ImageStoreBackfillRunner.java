@@ -0,0 +1,32 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.ImageStoreBackfillService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menyalin gambar lokal ke object storage sekali saat start, aktif hanya jika diminta
+ * (jalankan di setiap node yang punya direktori upload lama):
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.arguments="--app.image-store.type=s3 --app.image-store.backfill=true"
+ */
+@Component
+@ConditionalOnProperty(name = "app.image-store.backfill", havingValue = "true")
+public class ImageStoreBackfillRunner implements ApplicationRunner {
+    private final ImageStoreBackfillService backfillService;
+
+    @Value("${app.image-store.backfill-batch-size:1000}")
+    private int batchSize = 1000;
+
+    public ImageStoreBackfillRunner(ImageStoreBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfillService.backfill(batchSize);
+    }
+}
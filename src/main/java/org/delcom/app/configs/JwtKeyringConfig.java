@@ -0,0 +1,97 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Memuat keyring JWT dari konfigurasi:
+ *
+ *   app.jwt.active-kid=2025-06
+ *   app.jwt.keys.2025-06=secret-baru
+ *   app.jwt.keys.2025-01=secret-lama
+ *
+ * Jika app.jwt.keyring-file diisi, file tersebut (format properties yang sama, tanpa prefix
+ * app.jwt.) dibaca ulang secara berkala sehingga key bisa dirotasi tanpa restart.
+ */
+@Component
+public class JwtKeyringConfig {
+    private static final String PREFIX_KEYS = "keys.";
+
+    private final Environment env;
+    private final Path keyringFile;
+    private FileTime keyringFileModified;
+
+    public JwtKeyringConfig(Environment env) {
+        this.env = env;
+        String file = env.getProperty("app.jwt.keyring-file", "");
+        this.keyringFile = file.isEmpty() ? null : Paths.get(file).toAbsolutePath().normalize();
+
+        // Dimuat saat bean dibuat, sebelum server menerima request
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keyring-reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (keyringFile == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(keyringFile);
+            if (!modified.equals(keyringFileModified)) {
+                reload();
+            }
+        } catch (IOException e) {
+            System.err.println("Gagal membaca keyring JWT: " + keyringFile + " - " + e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        String activeKid = env.getProperty("app.jwt.active-kid");
+        Map<String, String> secrets = new HashMap<>(Binder.get(env)
+                .bind("app.jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of()));
+
+        if (keyringFile != null) {
+            try (InputStream in = Files.newInputStream(keyringFile)) {
+                keyringFileModified = Files.getLastModifiedTime(keyringFile);
+                Properties properties = new Properties();
+                properties.load(in);
+                activeKid = properties.getProperty("active-kid", activeKid);
+                for (String name : properties.stringPropertyNames()) {
+                    if (name.startsWith(PREFIX_KEYS)) {
+                        secrets.put(name.substring(PREFIX_KEYS.length()), properties.getProperty(name));
+                    }
+                }
+            } catch (IOException e) {
+                // Tetap pakai keyring yang sudah aktif, jangan sampai semua sesi tidak valid
+                System.err.println("Gagal membaca keyring JWT: " + keyringFile + " - " + e.getMessage());
+                return;
+            }
+        }
+
+        if (secrets.isEmpty()) {
+            JwtUtil.useDefaultKeys();
+            return;
+        }
+        if (activeKid == null || activeKid.isEmpty()) {
+            throw new RuntimeException("app.jwt.active-kid harus diisi jika app.jwt.keys dikonfigurasi");
+        }
+
+        JwtUtil.configureKeys(activeKid, secrets);
+        System.out.println("Keyring JWT dimuat: aktif=" + activeKid + ", total key=" + secrets.size());
+    }
+}
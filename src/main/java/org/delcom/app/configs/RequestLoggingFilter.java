@@ -4,21 +4,27 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.AccessLogWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private static final String NO_HANDLER = "-";
+
+    private final AccessLogWriter accessLogWriter;
+
+    // Nama handler yang sudah diformat, per method controller (atau per class untuk handler lain
+    // seperti resource handler). Jumlahnya terbatas pada handler yang terdaftar.
+    private final Map<Object, String> handlerNames = new ConcurrentHashMap<>();
 
     @Value("${server.port:8080}")
     private int port;
@@ -26,51 +32,43 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     @Value("${spring.devtools.livereload.enabled:false}")
     private boolean livereload;
 
+    public RequestLoggingFilter(AccessLogWriter accessLogWriter) {
+        this.accessLogWriter = accessLogWriter;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
 
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
+        if (request.getRequestURI().startsWith("/.well-known")) {
+            return;
         }
 
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
-
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
+        // Handler yang menangani request, disimpan DispatcherServlet sebagai atribut request
+        String handler = handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+        // Baris log disusun dan ditulis thread AccessLogWriter, bukan thread request
+        accessLogWriter.log(request.getMethod(), request.getRequestURI(), response.getStatus(), durationMs,
+                handler, request.getRemoteAddr());
+    }
 
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+    /**
+     * Nama handler untuk log, contoh "ProductController.productDetail". Diformat sekali per
+     * handler lalu diambil dari cache.
+     */
+    String handlerName(Object handler) {
+        if (handler == null) {
+            return NO_HANDLER;
+        }
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerNames.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
         }
+        return handlerNames.computeIfAbsent(handler.getClass(), type -> handler.getClass().getSimpleName());
     }
 }
@@ -0,0 +1,31 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.UploadShardMigrationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menjalankan migrasi layout upload sekali saat start, aktif hanya jika diminta:
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.arguments=--app.upload.migrate-shards=true
+ */
+@Component
+@ConditionalOnProperty(name = "app.upload.migrate-shards", havingValue = "true")
+public class UploadShardMigrationRunner implements ApplicationRunner {
+    private final UploadShardMigrationService migrationService;
+
+    @Value("${app.upload.migrate-batch-size:500}")
+    private int batchSize = 500;
+
+    public UploadShardMigrationRunner(UploadShardMigrationService migrationService) {
+        this.migrationService = migrationService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrationService.migrate(batchSize);
+    }
+}
@@ -5,11 +5,13 @@ import org.delcom.app.interceptors.WebAuthInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -23,8 +25,16 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir:./uploads/images}")
     private String uploadDir;
 
+    // true: file upload disajikan ImageController (sendfile/transferTo, Range, ETag)
+    @Value("${app.upload.zero-copy:true}")
+    private boolean zeroCopyEnabled = true;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (zeroCopyEnabled) {
+            return;
+        }
+
         // Serve file dari local storage menggunakan path absolut
         String uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize().toString();
         // Convert backslash ke forward slash untuk file: protocol (Windows compatibility)
@@ -34,8 +44,13 @@ public class WebMvcConfig implements WebMvcConfigurer {
             uploadPath += "/";
         }
         
+        // Pola /** mencakup layout berlapis (/uploads/images/ab/cd/{filename}) maupun file lama
+        // yang masih langsung di direktori upload.
+        // Nama file berasal dari hash isi (atau UUID untuk upload lama) sehingga isinya
+        // tidak pernah berubah dan boleh di-cache browser tanpa revalidasi
         registry.addResourceHandler("/uploads/images/**")
-                .addResourceLocations("file:" + uploadPath);
+                .addResourceLocations("file:" + uploadPath)
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
     }
 
     @Override
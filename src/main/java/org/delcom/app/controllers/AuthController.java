@@ -6,11 +6,15 @@ import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
+import org.delcom.app.utils.SessionCookieUtil;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @Controller
@@ -85,11 +89,15 @@ public class AuthController {
                                      HttpServletResponse response) {
         try {
             AuthToken authToken = authService.login(email, password);
-            Cookie cookie = new Cookie("token", authToken.getToken());
-            cookie.setHttpOnly(true);
-            cookie.setPath("/");
-            cookie.setMaxAge(86400); // 24 hours
-            response.addCookie(cookie);
+            if (authService.isRefreshTokenEnabled()) {
+                addSessionCookies(response, authToken);
+            } else {
+                Cookie cookie = new Cookie("token", authToken.getToken());
+                cookie.setHttpOnly(true);
+                cookie.setPath("/");
+                cookie.setMaxAge(86400); // 24 hours
+                response.addCookie(cookie);
+            }
             
             // Return redirect URL jika ada, dengan validasi
             String redirect = "/";
@@ -111,19 +119,73 @@ public class AuthController {
         }
     }
 
-    @PostMapping("/logout")
+    @PostMapping("/refresh")
+    @ResponseBody
+    public ApiResponse<String> refresh(@CookieValue(value = "refresh_token", required = false) String refreshToken,
+                                      @CookieValue(value = "refresh_nonce", required = false) String refreshNonce,
+                                      HttpServletResponse response) {
+        Optional<AuthToken> authTokenOpt = authService.refresh(refreshToken, refreshNonce);
+        if (authTokenOpt.isEmpty()) {
+            return new ApiResponse<>("error", "Sesi sudah berakhir, silakan login kembali", null);
+        }
+
+        addSessionCookies(response, authTokenOpt.get());
+        return new ApiResponse<>("success", "Token berhasil diperbarui", null);
+    }
+
+    /**
+     * Refresh otomatis halaman web. WebAuthInterceptor mengarahkan request tanpa access token yang
+     * valid ke sini karena cookie refresh_token hanya dikirim ke /auth/refresh. Setelah sesi
+     * diperbarui browser diarahkan kembali dengan 307, sehingga method dan body (form POST) tetap sama.
+     */
+    @RequestMapping(value = "/refresh", params = "redirect")
+    public void refreshAndRedirect(@RequestParam String redirect,
+                                   @CookieValue(value = "refresh_token", required = false) String refreshToken,
+                                   @CookieValue(value = "refresh_nonce", required = false) String refreshNonce,
+                                   HttpServletResponse response) throws IOException {
+        // Hanya path lokal, sama dengan validasi redirect saat login
+        String target = redirect.startsWith("/") && !redirect.contains("//") && !redirect.contains("..")
+                ? redirect
+                : "/";
+
+        Optional<AuthToken> authTokenOpt = authService.refresh(refreshToken, refreshNonce);
+        if (authTokenOpt.isEmpty()) {
+            response.sendRedirect(target.equals("/")
+                    ? "/auth/login"
+                    : "/auth/login?redirect=" + URLEncoder.encode(target, StandardCharsets.UTF_8));
+            return;
+        }
+
+        addSessionCookies(response, authTokenOpt.get());
+        response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        response.setHeader("Location", target);
+    }
+
+    // /auth/refresh/logout menerima cookie refresh_token, dipakai halaman web agar sesi tetap
+    // dicabut walaupun cookie access token sudah expired
+    @PostMapping({"/logout", "/refresh/logout"})
     @ResponseBody
     public ApiResponse<String> logout(@CookieValue(value = "token", required = false) String token,
+                                     @CookieValue(value = "refresh_token", required = false) String refreshToken,
                                      HttpServletResponse response) {
-        if (token != null) {
-            authService.logout(token);
+        if (token != null || refreshToken != null) {
+            authService.logout(token, refreshToken);
+        }
+        if (authService.isRefreshTokenEnabled()) {
+            SessionCookieUtil.clearSessionCookies(response);
+        } else {
+            Cookie cookie = new Cookie("token", "");
+            cookie.setHttpOnly(true);
+            cookie.setPath("/");
+            cookie.setMaxAge(0);
+            response.addCookie(cookie);
         }
-        Cookie cookie = new Cookie("token", "");
-        cookie.setHttpOnly(true);
-        cookie.setPath("/");
-        cookie.setMaxAge(0);
-        response.addCookie(cookie);
         return new ApiResponse<>("success", "Logout berhasil", null);
     }
-}
 
+    private void addSessionCookies(HttpServletResponse response, AuthToken authToken) {
+        SessionCookieUtil.addSessionCookies(response,
+                authService.issueAccessToken(authToken.getUserId()), authService.getAccessTokenMaxAgeSeconds(),
+                authToken.getToken(), authToken.getRotationNonce(), authService.getRefreshTokenMaxAgeSeconds());
+    }
+}
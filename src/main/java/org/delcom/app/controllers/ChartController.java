@@ -1,37 +1,60 @@
 package org.delcom.app.controllers;
 
-import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
-import org.delcom.app.services.ProductService;
+import org.delcom.app.services.ChartDataService;
+import org.delcom.app.services.ListingActivityService;
+import org.delcom.app.services.PriceSketchService;
+import org.delcom.app.services.UniqueViewerService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
 @RequestMapping("/charts")
 public class ChartController {
-    private final ProductService productService;
+    // Browser menyimpan halaman dan data, tetapi selalu bertanya ulang dengan If-None-Match
+    // (jawaban 304 tanpa isi) agar produk yang baru ditambahkan langsung terlihat
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final AuthService authService;
+    private final ListingActivityService listingActivityService;
+    private final PriceSketchService priceSketchService;
+    private final ChartDataService chartDataService;
+    private final UniqueViewerService uniqueViewerService;
 
-    public ChartController(ProductService productService, AuthService authService) {
-        this.productService = productService;
+    public ChartController(AuthService authService, ListingActivityService listingActivityService,
+                           PriceSketchService priceSketchService, ChartDataService chartDataService,
+                           UniqueViewerService uniqueViewerService) {
         this.authService = authService;
+        this.listingActivityService = listingActivityService;
+        this.priceSketchService = priceSketchService;
+        this.chartDataService = chartDataService;
+        this.uniqueViewerService = uniqueViewerService;
     }
 
+    /**
+     * Kerangka halaman statistik. Datanya dimuat dari /charts/data sehingga halaman tidak berubah
+     * saat jumlah produk berubah dan ETag-nya (ChartPageEtagFilter) tetap sama.
+     */
     @GetMapping
     public String showCharts(@CookieValue(value = "token", required = false) String token,
-                            Model model) {
-        List<Object[]> categoryStats = productService.getCategoryStatistics();
-        List<Object[]> conditionStats = productService.getConditionStatistics();
-
-        model.addAttribute("categoryStats", categoryStats);
-        model.addAttribute("conditionStats", conditionStats);
+                            Model model, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
 
         if (token != null) {
             Optional<User> userOpt = authService.getUserByToken(token);
@@ -40,5 +63,70 @@ public class ChartController {
 
         return "charts/index";
     }
-}
 
+    /**
+     * Jumlah produk per kategori dan kondisi serta persentil harga per kategori. Mendukung
+     * If-None-Match: jika data belum berubah dijawab 304 tanpa isi.
+     */
+    @GetMapping("/data")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<ChartDataService.ChartData>> data(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ChartDataService.Snapshot snapshot = chartDataService.getSnapshot();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(snapshot.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CACHE_CONTROL)
+                .body(new ApiResponse<>("success", "Data statistik berhasil diambil", snapshot.data()));
+    }
+
+    /**
+     * Tren produk baru per kategori, dibaca dari tabel rollup
+     *
+     * @param granularity hour (maksimal 168 bucket) atau day (maksimal 365 bucket)
+     * @param periods     jumlah bucket terakhir
+     */
+    @GetMapping("/activity")
+    @ResponseBody
+    public ApiResponse<ListingActivityService.ActivityChart> activity(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "30") int periods) {
+        try {
+            return new ApiResponse<>("success", "Aktivitas produk berhasil diambil",
+                    listingActivityService.getActivity(granularity, periods));
+        } catch (RuntimeException e) {
+            return new ApiResponse<>("error", e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Perkiraan persentil harga (p10, p50, p90) dari sketch di memori
+     *
+     * @param category  kategori, kosong untuk semua kategori
+     * @param condition kondisi, kosong untuk semua kondisi
+     */
+    @GetMapping("/prices")
+    @ResponseBody
+    public ApiResponse<PriceSketchService.PriceQuantiles> prices(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String condition) {
+        PriceSketchService.PriceQuantiles quantiles = priceSketchService.getQuantiles(
+                category == null || category.isBlank() ? null : category,
+                condition == null || condition.isBlank() ? null : condition);
+        return new ApiResponse<>("success", "Persentil harga berhasil diambil", quantiles);
+    }
+
+    /**
+     * Perkiraan pengunjung unik per kategori, gabungan sketch HyperLogLog semua produknya
+     */
+    @GetMapping("/viewers")
+    @ResponseBody
+    public ApiResponse<Map<String, Long>> viewers() {
+        return new ApiResponse<>("success", "Pengunjung unik berhasil diambil", uniqueViewerService.estimateCategories());
+    }
+}
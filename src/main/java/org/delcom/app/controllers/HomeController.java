@@ -4,6 +4,7 @@ import jakarta.servlet.http.Cookie;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.ProductService;
+import org.delcom.app.services.TrendingService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.CookieValue;
@@ -15,10 +16,12 @@ import java.util.Optional;
 public class HomeController {
     private final ProductService productService;
     private final AuthService authService;
+    private final TrendingService trendingService;
 
-    public HomeController(ProductService productService, AuthService authService) {
+    public HomeController(ProductService productService, AuthService authService, TrendingService trendingService) {
         this.productService = productService;
         this.authService = authService;
+        this.trendingService = trendingService;
     }
 
     @GetMapping("/")
@@ -30,6 +33,7 @@ public class HomeController {
             userOpt.ifPresent(user -> model.addAttribute("currentUser", user));
         }
         
+        model.addAttribute("trendingProducts", trendingService.getTrending());
         model.addAttribute("products", productService.getAllProducts());
         return "index";
     }
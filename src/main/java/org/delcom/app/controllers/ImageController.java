@@ -0,0 +1,210 @@
+package org.delcom.app.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.FileStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menyajikan file upload (/uploads/images/**) tanpa menyalin isinya ke heap Java.
+ *
+ * Di Tomcat, file diserahkan ke sendfile milik container lewat atribut request
+ * org.apache.tomcat.sendfile.*. Di container lain dipakai FileChannel.transferTo.
+ * Mendukung Range (satu rentang) dan ETag kuat dari nama file; nama file berasal dari
+ * hash isi atau UUID sehingga isinya tidak pernah berubah. Ukuran dan content type file
+ * disimpan di cache kecil agar request berulang tidak perlu stat ke disk.
+ *
+ * Jika gambar disimpan di object storage (app.image-store.type=s3), browser diarahkan ke
+ * presigned URL sehingga isi gambar tidak melewati node aplikasi.
+ */
+@Controller
+@ConditionalOnProperty(name = "app.upload.zero-copy", havingValue = "true", matchIfMissing = true)
+public class ImageController {
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // File bisa dihapus (produk dihapus), jadi metadata di cache dicek ulang setelah waktu ini
+    private static final long METADATA_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic().immutable().getHeaderValue();
+    // Redirect hanya di-cache sebentar karena presigned URL punya masa berlaku
+    private static final String REDIRECT_CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES)
+            .cachePrivate().getHeaderValue();
+
+    private final FileStorageService fileStorageService;
+    private final Map<Path, ImageMetadata> metadataCache;
+
+    public ImageController(FileStorageService fileStorageService,
+                           @Value("${app.upload.metadata-cache-size:1024}") int metadataCacheSize) {
+        this.fileStorageService = fileStorageService;
+        this.metadataCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, ImageMetadata> eldest) {
+                return size() > metadataCacheSize;
+            }
+        });
+    }
+
+    @GetMapping("/uploads/images/**")
+    public void serveImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String fileUrl = request.getRequestURI().substring(request.getContextPath().length());
+        URI remoteUrl = remoteReadUrl(fileUrl);
+        if (remoteUrl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REDIRECT_CACHE_CONTROL);
+            response.setHeader(HttpHeaders.LOCATION, remoteUrl.toString());
+            response.setStatus(HttpServletResponse.SC_FOUND);
+            return;
+        }
+
+        ImageMetadata metadata = lookup(fileUrl);
+        if (metadata == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, metadata.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(metadata.etag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = metadata.size() - 1;
+        HttpRange range = parseRange(request, metadata);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(metadata.size());
+                end = range.getRangeEnd(metadata.size());
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + metadata.size());
+        }
+
+        long length = end - start + 1;
+        response.setContentType(metadata.contentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat mengirim file dengan sendfile setelah handler selesai
+            request.setAttribute(SENDFILE_FILENAME, metadata.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break; // file terpotong sejak metadata dibaca
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (NoSuchFileException e) {
+            metadataCache.remove(metadata.path());
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    // Hanya satu rentang yang dilayani; multi-range, sintaks tidak valid, atau If-Range yang
+    // tidak cocok dijawab dengan file utuh (diperbolehkan RFC 9110)
+    private HttpRange parseRange(HttpServletRequest request, ImageMetadata metadata) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(metadata.etag())) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private URI remoteReadUrl(String fileUrl) {
+        try {
+            return fileStorageService.remoteReadUrl(fileUrl);
+        } catch (RuntimeException e) {
+            return null; // path tidak valid, dijawab 404 oleh lookup
+        }
+    }
+
+    private ImageMetadata lookup(String fileUrl) throws IOException {
+        Path path;
+        try {
+            path = fileStorageService.resolvePath(fileUrl);
+        } catch (RuntimeException e) {
+            return null; // path traversal atau URL tanpa nama file
+        }
+
+        ImageMetadata cached = metadataCache.get(path);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < METADATA_TTL_NANOS) {
+            return cached;
+        }
+
+        if (!Files.isRegularFile(path)) {
+            metadataCache.remove(path);
+            return null;
+        }
+        String filename = path.getFileName().toString();
+        ImageMetadata metadata = new ImageMetadata(
+                path,
+                Files.size(path),
+                "\"" + filename + "\"",
+                MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM).toString(),
+                System.nanoTime());
+        metadataCache.put(path, metadata);
+        return metadata;
+    }
+
+    int getCachedMetadataCount() {
+        return metadataCache.size();
+    }
+
+    private record ImageMetadata(Path path, long size, String etag, String contentType, long loadedAt) {
+    }
+}
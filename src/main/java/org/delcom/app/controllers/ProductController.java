@@ -1,12 +1,19 @@
 package org.delcom.app.controllers;
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.entities.Product;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageProcessingQueue;
 import org.delcom.app.services.ProductService;
+import org.delcom.app.services.ProductViewCounter;
+import org.delcom.app.services.StreamingUploadService;
+import org.delcom.app.services.StreamingUploadService.UploadForm;
+import org.delcom.app.services.TrendingService;
+import org.delcom.app.services.UniqueViewerService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.CookieValue;
@@ -24,12 +31,27 @@ public class ProductController {
     private final ProductService productService;
     private final AuthService authService;
     private final FileStorageService fileStorageService;
+    private final ImageProcessingQueue imageProcessingQueue;
+    private final StreamingUploadService streamingUploadService;
+    private final ProductViewCounter productViewCounter;
+    private final UniqueViewerService uniqueViewerService;
+    private final TrendingService trendingService;
 
     public ProductController(ProductService productService, AuthService authService,
-                            FileStorageService fileStorageService) {
+                            FileStorageService fileStorageService,
+                            ImageProcessingQueue imageProcessingQueue,
+                            StreamingUploadService streamingUploadService,
+                            ProductViewCounter productViewCounter,
+                            UniqueViewerService uniqueViewerService,
+                            TrendingService trendingService) {
         this.productService = productService;
         this.authService = authService;
         this.fileStorageService = fileStorageService;
+        this.imageProcessingQueue = imageProcessingQueue;
+        this.streamingUploadService = streamingUploadService;
+        this.productViewCounter = productViewCounter;
+        this.uniqueViewerService = uniqueViewerService;
+        this.trendingService = trendingService;
     }
 
     @GetMapping
@@ -62,9 +84,28 @@ public class ProductController {
         List<Product> products = productService.getProductsByUserId(user.getId());
         model.addAttribute("products", products);
         model.addAttribute("currentUser", user);
+        model.addAttribute("uniqueViewers", uniqueViewerService.estimateSeller(user.getId()));
         return "products/my-products";
     }
 
+    @GetMapping("/dashboard")
+    public String dashboard(@CookieValue(value = "token", required = false) String token,
+                            Model model) {
+        if (token == null) {
+            return "redirect:/auth/login";
+        }
+
+        Optional<User> userOpt = authService.getUserByToken(token);
+        if (userOpt.isEmpty()) {
+            return "redirect:/auth/login";
+        }
+
+        User user = userOpt.get();
+        model.addAttribute("dashboard", productService.getSellerDashboard(user.getId()));
+        model.addAttribute("currentUser", user);
+        return "products/dashboard";
+    }
+
     @GetMapping("/{id}")
     public String productDetail(@PathVariable UUID id, Model model,
                                @CookieValue(value = "token", required = false) String token) {
@@ -75,12 +116,23 @@ public class ProductController {
 
         Product product = productOpt.get();
         model.addAttribute("product", product);
+        productViewCounter.recordView(id);
+        // Kunjungan yang belum dikirim ke database ikut ditampilkan
+        model.addAttribute("viewCount", product.getViewCount() + productViewCounter.getPendingViews(id));
 
         if (token != null) {
             Optional<User> userOpt = authService.getUserByToken(token);
             userOpt.ifPresent(user -> {
+                boolean isOwner = product.getUserId().equals(user.getId());
                 model.addAttribute("currentUser", user);
-                model.addAttribute("isOwner", product.getUserId().equals(user.getId()));
+                model.addAttribute("isOwner", isOwner);
+                if (isOwner) {
+                    model.addAttribute("uniqueViewers", uniqueViewerService.estimateProduct(id));
+                } else {
+                    // Pengunjung unik dan skor trending dihitung per user, kunjungan pemilik produk tidak dihitung
+                    uniqueViewerService.recordVisitor(id, user.getId().toString());
+                    trendingService.recordView(id, user.getId());
+                }
             });
         }
 
@@ -129,6 +181,41 @@ public class ProductController {
 
             Product product = productService.createProduct(
                     userOpt.get().getId(), name, description, price, category, condition, imageUrl);
+            if (imageUrl != null) {
+                // Thumbnail dibuat di background, produk tampil dengan gambar asli sampai selesai
+                imageProcessingQueue.submit(product);
+            }
+            return new ApiResponse<>("success", "Produk berhasil ditambahkan", product);
+        } catch (Exception e) {
+            return new ApiResponse<>("error", e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Sama seperti POST /products/add, tetapi body multipart dibaca langsung dari request
+     * sehingga gambar ditulis sekali ke storage tanpa salinan sementara dari MultipartResolver.
+     */
+    @PostMapping("/add/stream")
+    @ResponseBody
+    public ApiResponse<Product> addProductStreaming(@CookieValue(value = "token", required = false) String token,
+                                                   HttpServletRequest request) {
+        if (token == null) {
+            return new ApiResponse<>("error", "Anda harus login terlebih dahulu", null);
+        }
+
+        Optional<User> userOpt = authService.getUserByToken(token);
+        if (userOpt.isEmpty()) {
+            return new ApiResponse<>("error", "Token tidak valid", null);
+        }
+
+        try {
+            UploadForm form = streamingUploadService.parse(request, "image");
+            Product product = productService.createProduct(
+                    userOpt.get().getId(), form.field("name"), form.field("description"), parsePrice(form),
+                    form.field("category"), form.field("condition"), form.fileUrl());
+            if (form.fileUrl() != null) {
+                imageProcessingQueue.submit(product);
+            }
             return new ApiResponse<>("success", "Produk berhasil ditambahkan", product);
         } catch (Exception e) {
             return new ApiResponse<>("error", e.getMessage(), null);
@@ -185,24 +272,84 @@ public class ProductController {
         try {
             String imageUrl = null;
             if (image != null && !image.isEmpty()) {
-                // Delete old image
-                Optional<Product> oldProductOpt = productService.getProductById(id);
-                oldProductOpt.ifPresent(product -> {
-                    if (product.getImageUrl() != null) {
-                        fileStorageService.deleteFile(product.getImageUrl());
-                    }
-                });
                 imageUrl = fileStorageService.storeFile(image);
             }
 
+            // Gambar lama tidak dihapus di sini: OrphanImageCollector menghapusnya setelah tidak
+            // dipakai produk mana pun dan lebih tua dari grace period
             Product product = productService.updateProduct(
                     id, userOpt.get().getId(), name, description, price, category, condition, imageUrl);
+            if (imageUrl != null) {
+                // Thumbnail dibuat di background, produk tampil dengan gambar asli sampai selesai
+                imageProcessingQueue.submit(product);
+            }
+            return new ApiResponse<>("success", "Produk berhasil diubah", product);
+        } catch (Exception e) {
+            return new ApiResponse<>("error", e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Versi streaming dari POST /products/{id}/edit. Seperti versi multipart, gambar lama
+     * dibersihkan OrphanImageCollector setelah tidak dipakai lagi.
+     */
+    @PostMapping("/{id}/edit/stream")
+    @ResponseBody
+    public ApiResponse<Product> updateProductStreaming(@PathVariable UUID id,
+                                                      @CookieValue(value = "token", required = false) String token,
+                                                      HttpServletRequest request) {
+        if (token == null) {
+            return new ApiResponse<>("error", "Anda harus login terlebih dahulu", null);
+        }
+
+        Optional<User> userOpt = authService.getUserByToken(token);
+        if (userOpt.isEmpty()) {
+            return new ApiResponse<>("error", "Token tidak valid", null);
+        }
+
+        try {
+            UploadForm form = streamingUploadService.parse(request, "image");
+            String imageUrl = form.fileUrl();
+
+            Product product = productService.updateProduct(
+                    id, userOpt.get().getId(), form.field("name"), form.field("description"), parsePrice(form),
+                    form.field("category"), form.field("condition"), imageUrl);
+            if (imageUrl != null) {
+                imageProcessingQueue.submit(product);
+            }
             return new ApiResponse<>("success", "Produk berhasil diubah", product);
         } catch (Exception e) {
             return new ApiResponse<>("error", e.getMessage(), null);
         }
     }
 
+    /**
+     * Catat klik "Beli Sekarang" sebagai sinyal minat untuk produk trending
+     */
+    @PostMapping("/{id}/contact")
+    @ResponseBody
+    public ApiResponse<String> contactSeller(@PathVariable UUID id,
+                                            @CookieValue(value = "token", required = false) String token) {
+        if (token == null) {
+            return new ApiResponse<>("error", "Anda harus login terlebih dahulu", null);
+        }
+
+        Optional<User> userOpt = authService.getUserByToken(token);
+        if (userOpt.isEmpty()) {
+            return new ApiResponse<>("error", "Token tidak valid", null);
+        }
+
+        Optional<Product> productOpt = productService.getProductById(id);
+        if (productOpt.isEmpty()) {
+            return new ApiResponse<>("error", "Product tidak ditemukan", null);
+        }
+
+        if (!productOpt.get().getUserId().equals(userOpt.get().getId())) {
+            trendingService.recordContact(id, userOpt.get().getId());
+        }
+        return new ApiResponse<>("success", "Minat berhasil dicatat", null);
+    }
+
     @PostMapping("/{id}/delete")
     @ResponseBody
     public ApiResponse<String> deleteProduct(@PathVariable UUID id,
@@ -217,19 +364,19 @@ public class ProductController {
         }
 
         try {
-            // Delete image file
-            Optional<Product> productOpt = productService.getProductById(id);
-            productOpt.ifPresent(product -> {
-                if (product.getImageUrl() != null) {
-                    fileStorageService.deleteFile(product.getImageUrl());
-                }
-            });
-
+            // File gambar dan thumbnail-nya dihapus OrphanImageCollector setelah tidak dipakai produk lain
             productService.deleteProduct(id, userOpt.get().getId());
             return new ApiResponse<>("success", "Produk berhasil dihapus", null);
         } catch (Exception e) {
             return new ApiResponse<>("error", e.getMessage(), null);
         }
     }
-}
 
+    private BigDecimal parsePrice(UploadForm form) {
+        try {
+            return new BigDecimal(form.field("price").trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Harga tidak valid");
+        }
+    }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = @Index(name = "ix_auth_tokens_previous_token", columnList = "previousToken"))
 public class AuthToken {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -14,12 +14,32 @@ public class AuthToken {
     @Column(nullable = false, unique = true)
     private String token;
 
-    @Column(nullable = false)
+    // Satu sesi per user, dijaga unique index ux_auth_tokens_user_id (schema.sql) untuk upsert ON CONFLICT (user_id)
+    @Column(nullable = false, unique = true)
     private UUID userId;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column
+    private LocalDateTime expiresAt;
+
+    // Nonce acak per rotasi, dikirim ke client bersama refresh token (cookie refresh_nonce)
+    // dan harus ikut dibawa saat refresh
+    @Column
+    private String rotationNonce;
+
+    // Refresh token dan nonce sebelum rotasi terakhir. Token lama hanya diterima sebentar setelah
+    // rotatedAt dari client yang sama (nonce lama cocok) agar request paralel tidak dianggap logout
+    @Column
+    private String previousToken;
+
+    @Column
+    private String previousNonce;
+
+    @Column
+    private LocalDateTime rotatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -66,5 +86,44 @@ public class AuthToken {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getRotationNonce() {
+        return rotationNonce;
+    }
+
+    public void setRotationNonce(String rotationNonce) {
+        this.rotationNonce = rotationNonce;
+    }
+
+    public String getPreviousToken() {
+        return previousToken;
+    }
+
+    public void setPreviousToken(String previousToken) {
+        this.previousToken = previousToken;
+    }
+
+    public String getPreviousNonce() {
+        return previousNonce;
+    }
+
+    public void setPreviousNonce(String previousNonce) {
+        this.previousNonce = previousNonce;
+    }
+
+    public LocalDateTime getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public void setRotatedAt(LocalDateTime rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+}
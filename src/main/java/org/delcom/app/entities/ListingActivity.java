@@ -0,0 +1,119 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Jumlah produk baru per kategori dalam satu bucket waktu (per jam atau per hari).
+ * Diisi bertahap oleh ListingActivityService dari products.created_at sehingga grafik tren
+ * cukup membaca satu baris per bucket dan kategori.
+ */
+@Entity
+@Table(name = "listing_activity")
+@IdClass(ListingActivity.Key.class)
+public class ListingActivity {
+    public static final String GRANULARITY_HOUR = "HOUR";
+    public static final String GRANULARITY_DAY = "DAY";
+
+    @Id
+    @Column(length = 10)
+    private String granularity;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private long listingCount;
+
+    // Constructors
+    public ListingActivity() {
+    }
+
+    public ListingActivity(String granularity, LocalDateTime bucketStart, String category, long listingCount) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.category = category;
+        this.listingCount = listingCount;
+    }
+
+    // Getters and Setters
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getListingCount() {
+        return listingCount;
+    }
+
+    public void setListingCount(long listingCount) {
+        this.listingCount = listingCount;
+    }
+
+    /**
+     * Primary key (granularity, bucketStart, category)
+     */
+    public static class Key implements Serializable {
+        private String granularity;
+        private LocalDateTime bucketStart;
+        private String category;
+
+        public Key() {
+        }
+
+        public Key(String granularity, LocalDateTime bucketStart, String category) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.category = category;
+        }
+
+        public String getGranularity() {
+            return granularity;
+        }
+
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(granularity, key.granularity)
+                    && Objects.equals(bucketStart, key.bucketStart) && Objects.equals(category, key.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, category);
+        }
+    }
+}
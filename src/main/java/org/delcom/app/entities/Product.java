@@ -1,12 +1,17 @@
 package org.delcom.app.entities;
 
 import jakarta.persistence.*;
+import org.delcom.app.utils.ImageUtil;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "ix_products_image_url", columnList = "imageUrl"),
+        @Index(name = "ix_products_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "ix_products_user_id_updated_at", columnList = "userId, updatedAt")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -33,6 +38,15 @@ public class Product {
     @Column
     private String imageUrl;
 
+    // Lebar thumbnail yang tersedia untuk imageUrl, dipisah koma (contoh "200,480,1024")
+    @Column(length = 100)
+    private String imageVariants;
+
+    // Jumlah kunjungan halaman detail, hanya ditulis ProductViewCounter (UPDATE berkala dengan delta)
+    // sehingga save entity tidak menimpa hitungan yang masuk setelah entity dibaca
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private long viewCount;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -130,6 +144,27 @@ public class Product {
         this.imageUrl = imageUrl;
     }
 
+    public String getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(String imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
+    // Nilai atribut srcset untuk tag img, null jika belum ada thumbnail
+    public String getImageSrcset() {
+        return ImageUtil.srcset(imageUrl, imageVariants);
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
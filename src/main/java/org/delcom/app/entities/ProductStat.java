@@ -0,0 +1,109 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Jumlah produk per kategori dan per kondisi, diperbarui ProductService dalam transaksi
+ * yang sama dengan perubahan produk sehingga halaman statistik cukup membaca beberapa baris
+ * ini tanpa menghitung ulang tabel products.
+ */
+@Entity
+@Table(name = "product_stats")
+@IdClass(ProductStat.Key.class)
+public class ProductStat {
+    public static final String DIMENSION_CATEGORY = "category";
+    public static final String DIMENSION_CONDITION = "condition";
+
+    @Id
+    @Column(length = 20)
+    private String dimension;
+
+    @Id
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private long productCount;
+
+    // Constructors
+    public ProductStat() {
+    }
+
+    public ProductStat(String dimension, String name, long productCount) {
+        this.dimension = dimension;
+        this.name = name;
+        this.productCount = productCount;
+    }
+
+    // Getters and Setters
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    /**
+     * Primary key (dimension, name). Urutannya dipakai untuk mengunci baris statistik
+     * dengan urutan yang sama di setiap transaksi.
+     */
+    public static class Key implements Serializable, Comparable<Key> {
+        private static final Comparator<Key> ORDER =
+                Comparator.comparing((Key key) -> key.dimension).thenComparing(key -> key.name);
+
+        private String dimension;
+        private String name;
+
+        public Key() {
+        }
+
+        public Key(String dimension, String name) {
+            this.dimension = dimension;
+            this.name = name;
+        }
+
+        public String getDimension() {
+            return dimension;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(dimension, key.dimension) && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, name);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sketch HyperLogLog pengunjung unik satu produk (lihat utils.HyperLogLog), maksimal sekitar 1 KB
+ * per produk berapapun jumlah pengunjungnya.
+ */
+@Entity
+@Table(name = "product_viewer_sketches")
+public class ProductViewerSketch {
+    @Id
+    private UUID productId;
+
+    @Column(nullable = false)
+    private byte[] sketch;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProductViewerSketch() {
+    }
+
+    public ProductViewerSketch(UUID productId, byte[] sketch) {
+        this.productId = productId;
+        this.sketch = sketch;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,59 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Posisi terakhir (high-water mark) job rollup: produk dengan (createdAt, id) sampai posisi ini
+ * sudah dihitung. Baris ini juga dikunci selama satu batch sehingga hanya satu node yang
+ * menjalankan rollup pada satu waktu.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    @Column(nullable = false)
+    private UUID lastProductId;
+
+    // Constructors
+    public RollupWatermark() {
+    }
+
+    public RollupWatermark(String name, LocalDateTime lastCreatedAt, UUID lastProductId) {
+        this.name = name;
+        this.lastCreatedAt = lastCreatedAt;
+        this.lastProductId = lastProductId;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getLastCreatedAt() {
+        return lastCreatedAt;
+    }
+
+    public void setLastCreatedAt(LocalDateTime lastCreatedAt) {
+        this.lastCreatedAt = lastCreatedAt;
+    }
+
+    public UUID getLastProductId() {
+        return lastProductId;
+    }
+
+    public void setLastProductId(UUID lastProductId) {
+        this.lastProductId = lastProductId;
+    }
+}
@@ -0,0 +1,153 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ringkasan produk per penjual untuk dashboard penjual: satu baris total (category kosong) dan
+ * satu baris per kategori. Diperbarui ProductService dalam transaksi yang sama dengan perubahan
+ * produk, sehingga dashboard cukup membaca baris milik penjual ini tanpa menghitung ulang
+ * produknya.
+ */
+@Entity
+@Table(name = "seller_stats")
+@IdClass(SellerStat.Key.class)
+public class SellerStat {
+    // Nilai category untuk baris total semua kategori
+    public static final String TOTAL = "";
+
+    @Id
+    private UUID userId;
+
+    @Id
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private long productCount;
+
+    // Jumlah harga semua produk yang sedang dijual
+    @Column(nullable = false)
+    private BigDecimal totalValue;
+
+    // Hanya diisi di baris total, ditambah ProductViewCounter bersamaan dengan products.view_count
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private long viewCount;
+
+    // Waktu terakhir produk di baris ini dibuat, diubah, atau dihapus
+    @Column
+    private LocalDateTime lastActivityAt;
+
+    // Constructors
+    public SellerStat() {
+    }
+
+    public SellerStat(UUID userId, String category, long productCount, BigDecimal totalValue) {
+        this.userId = userId;
+        this.category = category;
+        this.productCount = productCount;
+        this.totalValue = totalValue;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public boolean isTotal() {
+        return TOTAL.equals(category);
+    }
+
+    /**
+     * Primary key (userId, category). Urutannya dipakai untuk mengunci baris penjual dengan
+     * urutan yang sama di setiap transaksi.
+     */
+    public static class Key implements Serializable, Comparable<Key> {
+        private static final Comparator<Key> ORDER =
+                Comparator.comparing((Key key) -> key.userId).thenComparing(key -> key.category);
+
+        private UUID userId;
+        private String category;
+
+        public Key() {
+        }
+
+        public Key(UUID userId, String category) {
+            this.userId = userId;
+            this.category = category;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(userId, key.userId) && Objects.equals(category, key.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, category);
+        }
+    }
+}
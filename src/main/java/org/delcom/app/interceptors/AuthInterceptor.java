@@ -1,5 +1,6 @@
 package org.delcom.app.interceptors;
 
+import io.jsonwebtoken.Claims;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
@@ -45,24 +46,28 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validasi format token JWT
-        if (!JwtUtil.validateToken(token, true)) {
+        // Validasi format token JWT (signature diverifikasi sekali, claims dipakai ulang)
+        Claims claims = JwtUtil.parseClaims(token, true);
+        if (claims == null) {
             sendErrorResponse(response, 401, "Token autentikasi tidak valid");
             return false;
         }
 
         // Ekstrak userId dari token
-        UUID userId = JwtUtil.extractUserId(token);
+        UUID userId = JwtUtil.isExpired(claims) ? null : JwtUtil.getUserId(claims);
         if (userId == null) {
             sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
             return false;
         }
 
-        // Cari token di database
-        AuthToken authToken = authTokenRepository.findByToken(token).orElse(null);
-        if (authToken == null || !authToken.getUserId().equals(userId)) {
-            sendErrorResponse(response, 401, "Token autentikasi sudah expired");
-            return false;
+        // Access token berumur pendek cukup diverifikasi di memori,
+        // token sesi lama tetap dicek ke database
+        if (!JwtUtil.isAccessToken(claims)) {
+            AuthToken authToken = authTokenRepository.findByToken(token).orElse(null);
+            if (authToken == null || !authToken.getUserId().equals(userId)) {
+                sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+                return false;
+            }
         }
 
         // Ambil data user
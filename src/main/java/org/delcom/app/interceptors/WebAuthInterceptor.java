@@ -2,6 +2,7 @@ package org.delcom.app.interceptors;
 
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
+import org.delcom.app.utils.SessionCookieUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -10,6 +11,8 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @Component
@@ -32,15 +35,17 @@ public class WebAuthInterceptor implements HandlerInterceptor {
         
         if (cookies != null) {
             for (Cookie cookie : cookies) {
-                if ("token".equals(cookie.getName())) {
+                if (SessionCookieUtil.ACCESS_TOKEN_COOKIE.equals(cookie.getName())) {
                     token = cookie.getValue();
-                    break;
                 }
             }
         }
 
         // Jika tidak ada token, redirect ke login
         if (token == null || token.isEmpty()) {
+            if (redirectToRefresh(request, response)) {
+                return false;
+            }
             String requestUri = request.getRequestURI();
             // Hanya redirect jika bukan root path, untuk root path langsung ke login tanpa redirect param
             if (requestUri.equals("/") || requestUri.isEmpty()) {
@@ -57,6 +62,10 @@ public class WebAuthInterceptor implements HandlerInterceptor {
         // Validasi token
         Optional<User> userOpt = authService.getUserByToken(token);
         if (userOpt.isEmpty()) {
+            // Access token expired, coba perbarui dengan refresh token
+            if (redirectToRefresh(request, response)) {
+                return false;
+            }
             // Token tidak valid, redirect ke login
             response.sendRedirect("/auth/login");
             return false;
@@ -66,6 +75,24 @@ public class WebAuthInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    // Cookie refresh_token hanya dikirim ke /auth/refresh, sehingga sesi diperbarui di sana lalu
+    // browser diarahkan kembali ke URL ini. Tanpa refresh token yang valid, /auth/refresh mengarahkan ke login.
+    private boolean redirectToRefresh(HttpServletRequest request, HttpServletResponse response) {
+        if (!authService.isRefreshTokenEnabled()) {
+            return false;
+        }
+
+        String target = request.getRequestURI();
+        if (request.getQueryString() != null) {
+            target += "?" + request.getQueryString();
+        }
+        // 307 menjaga method dan body (untuk POST form) sampai request diulang dengan cookie baru
+        response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        response.setHeader("Location", SessionCookieUtil.REFRESH_PATH + "?redirect="
+                + URLEncoder.encode(target, StandardCharsets.UTF_8));
+        return true;
+    }
+
     private boolean isPublicEndpoint(HttpServletRequest request) {
         String path = request.getRequestURI();
         
@@ -2,8 +2,12 @@ package org.delcom.app.repositories;
 
 import org.delcom.app.entities.AuthToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +15,39 @@ import java.util.UUID;
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
     Optional<AuthToken> findByToken(String token);
     Optional<AuthToken> findByUserId(UUID userId);
+    Optional<AuthToken> findByPreviousToken(String previousToken);
     void deleteByToken(String token);
+    void deleteByUserId(UUID userId);
+
+    // Rotasi refresh token: hanya berhasil jika token lama masih ada dan belum expired.
+    // Token dan nonce lama disimpan di previousToken/previousNonce untuk masa tenggang request paralel.
+    @Modifying
+    @Query("UPDATE AuthToken t SET t.token = :newToken, t.expiresAt = :expiresAt, " +
+           "t.previousToken = :oldToken, t.previousNonce = t.rotationNonce, t.rotationNonce = :newNonce, " +
+           "t.rotatedAt = :now " +
+           "WHERE t.token = :oldToken AND t.expiresAt > :now")
+    int rotateToken(String oldToken, String newToken, String newNonce, LocalDateTime expiresAt, LocalDateTime now);
+
+    // Ganti sesi user dalam satu statement (menggantikan find + delete + insert)
+    @Modifying
+    @Query(value = "INSERT INTO auth_tokens (id, token, rotation_nonce, user_id, created_at, expires_at) " +
+                   "VALUES (:id, :token, :rotationNonce, :userId, :createdAt, :expiresAt) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET id = EXCLUDED.id, token = EXCLUDED.token, " +
+                   "rotation_nonce = EXCLUDED.rotation_nonce, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, " +
+                   "previous_token = NULL, previous_nonce = NULL, rotated_at = NULL",
+           nativeQuery = true)
+    int upsertToken(UUID id, String token, String rotationNonce, UUID userId, LocalDateTime createdAt,
+                    LocalDateTime expiresAt);
+
+    // Hapus token expired per batch agar lock dan ukuran transaksi tetap kecil.
+    // Baris lama tanpa expires_at dianggap expired setelah legacyCutoff.
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM auth_tokens WHERE id IN (" +
+                   "SELECT id FROM auth_tokens WHERE expires_at < :now " +
+                   "OR (expires_at IS NULL AND created_at < :legacyCutoff) LIMIT :batchSize)",
+           nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, LocalDateTime legacyCutoff, int batchSize);
 }
 
@@ -0,0 +1,47 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.ImageJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImageJobRepository extends JpaRepository<ImageJob, UUID> {
+    List<ImageJob> findTop100ByStatusAndUpdatedAtBeforeOrderByCreatedAtAsc(String status, LocalDateTime before);
+
+    // Ambil job secara atomik, hanya satu worker yang mendapat hasil 1
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageJob j SET j.status = :to, j.updatedAt = :now WHERE j.id = :id AND j.status = :from")
+    int transition(UUID id, String from, String to, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageJob j SET j.status = :status, j.attempts = :attempts, j.lastError = :error, " +
+           "j.updatedAt = :now WHERE j.id = :id")
+    int markFailed(UUID id, String status, int attempts, String error, LocalDateTime now);
+
+    // Job PROCESSING yang ditinggal worker (misalnya aplikasi mati di tengah proses) dikembalikan ke antrian
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageJob j SET j.status = 'PENDING', j.updatedAt = :now " +
+           "WHERE j.status = 'PROCESSING' AND j.updatedAt < :staleBefore")
+    int resetStaleJobs(LocalDateTime staleBefore, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageJob j SET j.imageUrl = :newUrl WHERE j.imageUrl = :oldUrl")
+    int updateImageUrl(String oldUrl, String newUrl);
+
+    // Gambar satu job diganti hasil re-encode, percobaan ulang job berlanjut dari gambar itu
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageJob j SET j.imageUrl = :imageUrl WHERE j.id = :id")
+    int updateJobImageUrl(UUID id, String imageUrl);
+}
@@ -0,0 +1,33 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.ListingActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListingActivityRepository extends JpaRepository<ListingActivity, ListingActivity.Key> {
+    List<ListingActivity> findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+            String granularity, LocalDateTime from);
+
+    // Dipanggil dalam transaksi yang sama dengan perubahan watermark agar tidak ada produk yang dihitung dua kali
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO listing_activity (granularity, bucket_start, category, listing_count) " +
+                   "VALUES (:granularity, :bucketStart, :category, :delta) " +
+                   "ON CONFLICT (granularity, bucket_start, category) " +
+                   "DO UPDATE SET listing_count = listing_activity.listing_count + :delta",
+           nativeQuery = true)
+    int increment(String granularity, LocalDateTime bucketStart, String category, long delta);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ListingActivity a WHERE a.granularity = :granularity AND a.bucketStart < :before")
+    int deleteOlderThan(String granularity, LocalDateTime before);
+}
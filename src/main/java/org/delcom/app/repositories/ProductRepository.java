@@ -1,10 +1,14 @@
 package org.delcom.app.repositories;
 
 import org.delcom.app.entities.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,14 +18,76 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     List<Product> findByUserId(UUID userId);
     List<Product> findByCategory(String category);
     List<Product> findByCondition(String condition);
-    
-    @Query("SELECT p.category, COUNT(p) FROM Product p GROUP BY p.category")
-    List<Object[]> countByCategory();
-    
-    @Query("SELECT p.condition, COUNT(p) FROM Product p GROUP BY p.condition")
-    List<Object[]> countByCondition();
+
+    // Produk yang terakhir diubah milik penjual, untuk aktivitas terbaru di dashboard
+    List<Product> findTop5ByUserIdOrderByUpdatedAtDesc(UUID userId);
     
     @Query("SELECT COUNT(p) FROM Product p WHERE p.userId = :userId")
     Long countByUserId(UUID userId);
-}
 
+    Optional<Product> findFirstByImageUrlAndImageVariantsIsNotNull(String imageUrl);
+
+    boolean existsByImageUrl(String imageUrl);
+
+    boolean existsByIdAndImageUrl(UUID id, String imageUrl);
+
+    // URL gambar berbeda setelah :after, diurutkan per byte (collation "C") agar urutannya sama
+    // dengan urutan String di Java dan bisa di-merge dengan isi direktori upload
+    @Query(value = "SELECT image_url FROM products WHERE image_url LIKE '/uploads/images/%' " +
+                   "AND image_url COLLATE \"C\" > :after " +
+                   "GROUP BY image_url ORDER BY image_url COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<String> findImageUrlsAfter(String after, int limit);
+
+    // Produk dengan gambar di layout lama (langsung di /uploads/images/), diurutkan per id untuk paging keyset
+    @Query("SELECT p FROM Product p WHERE p.imageUrl LIKE '/uploads/images/%' " +
+           "AND p.imageUrl NOT LIKE '/uploads/images/%/%' AND p.id > :afterId ORDER BY p.id")
+    List<Product> findFlatImageBatch(UUID afterId, Pageable pageable);
+
+    // Harga semua produk setelah :afterId, diurutkan per id untuk paging keyset. Hasil: [id, category, condition, price]
+    @Query("SELECT p.id, p.category, p.condition, p.price FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findPriceBatch(UUID afterId, Pageable pageable);
+
+    // Produk yang dibuat setelah posisi (afterTime, afterId) dan sebelum :before, berurutan untuk paging keyset.
+    // Hasil: [id, category, createdAt]
+    @Query("SELECT p.id, p.category, p.createdAt FROM Product p " +
+           "WHERE (p.createdAt > :afterTime OR (p.createdAt = :afterTime AND p.id > :afterId)) " +
+           "AND p.createdAt < :before ORDER BY p.createdAt, p.id")
+    List<Object[]> findCreatedBatch(LocalDateTime afterTime, UUID afterId, LocalDateTime before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageUrl = :newUrl WHERE p.imageUrl = :oldUrl")
+    int updateImageUrl(String oldUrl, String newUrl);
+
+    // Ganti gambar satu produk dengan hasil re-encode, hanya jika gambarnya belum diganti user
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageUrl = :newUrl, p.imageVariants = NULL WHERE p.id = :id AND p.imageUrl = :oldUrl")
+    int replaceImageUrl(UUID id, String oldUrl, String newUrl);
+
+    // Simpan daftar thumbnail hanya jika gambar produk belum diganti sejak thumbnail dibuat
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageVariants = :variants WHERE p.id = :id AND p.imageUrl = :imageUrl")
+    int updateImageVariants(UUID id, String imageUrl, String variants);
+
+    // Tambah view_count banyak produk dalam satu statement. ids dan deltas dipisah koma dengan urutan sama.
+    // Jumlahnya per penjual ikut ditambahkan ke baris total seller_stats di statement yang sama.
+    // Baris dikunci lebih dulu lewat SELECT ... ORDER BY ... FOR UPDATE (produk per id, lalu penjual per
+    // user_id) dan UPDATE hanya menyentuh baris yang sudah dikunci, sehingga urutan kunci tidak bergantung
+    // pada rencana join (hash join mengunci dengan urutan hash) dan flush dari beberapa node tidak deadlock.
+    @Transactional
+    @Modifying
+    @Query(value = "WITH v AS (SELECT * FROM unnest(CAST(string_to_array(:ids, ',') AS uuid[]), " +
+                   "CAST(string_to_array(:deltas, ',') AS bigint[])) AS v(id, delta)), " +
+                   "locked_products AS (SELECT p.id, v.delta FROM products p JOIN v ON p.id = v.id " +
+                   "ORDER BY p.id FOR UPDATE OF p), " +
+                   "viewed AS (UPDATE products p SET view_count = p.view_count + l.delta " +
+                   "FROM locked_products l WHERE p.id = l.id RETURNING p.user_id, l.delta), " +
+                   "locked_sellers AS (SELECT s.user_id, t.delta FROM seller_stats s " +
+                   "JOIN (SELECT user_id, SUM(delta) AS delta FROM viewed GROUP BY user_id) t " +
+                   "ON s.user_id = t.user_id WHERE s.category = '' ORDER BY s.user_id FOR UPDATE OF s) " +
+                   "UPDATE seller_stats s SET view_count = s.view_count + l.delta " +
+                   "FROM locked_sellers l WHERE s.user_id = l.user_id AND s.category = ''", nativeQuery = true)
+    int addViewCounts(String ids, String deltas);
+}
@@ -0,0 +1,26 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.ProductStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ProductStatRepository extends JpaRepository<ProductStat, ProductStat.Key> {
+    // Baris dengan jumlah 0 tidak dihapus (kategori bisa dipakai lagi), cukup tidak ditampilkan
+    List<ProductStat> findByDimensionAndProductCountGreaterThanOrderByNameAsc(String dimension, long minCount);
+
+    // Tambah/kurangi jumlah secara atomik di database sehingga tetap tepat walau beberapa node
+    // mengubah baris yang sama. Wajib dipanggil di dalam transaksi perubahan produk.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO product_stats (dimension, name, product_count) VALUES (:dimension, :name, :delta) " +
+                   "ON CONFLICT (dimension, name) DO UPDATE SET product_count = product_stats.product_count + :delta",
+           nativeQuery = true)
+    int increment(String dimension, String name, long delta);
+}
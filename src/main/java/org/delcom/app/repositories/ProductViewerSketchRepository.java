@@ -0,0 +1,50 @@
+package org.delcom.app.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.delcom.app.entities.ProductViewerSketch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProductViewerSketchRepository extends JpaRepository<ProductViewerSketch, UUID> {
+    // SELECT ... FOR UPDATE: node lain yang menggabungkan sketch produk yang sama menunggu
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductViewerSketch s WHERE s.productId = :productId")
+    Optional<ProductViewerSketch> findForUpdate(UUID productId);
+
+    // Simpan sketch pertama sebuah produk. Hasil 0 jika baris sudah ada atau produknya sudah dihapus
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO product_viewer_sketches (product_id, sketch, updated_at) " +
+                   "SELECT :productId, :sketch, now() WHERE EXISTS (SELECT 1 FROM products WHERE id = :productId) " +
+                   "ON CONFLICT (product_id) DO NOTHING", nativeQuery = true)
+    int createIfMissing(UUID productId, byte[] sketch);
+
+    // Sketch semua produk milik satu penjual
+    @Query("SELECT s.sketch FROM ProductViewerSketch s, Product p WHERE p.id = s.productId AND p.userId = :userId")
+    List<byte[]> findSketchesBySeller(UUID userId);
+
+    // Sketch beserta kategori produknya setelah :afterId, diurutkan per id untuk paging keyset.
+    // Hasil: [productId, category, sketch]
+    @Query("SELECT s.productId, p.category, s.sketch FROM ProductViewerSketch s, Product p " +
+           "WHERE p.id = s.productId AND s.productId > :afterId ORDER BY s.productId")
+    List<Object[]> findCategorySketchBatch(UUID afterId, Pageable pageable);
+
+    // Sketch produk yang sudah dihapus
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM product_viewer_sketches s " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = s.product_id)", nativeQuery = true)
+    int deleteOrphans();
+}
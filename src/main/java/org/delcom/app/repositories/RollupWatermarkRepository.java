@@ -0,0 +1,31 @@
+package org.delcom.app.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.delcom.app.entities.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+    // SELECT ... FOR UPDATE: node lain yang menjalankan rollup yang sama menunggu sampai transaksi ini selesai
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.name = :name")
+    Optional<RollupWatermark> findForUpdate(String name);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO rollup_watermarks (name, last_created_at, last_product_id) " +
+                   "VALUES (:name, :lastCreatedAt, :lastProductId) ON CONFLICT (name) DO NOTHING",
+           nativeQuery = true)
+    int createIfMissing(String name, LocalDateTime lastCreatedAt, UUID lastProductId);
+}
@@ -0,0 +1,32 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.SellerStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SellerStatRepository extends JpaRepository<SellerStat, SellerStat.Key> {
+    // Baris total dan semua baris kategori milik penjual dalam satu pembacaan index
+    List<SellerStat> findByUserIdOrderByCategoryAsc(UUID userId);
+
+    // Tambah/kurangi jumlah dan nilai produk secara atomik di database. Wajib dipanggil di dalam
+    // transaksi perubahan produk.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO seller_stats (user_id, category, product_count, total_value, last_activity_at) " +
+                   "VALUES (:userId, :category, :countDelta, :valueDelta, :now) " +
+                   "ON CONFLICT (user_id, category) DO UPDATE SET " +
+                   "product_count = seller_stats.product_count + :countDelta, " +
+                   "total_value = seller_stats.total_value + :valueDelta, last_activity_at = :now",
+           nativeQuery = true)
+    int increment(UUID userId, String category, long countDelta, BigDecimal valueDelta, LocalDateTime now);
+}
@@ -0,0 +1,356 @@
+package org.delcom.app.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.delcom.app.utils.RingBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Penulis access log asinkron.
+ *
+ * Thread request hanya mengisi slot yang sudah dialokasikan di RingBuffer (tanpa lock dan tanpa
+ * membuat objek baru). Satu thread background membaca slot per batch, menyusun baris log, lalu
+ * menulisnya sekaligus ke file (dirotasi berdasarkan ukuran) dan ke console. Jika buffer penuh,
+ * event dibuang dan dihitung (app.access-log.drop-when-full=true) atau thread request menunggu
+ * sampai ada slot kosong.
+ */
+@Service
+public class AccessLogWriter {
+    private static final String RESET = "\u001B[0m";
+    private static final String GREEN = "\u001B[32m";
+    private static final String YELLOW = "\u001B[33m";
+    private static final String RED = "\u001B[31m";
+    private static final String CYAN = "\u001B[36m";
+
+    private static final int BATCH_SIZE = 256;
+    // Batas tidur consumer saat buffer kosong; biasanya dibangunkan lebih awal oleh producer
+    private static final long IDLE_PARK_NANOS = 100_000_000;
+    private static final long FULL_PARK_NANOS = 50_000;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Slot ring buffer, diisi ulang untuk setiap request
+     */
+    static final class Event {
+        private long timestamp;
+        private String method;
+        private String uri;
+        private int status;
+        private long durationMs;
+        private String handler;
+        private String remoteAddr;
+    }
+
+    private final RingBuffer<Event> ring;
+    private final LongAdder dropped = new LongAdder();
+
+    @Value("${app.access-log.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.access-log.drop-when-full:true}")
+    private boolean dropWhenFull = true;
+
+    // Kosong: hanya ke console
+    @Value("${app.access-log.file:./logs/access.log}")
+    private String file = "./logs/access.log";
+
+    @Value("${app.access-log.max-file-size-mb:10}")
+    private long maxFileSizeMb = 10;
+
+    @Value("${app.access-log.max-files:5}")
+    private int maxFiles = 5;
+
+    @Value("${app.access-log.console:true}")
+    private boolean console = true;
+
+    // Hanya dipakai thread consumer
+    private final StringBuilder fileLines = new StringBuilder(BATCH_SIZE * 128);
+    private final StringBuilder consoleLines = new StringBuilder(BATCH_SIZE * 128);
+    private Writer out;
+    private long fileSize;
+    private long reportedDropped;
+
+    private volatile boolean running;
+    // True selama consumer tidur karena buffer kosong; producer membangunkannya setelah publish
+    private volatile boolean idle;
+    private volatile Thread consumer;
+
+    public AccessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize) {
+        this.ring = new RingBuffer<>(bufferSize, Event::new);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        consumer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Catat satu request. Dipanggil dari thread request, tidak melakukan I/O.
+     */
+    public void log(String method, String uri, int status, long durationMs, String handler, String remoteAddr) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = ring.tryClaim();
+        while (sequence < 0) {
+            // Tanpa consumer yang berjalan, slot tidak akan pernah kosong
+            if (dropWhenFull || !running) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+            sequence = ring.tryClaim();
+        }
+
+        Event event = ring.get(sequence);
+        event.timestamp = System.currentTimeMillis();
+        event.method = method;
+        event.uri = uri;
+        event.status = status;
+        event.durationMs = durationMs;
+        event.handler = handler;
+        event.remoteAddr = remoteAddr;
+        ring.publish(sequence);
+        if (idle) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Jumlah event yang dibuang karena buffer penuh sejak aplikasi start
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() > 0) {
+                continue;
+            }
+            // Tandai idle lalu periksa sekali lagi sebelum tidur, agar event yang dipublish sebelum
+            // producer melihat tanda ini tidak tertinggal. Park tetap dibatasi IDLE_PARK_NANOS
+            // sebagai jaring pengaman jika unpark terlewat.
+            idle = true;
+            if (drain() == 0 && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        drain();
+        closeFile();
+    }
+
+    /**
+     * Tulis semua event yang sudah ada di buffer. Hanya dipanggil dari thread consumer
+     * (atau dari test saat consumer tidak berjalan).
+     *
+     * @return jumlah event yang ditulis
+     */
+    int drain() {
+        int total = 0;
+        int count;
+        while ((count = ring.drain(this::append, BATCH_SIZE)) > 0) {
+            total += count;
+            write();
+        }
+        boolean reported = reportDropped();
+        if (reported) {
+            write();
+        }
+        if ((total > 0 || reported) && out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Gagal menulis access log: " + e.getMessage());
+                closeFile();
+            }
+        }
+        return total;
+    }
+
+    private void append(Event event) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp), ZoneId.systemDefault());
+        TIMESTAMP.formatTo(time, fileLines);
+        fileLines.append(' ');
+        appendRequest(fileLines, event);
+        fileLines.append('\n');
+
+        if (console) {
+            consoleLines.append(color(event.status));
+            appendRequest(consoleLines, event);
+            consoleLines.append(RESET).append('\n');
+        }
+        // Lepas referensi string request agar bisa di-GC sebelum slot dipakai lagi
+        event.method = null;
+        event.uri = null;
+        event.handler = null;
+        event.remoteAddr = null;
+    }
+
+    private static void appendRequest(StringBuilder builder, Event event) {
+        appendPadded(builder, event.method, 6);
+        builder.append(' ').append(event.uri).append(' ').append(event.status)
+                .append(' ').append(event.durationMs).append("ms [").append(event.handler)
+                .append("] from ").append(event.remoteAddr);
+    }
+
+    private static void appendPadded(StringBuilder builder, String value, int width) {
+        builder.append(value);
+        for (int i = value == null ? 4 : value.length(); i < width; i++) {
+            builder.append(' ');
+        }
+    }
+
+    private static String color(int status) {
+        if (status >= 500) {
+            return RED;
+        } else if (status >= 400) {
+            return YELLOW;
+        } else if (status >= 200) {
+            return GREEN;
+        }
+        return CYAN;
+    }
+
+    private boolean reportDropped() {
+        long total = dropped.sum();
+        if (total <= reportedDropped) {
+            return false;
+        }
+        String message = "Access log penuh, " + (total - reportedDropped) + " request tidak dicatat";
+        reportedDropped = total;
+        fileLines.append(message).append('\n');
+        if (console) {
+            consoleLines.append(YELLOW).append(message).append(RESET).append('\n');
+        }
+        return true;
+    }
+
+    // Satu kali tulis per batch: satu lock System.out dan satu write ke buffer file
+    private void write() {
+        if (consoleLines.length() > 0) {
+            System.out.print(consoleLines);
+            consoleLines.setLength(0);
+        }
+        if (!file.isBlank() && fileLines.length() > 0) {
+            try {
+                if (out == null) {
+                    openFile();
+                }
+                out.append(fileLines);
+                fileSize += utf8Length(fileLines);
+                if (fileSize >= maxFileSizeMb * 1024 * 1024) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                System.err.println("Gagal menulis access log: " + e.getMessage());
+                closeFile();
+            }
+        }
+        fileLines.setLength(0);
+    }
+
+    /**
+     * Jumlah byte UTF-8 dari teks tanpa meng-encode ulang, agar ukuran file untuk rotasi tetap
+     * akurat saat URI berisi karakter non-ASCII
+     */
+    static long utf8Length(CharSequence text) {
+        int length = text.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // Pasangan surrogate: 2 char menjadi 4 byte
+                bytes += 2;
+                i++;
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private void openFile() throws IOException {
+        Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(path);
+    }
+
+    /**
+     * access.log -> access.log.1 -> ... -> access.log.{max-files}, file tertua dihapus
+     */
+    private void rotate() throws IOException {
+        closeFile();
+        Path path = Paths.get(file);
+        Files.deleteIfExists(Paths.get(file + "." + maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = Paths.get(file + "." + i);
+            if (Files.exists(source)) {
+                Files.move(source, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(path, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        openFile();
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Gagal menutup access log: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,23 +1,64 @@
 package org.delcom.app.services;
 
+import io.jsonwebtoken.Claims;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.AuthTokenRepository;
 import org.delcom.app.repositories.UserRepository;
 import org.delcom.app.utils.JwtUtil;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class AuthService {
+    // Umur sesi pada mode lama, sama dengan umur cookie token (24 jam)
+    private static final long SESSION_TTL_HOURS = 24;
+    private static final SecureRandom secureRandom = new SecureRandom();
+    // SQLState PostgreSQL untuk unique_violation dan nama index keunikan email (schema.sql)
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String EMAIL_UNIQUE_INDEX = "ux_users_email_lower";
+    // Akhiran yang diberikan schema.sql pada akun dengan email ganda beda huruf besar/kecil
+    private static final String DUPLICATE_EMAIL_MARKER = "#duplicate-";
+
     private final UserRepository userRepository;
     private final AuthTokenRepository authTokenRepository;
     private final BCryptPasswordEncoder passwordEncoder;
 
+    // Mode access + refresh token: access token berumur pendek diverifikasi di memori,
+    // refresh token disimpan di auth_tokens dan hanya disentuh saat refresh
+    @Value("${app.auth.refresh-token.enabled:false}")
+    private boolean refreshTokenEnabled;
+
+    @Value("${app.auth.access-token.ttl-minutes:10}")
+    private long accessTokenTtlMinutes;
+
+    @Value("${app.auth.refresh-token.ttl-days:14}")
+    private long refreshTokenTtlDays;
+
+    // Masa tenggang refresh token yang baru saja dirotasi, untuk request paralel dari client yang
+    // sama yang masih membawa token lama (beberapa tab atau request yang dikirim bersamaan)
+    @Value("${app.auth.refresh-token.reuse-grace-seconds:30}")
+    private long refreshTokenReuseGraceSeconds = 30;
+
+    @Value("${app.auth.token-purge.batch-size:1000}")
+    private int tokenPurgeBatchSize = 1000;
+
     public AuthService(UserRepository userRepository, AuthTokenRepository authTokenRepository) {
         this.userRepository = userRepository;
         this.authTokenRepository = authTokenRepository;
@@ -25,19 +66,27 @@ public class AuthService {
     }
 
     public User register(String name, String email, String password) {
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Email sudah terdaftar");
-        }
-
         User user = new User();
         user.setName(name);
-        user.setEmail(email);
+        String normalizedEmail = normalizeEmail(email);
+        user.setEmail(normalizedEmail);
         user.setPassword(passwordEncoder.encode(password));
-        return userRepository.save(user);
+
+        // Tidak ada pre-check existsByEmail: unique index pada email yang menjamin
+        // tidak ada duplikat, termasuk saat dua registrasi berjalan bersamaan
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e, normalizedEmail)) {
+                throw new RuntimeException("Email sudah terdaftar");
+            }
+            throw e;
+        }
     }
 
+    @Transactional
     public AuthToken login(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = userRepository.findByEmail(normalizeEmail(email));
         if (userOpt.isEmpty()) {
             throw new RuntimeException("Email atau password salah");
         }
@@ -47,32 +96,225 @@ public class AuthService {
             throw new RuntimeException("Email atau password salah");
         }
 
-        // Delete existing token
-        authTokenRepository.findByUserId(user.getId()).ifPresent(authTokenRepository::delete);
-
         // Create new token
-        String token = JwtUtil.generateToken(user.getId());
         AuthToken authToken = new AuthToken();
-        authToken.setToken(token);
+        if (refreshTokenEnabled) {
+            // Yang disimpan hanya refresh token, access token dibuat terpisah via issueAccessToken
+            authToken.setToken(generateRefreshToken());
+            authToken.setRotationNonce(generateRefreshToken());
+            authToken.setExpiresAt(LocalDateTime.now().plusDays(refreshTokenTtlDays));
+        } else {
+            authToken.setToken(JwtUtil.generateToken(user.getId()));
+            authToken.setExpiresAt(LocalDateTime.now().plusHours(SESSION_TTL_HOURS));
+        }
+        authToken.setId(UUID.randomUUID());
         authToken.setUserId(user.getId());
-        return authTokenRepository.save(authToken);
+        authToken.setCreatedAt(LocalDateTime.now());
+
+        // Token lama milik user langsung tergantikan (INSERT ... ON CONFLICT (user_id) DO UPDATE)
+        authTokenRepository.upsertToken(authToken.getId(), authToken.getToken(), authToken.getRotationNonce(),
+                authToken.getUserId(), authToken.getCreatedAt(), authToken.getExpiresAt());
+        return authToken;
+    }
+
+    public String issueAccessToken(UUID userId) {
+        return JwtUtil.generateAccessToken(userId, accessTokenTtlMinutes * 60 * 1000);
+    }
+
+    /**
+     * Tukar refresh token dengan refresh token baru (rotasi). Setiap rotasi juga membuat nonce baru
+     * yang harus dibawa client bersama refresh token berikutnya.
+     * Refresh token lama tidak berlaku lagi setelah dipakai. Selama masa tenggang singkat, request
+     * paralel dari client yang sama (membawa nonce sebelum rotasi) mendapat hasil rotasi pemenangnya;
+     * pemakaian ulang token lama selain itu dianggap pencurian dan sesi dicabut.
+     *
+     * @param refreshToken isi cookie refresh_token
+     * @param nonce        isi cookie refresh_nonce, boleh null untuk sesi lama yang belum punya nonce
+     */
+    @Transactional
+    public Optional<AuthToken> refresh(String refreshToken, String nonce) {
+        if (!refreshTokenEnabled || refreshToken == null || refreshToken.isEmpty()) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Optional<AuthToken> tokenOpt = authTokenRepository.findByToken(refreshToken);
+        if (tokenOpt.isEmpty()) {
+            return findRotatedForSameClient(refreshToken, nonce, now);
+        }
+
+        AuthToken authToken = tokenOpt.get();
+        if (authToken.getExpiresAt() == null || !authToken.getExpiresAt().isAfter(now)) {
+            authTokenRepository.delete(authToken);
+            return Optional.empty();
+        }
+        if (!nonceMatches(authToken.getRotationNonce(), nonce)) {
+            // Refresh token yang berlaku dibawa tanpa nonce-nya: token bocor tanpa cookie client
+            revoke(authToken, "refresh token dipakai tanpa nonce yang cocok");
+            return Optional.empty();
+        }
+
+        String newToken = generateRefreshToken();
+        String newNonce = generateRefreshToken();
+        LocalDateTime expiresAt = now.plusDays(refreshTokenTtlDays);
+        // Update bersyarat agar dua refresh bersamaan tidak sama-sama berhasil
+        if (authTokenRepository.rotateToken(refreshToken, newToken, newNonce, expiresAt, now) == 0) {
+            // Kalah dari refresh bersamaan: baca ulang hasil rotasi pemenangnya
+            return findRotatedForSameClient(refreshToken, nonce, now);
+        }
+
+        authToken.setPreviousToken(refreshToken);
+        authToken.setPreviousNonce(authToken.getRotationNonce());
+        authToken.setToken(newToken);
+        authToken.setRotationNonce(newNonce);
+        authToken.setExpiresAt(expiresAt);
+        authToken.setRotatedAt(now);
+        return Optional.of(authToken);
+    }
+
+    // Refresh token yang sudah dirotasi hanya mengembalikan sesi hasil rotasi kepada client yang ikut
+    // dalam rotasi itu (nonce sebelum rotasi cocok) dan selama masa tenggang
+    private Optional<AuthToken> findRotatedForSameClient(String refreshToken, String nonce, LocalDateTime now) {
+        Optional<AuthToken> rotatedOpt = authTokenRepository.findByPreviousToken(refreshToken);
+        if (rotatedOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        AuthToken rotated = rotatedOpt.get();
+        boolean inGracePeriod = refreshTokenReuseGraceSeconds > 0 && rotated.getRotatedAt() != null
+                && rotated.getRotatedAt().isAfter(now.minusSeconds(refreshTokenReuseGraceSeconds));
+        boolean active = rotated.getExpiresAt() != null && rotated.getExpiresAt().isAfter(now);
+        if (inGracePeriod && active && nonceMatches(rotated.getPreviousNonce(), nonce)) {
+            return Optional.of(rotated);
+        }
+
+        revoke(rotated, "refresh token lama dipakai ulang");
+        return Optional.empty();
+    }
+
+    private static boolean nonceMatches(String expected, String presented) {
+        if (expected == null) {
+            return true; // sesi dari sebelum nonce diperkenalkan
+        }
+        return presented != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void revoke(AuthToken authToken, String reason) {
+        authTokenRepository.delete(authToken);
+        System.err.println("Sesi user " + authToken.getUserId() + " dicabut: " + reason);
+    }
+
+    /**
+     * Hapus token yang sudah expired secara berkala, per batch
+     */
+    @Scheduled(fixedDelayString = "${app.auth.token-purge.interval-ms:3600000}",
+               initialDelayString = "${app.auth.token-purge.interval-ms:3600000}")
+    public int purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime legacyCutoff = now.minusHours(SESSION_TTL_HOURS);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = authTokenRepository.deleteExpiredBatch(now, legacyCutoff, tokenPurgeBatchSize);
+            total += deleted;
+        } while (deleted >= tokenPurgeBatchSize);
+
+        if (total > 0) {
+            System.out.println("Token expired dihapus: " + total);
+        }
+        return total;
+    }
+
+    public boolean isRefreshTokenEnabled() {
+        return refreshTokenEnabled;
+    }
+
+    public int getAccessTokenMaxAgeSeconds() {
+        return (int) (accessTokenTtlMinutes * 60);
+    }
+
+    public int getRefreshTokenMaxAgeSeconds() {
+        return (int) (refreshTokenTtlDays * 24 * 60 * 60);
+    }
+
+    // Email disimpan dalam huruf kecil agar unik tanpa membedakan huruf besar/kecil
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Hanya unique violation pada email yang diterjemahkan; pelanggaran constraint lain diteruskan.
+    // Index ux_users_email_lower dikenali dari namanya, unique constraint kolom email bawaan Hibernate
+    // (namanya bergantung versi) dipastikan dengan membaca ulang email setelah insert gagal.
+    private boolean isEmailViolation(DataIntegrityViolationException e, String email) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                if (!UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+                    return false;
+                }
+                return EMAIL_UNIQUE_INDEX.equalsIgnoreCase(violation.getConstraintName())
+                        || userRepository.existsByEmail(email);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Laporkan akun yang dinonaktifkan schema.sql karena emailnya hanya berbeda huruf besar/kecil
+     * dari akun lain, agar bisa digabung atau diperbaiki manual
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportDuplicateEmails() {
+        long count = userRepository.countByEmailContaining(DUPLICATE_EMAIL_MARKER);
+        if (count > 0) {
+            System.err.println("Peringatan: " + count + " akun memiliki email ganda (beda huruf besar/kecil) "
+                    + "dan tidak bisa login. Emailnya diberi akhiran " + DUPLICATE_EMAIL_MARKER
+                    + "<id> di tabel users, perbaiki secara manual.");
+        }
+    }
+
+    private String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     public Optional<User> getUserByToken(String token) {
-        if (!JwtUtil.validateToken(token, false)) {
+        // Verifikasi dan ekstrak userId cukup dengan satu kali parsing token
+        Claims claims = JwtUtil.parseClaims(token, false);
+        if (claims == null) {
             return Optional.empty();
         }
 
-        UUID userId = JwtUtil.extractUserId(token);
+        UUID userId = JwtUtil.getUserId(claims);
         if (userId == null) {
             return Optional.empty();
         }
         return userRepository.findById(userId);
     }
 
+    /**
+     * @param token        isi cookie token, boleh null
+     * @param refreshToken isi cookie refresh_token (mode refresh), boleh null
+     */
     @Transactional
-    public void logout(String token) {
-        authTokenRepository.deleteByToken(token);
+    public void logout(String token, String refreshToken) {
+        if (token != null) {
+            authTokenRepository.deleteByToken(token);
+
+            // Pada mode refresh, cookie token berisi access token sehingga refresh token dihapus lewat userId
+            if (refreshTokenEnabled) {
+                UUID userId = JwtUtil.extractUserId(token, true);
+                if (userId != null) {
+                    authTokenRepository.deleteByUserId(userId);
+                }
+            }
+        }
+
+        // Cookie access token hilang setelah access token expired, sesi tetap dicabut lewat refresh token
+        if (refreshTokenEnabled && refreshToken != null && !refreshToken.isEmpty()) {
+            authTokenRepository.deleteByToken(refreshToken);
+        }
     }
 
     public Optional<User> getUserById(UUID userId) {
@@ -0,0 +1,100 @@
+package org.delcom.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data halaman statistik (jumlah per kategori dan kondisi, persentil harga) untuk /charts/data.
+ *
+ * Hasilnya disimpan sebagai snapshot dengan ETag dari isinya, sehingga request berikutnya cukup
+ * dijawab 304 tanpa membaca database. Snapshot dibuat ulang jika versi statistik di node ini
+ * berubah, atau setelah app.stats.chart.cache-seconds untuk perubahan dari node lain dan
+ * rebuild sketch harga.
+ */
+@Service
+public class ChartDataService {
+    private final ProductService productService;
+    private final PriceSketchService priceSketchService;
+
+    @Value("${app.stats.chart.cache-seconds:30}")
+    private long cacheSeconds = 30;
+
+    private volatile Snapshot snapshot;
+
+    public ChartDataService(ProductService productService, PriceSketchService priceSketchService) {
+        this.productService = productService;
+        this.priceSketchService = priceSketchService;
+    }
+
+    public record ChartData(List<CountEntry> categories, List<CountEntry> conditions, List<PriceEntry> prices) {
+    }
+
+    public record CountEntry(String name, long count) {
+    }
+
+    public record PriceEntry(String category, long count, BigDecimal p10, BigDecimal p50, BigDecimal p90) {
+    }
+
+    /**
+     * Data beserta ETag-nya. ETag dihitung dari isi data sehingga sama di semua node.
+     */
+    public record Snapshot(ChartData data, String etag, long statsVersion, long loadedAtNanos) {
+    }
+
+    public Snapshot getSnapshot() {
+        long version = productService.getStatsVersion();
+        Snapshot current = snapshot;
+        if (isFresh(current, version)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current, version)) {
+                return current;
+            }
+            ChartData data = load();
+            snapshot = new Snapshot(data, etag(data), version, System.nanoTime());
+            return snapshot;
+        }
+    }
+
+    private boolean isFresh(Snapshot current, long version) {
+        return current != null && current.statsVersion() == version
+                && System.nanoTime() - current.loadedAtNanos() < TimeUnit.SECONDS.toNanos(cacheSeconds);
+    }
+
+    private ChartData load() {
+        List<CountEntry> categories = toEntries(productService.getCategoryStatistics());
+        List<CountEntry> conditions = toEntries(productService.getConditionStatistics());
+        List<PriceEntry> prices = priceSketchService.getCategoryQuantiles().entrySet().stream()
+                .map(entry -> new PriceEntry(entry.getKey(), entry.getValue().count(),
+                        entry.getValue().p10(), entry.getValue().p50(), entry.getValue().p90()))
+                .toList();
+        return new ChartData(categories, conditions, prices);
+    }
+
+    private static List<CountEntry> toEntries(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new CountEntry((String) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    // ETag lemah (W/): isi sama walau dikompresi gzip, dan Tomcat tidak mengompresi respons dengan ETag kuat
+    private static String etag(ChartData data) {
+        try {
+            // toString record berisi semua field dengan urutan tetap
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"stats-" + HexFormat.of().formatHex(hash, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
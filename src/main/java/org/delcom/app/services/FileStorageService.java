@@ -1,21 +1,58 @@
 package org.delcom.app.services;
 
+import org.delcom.app.utils.ImageHeader;
+import org.delcom.app.utils.LimitedInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class FileStorageService {
+    // Prefix file upload yang belum selesai ditulis
+    public static final String TEMP_PREFIX = ".tmp-";
+
+    // URL publik file upload, sisa path setelah prefix ini adalah path relatif di uploadPath
+    public static final String URL_PREFIX = "/uploads/images/";
+
+    private static final int MAX_UPLOAD_ATTEMPTS = 3;
+    private static final long UPLOAD_RETRY_DELAY_MS = 200;
+
     private final Path uploadPath;
+    private final ImageStore imageStore;
+    private final ImageReencoder imageReencoder;
 
-    public FileStorageService(@Value("${app.upload.dir:./uploads/images}") String uploadDir) {
+    // Batas jumlah pixel (lebar x tinggi) gambar yang boleh disimpan dan di-decode.
+    // Gambar RGB di-decode 4 byte per pixel, 50 juta pixel berarti sekitar 200 MB heap.
+    @Value("${app.image.max-pixels:50000000}")
+    private long maxImagePixels = 50_000_000L;
+
+    @Autowired
+    public FileStorageService(@Value("${app.upload.dir:./uploads/images}") String uploadDir, ImageStore imageStore,
+                              ImageReencoder imageReencoder) {
+        this.imageStore = imageStore;
+        this.imageReencoder = imageReencoder;
         try {
             // Gunakan path absolut untuk memastikan file persisten
             Path basePath = Paths.get(uploadDir).toAbsolutePath().normalize();
@@ -32,28 +69,218 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Simpan gambar upload dengan nama berdasarkan hash SHA-256 isinya (content-addressed).
+     * File dengan isi yang sama hanya disimpan satu kali dan URL-nya dipakai bersama.
+     */
     public String storeFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new RuntimeException("File kosong");
         }
 
         try {
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            return storeImage(file.getInputStream(), Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal menyimpan file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Simpan gambar dari client. Jenis dan dimensi gambar dibaca dari header file yang sudah
+     * ditulis (tanpa decode pixel), file yang bukan JPEG/PNG/GIF/WebP atau melebihi
+     * app.image.max-pixels ditolak. Ekstensi ditentukan dari isi file, bukan dari nama file client.
+     * JPEG yang membawa metadata (EXIF termasuk lokasi GPS) di-encode ulang sebelum disimpan,
+     * sehingga file yang bisa diakses lewat URL-nya tidak pernah berisi metadata.
+     *
+     * @param content  isi file
+     * @param maxBytes ukuran maksimum file
+     */
+    public String storeImage(InputStream content, long maxBytes) {
+        return store(content, maxBytes, this::checkImage);
+    }
+
+    private Checked checkImage(Path file) throws IOException {
+        ImageHeader header = inspectImage(file);
+        if (!imageReencoder.isEnabled() || !imageReencoder.hasMetadata(file)) {
+            // Optimasi lain (resize, kualitas JPEG) dikerjakan antrian gambar di background
+            return new Checked(header.getExtension(), false);
+        }
+
+        ImageReencoder.Encoded encoded;
+        try {
+            encoded = imageReencoder.reencode(file, header);
+        } catch (IOException | RuntimeException e) {
+            // Gambar dengan metadata yang tidak bisa di-decode tidak boleh tersimpan apa adanya
+            throw new RuntimeException("Gambar tidak dapat diproses: " + e.getMessage(), e);
+        }
+        if (encoded == null) {
+            throw new RuntimeException("Gambar tidak dapat diproses");
+        }
+        Files.write(file, encoded.bytes());
+        return new Checked(encoded.extension(), true);
+    }
+
+    /**
+     * Simpan isi file apa adanya dari stream, tanpa pemeriksaan gambar (dipakai untuk file yang
+     * dibuat aplikasi sendiri, misalnya hasil re-encode gambar). Upload dari client memakai storeImage.
+     * Hash dihitung sambil file ditulis sehingga isi hanya dibaca dan ditulis sekali,
+     * dan stream yang melewati maxBytes dihentikan tanpa menunggu sisanya.
+     *
+     * @param content          isi file, tidak ditutup oleh method ini selain lewat stream pembungkus
+     * @param originalFilename nama file, hanya ekstensinya yang dipakai
+     * @param maxBytes         ukuran maksimum file
+     */
+    public String storeStream(InputStream content, String originalFilename, long maxBytes) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase(Locale.ROOT);
+            if (!extension.matches("\\.[a-z0-9]{1,10}")) {
+                extension = ""; // nama file tidak boleh menentukan path
             }
-            String filename = UUID.randomUUID().toString() + extension;
-            Path targetLocation = this.uploadPath.resolve(filename);
-            
-            // Simpan file ke local storage
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
+        }
+        Checked checked = new Checked(extension, false);
+        return store(content, maxBytes, file -> checked);
+    }
+
+    /**
+     * Pemeriksaan file sementara setelah isi selesai ditulis, sebelum file dipindahkan.
+     * Menentukan ekstensi dan boleh menulis ulang isi file (rewritten=true).
+     */
+    private interface ContentCheck {
+        Checked apply(Path tempFile) throws IOException;
+    }
+
+    private record Checked(String extension, boolean rewritten) {
+    }
+
+    private String store(InputStream content, long maxBytes, ContentCheck check) {
+        Path tempFile = this.uploadPath.resolve(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            // Tulis ke file sementara sambil menghitung hash
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(
+                    new LimitedInputStream(content, maxBytes, "Ukuran file melebihi batas"), digest)) {
+                size = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (size == 0) {
+                throw new RuntimeException("File kosong");
+            }
+
+            Checked checked = check.apply(tempFile);
+            // Isi yang ditulis ulang di-hash lagi agar nama file tetap berasal dari isi yang disimpan
+            byte[] hash = checked.rewritten() ? sha256(tempFile) : digest.digest();
+            String filename = HexFormat.of().formatHex(hash) + checked.extension();
+            String relativePath = shardedPath(filename);
+            Path targetLocation = this.uploadPath.resolve(relativePath);
+            Files.createDirectories(targetLocation.getParent());
+            // Isi yang sama sudah tersimpan: file yang ada dipakai dan file sementara dihapus di finally.
+            // Waktu modifikasi diperbarui agar file tidak dihapus OrphanImageCollector sebelum
+            // produk yang baru memakainya tersimpan. Jika collector sudah menghapusnya, file ditulis ulang.
+            if (!touch(targetLocation)) {
+                Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            }
+            // Selalu dikirim, juga untuk isi yang sama: salinan lokal tidak menjamin object ada di store
+            // (node ini bisa gagal upload sebelumnya), dan upload ulang memperbarui umur object untuk
+            // OrphanImageCollector seperti waktu modifikasi file lokal di atas
+            publish(URL_PREFIX + relativePath);
+
             // Kembalikan path relatif untuk disimpan di database
-            // Path ini akan diakses via /uploads/images/{filename}
-            return "/uploads/images/" + filename;
+            // Path ini akan diakses via /uploads/images/{ab}/{cd}/{filename}
+            return URL_PREFIX + relativePath;
         } catch (IOException e) {
             throw new RuntimeException("Gagal menyimpan file: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 tidak tersedia", e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static byte[] sha256(Path file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Baca jenis dan dimensi gambar dari header file tanpa decode pixel, lalu pastikan
+     * jumlah pixel tidak melebihi app.image.max-pixels. Dipanggil sebelum file disimpan
+     * maupun sebelum gambar di-decode.
+     */
+    public ImageHeader inspectImage(Path file) {
+        ImageHeader header;
+        try (InputStream in = Files.newInputStream(file)) {
+            header = ImageHeader.read(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Header gambar tidak valid", e);
+        }
+        if (header == null) {
+            throw new RuntimeException("File harus berupa gambar JPEG, PNG, GIF, atau WebP");
+        }
+        checkDimensions(header.getWidth(), header.getHeight());
+        return header;
+    }
+
+    /**
+     * Tolak gambar dengan jumlah pixel di atas app.image.max-pixels
+     */
+    public void checkDimensions(int width, int height) {
+        if (exceedsMaxPixels(width, height)) {
+            throw new RuntimeException("Resolusi gambar terlalu besar: " + width + "x" + height);
+        }
+    }
+
+    public boolean exceedsMaxPixels(int width, int height) {
+        return (long) width * height > maxImagePixels;
+    }
+
+    /**
+     * Path relatif file dengan dua level direktori dari 4 karakter hex pertama nama file,
+     * contoh abcdef.jpg -> ab/cd/abcdef.jpg, agar satu direktori tidak berisi jutaan file.
+     * Nama yang tidak diawali hex (jarang, hanya file lama) dibagi berdasarkan hash namanya.
+     */
+    public static String shardedPath(String filename) {
+        String key = filename.toLowerCase(Locale.ROOT);
+        if (key.length() < 4 || !key.substring(0, 4).matches("[0-9a-f]{4}")) {
+            key = Integer.toHexString(0x10000 | (filename.hashCode() & 0xffff)).substring(1);
+        }
+        return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + filename;
+    }
+
+    /**
+     * Isi satu direktori berurutan nama; dirs=true hanya direktori shard (2 karakter hex),
+     * dirs=false hanya file biasa. Dipakai untuk membaca direktori upload dengan urutan
+     * yang sama dengan key di store dan image_url di database.
+     */
+    public static List<Path> listSorted(Path dir, boolean dirs) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries
+                    .filter(path -> dirs
+                            ? Files.isDirectory(path) && path.getFileName().toString().matches("[0-9a-f]{2}")
+                            : Files.isRegularFile(path))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    // false jika file tidak ada
+    private static boolean touch(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Gagal menghapus file sementara: " + path + " - " + e.getMessage());
         }
     }
 
@@ -63,17 +290,117 @@ public class FileStorageService {
         }
 
         try {
-            // Extract filename dari URL (format: /uploads/images/{filename})
-            String filename = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
-            Path filePath = this.uploadPath.resolve(filename);
+            Path filePath = resolvePath(fileUrl);
             
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
             }
-        } catch (IOException e) {
+            if (!imageStore.isLocal()) {
+                imageStore.delete(storageKey(fileUrl));
+            }
+        } catch (IOException | RuntimeException e) {
             // Log error but don't throw
             System.err.println("Gagal menghapus file: " + fileUrl + " - " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Lokasi file di local storage untuk URL yang disimpan di database.
+     * Mendukung URL berlapis (/uploads/images/ab/cd/{filename}) maupun URL lama tanpa lapisan.
+     *
+     * @param fileUrl URL file, format: /uploads/images/{path}
+     */
+    public Path resolvePath(String fileUrl) {
+        String prefix = URL_PREFIX.substring(1);
+        int start = fileUrl.indexOf(prefix);
+        String relativePath = start >= 0
+                ? fileUrl.substring(start + prefix.length())
+                : fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+
+        Path path = this.uploadPath.resolve(relativePath).normalize();
+        if (!path.startsWith(this.uploadPath) || path.equals(this.uploadPath)) {
+            throw new RuntimeException("Path file tidak valid: " + fileUrl);
+        }
+        return path;
+    }
+
+    /**
+     * Salin file yang baru ditulis di direktori upload ke store, dipanggil sebelum URL-nya
+     * dikembalikan atau disimpan di database sehingga node lain selalu bisa membacanya dari store.
+     * Dipanggil juga setelah menulis file di luar storeStream, misalnya thumbnail.
+     *
+     * @throws RuntimeException jika upload tetap gagal setelah beberapa percobaan
+     */
+    public void publish(String fileUrl) {
+        if (imageStore.isLocal()) {
+            return;
+        }
+        String key = storageKey(fileUrl);
+        Path path = resolvePath(fileUrl);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                imageStore.put(key, path);
+                return;
+            } catch (IOException e) {
+                if (attempt >= MAX_UPLOAD_ATTEMPTS) {
+                    throw new RuntimeException("Gagal mengunggah file ke storage: " + key + " - " + e.getMessage(), e);
+                }
+            }
+            try {
+                Thread.sleep(UPLOAD_RETRY_DELAY_MS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Upload ke storage dibatalkan: " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Path lokal file untuk dibaca pemrosesan gambar. Jika file belum ada di node ini
+     * (diupload lewat node lain), file diunduh dulu dari store.
+     */
+    public Path localFile(String fileUrl) {
+        Path path = resolvePath(fileUrl);
+        if (imageStore.isLocal() || Files.exists(path)) {
+            return path;
+        }
+
+        Path tempFile = this.uploadPath.resolve(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            if (!imageStore.fetch(storageKey(fileUrl), tempFile)) {
+                throw new RuntimeException("File tidak ditemukan di storage: " + fileUrl);
+            }
+            Files.createDirectories(path.getParent());
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return path;
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal mengambil file dari storage: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * URL baca langsung dari store (presigned) untuk diteruskan ke browser, atau null jika
+     * file disajikan dari direktori lokal (store lokal)
+     */
+    public URI remoteReadUrl(String fileUrl) {
+        if (imageStore.isLocal()) {
+            return null;
+        }
+        return imageStore.presignedUrl(storageKey(fileUrl));
+    }
+
+    // Key di store: path relatif file di direktori upload dengan pemisah '/'
+    private String storageKey(String fileUrl) {
+        return this.uploadPath.relativize(resolvePath(fileUrl)).toString().replace('\\', '/');
+    }
+
+    public Path getUploadPath() {
+        return uploadPath;
+    }
+
+    public ImageStore getImageStore() {
+        return imageStore;
+    }
+}
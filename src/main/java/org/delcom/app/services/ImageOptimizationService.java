@@ -0,0 +1,105 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Re-encode gambar produk di background sebelum thumbnail dibuat (ImageReencoder): sisi
+ * terpanjang dibatasi dan JPEG disimpan ulang dengan kualitas yang cukup untuk halaman produk.
+ * Metadata upload baru sudah dibuang FileStorageService sebelum URL-nya dipakai, sisanya
+ * (gambar lama) dibuang di sini.
+ *
+ * Hasilnya disimpan sebagai file baru (content-addressed) lalu image_url produk diganti.
+ * Gambar asli tidak dihapus di sini agar job yang diulang tetap bisa membacanya; file yang tidak
+ * dipakai lagi dibersihkan OrphanImageCollector. Jika keep-original aktif, gambar asli juga disalin
+ * ke app.image.optimize.originals-dir (direktori ini tidak disajikan ke publik).
+ */
+@Service
+public class ImageOptimizationService {
+    private final FileStorageService fileStorageService;
+    private final ProductRepository productRepository;
+    private final ImageReencoder imageReencoder;
+
+    @Value("${app.image.optimize.keep-original:false}")
+    private boolean keepOriginal = false;
+
+    @Value("${app.image.optimize.originals-dir:./uploads-originals}")
+    private String originalsDir = "./uploads-originals";
+
+    public ImageOptimizationService(FileStorageService fileStorageService, ProductRepository productRepository,
+                                    ImageReencoder imageReencoder) {
+        this.fileStorageService = fileStorageService;
+        this.productRepository = productRepository;
+        this.imageReencoder = imageReencoder;
+    }
+
+    /**
+     * Optimalkan gambar produk dan pasang hasilnya ke produk. Aman diulang untuk URL yang sama:
+     * hasil encode selalu sama (nama file dari hash isi) dan produk yang sudah memakai hasilnya
+     * dianggap selesai.
+     *
+     * @return URL gambar yang dipakai produk setelah proses ini (bisa sama dengan imageUrl),
+     *         atau null jika produk sudah memakai gambar lain
+     */
+    public String optimize(UUID productId, String imageUrl) {
+        if (!imageReencoder.isEnabled() || imageUrl == null || imageUrl.isEmpty()) {
+            return imageUrl;
+        }
+
+        // Di mode multi-node file diunduh dulu dari store; jika belum tersedia job dicoba lagi nanti
+        Path source = fileStorageService.localFile(imageUrl);
+        ImageReencoder.Encoded encoded;
+        try {
+            // Format dan resolusi dicek dari header, termasuk file lama yang disimpan sebelum upload divalidasi
+            encoded = imageReencoder.reencode(source, fileStorageService.inspectImage(source));
+        } catch (IOException | RuntimeException e) {
+            // Gambar yang tidak bisa di-decode tetap ditampilkan apa adanya
+            System.err.println("Gagal re-encode gambar: " + imageUrl + " - " + e.getMessage());
+            return imageUrl;
+        }
+        if (encoded == null) {
+            return imageUrl;
+        }
+
+        String optimizedUrl = fileStorageService.storeStream(
+                new ByteArrayInputStream(encoded.bytes()), "image" + encoded.extension(), Long.MAX_VALUE);
+        if (optimizedUrl.equals(imageUrl)) {
+            return imageUrl;
+        }
+        if (keepOriginal) {
+            keepOriginal(source);
+        }
+        if (productRepository.replaceImageUrl(productId, imageUrl, optimizedUrl) == 0) {
+            if (productRepository.existsByIdAndImageUrl(productId, optimizedUrl)) {
+                return optimizedUrl; // sudah diganti percobaan sebelumnya, tinggal thumbnail
+            }
+            return null; // gambar produk sudah diganti, file hasil re-encode dibersihkan OrphanImageCollector
+        }
+        System.out.println("Gambar dioptimalkan: " + imageUrl + " (" + encoded.originalSize() + " byte) -> "
+                + optimizedUrl + " (" + encoded.bytes().length + " byte)");
+        return optimizedUrl;
+    }
+
+    // Simpan gambar asli di luar direktori publik, dengan layout berlapis yang sama
+    private void keepOriginal(Path source) {
+        try {
+            Path target = Paths.get(originalsDir).toAbsolutePath().normalize()
+                    .resolve(FileStorageService.shardedPath(source.getFileName().toString()));
+            Files.createDirectories(target.getParent());
+            if (!Files.exists(target)) {
+                Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal menyimpan gambar asli: " + e.getMessage(), e);
+        }
+    }
+}
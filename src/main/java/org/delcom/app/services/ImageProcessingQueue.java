@@ -0,0 +1,146 @@
+package org.delcom.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.delcom.app.entities.ImageJob;
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ImageJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antrian pemrosesan gambar produk di luar thread request.
+ *
+ * Produk disimpan lebih dulu tanpa thumbnail (halaman menampilkan gambar asli), lalu job
+ * dicatat di tabel image_jobs dan dikerjakan oleh sejumlah kecil virtual thread. Jumlah
+ * worker dibatasi karena decode gambar memakan banyak memori. Job yang tertinggal karena
+ * restart atau gagal sementara diambil ulang oleh sweep berkala.
+ *
+ * Setiap job menjalankan dua tahap: re-encode gambar asli (ImageOptimizationService) lalu
+ * pembuatan thumbnail dari hasilnya. Keduanya aman diulang untuk URL yang sama, sehingga job
+ * yang gagal di tahap kedua dicoba ulang dari URL hasil tahap pertama.
+ */
+@Service
+public class ImageProcessingQueue {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ImageJobRepository imageJobRepository;
+    private final ImageVariantService imageVariantService;
+    private final ImageOptimizationService imageOptimizationService;
+    private final ExecutorService executor;
+
+    @Value("${app.image.processing.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    // Job PROCESSING yang tidak selesai dalam waktu ini dianggap ditinggal worker
+    @Value("${app.image.processing.stale-after-ms:300000}")
+    private long staleAfterMs = 300000;
+
+    public ImageProcessingQueue(ImageJobRepository imageJobRepository,
+                                ImageVariantService imageVariantService,
+                                ImageOptimizationService imageOptimizationService,
+                                @Value("${app.image.processing.concurrency:2}") int concurrency) {
+        this.imageJobRepository = imageJobRepository;
+        this.imageVariantService = imageVariantService;
+        this.imageOptimizationService = imageOptimizationService;
+        this.executor = Executors.newFixedThreadPool(concurrency,
+                Thread.ofVirtual().name("image-worker-", 0).factory());
+    }
+
+    /**
+     * Catat job untuk gambar produk lalu jalankan di background.
+     * Method ini tidak menunggu gambar selesai diproses.
+     */
+    public ImageJob submit(Product product) {
+        ImageJob job = imageJobRepository.save(new ImageJob(product.getId(), product.getImageUrl()));
+        dispatch(job.getId());
+        return job;
+    }
+
+    private void dispatch(UUID jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException e) {
+            // Aplikasi sedang berhenti, job tetap PENDING dan dilanjutkan saat start berikutnya
+            System.err.println("Antrian gambar ditutup, job ditunda: " + jobId);
+        }
+    }
+
+    /**
+     * Kerjakan satu job. Aman dipanggil lebih dari sekali untuk job yang sama karena
+     * job diambil dengan update status PENDING -> PROCESSING yang atomik.
+     */
+    public void process(UUID jobId) {
+        if (imageJobRepository.transition(jobId, ImageJob.STATUS_PENDING, ImageJob.STATUS_PROCESSING,
+                LocalDateTime.now()) == 0) {
+            return; // sudah diambil worker lain atau sudah selesai
+        }
+
+        Optional<ImageJob> jobOpt = imageJobRepository.findById(jobId);
+        if (jobOpt.isEmpty()) {
+            return;
+        }
+
+        ImageJob job = jobOpt.get();
+        try {
+            // Thumbnail dibuat dari gambar hasil re-encode (orientasi sudah benar, tanpa metadata)
+            String imageUrl = imageOptimizationService.optimize(job.getProductId(), job.getImageUrl());
+            if (imageUrl != null && !imageUrl.equals(job.getImageUrl())) {
+                // Produk sudah memakai gambar baru; jika thumbnail gagal, percobaan berikutnya tidak re-encode lagi
+                imageJobRepository.updateJobImageUrl(jobId, imageUrl);
+            }
+            if (imageUrl != null) {
+                imageVariantService.generateVariants(job.getProductId(), imageUrl);
+            }
+            imageJobRepository.deleteById(jobId);
+        } catch (RuntimeException e) {
+            int attempts = job.getAttempts() + 1;
+            String status = attempts >= maxAttempts ? ImageJob.STATUS_FAILED : ImageJob.STATUS_PENDING;
+            String error = String.valueOf(e.getMessage());
+            if (error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+            imageJobRepository.markFailed(jobId, status, attempts, error, LocalDateTime.now());
+            System.err.println("Gagal memproses gambar: " + job.getImageUrl() + " (percobaan " + attempts + ") - " + error);
+        }
+    }
+
+    /**
+     * Ambil ulang job yang tertinggal: PROCESSING yang ditinggal worker dan PENDING yang
+     * belum dikerjakan (misalnya dibuat sebelum restart atau menunggu retry).
+     * Juga berjalan sekali saat aplikasi start.
+     */
+    @Scheduled(fixedDelayString = "${app.image.processing.sweep-interval-ms:60000}")
+    public int resumePendingJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        imageJobRepository.resetStaleJobs(now.minusNanos(staleAfterMs * 1_000_000L), now);
+
+        // Job yang baru saja dibuat masih antre di executor, tidak perlu dikirim dua kali
+        List<ImageJob> jobs = imageJobRepository.findTop100ByStatusAndUpdatedAtBeforeOrderByCreatedAtAsc(
+                ImageJob.STATUS_PENDING, now.minusSeconds(30));
+        for (ImageJob job : jobs) {
+            dispatch(job.getId());
+        }
+        return jobs.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            // Beri kesempatan job yang sedang berjalan untuk selesai, sisanya dilanjutkan saat start
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.delcom.app.services;
+
+import org.delcom.app.utils.ImageHeader;
+import org.delcom.app.utils.JpegHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Encode ulang gambar: orientasi EXIF diterapkan ke pixel, metadata (EXIF termasuk lokasi GPS,
+ * komentar, dan sejenisnya) dibuang, sisi terpanjang dibatasi, dan JPEG disimpan ulang dengan
+ * kualitas yang cukup untuk halaman produk.
+ *
+ * Dipakai FileStorageService saat upload (hanya untuk gambar dengan metadata, sebelum URL-nya
+ * dikembalikan) dan ImageOptimizationService di background untuk sisanya.
+ */
+@Service
+public class ImageReencoder {
+    @Value("${app.image.optimize.enabled:true}")
+    private boolean enabled = true;
+
+    // Sisi terpanjang maksimum dalam pixel
+    @Value("${app.image.optimize.max-dimension:2048}")
+    private int maxDimension = 2048;
+
+    @Value("${app.image.optimize.jpeg-quality:0.82}")
+    private float jpegQuality = 0.82f;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public record Encoded(byte[] bytes, String extension, long originalSize) {
+    }
+
+    /**
+     * true untuk JPEG yang membawa metadata (EXIF termasuk lokasi GPS dan orientasi, XMP, komentar),
+     * yaitu gambar yang tidak boleh disajikan sebelum di-encode ulang
+     */
+    public boolean hasMetadata(Path source) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            JpegHeader jpeg = JpegHeader.read(in);
+            return jpeg != null && (jpeg.hasMetadata() || jpeg.getOrientation() != 1);
+        }
+    }
+
+    /**
+     * Encode ulang gambar yang header-nya sudah diperiksa FileStorageService.inspectImage
+     * (format dan resolusi dicek sebelum ImageIO membaca file)
+     *
+     * @return hasil encode, atau null jika gambar sudah optimal atau formatnya tidak diproses
+     */
+    public Encoded reencode(Path source, ImageHeader header) throws IOException {
+        long originalSize = Files.size(source);
+        JpegHeader jpeg;
+        try (InputStream in = Files.newInputStream(source)) {
+            jpeg = JpegHeader.read(in);
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                String format = reader.getFormatName().toLowerCase();
+                boolean isJpeg = jpeg != null && (format.equals("jpeg") || format.equals("jpg"));
+                if (!isJpeg && !format.equals("png")) {
+                    return null; // GIF (bisa animasi) dan format lain disimpan apa adanya
+                }
+
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width != header.getWidth() || height != header.getHeight()) {
+                    throw new RuntimeException("Header gambar tidak valid");
+                }
+                int orientation = isJpeg ? jpeg.getOrientation() : 1;
+                boolean resize = Math.max(width, height) > maxDimension;
+                if (isJpeg && !resize && orientation == 1 && !jpeg.hasMetadata()) {
+                    return null; // JPEG bersih tanpa metadata, re-encode hanya menurunkan kualitas
+                }
+
+                // Gambar yang jauh lebih besar dari batas di-decode dengan subsampling agar hemat memori
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (maxDimension * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                if (Math.max(image.getWidth(), image.getHeight()) > maxDimension) {
+                    int targetWidth = image.getWidth() >= image.getHeight()
+                            ? maxDimension
+                            : Math.max(1, (int) Math.round((double) image.getWidth() * maxDimension / image.getHeight()));
+                    image = ImageVariantService.resize(image, targetWidth);
+                }
+                image = applyOrientation(image, orientation);
+
+                byte[] bytes = isJpeg ? writeJpeg(image) : writePng(image);
+                if (!isJpeg && !resize && bytes.length >= originalSize) {
+                    return null; // PNG yang sudah kecil tidak perlu diganti
+                }
+                return new Encoded(bytes, isJpeg ? ".jpg" : ".png", originalSize);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Metadata tidak ikut ditulis karena IIOImage dibuat tanpa metadata
+    private byte[] writeJpeg(BufferedImage image) throws IOException {
+        if (image.getColorModel().hasAlpha() || (image.getType() != BufferedImage.TYPE_INT_RGB
+                && image.getType() != BufferedImage.TYPE_3BYTE_BGR)) {
+            image = copy(image, BufferedImage.TYPE_INT_RGB, new AffineTransform(), image.getWidth(), image.getHeight());
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            if (param.canWriteProgressive()) {
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] writePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    // Putar/balik pixel sesuai tag EXIF Orientation sehingga gambar tampil benar tanpa metadata
+    static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean swap = orientation >= 5;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return copy(image, type, transform, swap ? h : w, swap ? w : h);
+    }
+
+    private static BufferedImage copy(BufferedImage image, int type, AffineTransform transform, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, type);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Tempat penyimpanan utama file gambar.
+ *
+ * Direktori upload lokal (app.upload.dir) selalu dipakai sebagai tempat kerja: upload ditulis
+ * ke sana lebih dulu dan pemrosesan gambar membaca dari sana. Jika store bukan lokal, file
+ * disalin ke store sebelum URL-nya dipakai dan node lain mengambilnya dari store saat dibutuhkan,
+ * sehingga aplikasi bisa berjalan di beberapa node di belakang load balancer.
+ *
+ * Key adalah path relatif file di direktori upload, contoh ab/cd/abcd...jpg.
+ */
+public interface ImageStore {
+
+    /**
+     * true jika direktori upload lokal adalah store itu sendiri (satu node)
+     */
+    boolean isLocal();
+
+    void put(String key, Path source) throws IOException;
+
+    /**
+     * Unduh file ke target
+     *
+     * @return false jika key tidak ada di store
+     */
+    boolean fetch(String key, Path target) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Waktu modifikasi object saat ini, tanpa mengunduh isinya. Hanya dipakai jika store bukan lokal.
+     *
+     * @return null jika key tidak ada di store
+     */
+    Instant lastModified(String key) throws IOException;
+
+    /**
+     * URL baca sementara yang bisa langsung dipakai browser, atau null jika tidak didukung
+     */
+    URI presignedUrl(String key);
+
+    /**
+     * Object di store berurutan key (urutan byte), dimulai setelah startAfter. Dipakai untuk
+     * membaca isi store secara bertahap, hanya jika store bukan lokal.
+     *
+     * @return maksimal limit object, daftar kosong jika tidak ada lagi
+     */
+    List<StoredObject> list(String startAfter, int limit) throws IOException;
+
+    record StoredObject(String key, long size, Instant lastModified) {
+    }
+}
@@ -0,0 +1,135 @@
+package org.delcom.app.services;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Salin satu kali isi direktori upload ke store saat berpindah dari app.image-store.type=local
+ * ke object storage, agar gambar yang diupload sebelumnya tetap bisa dibaca node lain.
+ *
+ * Direktori berlapis dibaca berurutan dan di-merge dengan listing store (urutan key yang sama)
+ * yang dibaca per halaman, sehingga hanya file yang belum ada di store yang diunggah. File di
+ * layout lama (langsung di direktori upload) selalu diunggah ulang karena urutannya tidak sama.
+ * Jika proses terhenti di tengah jalan, menjalankan ulang aman dan melanjutkan sisanya.
+ */
+@Service
+public class ImageStoreBackfillService {
+    private final FileStorageService fileStorageService;
+
+    public ImageStoreBackfillService(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    public record Result(long scannedFiles, long uploadedFiles, long failedFiles) {
+    }
+
+    /**
+     * Unggah semua file lokal yang belum ada di store
+     *
+     * @param batchSize jumlah key store yang dibaca per request listing
+     */
+    public Result backfill(int batchSize) {
+        ImageStore imageStore = fileStorageService.getImageStore();
+        if (imageStore.isLocal()) {
+            System.out.println("Backfill image store dilewati: gambar disimpan di direktori lokal");
+            return new Result(0, 0, 0);
+        }
+
+        Backfill run = new Backfill(imageStore, batchSize);
+        Path root = fileStorageService.getUploadPath();
+        try {
+            for (Path first : FileStorageService.listSorted(root, true)) {
+                for (Path second : FileStorageService.listSorted(first, true)) {
+                    for (Path file : FileStorageService.listSorted(second, false)) {
+                        run.visit(root.relativize(file).toString().replace('\\', '/'), false);
+                    }
+                }
+            }
+            for (Path file : FileStorageService.listSorted(root, false)) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(FileStorageService.TEMP_PREFIX)) {
+                    run.visit(name, true);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Backfill image store terhenti: " + e.getMessage());
+        }
+
+        Result result = run.result();
+        System.out.println("Backfill image store selesai: " + result.scannedFiles() + " file diperiksa, "
+                + result.uploadedFiles() + " diunggah, " + result.failedFiles() + " gagal");
+        return result;
+    }
+
+    private final class Backfill {
+        private final ImageStore imageStore;
+        private final int batchSize;
+        private long scanned;
+        private long uploaded;
+        private long failed;
+
+        // Posisi baca listing store
+        private List<ImageStore.StoredObject> batch = List.of();
+        private int index;
+        private String after = "";
+        private boolean exhausted;
+
+        private Backfill(ImageStore imageStore, int batchSize) {
+            this.imageStore = imageStore;
+            this.batchSize = batchSize;
+        }
+
+        void visit(String key, boolean force) throws IOException {
+            scanned++;
+            if (!force && stored(key)) {
+                return;
+            }
+            try {
+                fileStorageService.publish(FileStorageService.URL_PREFIX + key);
+                uploaded++;
+            } catch (RuntimeException e) {
+                failed++;
+                System.err.println("Gagal mengunggah ke storage: " + key + " - " + e.getMessage());
+            }
+        }
+
+        // Maju sampai key store >= key; key yang terlewati tidak punya file lokal
+        private boolean stored(String key) throws IOException {
+            String current;
+            while ((current = peek()) != null) {
+                int cmp = current.compareTo(key);
+                if (cmp > 0) {
+                    return false;
+                }
+                index++;
+                if (cmp == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String peek() throws IOException {
+            if (index == batch.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                batch = imageStore.list(after, batchSize);
+                index = 0;
+                if (batch.isEmpty()) {
+                    exhausted = true;
+                    return null;
+                }
+                after = batch.get(batch.size() - 1).key();
+            }
+            return batch.get(index).key();
+        }
+
+        Result result() {
+            return new Result(scanned, uploaded, failed);
+        }
+    }
+}
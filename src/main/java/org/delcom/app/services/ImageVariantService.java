@@ -0,0 +1,170 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.ImageHeader;
+import org.delcom.app.utils.ImageUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Membuat thumbnail dengan lebar tetap (default 200/480/1024 px) dari gambar produk
+ * sehingga halaman daftar cukup mengunduh ukuran yang sesuai lewat srcset.
+ * File turunan disimpan di samping file asli, contoh abc.jpg -> abc_w480.jpg.
+ */
+@Service
+public class ImageVariantService {
+    private final FileStorageService fileStorageService;
+    private final ProductRepository productRepository;
+
+    @Value("${app.upload.variant-widths:200,480,1024}")
+    private int[] variantWidths = {200, 480, 1024};
+
+    public ImageVariantService(FileStorageService fileStorageService, ProductRepository productRepository) {
+        this.fileStorageService = fileStorageService;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Buat thumbnail untuk gambar produk lalu catat lebarnya di kolom image_variants
+     */
+    public void generateVariants(Product product) {
+        String variants = generateVariants(product.getId(), product.getImageUrl());
+        if (variants != null) {
+            product.setImageVariants(variants);
+        }
+    }
+
+    /**
+     * Versi tanpa entity, dipakai worker antrian gambar yang hanya menyimpan id produk
+     *
+     * @return daftar lebar yang dibuat, atau null jika tidak ada
+     */
+    public String generateVariants(UUID productId, String imageUrl) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return null;
+        }
+
+        // Gambar yang sama sudah pernah diproses untuk produk lain, thumbnail-nya dipakai ulang
+        String variants = productRepository.findFirstByImageUrlAndImageVariantsIsNotNull(imageUrl)
+                .map(Product::getImageVariants)
+                .orElseGet(() -> createVariants(imageUrl));
+        if (variants != null) {
+            productRepository.updateImageVariants(productId, imageUrl, variants);
+        }
+        return variants;
+    }
+
+    /**
+     * Tulis file thumbnail untuk setiap lebar yang lebih kecil dari gambar asli.
+     * Gambar tidak pernah diperbesar.
+     *
+     * Hanya gambar yang memang tidak bisa dibuatkan thumbnail (format tidak dikenali atau
+     * resolusi di atas batas) yang menghasilkan null. Kegagalan lain, misalnya I/O atau upload
+     * ke image store, diteruskan sebagai RuntimeException agar job di antrian gambar dicoba ulang.
+     *
+     * @return daftar lebar yang berhasil dibuat dipisah koma, atau null jika tidak ada
+     */
+    public String createVariants(String imageUrl) {
+        Path source = fileStorageService.localFile(imageUrl);
+        int[] widths = variantWidths.clone();
+        Arrays.sort(widths);
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            // Format dan resolusi dicek dari header sebelum decode
+            ImageHeader header;
+            try (InputStream in = Files.newInputStream(source)) {
+                header = ImageHeader.read(in);
+            }
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (header == null || readers == null || !readers.hasNext()
+                    || fileStorageService.exceedsMaxPixels(header.getWidth(), header.getHeight())) {
+                return null; // bukan gambar yang bisa diproses ImageIO, tampilkan file asli saja
+            }
+
+            ImageReader reader = readers.next();
+            String format;
+            BufferedImage original;
+            try {
+                reader.setInput(input, true, true);
+                format = reader.getFormatName().toLowerCase();
+                int width = reader.getWidth(0);
+                if (fileStorageService.exceedsMaxPixels(width, reader.getHeight(0))) {
+                    return null;
+                }
+
+                // Cukup decode dengan lebar minimal dua kali thumbnail terbesar, sisanya dilewati
+                // saat membaca sehingga memori yang dipakai tidak bergantung pada resolusi asli
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = widths.length == 0 ? 1 : Math.max(1, width / (widths[widths.length - 1] * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                original = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+            if (!ImageIO.getImageWritersByFormatName(format).hasNext()) {
+                return null;
+            }
+
+            StringJoiner created = new StringJoiner(",");
+            for (int width : widths) {
+                if (width >= original.getWidth()) {
+                    break;
+                }
+                BufferedImage scaled = resize(original, width);
+                String variantUrl = ImageUtil.variantUrl(imageUrl, width);
+                Path target = fileStorageService.resolvePath(variantUrl);
+                try (var out = Files.newOutputStream(target)) {
+                    ImageIO.write(scaled, format, out);
+                }
+                fileStorageService.publish(variantUrl);
+                created.add(String.valueOf(width));
+            }
+            return created.length() == 0 ? null : created.toString();
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal membuat thumbnail: " + imageUrl + " - " + e.getMessage(), e);
+        }
+    }
+
+    // Perkecil bertahap (setengah ukuran per langkah) agar hasil tetap halus dengan interpolasi bilinear
+    static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width > targetWidth);
+        return current;
+    }
+}
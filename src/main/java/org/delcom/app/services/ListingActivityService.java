@@ -0,0 +1,184 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.ListingActivity;
+import org.delcom.app.entities.RollupWatermark;
+import org.delcom.app.repositories.ListingActivityRepository;
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.repositories.RollupWatermarkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Rollup jumlah produk baru per kategori, per jam dan per hari (tabel listing_activity).
+ *
+ * Job berkala membaca produk setelah high-water mark (createdAt, id) per batch dan menambahkan
+ * hasilnya ke bucket, dalam satu transaksi dengan perubahan watermark sehingga setiap produk
+ * dihitung tepat satu kali walau aplikasi berjalan di beberapa node. Grafik tren hanya membaca
+ * tabel rollup, biayanya sebanding jumlah bucket, bukan jumlah produk.
+ *
+ * Produk yang dihapus tetap terhitung di bucket saat dibuat karena yang dicatat adalah aktivitas.
+ */
+@Service
+public class ListingActivityService {
+    static final String WATERMARK_NAME = "listing_activity";
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    // Jumlah bucket maksimum yang bisa diminta grafik
+    static final int MAX_HOURS = 24 * 7;
+    static final int MAX_DAYS = 365;
+
+    private final ProductRepository productRepository;
+    private final ListingActivityRepository listingActivityRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.stats.activity.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // Produk yang lebih baru dari ini belum dihitung: transaksi yang membuatnya mungkin belum
+    // commit, dan setelah watermark lewat produk tersebut tidak akan terbaca lagi
+    @Value("${app.stats.activity.lag-seconds:120}")
+    private long lagSeconds = 120;
+
+    @Value("${app.stats.activity.hourly-retention-days:30}")
+    private int hourlyRetentionDays = 30;
+
+    public ListingActivityService(ProductRepository productRepository,
+                                  ListingActivityRepository listingActivityRepository,
+                                  RollupWatermarkRepository rollupWatermarkRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.listingActivityRepository = listingActivityRepository;
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Data grafik: bucket berurutan (termasuk bucket tanpa produk baru) dan jumlah per kategori
+     */
+    public record ActivityChart(String granularity, List<LocalDateTime> buckets, List<Series> series) {
+    }
+
+    public record Series(String category, List<Long> counts) {
+    }
+
+    /**
+     * Hitung produk baru sejak rollup terakhir
+     *
+     * @return jumlah produk yang ditambahkan ke rollup
+     */
+    @Scheduled(fixedDelayString = "${app.stats.activity.interval-ms:60000}")
+    public int rollup() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusSeconds(lagSeconds);
+        int total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> rollupBatch(cutoff));
+            total += processed == null ? 0 : processed;
+            if (processed == null || processed < batchSize) {
+                break;
+            }
+        }
+
+        // Bucket per jam hanya dipakai untuk grafik jangka pendek
+        LocalDateTime retention = now.truncatedTo(ChronoUnit.HOURS).minusDays(hourlyRetentionDays);
+        listingActivityRepository.deleteOlderThan(ListingActivity.GRANULARITY_HOUR, retention);
+        if (total > 0) {
+            System.out.println("Rollup aktivitas produk: " + total + " produk baru");
+        }
+        return total;
+    }
+
+    private int rollupBatch(LocalDateTime cutoff) {
+        rollupWatermarkRepository.createIfMissing(WATERMARK_NAME, START, FIRST_ID);
+        RollupWatermark watermark = rollupWatermarkRepository.findForUpdate(WATERMARK_NAME)
+                .orElseThrow(() -> new RuntimeException("Watermark rollup tidak ditemukan"));
+
+        List<Object[]> rows = productRepository.findCreatedBatch(watermark.getLastCreatedAt(),
+                watermark.getLastProductId(), cutoff, PageRequest.ofSize(batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<ListingActivity.Key, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            String category = (String) row[1];
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            counts.merge(new ListingActivity.Key(ListingActivity.GRANULARITY_HOUR,
+                    createdAt.truncatedTo(ChronoUnit.HOURS), category), 1L, Long::sum);
+            counts.merge(new ListingActivity.Key(ListingActivity.GRANULARITY_DAY,
+                    createdAt.truncatedTo(ChronoUnit.DAYS), category), 1L, Long::sum);
+        }
+        counts.forEach((key, count) -> listingActivityRepository.increment(
+                key.getGranularity(), key.getBucketStart(), key.getCategory(), count));
+
+        Object[] last = rows.get(rows.size() - 1);
+        watermark.setLastProductId((UUID) last[0]);
+        watermark.setLastCreatedAt((LocalDateTime) last[2]);
+        rollupWatermarkRepository.save(watermark);
+        return rows.size();
+    }
+
+    /**
+     * Ambil data grafik dari rollup
+     *
+     * @param granularity hour atau day
+     * @param periods     jumlah bucket terakhir, termasuk bucket yang sedang berjalan
+     */
+    public ActivityChart getActivity(String granularity, int periods) {
+        String unit = granularity == null ? "" : granularity.toUpperCase(Locale.ROOT);
+        ChronoUnit chronoUnit;
+        int max;
+        if (unit.equals(ListingActivity.GRANULARITY_HOUR)) {
+            chronoUnit = ChronoUnit.HOURS;
+            max = MAX_HOURS;
+        } else if (unit.equals(ListingActivity.GRANULARITY_DAY)) {
+            chronoUnit = ChronoUnit.DAYS;
+            max = MAX_DAYS;
+        } else {
+            throw new RuntimeException("Granularity harus hour atau day");
+        }
+        int count = Math.max(1, Math.min(periods, max));
+
+        LocalDateTime from = LocalDateTime.now().truncatedTo(chronoUnit).minus(count - 1, chronoUnit);
+        List<LocalDateTime> buckets = new ArrayList<>(count);
+        Map<LocalDateTime, Integer> index = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime bucket = from.plus(i, chronoUnit);
+            index.put(bucket, i);
+            buckets.add(bucket);
+        }
+
+        // Kategori diurutkan nama agar warna seri di grafik stabil
+        Map<String, long[]> countsByCategory = new TreeMap<>();
+        for (ListingActivity activity : listingActivityRepository
+                .findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(unit, from)) {
+            Integer i = index.get(activity.getBucketStart());
+            if (i == null) {
+                continue;
+            }
+            long[] counts = countsByCategory.computeIfAbsent(activity.getCategory(), c -> new long[count]);
+            counts[i] += activity.getListingCount();
+        }
+
+        List<Series> series = new ArrayList<>(countsByCategory.size());
+        countsByCategory.forEach((category, counts) ->
+                series.add(new Series(category, Arrays.stream(counts).boxed().toList())));
+        return new ActivityChart(unit.toLowerCase(Locale.ROOT), buckets, series);
+    }
+}
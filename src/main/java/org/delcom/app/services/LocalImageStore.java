@@ -0,0 +1,54 @@
+package org.delcom.app.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Store bawaan: file cukup disimpan di direktori upload lokal, tidak ada salinan lain.
+ */
+@Component
+@ConditionalOnProperty(name = "app.image-store.type", havingValue = "local", matchIfMissing = true)
+public class LocalImageStore implements ImageStore {
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public void put(String key, Path source) {
+        // File sudah berada di direktori upload
+    }
+
+    @Override
+    public boolean fetch(String key, Path target) {
+        return false;
+    }
+
+    @Override
+    public void delete(String key) {
+        // Dihapus langsung oleh FileStorageService
+    }
+
+    @Override
+    public Instant lastModified(String key) {
+        // Waktu modifikasi dibaca langsung dari direktori upload oleh pemanggil
+        return null;
+    }
+
+    @Override
+    public URI presignedUrl(String key) {
+        return null;
+    }
+
+    @Override
+    public List<StoredObject> list(String startAfter, int limit) {
+        // Isi store adalah direktori upload, dibaca langsung oleh pemanggil
+        return List.of();
+    }
+}
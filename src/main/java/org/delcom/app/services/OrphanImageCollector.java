@@ -0,0 +1,393 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.ImageUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Menyelaraskan direktori upload dengan kolom products.image_url.
+ *
+ * Direktori berlapis (ab/cd/{filename}) dibaca berurutan, satu direktori daun dalam satu waktu,
+ * dan di-merge dengan image_url yang dibaca per batch dengan urutan yang sama. Kedua sisi tidak
+ * pernah dimuat utuh ke memori.
+ *
+ * - File yang tidak dipakai produk mana pun dan lebih tua dari grace period dihapus, begitu juga
+ *   thumbnail-nya dan file sementara (.tmp-) sisa upload yang terhenti. Sebelum dihapus, referensi
+ *   dicek ulang dengan query per URL sehingga perbedaan urutan tidak pernah menghapus file yang dipakai.
+ * - image_url yang filenya tidak ada dilaporkan (dangling) tanpa mengubah data.
+ *
+ * Jika gambar disimpan di object storage (app.image-store.type=s3), isi bucket dibaca per halaman
+ * lewat ImageStore dengan urutan key yang sama dan object yatim dihapus dari bucket beserta salinan
+ * lokalnya. Direktori lokal setelah itu hanya dibersihkan sebagai cache, tanpa laporan dangling,
+ * karena node yang tidak pernah membaca gambar memang tidak punya salinannya.
+ */
+@Service
+public class OrphanImageCollector {
+    private static final int MAX_LOGGED_DANGLING = 100;
+
+    private final ProductRepository productRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.upload.gc.grace-period-hours:24}")
+    private long gracePeriodHours = 24;
+
+    @Value("${app.upload.gc.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // true: hanya melaporkan file yang akan dihapus
+    @Value("${app.upload.gc.dry-run:false}")
+    private boolean dryRun = false;
+
+    public OrphanImageCollector(ProductRepository productRepository, FileStorageService fileStorageService) {
+        this.productRepository = productRepository;
+        this.fileStorageService = fileStorageService;
+    }
+
+    public record Report(long scannedFiles, long deletedFiles, long freedBytes, long danglingReferences) {
+        Report plus(Report other) {
+            return new Report(scannedFiles + other.scannedFiles, deletedFiles + other.deletedFiles,
+                    freedBytes + other.freedBytes, danglingReferences + other.danglingReferences);
+        }
+    }
+
+    @Scheduled(cron = "${app.upload.gc.cron:0 30 3 * * *}")
+    public Report collect() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        ImageStore imageStore = fileStorageService.getImageStore();
+        Report report;
+        if (imageStore.isLocal()) {
+            report = sweepLocal(new Sweep(cutoff, this::existsLocally));
+        } else {
+            report = sweepStore(new Sweep(cutoff, url -> false), imageStore)
+                    .plus(sweepLocal(new Sweep(cutoff, url -> true)));
+        }
+
+        System.out.println("Pembersihan gambar" + (dryRun ? " (dry-run)" : "") + ": " + report.scannedFiles()
+                + " file diperiksa, " + report.deletedFiles() + " file yatim dihapus (" + report.freedBytes()
+                + " byte), " + report.danglingReferences() + " image_url tanpa file");
+        return report;
+    }
+
+    private Report sweepLocal(Sweep sweep) {
+        Path root = fileStorageService.getUploadPath();
+        try {
+            for (Path first : FileStorageService.listSorted(root, true)) {
+                for (Path second : FileStorageService.listSorted(first, true)) {
+                    for (Path file : FileStorageService.listSorted(second, false)) {
+                        String relativePath = root.relativize(file).toString().replace('\\', '/');
+                        sweep.visitShardedFile(relativePath, new LocalFile(file));
+                    }
+                }
+            }
+            sweep.visitFlatFiles(root);
+            sweep.finishReferences();
+        } catch (IOException e) {
+            System.err.println("Pembersihan gambar terhenti: " + e.getMessage());
+        }
+        return sweep.report();
+    }
+
+    // Listing bucket sudah berurutan key dan berisi semua gambar, termasuk layout lama
+    private Report sweepStore(Sweep sweep, ImageStore imageStore) {
+        String after = "";
+        try {
+            List<ImageStore.StoredObject> page;
+            while (!(page = imageStore.list(after, batchSize)).isEmpty()) {
+                for (ImageStore.StoredObject object : page) {
+                    sweep.visitShardedFile(object.key(), new StoredFile(imageStore, object, localCopy(object.key())));
+                }
+                after = page.get(page.size() - 1).key();
+            }
+            sweep.finishReferences();
+        } catch (IOException e) {
+            System.err.println("Pembersihan gambar di storage terhenti: " + e.getMessage());
+        }
+        return sweep.report();
+    }
+
+    private Path localCopy(String key) {
+        try {
+            return fileStorageService.resolvePath(FileStorageService.URL_PREFIX + key);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Dipakai saat direktori lokal adalah satu-satunya tempat gambar disimpan
+    private boolean existsLocally(String url) {
+        try {
+            // File ada, hanya urutannya di luar direktori shard (layout lama)
+            return Files.exists(fileStorageService.resolvePath(url));
+        } catch (RuntimeException e) {
+            return false; // URL tidak valid juga dilaporkan
+        }
+    }
+
+    /**
+     * File lokal atau object di store yang diperiksa sweep
+     */
+    private interface Candidate {
+        Instant lastModified() throws IOException;
+
+        /**
+         * Waktu modifikasi yang dibaca ulang tepat sebelum menghapus
+         */
+        Instant currentLastModified() throws IOException;
+
+        long size() throws IOException;
+
+        void delete() throws IOException;
+    }
+
+    private record LocalFile(Path file) implements Candidate {
+        @Override
+        public Instant lastModified() throws IOException {
+            return Files.getLastModifiedTime(file).toInstant();
+        }
+
+        @Override
+        public Instant currentLastModified() throws IOException {
+            return lastModified();
+        }
+
+        @Override
+        public long size() throws IOException {
+            return Files.size(file);
+        }
+
+        @Override
+        public void delete() throws IOException {
+            Files.deleteIfExists(file);
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    // Object di bucket; salinan lokalnya (jika ada) ikut dihapus agar tidak tersaji lagi dari cache
+    private record StoredFile(ImageStore imageStore, ImageStore.StoredObject object, Path localCopy)
+            implements Candidate {
+        @Override
+        public Instant lastModified() {
+            return object.lastModified();
+        }
+
+        // Upload isi yang sama setelah halaman listing dibaca mem-put ulang object (node mana pun)
+        // dan memperbarui waktu modifikasi salinan lokal (node ini); yang paling baru yang dipakai
+        @Override
+        public Instant currentLastModified() throws IOException {
+            Instant latest = imageStore.lastModified(object.key());
+            if (latest == null) {
+                latest = object.lastModified(); // object sudah terhapus dari bucket
+            }
+            if (localCopy != null) {
+                try {
+                    Instant local = Files.getLastModifiedTime(localCopy).toInstant();
+                    if (local.isAfter(latest)) {
+                        latest = local;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Node ini tidak punya salinan lokal
+                }
+            }
+            return latest;
+        }
+
+        @Override
+        public long size() {
+            return object.size();
+        }
+
+        @Override
+        public void delete() throws IOException {
+            imageStore.delete(object.key());
+            if (localCopy != null) {
+                Files.deleteIfExists(localCopy);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "storage:" + object.key();
+        }
+    }
+
+    private final class Sweep {
+        private final Instant cutoff;
+        // Apakah image_url yang tidak ditemukan di urutan sweep tetap punya file
+        private final Predicate<String> hasFile;
+        private final ReferenceCursor references = new ReferenceCursor();
+        private long scanned;
+        private long deleted;
+        private long freedBytes;
+        private long dangling;
+
+        // Thumbnail berada tepat setelah gambar aslinya dalam urutan nama, hasil cek terakhir dipakai ulang
+        private String lastOriginalUrl;
+        private boolean lastOriginalReferenced;
+
+        private Sweep(Instant cutoff, Predicate<String> hasFile) {
+            this.cutoff = cutoff;
+            this.hasFile = hasFile;
+        }
+
+        void visitShardedFile(String relativePath, Candidate file) {
+            scanned++;
+            String url = FileStorageService.URL_PREFIX + relativePath;
+            String originalUrl = ImageUtil.originalUrl(url);
+            if (originalUrl == null) {
+                lastOriginalUrl = url;
+                lastOriginalReferenced = references.contains(url) || isReferenced(url, file);
+                if (!lastOriginalReferenced) {
+                    deleteIfExpired(file);
+                }
+            } else if (!isOriginalReferenced(originalUrl, file)) {
+                deleteIfExpired(file);
+            }
+        }
+
+        // File langsung di direktori upload: sisa upload (.tmp-) atau gambar layout lama yang belum dimigrasi
+        void visitFlatFiles(Path root) throws IOException {
+            try (Stream<Path> entries = Files.list(root)) {
+                for (Path path : (Iterable<Path>) entries.filter(Files::isRegularFile)::iterator) {
+                    scanned++;
+                    LocalFile file = new LocalFile(path);
+                    String name = path.getFileName().toString();
+                    if (name.startsWith(FileStorageService.TEMP_PREFIX)) {
+                        deleteIfExpired(file);
+                        continue;
+                    }
+                    String url = FileStorageService.URL_PREFIX + name;
+                    String originalUrl = ImageUtil.originalUrl(url);
+                    if (!isReferenced(originalUrl != null ? originalUrl : url, file)) {
+                        deleteIfExpired(file);
+                    }
+                }
+            }
+        }
+
+        void finishReferences() {
+            references.drain();
+        }
+
+        private boolean isOriginalReferenced(String originalUrl, Candidate file) {
+            if (!originalUrl.equals(lastOriginalUrl)) {
+                lastOriginalUrl = originalUrl;
+                lastOriginalReferenced = isReferenced(originalUrl, file);
+            }
+            return lastOriginalReferenced;
+        }
+
+        // File baru dianggap masih dipakai tanpa query: bisa jadi produknya belum tersimpan
+        private boolean isReferenced(String url, Candidate file) {
+            return !isExpired(file) || productRepository.existsByImageUrl(url);
+        }
+
+        private boolean isExpired(Candidate file) {
+            try {
+                return file.lastModified().isBefore(cutoff);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void deleteIfExpired(Candidate file) {
+            if (!isExpired(file)) {
+                return;
+            }
+            try {
+                if (!file.currentLastModified().isBefore(cutoff)) {
+                    return; // Dipakai ulang oleh upload baru sejak diperiksa
+                }
+                long size = file.size();
+                if (!dryRun) {
+                    file.delete();
+                }
+                deleted++;
+                freedBytes += size;
+                System.out.println((dryRun ? "File yatim (dry-run): " : "File yatim dihapus: ") + file);
+            } catch (IOException e) {
+                System.err.println("Gagal menghapus file yatim: " + file + " - " + e.getMessage());
+            }
+        }
+
+        void reportIfDangling(String url) {
+            if (hasFile.test(url)) {
+                return;
+            }
+            dangling++;
+            if (dangling <= MAX_LOGGED_DANGLING) {
+                System.err.println("image_url tanpa file: " + url);
+            }
+        }
+
+        Report report() {
+            return new Report(scanned, deleted, freedBytes, dangling);
+        }
+
+        /**
+         * Posisi baca image_url yang diurutkan, dimuat per batch dengan paging keyset
+         */
+        private final class ReferenceCursor {
+            private List<String> batch = List.of();
+            private int index;
+            private String after = "";
+            private boolean exhausted;
+
+            // Maju sampai URL >= url; URL yang terlewati tidak memiliki file di direktori shard
+            boolean contains(String url) {
+                String current;
+                while ((current = peek()) != null) {
+                    int cmp = current.compareTo(url);
+                    if (cmp > 0) {
+                        return false;
+                    }
+                    index++;
+                    if (cmp == 0) {
+                        return true;
+                    }
+                    reportIfDangling(current);
+                }
+                return false;
+            }
+
+            void drain() {
+                String current;
+                while ((current = peek()) != null) {
+                    index++;
+                    reportIfDangling(current);
+                }
+            }
+
+            private String peek() {
+                if (index == batch.size()) {
+                    if (exhausted) {
+                        return null;
+                    }
+                    batch = productRepository.findImageUrlsAfter(after, batchSize);
+                    index = 0;
+                    exhausted = batch.size() < batchSize;
+                    if (batch.isEmpty()) {
+                        return null;
+                    }
+                    after = batch.get(batch.size() - 1);
+                }
+                return batch.get(index);
+            }
+        }
+    }
+}
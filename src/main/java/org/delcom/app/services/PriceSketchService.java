@@ -0,0 +1,155 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.KllSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persentil harga (p10, p50, p90) per kategori dan kondisi dari sketch KLL di memori.
+ *
+ * Harga produk baru dan produk yang diubah dimasukkan ke sketch setelah transaksinya commit.
+ * Sketch tidak bisa menghapus nilai, sehingga harga lama dan produk yang dihapus baru hilang
+ * saat sketch dibangun ulang: saat start dan berkala (app.stats.price.rebuild-interval-ms)
+ * dengan membaca harga semua produk per batch. Rebuild berkala juga membawa perubahan dari
+ * node lain.
+ */
+@Service
+public class PriceSketchService {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ProductRepository productRepository;
+
+    // Diganti utuh setelah rebuild, setiap sketch dikunci saat dibaca atau diubah
+    private volatile Map<Key, KllSketch> sketches = new ConcurrentHashMap<>();
+
+    @Value("${app.stats.price.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public PriceSketchService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    private record Key(String category, String condition) {
+    }
+
+    /**
+     * Perkiraan harga; p10, p50 dan p90 null jika belum ada produk
+     */
+    public record PriceQuantiles(long count, BigDecimal p10, BigDecimal p50, BigDecimal p90) {
+    }
+
+    /**
+     * Catat harga produk. Dalam transaksi, harga baru masuk ke sketch setelah commit agar
+     * transaksi yang di-rollback tidak ikut terhitung.
+     */
+    public void record(String category, String condition, BigDecimal price) {
+        if (category == null || condition == null || price == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(sketches, category, condition, price);
+                }
+            });
+        } else {
+            add(sketches, category, condition, price);
+        }
+    }
+
+    private static void add(Map<Key, KllSketch> target, String category, String condition, BigDecimal price) {
+        KllSketch sketch = target.computeIfAbsent(new Key(category, condition), key -> new KllSketch());
+        synchronized (sketch) {
+            sketch.update(price.doubleValue());
+        }
+    }
+
+    /**
+     * Bangun ulang semua sketch dari tabel products. Sketch lama tetap dipakai sampai selesai.
+     * Harga yang dicatat selama rebuild berjalan bisa terlewat atau terhitung dua kali sampai
+     * rebuild berikutnya.
+     *
+     * @return jumlah produk yang dibaca
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.stats.price.rebuild-interval-ms:3600000}")
+    public long rebuild() {
+        Map<Key, KllSketch> rebuilt = new ConcurrentHashMap<>();
+        UUID afterId = FIRST_ID;
+        long total = 0;
+        while (true) {
+            List<Object[]> rows = productRepository.findPriceBatch(afterId, PageRequest.ofSize(batchSize));
+            for (Object[] row : rows) {
+                add(rebuilt, (String) row[1], (String) row[2], (BigDecimal) row[3]);
+            }
+            total += rows.size();
+            if (rows.size() < batchSize) {
+                break;
+            }
+            afterId = (UUID) rows.get(rows.size() - 1)[0];
+        }
+        sketches = rebuilt;
+        System.out.println("Sketch harga dibangun ulang dari " + total + " produk");
+        return total;
+    }
+
+    /**
+     * Persentil harga untuk satu kategori dan kondisi. Parameter null berarti semua nilai,
+     * sketch yang cocok digabung (merge).
+     */
+    public PriceQuantiles getQuantiles(String category, String condition) {
+        KllSketch merged = new KllSketch();
+        sketches.forEach((key, sketch) -> {
+            if ((category == null || category.equals(key.category()))
+                    && (condition == null || condition.equals(key.condition()))) {
+                synchronized (sketch) {
+                    merged.merge(sketch);
+                }
+            }
+        });
+        return toQuantiles(merged);
+    }
+
+    /**
+     * Persentil harga setiap kategori (semua kondisi), diurutkan berdasarkan nama kategori
+     */
+    public Map<String, PriceQuantiles> getCategoryQuantiles() {
+        Map<String, KllSketch> merged = new TreeMap<>();
+        sketches.forEach((key, sketch) -> {
+            KllSketch target = merged.computeIfAbsent(key.category(), category -> new KllSketch());
+            synchronized (sketch) {
+                target.merge(sketch);
+            }
+        });
+
+        Map<String, PriceQuantiles> result = new TreeMap<>();
+        merged.forEach((category, sketch) -> result.put(category, toQuantiles(sketch)));
+        return result;
+    }
+
+    private static PriceQuantiles toQuantiles(KllSketch sketch) {
+        double[] values = sketch.quantiles(0.1, 0.5, 0.9);
+        if (values == null) {
+            return new PriceQuantiles(0, null, null, null);
+        }
+        return new PriceQuantiles(sketch.getCount(), price(values[0]), price(values[1]), price(values[2]));
+    }
+
+    // Harga dalam rupiah dibulatkan ke angka bulat
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(0, RoundingMode.HALF_UP);
+    }
+}
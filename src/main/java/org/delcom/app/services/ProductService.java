@@ -1,21 +1,43 @@
 package org.delcom.app.services;
 
 import org.delcom.app.entities.Product;
+import org.delcom.app.entities.ProductStat;
+import org.delcom.app.entities.SellerStat;
 import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.repositories.ProductStatRepository;
+import org.delcom.app.repositories.SellerStatRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ProductService {
     private final ProductRepository productRepository;
+    private final ProductStatRepository productStatRepository;
+    private final PriceSketchService priceSketchService;
+    private final SellerStatRepository sellerStatRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    // Naik setiap kali statistik produk berubah di node ini, dipakai untuk cache data grafik
+    private final AtomicLong statsVersion = new AtomicLong();
+
+    public ProductService(ProductRepository productRepository, ProductStatRepository productStatRepository,
+                          PriceSketchService priceSketchService, SellerStatRepository sellerStatRepository) {
         this.productRepository = productRepository;
+        this.productStatRepository = productStatRepository;
+        this.priceSketchService = priceSketchService;
+        this.sellerStatRepository = sellerStatRepository;
     }
 
     public List<Product> getAllProducts() {
@@ -34,11 +56,16 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    @Transactional
     public Product createProduct(UUID userId, String name, String description, 
                                 BigDecimal price, String category, String condition, 
                                 String imageUrl) {
         Product product = new Product(userId, name, description, price, category, condition, imageUrl);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        priceSketchService.record(category, condition, price);
+        updateStats(null, null, category, condition);
+        updateSellerStats(userId, null, null, category, price);
+        return saved;
     }
 
     @Transactional
@@ -55,6 +82,11 @@ public class ProductService {
             throw new RuntimeException("Anda tidak memiliki akses untuk mengubah produk ini");
         }
 
+        String oldCategory = product.getCategory();
+        String oldCondition = product.getCondition();
+        BigDecimal oldPrice = product.getPrice();
+        boolean priceChanged = product.getPrice() == null || price == null || product.getPrice().compareTo(price) != 0
+                || !Objects.equals(oldCategory, category) || !Objects.equals(oldCondition, condition);
         product.setName(name);
         product.setDescription(description);
         product.setPrice(price);
@@ -62,9 +94,17 @@ public class ProductService {
         product.setCondition(condition);
         if (imageUrl != null && !imageUrl.isEmpty()) {
             product.setImageUrl(imageUrl);
+            product.setImageVariants(null); // thumbnail gambar lama tidak berlaku lagi
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (priceChanged) {
+            // Harga lama baru hilang dari sketch saat rebuild berikutnya
+            priceSketchService.record(category, condition, price);
+        }
+        updateStats(oldCategory, oldCondition, category, condition);
+        updateSellerStats(userId, oldCategory, oldPrice, category, price);
+        return saved;
     }
 
     @Transactional
@@ -80,18 +120,153 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        updateStats(product.getCategory(), product.getCondition(), null, null);
+        updateSellerStats(userId, product.getCategory(), product.getPrice(), null, null);
+    }
+
+    /**
+     * Perbarui product_stats dengan selisih jumlah produk sebelum dan sesudah perubahan.
+     * Dipanggil dalam transaksi yang sama dengan perubahan produk sehingga jumlahnya selalu
+     * tepat. Baris diubah berurutan (dimensi lalu nama) agar dua transaksi yang mengubah baris
+     * yang sama mengunci dengan urutan yang sama dan tidak saling menunggu (deadlock).
+     */
+    private void updateStats(String oldCategory, String oldCondition, String newCategory, String newCondition) {
+        Map<ProductStat.Key, Long> deltas = new TreeMap<>();
+        addDelta(deltas, ProductStat.DIMENSION_CATEGORY, oldCategory, -1);
+        addDelta(deltas, ProductStat.DIMENSION_CATEGORY, newCategory, 1);
+        addDelta(deltas, ProductStat.DIMENSION_CONDITION, oldCondition, -1);
+        addDelta(deltas, ProductStat.DIMENSION_CONDITION, newCondition, 1);
+
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                productStatRepository.increment(key.getDimension(), key.getName(), delta);
+            }
+        });
+        incrementStatsVersion();
+    }
+
+    /**
+     * Perbarui seller_stats penjual dengan selisih jumlah dan nilai produk, dalam transaksi yang
+     * sama dengan perubahan produk. Baris total selalu ditulis (waktu aktivitas terakhir), baris
+     * kategori hanya jika berubah. Urutan kategori tetap (baris total lebih dulu) agar tidak
+     * deadlock, sama seperti product_stats.
+     */
+    private void updateSellerStats(UUID userId, String oldCategory, BigDecimal oldPrice,
+                                   String newCategory, BigDecimal newPrice) {
+        Map<String, SellerDelta> deltas = new TreeMap<>();
+        deltas.put(SellerStat.TOTAL, new SellerDelta(0, BigDecimal.ZERO));
+        addSellerDelta(deltas, oldCategory, oldPrice, -1);
+        addSellerDelta(deltas, newCategory, newPrice, 1);
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((category, delta) -> {
+            if (SellerStat.TOTAL.equals(category) || delta.count() != 0 || delta.value().signum() != 0) {
+                sellerStatRepository.increment(userId, category, delta.count(), delta.value(), now);
+            }
+        });
+    }
+
+    private static void addSellerDelta(Map<String, SellerDelta> deltas, String category, BigDecimal price, int sign) {
+        if (category == null) {
+            return;
+        }
+        SellerDelta delta = new SellerDelta(sign, price == null ? BigDecimal.ZERO : sign < 0 ? price.negate() : price);
+        deltas.merge(category, delta, SellerDelta::plus);
+        deltas.merge(SellerStat.TOTAL, delta, SellerDelta::plus);
+    }
+
+    private record SellerDelta(long count, BigDecimal value) {
+        SellerDelta plus(SellerDelta other) {
+            return new SellerDelta(count + other.count, value.add(other.value));
+        }
+    }
+
+    // Versi baru berlaku setelah commit (dan setelah harga masuk sketch, didaftarkan lebih dulu)
+    // agar cache data grafik tidak diisi ulang dengan data yang belum terlihat
+    private void incrementStatsVersion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    statsVersion.incrementAndGet();
+                }
+            });
+        } else {
+            statsVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Versi statistik di node ini, berubah setelah produk dibuat, diubah, atau dihapus
+     */
+    public long getStatsVersion() {
+        return statsVersion.get();
     }
 
+    private static void addDelta(Map<ProductStat.Key, Long> deltas, String dimension, String name, long delta) {
+        if (name != null) {
+            deltas.merge(new ProductStat.Key(dimension, name), delta, Long::sum);
+        }
+    }
+
+    /**
+     * Jumlah produk per kategori dari product_stats, format [nama, jumlah]
+     */
     public List<Object[]> getCategoryStatistics() {
-        return productRepository.countByCategory();
+        return getStatistics(ProductStat.DIMENSION_CATEGORY);
     }
 
+    /**
+     * Jumlah produk per kondisi dari product_stats, format [nama, jumlah]
+     */
     public List<Object[]> getConditionStatistics() {
-        return productRepository.countByCondition();
+        return getStatistics(ProductStat.DIMENSION_CONDITION);
+    }
+
+    private List<Object[]> getStatistics(String dimension) {
+        return productStatRepository.findByDimensionAndProductCountGreaterThanOrderByNameAsc(dimension, 0).stream()
+                .map(stat -> new Object[]{stat.getName(), stat.getProductCount()})
+                .toList();
     }
 
+    /**
+     * Jumlah produk penjual dari baris total seller_stats
+     */
     public Long countProductsByUserId(UUID userId) {
-        return productRepository.countByUserId(userId);
+        return sellerStatRepository.findById(new SellerStat.Key(userId, SellerStat.TOTAL))
+                .map(SellerStat::getProductCount)
+                .orElse(0L);
+    }
+
+    /**
+     * Ringkasan dashboard penjual: angka total dan per kategori dibaca dari seller_stats,
+     * ditambah lima produk yang terakhir diubah
+     */
+    public SellerDashboard getSellerDashboard(UUID userId) {
+        SellerStat total = null;
+        List<SellerCategory> categories = new ArrayList<>();
+        for (SellerStat stat : sellerStatRepository.findByUserIdOrderByCategoryAsc(userId)) {
+            if (stat.isTotal()) {
+                total = stat;
+            } else if (stat.getProductCount() > 0) {
+                categories.add(new SellerCategory(stat.getCategory(), stat.getProductCount(), stat.getTotalValue()));
+            }
+        }
+
+        List<Product> recentProducts = productRepository.findTop5ByUserIdOrderByUpdatedAtDesc(userId);
+        if (total == null) {
+            return new SellerDashboard(0, BigDecimal.ZERO, 0, null, categories, recentProducts);
+        }
+        return new SellerDashboard(total.getProductCount(), total.getTotalValue(), total.getViewCount(),
+                total.getLastActivityAt(), categories, recentProducts);
+    }
+
+    public record SellerDashboard(long productCount, BigDecimal totalValue, long viewCount,
+                                  LocalDateTime lastActivityAt, List<SellerCategory> categories,
+                                  List<Product> recentProducts) {
+    }
+
+    public record SellerCategory(String category, long productCount, BigDecimal totalValue) {
     }
 }
 
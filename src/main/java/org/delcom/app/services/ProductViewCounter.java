@@ -0,0 +1,120 @@
+package org.delcom.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.delcom.app.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Penghitung kunjungan halaman detail produk (write-behind).
+ *
+ * Setiap kunjungan hanya menambah LongAdder di memori tanpa menyentuh database, sehingga
+ * halaman detail tidak bertambah lambat dan kunjungan bersamaan ke produk yang sama tidak
+ * saling menunggu. Delta dikirim berkala ke kolom view_count dengan satu UPDATE per batch.
+ * Jika UPDATE gagal, delta dikembalikan ke memori dan dicoba lagi di flush berikutnya.
+ * Delta juga dikirim saat aplikasi berhenti; yang hilang hanya kunjungan sejak flush terakhir
+ * jika proses mati mendadak.
+ */
+@Service
+public class ProductViewCounter {
+    private final ProductRepository productRepository;
+    private final Map<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.stats.views.batch-size:500}")
+    private int batchSize = 500;
+
+    public ProductViewCounter(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public void recordView(UUID productId) {
+        add(productId, 1);
+    }
+
+    // Flush bisa membuang adder yang menganggur tepat setelah adder diambil dari map. Tambahan
+    // ke adder yang sudah dibuang tidak akan pernah dikirim, jadi dicatat ulang ke adder baru.
+    private void add(UUID productId, long delta) {
+        while (true) {
+            LongAdder adder = pending.computeIfAbsent(productId, id -> new LongAdder());
+            adder.add(delta);
+            if (pending.get(productId) == adder) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Jumlah kunjungan yang belum dikirim ke database
+     */
+    public long getPendingViews(UUID productId) {
+        LongAdder adder = pending.get(productId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Kirim delta kunjungan ke database
+     *
+     * @return jumlah kunjungan yang dikirim
+     */
+    @Scheduled(fixedDelayString = "${app.stats.views.flush-interval-ms:10000}")
+    public long flush() {
+        // Urut per id agar beberapa node mengunci baris dengan urutan yang mirip
+        Map<UUID, Long> deltas = new TreeMap<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(id, delta);
+            } else {
+                // Produk yang tidak dikunjungi sejak flush terakhir dibuang dari map. Dicek ulang di
+                // dalam compute: adder yang baru saja ditambah tetap disimpan, tambahan yang datang
+                // setelah adder dibuang dicatat ulang oleh add()
+                pending.computeIfPresent(id, (key, current) -> current == adder && current.sum() == 0 ? null : current);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        long total = 0;
+        List<Map.Entry<UUID, Long>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<UUID, Long> entry : deltas.entrySet()) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                total += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += write(batch);
+        }
+        return total;
+    }
+
+    private long write(List<Map.Entry<UUID, Long>> batch) {
+        String ids = batch.stream().map(entry -> entry.getKey().toString()).collect(Collectors.joining(","));
+        String deltas = batch.stream().map(entry -> entry.getValue().toString()).collect(Collectors.joining(","));
+        try {
+            productRepository.addViewCounts(ids, deltas);
+            return batch.stream().mapToLong(Map.Entry::getValue).sum();
+        } catch (RuntimeException e) {
+            System.err.println("Gagal menyimpan jumlah kunjungan produk: " + e.getMessage());
+            batch.forEach(entry -> add(entry.getKey(), entry.getValue()));
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
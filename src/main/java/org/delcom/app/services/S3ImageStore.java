@@ -0,0 +1,328 @@
+package org.delcom.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Store untuk object storage yang kompatibel dengan S3 (AWS S3, MinIO, dan sejenisnya).
+ *
+ * Request ditandatangani dengan AWS Signature Version 4 memakai HttpClient bawaan JDK,
+ * tanpa SDK tambahan. Baca file dari browser memakai presigned URL sehingga isi gambar
+ * tidak lagi melewati node aplikasi.
+ */
+@Component
+@ConditionalOnProperty(name = "app.image-store.type", havingValue = "s3")
+public class S3ImageStore implements ImageStore {
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_LIST_KEYS = 1000;
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final boolean pathStyle;
+    private final Duration presignTtl;
+    private final HttpClient httpClient;
+
+    public S3ImageStore(@Value("${app.image-store.s3.endpoint}") String endpoint,
+                        @Value("${app.image-store.s3.bucket}") String bucket,
+                        @Value("${app.image-store.s3.region:us-east-1}") String region,
+                        @Value("${app.image-store.s3.access-key}") String accessKey,
+                        @Value("${app.image-store.s3.secret-key}") String secretKey,
+                        @Value("${app.image-store.s3.path-style:true}") boolean pathStyle,
+                        @Value("${app.image-store.s3.presign-ttl-seconds:3600}") long presignTtlSeconds) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.pathStyle = pathStyle;
+        this.presignTtl = Duration.ofSeconds(presignTtlSeconds);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        String contentType = Files.probeContentType(source);
+        HttpRequest.Builder request = signed("PUT", key, Instant.now())
+                .header("Content-Type", contentType != null ? contentType : "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofFile(source));
+        HttpResponse<String> response = send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Upload ke storage gagal (" + response.statusCode() + "): " + key);
+        }
+    }
+
+    @Override
+    public boolean fetch(String key, Path target) throws IOException {
+        HttpResponse<InputStream> response = send(signed("GET", key, Instant.now()).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 404) {
+                return false;
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Unduh dari storage gagal (" + response.statusCode() + "): " + key);
+            }
+            Files.copy(body, target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<String> response = send(signed("DELETE", key, Instant.now()).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw new IOException("Hapus dari storage gagal (" + response.statusCode() + "): " + key);
+        }
+    }
+
+    /**
+     * HEAD object; header Last-Modified ikut diperbarui setiap kali object di-put ulang
+     */
+    @Override
+    public Instant lastModified(String key) throws IOException {
+        HttpResponse<Void> response = send(signed("HEAD", key, Instant.now())
+                .HEAD().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Baca metadata storage gagal (" + response.statusCode() + "): " + key);
+        }
+        String lastModified = response.headers().firstValue("Last-Modified")
+                .orElseThrow(() -> new IOException("Header Last-Modified tidak ada: " + key));
+        try {
+            return DateTimeFormatter.RFC_1123_DATE_TIME.parse(lastModified, Instant::from);
+        } catch (RuntimeException e) {
+            throw new IOException("Header Last-Modified tidak valid: " + lastModified, e);
+        }
+    }
+
+    @Override
+    public URI presignedUrl(String key) {
+        return presign(key, Instant.now(), presignTtl);
+    }
+
+    /**
+     * ListObjectsV2 satu halaman; S3 mengurutkan key berdasarkan byte UTF-8
+     */
+    @Override
+    public List<StoredObject> list(String startAfter, int limit) throws IOException {
+        Map<String, String> query = new TreeMap<>();
+        query.put("list-type", "2");
+        query.put("max-keys", String.valueOf(Math.min(limit, MAX_LIST_KEYS)));
+        if (startAfter != null && !startAfter.isEmpty()) {
+            query.put("start-after", startAfter);
+        }
+        HttpResponse<InputStream> response = send(signed("GET", objectUri(""), canonicalQuery(query), Instant.now())
+                .GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Daftar object storage gagal (" + response.statusCode() + ")");
+            }
+            return parseListing(body);
+        }
+    }
+
+    static List<StoredObject> parseListing(InputStream body) throws IOException {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setExpandEntityReferences(false);
+            document = factory.newDocumentBuilder().parse(body);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Respons daftar object tidak valid", e);
+        }
+
+        NodeList contents = document.getElementsByTagName("Contents");
+        List<StoredObject> objects = new ArrayList<>(contents.getLength());
+        for (int i = 0; i < contents.getLength(); i++) {
+            Element content = (Element) contents.item(i);
+            try {
+                objects.add(new StoredObject(text(content, "Key"), Long.parseLong(text(content, "Size")),
+                        Instant.parse(text(content, "LastModified"))));
+            } catch (RuntimeException e) {
+                throw new IOException("Respons daftar object tidak valid", e);
+            }
+        }
+        return objects;
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        if (nodes.getLength() == 0) {
+            throw new IllegalArgumentException("Elemen " + tag + " tidak ada");
+        }
+        return nodes.item(0).getTextContent();
+    }
+
+    /**
+     * Presigned GET (query string SigV4) untuk waktu tertentu
+     */
+    URI presign(String key, Instant now, Duration ttl) {
+        URI uri = objectUri(key);
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(amzDate);
+
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope);
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(ttl.getSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        String canonicalQuery = canonicalQuery(query);
+
+        String canonicalRequest = "GET\n" + uri.getRawPath() + "\n" + canonicalQuery + "\n"
+                + "host:" + hostHeader(uri) + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        String signature = sign(canonicalRequest, amzDate, scope);
+        return URI.create(uri + "?" + canonicalQuery + "&X-Amz-Signature=" + signature);
+    }
+
+    // Request dengan header Authorization SigV4; body tidak ikut di-hash (UNSIGNED-PAYLOAD)
+    HttpRequest.Builder signed(String method, String key, Instant now) {
+        return signed(method, objectUri(key), "", now);
+    }
+
+    HttpRequest.Builder signed(String method, URI uri, String canonicalQuery, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(amzDate);
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n" + uri.getRawPath() + "\n" + canonicalQuery + "\n"
+                + "host:" + hostHeader(uri) + "\n"
+                + "x-amz-content-sha256:" + UNSIGNED_PAYLOAD + "\n"
+                + "x-amz-date:" + amzDate + "\n\n"
+                + signedHeaders + "\n" + UNSIGNED_PAYLOAD;
+        String signature = sign(canonicalRequest, amzDate, scope);
+
+        return HttpRequest.newBuilder(canonicalQuery.isEmpty() ? uri : URI.create(uri + "?" + canonicalQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header("x-amz-content-sha256", UNSIGNED_PAYLOAD)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope
+                        + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request ke storage dibatalkan", e);
+        }
+    }
+
+    URI objectUri(String key) {
+        String path = "/" + encodePath(key);
+        if (pathStyle) {
+            return URI.create(endpoint + "/" + bucket + path);
+        }
+        String port = endpoint.getPort() == -1 ? "" : ":" + endpoint.getPort();
+        return URI.create(endpoint.getScheme() + "://" + bucket + "." + endpoint.getHost() + port + path);
+    }
+
+    private String scope(String amzDate) {
+        return amzDate.substring(0, 8) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private String sign(String canonicalRequest, String amzDate, String scope) {
+        try {
+            String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                    + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+            byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+            key = hmac(key, region);
+            key = hmac(key, SERVICE);
+            key = hmac(key, "aws4_request");
+            return HexFormat.of().formatHex(hmac(key, stringToSign));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Gagal menandatangani request storage", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hostHeader(URI uri) {
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static String canonicalQuery(Map<String, String> query) {
+        StringBuilder result = new StringBuilder();
+        query.forEach((name, value) -> {
+            if (result.length() > 0) {
+                result.append('&');
+            }
+            result.append(encode(name)).append('=').append(encode(value));
+        });
+        return result.toString();
+    }
+
+    private static String encodePath(String key) {
+        StringBuilder result = new StringBuilder();
+        for (String segment : key.split("/", -1)) {
+            if (result.length() > 0) {
+                result.append('/');
+            }
+            result.append(encode(segment));
+        }
+        return result.toString();
+    }
+
+    // URI encode sesuai SigV4: hanya A-Z a-z 0-9 - _ . ~ yang tidak di-encode
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+}
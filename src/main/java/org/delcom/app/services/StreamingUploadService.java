@@ -0,0 +1,92 @@
+package org.delcom.app.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.delcom.app.utils.LimitedInputStream;
+import org.delcom.app.utils.MultipartStreamParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Membaca form multipart langsung dari body request tanpa MultipartResolver.
+ *
+ * Part file ditulis sekali ke storage sambil di-hash lalu header gambarnya diperiksa
+ * (FileStorageService.storeImage), tidak lagi disalin dulu ke file sementara container
+ * lalu disalin ulang ke direktori upload.
+ * Field biasa disimpan di memori dengan batas ukuran dan jumlah.
+ */
+@Service
+public class StreamingUploadService {
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+    private static final int MAX_FIELDS = 32;
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${spring.servlet.multipart.max-file-size:1MB}")
+    private DataSize maxFileSize = DataSize.ofMegabytes(1);
+
+    @Value("${spring.servlet.multipart.max-request-size:10MB}")
+    private DataSize maxRequestSize = DataSize.ofMegabytes(10);
+
+    public StreamingUploadService(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    /**
+     * Hasil parsing form: field teks dan URL file yang sudah tersimpan (null jika tidak ada file)
+     */
+    public record UploadForm(Map<String, String> fields, String fileUrl) {
+        public String field(String name) {
+            String value = fields.get(name);
+            if (value == null) {
+                throw new RuntimeException("Parameter " + name + " wajib diisi");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Parse body multipart/form-data dan simpan part file bernama filePartName.
+     * Part file lain diabaikan. Jika parsing gagal setelah file tersimpan, file tersebut
+     * tidak dihapus di sini karena bisa jadi dipakai bersama produk lain (content-addressed).
+     */
+    public UploadForm parse(HttpServletRequest request, String filePartName) throws IOException {
+        String boundary = MultipartStreamParser.extractBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new RuntimeException("Request harus berupa multipart/form-data");
+        }
+        if (request.getContentLengthLong() > maxRequestSize.toBytes()) {
+            throw new RuntimeException("Ukuran request melebihi batas");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        String[] fileUrl = new String[1];
+        InputStream body = new LimitedInputStream(request.getInputStream(), maxRequestSize.toBytes(),
+                "Ukuran request melebihi batas");
+
+        new MultipartStreamParser(body, boundary, MAX_FIELD_BYTES).parse(new MultipartStreamParser.PartHandler() {
+            @Override
+            public void onField(String name, String value) {
+                if (fields.size() >= MAX_FIELDS) {
+                    throw new RuntimeException("Jumlah field terlalu banyak");
+                }
+                fields.put(name, value);
+            }
+
+            @Override
+            public void onFile(String name, String filename, InputStream content) {
+                // Input file kosong di browser tetap dikirim sebagai part dengan filename kosong
+                if (filePartName.equals(name) && fileUrl[0] == null && !filename.isEmpty()) {
+                    fileUrl[0] = fileStorageService.storeImage(content, maxFileSize.toBytes());
+                }
+            }
+        });
+
+        return new UploadForm(fields, fileUrl[0]);
+    }
+}
@@ -0,0 +1,126 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.DecayedTopK;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Produk trending untuk halaman beranda: skor popularitas dari kunjungan halaman detail dan klik
+ * "Beli Sekarang", meluruh setengahnya setiap app.trending.half-life-hours.
+ *
+ * Setiap kejadian memperbarui DecayedTopK (O(log capacity)). Daftar produk trending disusun
+ * ulang berkala di background, halaman beranda hanya membaca daftar yang sudah jadi.
+ * Setiap node menghitung dari kejadian yang diterimanya sendiri.
+ *
+ * Satu user hanya dihitung sekali per produk untuk setiap jenis kejadian dalam
+ * app.trending.dedupe-window-minutes, sehingga refresh atau klik berulang tidak menaikkan skor.
+ */
+@Service
+public class TrendingService {
+    static final double VIEW_WEIGHT = 1;
+    // Klik beli menunjukkan minat yang lebih kuat dari sekadar melihat
+    static final double CONTACT_WEIGHT = 5;
+
+    private final ProductRepository productRepository;
+    private final DecayedTopK<UUID> topK;
+
+    @Value("${app.trending.size:6}")
+    private int size = 6;
+
+    @Value("${app.trending.dedupe-window-minutes:60}")
+    private long dedupeWindowMinutes = 60;
+
+    // Batas jumlah pasangan (user, produk) yang diingat; jika penuh, kejadian baru tidak dihitung
+    @Value("${app.trending.dedupe-max-entries:100000}")
+    private int dedupeMaxEntries = 100000;
+
+    private volatile List<Product> trending = List.of();
+
+    // Waktu terakhir kejadian dihitung per (user, produk, jenis), dibersihkan saat refresh
+    private final Map<EventKey, Long> counted = new ConcurrentHashMap<>();
+
+    private record EventKey(UUID userId, UUID productId, boolean contact) {
+    }
+
+    public TrendingService(ProductRepository productRepository,
+                           @Value("${app.trending.capacity:200}") int capacity,
+                           @Value("${app.trending.half-life-hours:6}") long halfLifeHours) {
+        this.productRepository = productRepository;
+        this.topK = new DecayedTopK<>(capacity, Duration.ofHours(halfLifeHours), System.currentTimeMillis());
+    }
+
+    public void recordView(UUID productId, UUID userId) {
+        long now = System.currentTimeMillis();
+        if (firstInWindow(new EventKey(userId, productId, false), now)) {
+            topK.add(productId, VIEW_WEIGHT, now);
+        }
+    }
+
+    public void recordContact(UUID productId, UUID userId) {
+        long now = System.currentTimeMillis();
+        if (firstInWindow(new EventKey(userId, productId, true), now)) {
+            topK.add(productId, CONTACT_WEIGHT, now);
+        }
+    }
+
+    private boolean firstInWindow(EventKey key, long now) {
+        if (counted.size() >= dedupeMaxEntries && !counted.containsKey(key)) {
+            return false;
+        }
+        long windowMs = TimeUnit.MINUTES.toMillis(dedupeWindowMinutes);
+        boolean[] first = {false};
+        counted.compute(key, (k, last) -> {
+            if (last == null || now - last >= windowMs) {
+                first[0] = true;
+                return now;
+            }
+            return last;
+        });
+        return first[0];
+    }
+
+    /**
+     * Produk trending terakhir, urut dari skor tertinggi
+     */
+    public List<Product> getTrending() {
+        return trending;
+    }
+
+    /**
+     * Susun ulang daftar trending dari top-K. Produk yang sudah dihapus dibuang dari top-K,
+     * begitu juga catatan kejadian yang sudah lewat dari jendela dedupe.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.refresh-interval-ms:30000}")
+    public void refresh() {
+        long expiredBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(dedupeWindowMinutes);
+        counted.values().removeIf(last -> last <= expiredBefore);
+
+        List<UUID> ids = topK.top(size);
+        Map<UUID, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Product> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Product product = products.get(id);
+            if (product == null) {
+                topK.remove(id);
+            } else {
+                result.add(product);
+            }
+        }
+        trending = List.copyOf(result);
+    }
+}
@@ -0,0 +1,226 @@
+package org.delcom.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.delcom.app.repositories.ProductViewerSketchRepository;
+import org.delcom.app.utils.HyperLogLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perkiraan pengunjung unik per produk dengan sketch HyperLogLog, tanpa menyimpan pasangan
+ * (produk, pengunjung).
+ *
+ * Kunjungan dicatat ke sketch di memori, lalu digabung berkala ke tabel product_viewer_sketches
+ * (bytea). Sketch beberapa produk digabung untuk total per penjual dan per kategori, sehingga
+ * pengunjung yang melihat beberapa produk tetap dihitung satu kali.
+ */
+@Service
+public class UniqueViewerService {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ProductViewerSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Semua perubahan sketch lewat compute/merge map sehingga tidak ada kunjungan yang hilang saat flush
+    private final Map<UUID, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.stats.viewers.batch-size:200}")
+    private int batchSize = 200;
+
+    // Total per kategori membaca semua sketch, hasilnya dipakai ulang selama waktu ini
+    @Value("${app.stats.viewers.category-cache-seconds:300}")
+    private long categoryCacheSeconds = 300;
+
+    // Total per penjual membaca sketch semua produknya, dipakai ulang selama waktu ini
+    @Value("${app.stats.viewers.seller-cache-seconds:60}")
+    private long sellerCacheSeconds = 60;
+
+    private volatile CategoryEstimates categoryEstimates;
+
+    private final Map<UUID, SellerEstimate> sellerEstimates = new ConcurrentHashMap<>();
+
+    private record CategoryEstimates(Map<String, Long> estimates, long loadedAtNanos) {
+    }
+
+    private record SellerEstimate(long estimate, long loadedAtNanos) {
+    }
+
+    public UniqueViewerService(ProductViewerSketchRepository sketchRepository, TransactionTemplate transactionTemplate) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Catat kunjungan. visitorKey sebaiknya id user; hanya hash-nya yang disimpan.
+     */
+    public void recordVisitor(UUID productId, String visitorKey) {
+        long hash = HyperLogLog.hash(visitorKey);
+        pending.compute(productId, (id, sketch) -> {
+            HyperLogLog target = sketch == null ? new HyperLogLog() : sketch;
+            target.add(hash);
+            return target;
+        });
+    }
+
+    /**
+     * Gabungkan sketch di memori ke database
+     *
+     * @return jumlah produk yang diperbarui
+     */
+    @Scheduled(fixedDelayString = "${app.stats.viewers.flush-interval-ms:30000}")
+    public int flush() {
+        // Urut per id agar beberapa node mengunci baris dengan urutan yang sama
+        List<UUID> ids = new ArrayList<>(pending.keySet());
+        Collections.sort(ids);
+
+        int total = 0;
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            Map<UUID, HyperLogLog> batch = new LinkedHashMap<>();
+            for (UUID id : ids.subList(start, Math.min(start + batchSize, ids.size()))) {
+                HyperLogLog sketch = pending.remove(id);
+                if (sketch != null) {
+                    batch.put(id, sketch);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+                total += batch.size();
+            } catch (RuntimeException e) {
+                System.err.println("Gagal menyimpan sketch pengunjung unik: " + e.getMessage());
+                batch.forEach((id, sketch) -> pending.merge(id, sketch, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                }));
+            }
+        }
+
+        // Perkiraan penjual yang kedaluwarsa dibuang agar map tidak tumbuh dengan penjual yang tidak aktif
+        sellerEstimates.values().removeIf(estimate -> !isFresh(estimate.loadedAtNanos(), sellerCacheSeconds));
+        return total;
+    }
+
+    private void write(UUID productId, HyperLogLog sketch) {
+        if (sketchRepository.createIfMissing(productId, sketch.toBytes()) > 0) {
+            return;
+        }
+        sketchRepository.findForUpdate(productId).ifPresent(row -> {
+            HyperLogLog merged = HyperLogLog.fromBytes(row.getSketch());
+            merged.merge(sketch);
+            row.setSketch(merged.toBytes());
+            sketchRepository.save(row);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Hapus sketch produk yang sudah dihapus
+     */
+    @Scheduled(cron = "${app.stats.viewers.cleanup-cron:0 45 3 * * *}")
+    public int deleteOrphans() {
+        return sketchRepository.deleteOrphans();
+    }
+
+    /**
+     * Perkiraan pengunjung unik satu produk, termasuk kunjungan yang belum di-flush
+     */
+    public long estimateProduct(UUID productId) {
+        HyperLogLog result = new HyperLogLog();
+        sketchRepository.findById(productId)
+                .ifPresent(row -> result.merge(HyperLogLog.fromBytes(row.getSketch())));
+        pending.computeIfPresent(productId, (id, sketch) -> {
+            result.merge(sketch);
+            return sketch;
+        });
+        return result.estimate();
+    }
+
+    /**
+     * Perkiraan pengunjung unik semua produk seorang penjual (dari database). Hasilnya di-cache
+     * per penjual selama app.stats.viewers.seller-cache-seconds.
+     */
+    public long estimateSeller(UUID userId) {
+        SellerEstimate current = sellerEstimates.get(userId);
+        if (current != null && isFresh(current.loadedAtNanos(), sellerCacheSeconds)) {
+            return current.estimate();
+        }
+        long estimate = loadSeller(userId);
+        sellerEstimates.put(userId, new SellerEstimate(estimate, System.nanoTime()));
+        return estimate;
+    }
+
+    private long loadSeller(UUID userId) {
+        HyperLogLog result = new HyperLogLog();
+        for (byte[] data : sketchRepository.findSketchesBySeller(userId)) {
+            result.merge(HyperLogLog.fromBytes(data));
+        }
+        return result.estimate();
+    }
+
+    /**
+     * Perkiraan pengunjung unik per kategori (dari database), diurutkan berdasarkan nama kategori.
+     * Hasilnya di-cache app.stats.viewers.category-cache-seconds, dan hanya satu request yang
+     * membaca ulang tabel saat cache kedaluwarsa.
+     */
+    public Map<String, Long> estimateCategories() {
+        CategoryEstimates current = categoryEstimates;
+        if (isFresh(current)) {
+            return current.estimates();
+        }
+        synchronized (this) {
+            current = categoryEstimates;
+            if (isFresh(current)) {
+                return current.estimates();
+            }
+            Map<String, Long> estimates = Collections.unmodifiableMap(loadCategories());
+            categoryEstimates = new CategoryEstimates(estimates, System.nanoTime());
+            return estimates;
+        }
+    }
+
+    private boolean isFresh(CategoryEstimates current) {
+        return current != null && isFresh(current.loadedAtNanos(), categoryCacheSeconds);
+    }
+
+    private static boolean isFresh(long loadedAtNanos, long cacheSeconds) {
+        return System.nanoTime() - loadedAtNanos < TimeUnit.SECONDS.toNanos(cacheSeconds);
+    }
+
+    // Sketch dibaca per batch sehingga memori tetap satu sketch per kategori
+    private Map<String, Long> loadCategories() {
+        Map<String, HyperLogLog> merged = new HashMap<>();
+        UUID afterId = FIRST_ID;
+        while (true) {
+            List<Object[]> rows = sketchRepository.findCategorySketchBatch(afterId, PageRequest.ofSize(batchSize));
+            for (Object[] row : rows) {
+                merged.computeIfAbsent((String) row[1], category -> new HyperLogLog())
+                        .merge(HyperLogLog.fromBytes((byte[]) row[2]));
+            }
+            if (rows.size() < batchSize) {
+                break;
+            }
+            afterId = (UUID) rows.get(rows.size() - 1)[0];
+        }
+
+        Map<String, Long> result = new TreeMap<>();
+        merged.forEach((category, sketch) -> result.put(category, sketch.estimate()));
+        return result;
+    }
+}
@@ -0,0 +1,117 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ImageJobRepository;
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.ImageUtil;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Migrasi satu kali file upload dari direktori datar ke layout berlapis (ab/cd/{filename}).
+ *
+ * Produk dibaca per batch berurutan id. Untuk setiap gambar, file (dan thumbnail-nya) lebih
+ * dulu di-hard link ke lokasi baru, lalu image_url diubah, baru file lama dihapus. Jika proses
+ * terhenti di tengah jalan, menjalankan ulang migrasi aman dan melanjutkan sisanya.
+ */
+@Service
+public class UploadShardMigrationService {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ProductRepository productRepository;
+    private final ImageJobRepository imageJobRepository;
+    private final FileStorageService fileStorageService;
+
+    public UploadShardMigrationService(ProductRepository productRepository,
+                                       ImageJobRepository imageJobRepository,
+                                       FileStorageService fileStorageService) {
+        this.productRepository = productRepository;
+        this.imageJobRepository = imageJobRepository;
+        this.fileStorageService = fileStorageService;
+    }
+
+    /**
+     * Jalankan migrasi sampai semua produk memakai URL berlapis
+     *
+     * @param batchSize jumlah produk yang dibaca per query
+     * @return jumlah URL gambar yang dipindahkan
+     */
+    public int migrate(int batchSize) {
+        int migrated = 0;
+        UUID afterId = FIRST_ID;
+        while (true) {
+            List<Product> batch = productRepository.findFlatImageBatch(afterId, PageRequest.ofSize(batchSize));
+            for (Product product : batch) {
+                // Produk lain dengan gambar sama ikut diubah lewat updateImageUrl, jadi tidak dihitung dua kali
+                if (migrateImage(product.getImageUrl(), product.getImageVariants())) {
+                    migrated++;
+                }
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        System.out.println("Migrasi layout upload selesai: " + migrated + " gambar dipindahkan");
+        return migrated;
+    }
+
+    private boolean migrateImage(String oldUrl, String variants) {
+        String filename = oldUrl.substring(oldUrl.lastIndexOf('/') + 1);
+        String newUrl = FileStorageService.URL_PREFIX + FileStorageService.shardedPath(filename);
+        if (newUrl.equals(oldUrl)) {
+            return false;
+        }
+
+        List<String> urls = new ArrayList<>();
+        urls.add(oldUrl);
+        if (variants != null && !variants.isEmpty()) {
+            for (String width : variants.split(",")) {
+                urls.add(ImageUtil.variantUrl(oldUrl, Integer.parseInt(width.trim())));
+            }
+        }
+
+        String newDirectory = newUrl.substring(0, newUrl.lastIndexOf('/') + 1);
+        try {
+            for (String url : urls) {
+                Path source = fileStorageService.resolvePath(url);
+                Path target = fileStorageService.resolvePath(newDirectory + url.substring(url.lastIndexOf('/') + 1));
+                linkOrCopy(source, target);
+            }
+        } catch (IOException e) {
+            System.err.println("Gagal memindahkan gambar: " + oldUrl + " - " + e.getMessage());
+            return false;
+        }
+
+        int updated = productRepository.updateImageUrl(oldUrl, newUrl);
+        imageJobRepository.updateImageUrl(oldUrl, newUrl);
+
+        // URL sudah menunjuk ke lokasi baru, file lama aman dihapus
+        for (String url : urls) {
+            fileStorageService.deleteFile(url);
+        }
+        return updated > 0;
+    }
+
+    private void linkOrCopy(Path source, Path target) throws IOException {
+        if (!Files.exists(source)) {
+            return; // sudah dipindahkan sebelumnya (gambar dipakai beberapa produk atau migrasi diulang)
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            // Isi sama (nama berasal dari hash/UUID), file lama cukup dihapus setelah URL diubah
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target);
+        }
+    }
+}
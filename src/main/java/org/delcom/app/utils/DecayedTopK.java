@@ -0,0 +1,128 @@
+package org.delcom.app.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * K item dengan skor tertinggi, skor meluruh eksponensial terhadap waktu (setengahnya setiap
+ * halfLife). Jumlah item yang dilacak dibatasi capacity dengan algoritma Space-Saving: jika
+ * penuh, item dengan skor terkecil diganti item baru yang mewarisi skornya, sehingga item yang
+ * sering muncul tidak pernah terlewat walau skornya bisa sedikit terlalu tinggi.
+ *
+ * Skor disimpan dalam satuan waktu acuan (landmark): bobot kejadian pada waktu t dikali
+ * 2^((t - landmark) / halfLife), sehingga peluruhan tidak perlu mengubah semua item dan setiap
+ * kejadian cukup O(log capacity). Jika faktor pengali sudah terlalu besar, semua skor diskalakan
+ * ulang ke landmark baru.
+ */
+public class DecayedTopK<K extends Comparable<K>> {
+    // Batas eksponen sebelum skala ulang, jauh di bawah batas double (2^1023)
+    private static final double MAX_EXPONENT = 64;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Map<K, Item<K>> items = new HashMap<>();
+    private final TreeSet<Item<K>> ordered = new TreeSet<>(
+            Comparator.<Item<K>>comparingDouble(item -> item.score).thenComparing(item -> item.key));
+    private long landmark;
+
+    public DecayedTopK(int capacity, Duration halfLife, long nowMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity minimal 1");
+        }
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("Half-life harus positif");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.landmark = nowMillis;
+    }
+
+    private static final class Item<K> {
+        private final K key;
+        private double score;
+
+        private Item(K key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+    }
+
+    public synchronized void add(K key, double weight, long nowMillis) {
+        double exponent = (nowMillis - landmark) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(nowMillis);
+            exponent = 0;
+        }
+        double scaled = weight * Math.pow(2, exponent);
+
+        Item<K> item = items.get(key);
+        if (item == null) {
+            if (items.size() < capacity) {
+                item = new Item<>(key, 0);
+                items.put(key, item);
+            } else {
+                // Space-Saving: ambil alih posisi item terkecil beserta skornya
+                Item<K> smallest = ordered.pollFirst();
+                items.remove(smallest.key);
+                item = new Item<>(key, smallest.score);
+                items.put(key, item);
+                ordered.add(item);
+            }
+        }
+        ordered.remove(item);
+        item.score += scaled;
+        ordered.add(item);
+    }
+
+    public synchronized void remove(K key) {
+        Item<K> item = items.remove(key);
+        if (item != null) {
+            ordered.remove(item);
+        }
+    }
+
+    /**
+     * Skor item pada waktu nowMillis, 0 jika tidak dilacak
+     */
+    public synchronized double score(K key, long nowMillis) {
+        Item<K> item = items.get(key);
+        if (item == null) {
+            return 0;
+        }
+        return item.score * Math.pow(2, (landmark - nowMillis) / halfLifeMillis);
+    }
+
+    /**
+     * Maksimal n item dengan skor tertinggi, berurutan dari yang tertinggi. Urutan tidak
+     * bergantung waktu karena semua skor meluruh dengan faktor yang sama.
+     */
+    public synchronized List<K> top(int n) {
+        List<K> result = new ArrayList<>(Math.min(n, items.size()));
+        Iterator<Item<K>> iterator = ordered.descendingIterator();
+        while (iterator.hasNext() && result.size() < n) {
+            result.add(iterator.next().key);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    private void rescale(long nowMillis) {
+        double factor = Math.pow(2, (landmark - nowMillis) / halfLifeMillis);
+        List<Item<K>> all = new ArrayList<>(ordered);
+        ordered.clear();
+        for (Item<K> item : all) {
+            item.score *= factor;
+            ordered.add(item);
+        }
+        landmark = nowMillis;
+    }
+}
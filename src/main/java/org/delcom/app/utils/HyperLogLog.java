@@ -0,0 +1,163 @@
+package org.delcom.app.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sketch HyperLogLog untuk memperkirakan jumlah nilai unik dengan memori tetap: 2^precision
+ * register satu byte (precision 10: 1 KB, error sekitar 3%). Dua sketch digabung dengan
+ * mengambil nilai register terbesar, sehingga gabungan beberapa produk menghitung pengunjung
+ * yang sama hanya sekali.
+ *
+ * Format simpan (toBytes): byte pertama berisi precision, bit 7 menandai format sparse.
+ * Sketch yang masih sedikit terisi disimpan sebagai pasangan (index 2 byte, nilai 1 byte),
+ * selain itu semua register disimpan apa adanya.
+ *
+ * Tidak thread-safe, pemanggil yang mengatur sinkronisasi.
+ */
+public class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 10;
+    private static final int SPARSE_FLAG = 0x80;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision harus antara 4 dan 16");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Hash 64-bit dari string (FNV-1a lalu finalizer MurmurHash3 agar bit-bitnya tersebar rata)
+     */
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public void add(long hash) {
+        // precision bit teratas memilih register, sisanya menentukan jumlah nol di depan
+        int index = (int) (hash >>> (64 - precision));
+        long rest = hash << precision;
+        int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Precision sketch berbeda");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Perkiraan jumlah nilai unik
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // Untuk jumlah kecil, hitung dari register yang masih kosong (linear counting)
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    public byte[] toBytes() {
+        int filled = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                filled++;
+            }
+        }
+
+        if (filled * 3 < registers.length) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1 + filled * 3);
+            out.write(precision | SPARSE_FLAG);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    out.write(i >>> 8);
+                    out.write(i);
+                    out.write(registers[i]);
+                }
+            }
+            return out.toByteArray();
+        }
+
+        byte[] data = new byte[1 + registers.length];
+        data[0] = (byte) precision;
+        System.arraycopy(registers, 0, data, 1, registers.length);
+        return data;
+    }
+
+    public static HyperLogLog fromBytes(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Data sketch kosong");
+        }
+        boolean sparse = (data[0] & SPARSE_FLAG) != 0;
+        HyperLogLog sketch = new HyperLogLog(data[0] & 0x1f);
+        int m = sketch.registers.length;
+
+        if (sparse) {
+            if ((data.length - 1) % 3 != 0) {
+                throw new IllegalArgumentException("Data sketch tidak valid");
+            }
+            for (int i = 1; i < data.length; i += 3) {
+                int index = ((data[i] & 0xff) << 8) | (data[i + 1] & 0xff);
+                if (index >= m) {
+                    throw new IllegalArgumentException("Data sketch tidak valid");
+                }
+                sketch.registers[index] = data[i + 2];
+            }
+        } else {
+            if (data.length != 1 + m) {
+                throw new IllegalArgumentException("Data sketch tidak valid");
+            }
+            System.arraycopy(data, 1, sketch.registers, 0, m);
+        }
+        return sketch;
+    }
+}
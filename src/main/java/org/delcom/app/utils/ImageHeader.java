@@ -0,0 +1,136 @@
+package org.delcom.app.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+
+/**
+ * Jenis dan dimensi gambar yang dibaca dari header file (magic bytes dan segmen awal),
+ * tanpa decode pixel. Dipakai untuk menolak file yang bukan gambar atau resolusinya
+ * terlalu besar sebelum gambar di-decode ke memori.
+ *
+ * Format yang dikenali: JPEG, PNG, GIF, dan WebP.
+ */
+public class ImageHeader {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final String format;
+    private final int width;
+    private final int height;
+
+    private ImageHeader(String format, int width, int height) {
+        this.format = format;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Nama format: jpeg, png, gif, atau webp
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Ekstensi file untuk format ini, contoh .jpg
+     */
+    public String getExtension() {
+        return format.equals("jpeg") ? ".jpg" : "." + format;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getPixels() {
+        return (long) width * height;
+    }
+
+    /**
+     * Baca header gambar dari awal stream. Hanya bagian header yang dibaca, untuk JPEG
+     * segmen sebelum SOF dilewati tanpa disimpan di memori (kecuali segmen EXIF, maksimal 64 KB).
+     *
+     * @return header, atau null jika format tidak dikenali
+     * @throws IOException jika header terpotong atau dimensinya tidak valid
+     */
+    public static ImageHeader read(InputStream input) throws IOException {
+        byte[] prefix = input.readNBytes(16);
+        DataInputStream in = new DataInputStream(new SequenceInputStream(new ByteArrayInputStream(prefix), input));
+
+        ImageHeader header;
+        if (prefix.length >= 2 && (prefix[0] & 0xff) == 0xFF && (prefix[1] & 0xff) == 0xD8) {
+            JpegHeader jpeg = JpegHeader.read(in);
+            header = new ImageHeader("jpeg", jpeg.getWidth(), jpeg.getHeight());
+        } else if (startsWith(prefix, PNG_SIGNATURE)) {
+            header = readPng(in);
+        } else if (startsWith(prefix, "GIF87a".getBytes()) || startsWith(prefix, "GIF89a".getBytes())) {
+            in.skipNBytes(6);
+            header = new ImageHeader("gif", readShortLe(in), readShortLe(in));
+        } else if (startsWith(prefix, "RIFF".getBytes()) && prefix.length >= 12
+                && Arrays.equals(prefix, 8, 12, "WEBP".getBytes(), 0, 4)) {
+            header = readWebp(in);
+        } else {
+            return null;
+        }
+
+        if (header.width <= 0 || header.height <= 0) {
+            throw new IOException("Dimensi gambar tidak valid");
+        }
+        return header;
+    }
+
+    // Chunk pertama PNG wajib IHDR: lebar dan tinggi 4 byte big endian
+    private static ImageHeader readPng(DataInputStream in) throws IOException {
+        in.skipNBytes(PNG_SIGNATURE.length + 4);
+        if (in.readInt() != 0x49484452) {
+            throw new IOException("Chunk IHDR PNG tidak ditemukan");
+        }
+        return new ImageHeader("png", in.readInt(), in.readInt());
+    }
+
+    // RIFF WebP: chunk pertama VP8 (lossy), VP8L (lossless), atau VP8X (extended)
+    private static ImageHeader readWebp(DataInputStream in) throws IOException {
+        in.skipNBytes(12);
+        byte[] chunk = in.readNBytes(4);
+        in.skipNBytes(4); // ukuran chunk
+
+        if (Arrays.equals(chunk, "VP8 ".getBytes())) {
+            in.skipNBytes(3); // frame tag
+            if (in.readUnsignedByte() != 0x9D || in.readUnsignedByte() != 0x01 || in.readUnsignedByte() != 0x2A) {
+                throw new IOException("Start code VP8 tidak valid");
+            }
+            return new ImageHeader("webp", readShortLe(in) & 0x3FFF, readShortLe(in) & 0x3FFF);
+        }
+        if (Arrays.equals(chunk, "VP8L".getBytes())) {
+            if (in.readUnsignedByte() != 0x2F) {
+                throw new IOException("Signature VP8L tidak valid");
+            }
+            long bits = readShortLe(in) | ((long) readShortLe(in) << 16);
+            return new ImageHeader("webp", (int) (bits & 0x3FFF) + 1, (int) ((bits >> 14) & 0x3FFF) + 1);
+        }
+        if (Arrays.equals(chunk, "VP8X".getBytes())) {
+            in.skipNBytes(4); // flag dan reserved
+            return new ImageHeader("webp", readInt24Le(in) + 1, readInt24Le(in) + 1);
+        }
+        throw new IOException("Chunk WebP tidak dikenal");
+    }
+
+    private static boolean startsWith(byte[] data, byte[] signature) {
+        return data.length >= signature.length && Arrays.equals(data, 0, signature.length, signature, 0, signature.length);
+    }
+
+    private static int readShortLe(DataInputStream in) throws IOException {
+        return in.readUnsignedByte() | (in.readUnsignedByte() << 8);
+    }
+
+    private static int readInt24Le(DataInputStream in) throws IOException {
+        return readShortLe(in) | (in.readUnsignedByte() << 16);
+    }
+}
@@ -0,0 +1,63 @@
+package org.delcom.app.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ImageUtil {
+
+    // Penanda lebar pada nama file turunan, contoh: abc.jpg -> abc_w480.jpg
+    private static final String VARIANT_SUFFIX = "_w";
+    private static final Pattern VARIANT_NAME = Pattern.compile("^(.*/)?([^/]+)_w\\d+(\\.[^./]*)?$");
+
+    /**
+     * URL file turunan (thumbnail) dengan lebar tertentu dari sebuah gambar
+     *
+     * @param imageUrl URL gambar asli, contoh /uploads/images/abc.jpg
+     * @param width    lebar turunan dalam pixel
+     */
+    public static String variantUrl(String imageUrl, int width) {
+        int slash = imageUrl.lastIndexOf('/');
+        int dot = imageUrl.lastIndexOf('.');
+        if (dot <= slash) {
+            return imageUrl + VARIANT_SUFFIX + width;
+        }
+        return imageUrl.substring(0, dot) + VARIANT_SUFFIX + width + imageUrl.substring(dot);
+    }
+
+    /**
+     * Kebalikan dari variantUrl
+     *
+     * @param url URL file, contoh /uploads/images/abc_w480.jpg
+     * @return URL gambar asli (/uploads/images/abc.jpg), atau null jika url bukan turunan
+     */
+    public static String originalUrl(String url) {
+        Matcher matcher = VARIANT_NAME.matcher(url);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String directory = matcher.group(1) != null ? matcher.group(1) : "";
+        String extension = matcher.group(3) != null ? matcher.group(3) : "";
+        return directory + matcher.group(2) + extension;
+    }
+
+    /**
+     * Susun nilai atribut srcset dari daftar lebar turunan yang tersimpan
+     *
+     * @param imageUrl URL gambar asli
+     * @param variants daftar lebar dipisah koma, contoh "200,480,1024"
+     * @return nilai srcset, atau null jika gambar tidak memiliki turunan
+     */
+    public static String srcset(String imageUrl, String variants) {
+        if (imageUrl == null || variants == null || variants.isEmpty()) {
+            return null;
+        }
+        StringBuilder srcset = new StringBuilder();
+        for (String width : variants.split(",")) {
+            if (srcset.length() > 0) {
+                srcset.append(", ");
+            }
+            srcset.append(variantUrl(imageUrl, Integer.parseInt(width.trim()))).append(' ').append(width.trim()).append('w');
+        }
+        return srcset.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package org.delcom.app.utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Informasi dari segmen header JPEG (sebelum data gambar), dibaca tanpa decode pixel.
+ */
+public class JpegHeader {
+    private static final int TAG_ORIENTATION = 0x0112;
+
+    private final int orientation;
+    private final boolean hasMetadata;
+    private final int width;
+    private final int height;
+
+    private JpegHeader(int orientation, boolean hasMetadata, int width, int height) {
+        this.orientation = orientation;
+        this.hasMetadata = hasMetadata;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Nilai tag EXIF Orientation (1-8), 1 jika tidak ada
+     */
+    public int getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * true jika ada segmen selain JFIF (EXIF, XMP, ICC, komentar, dan sejenisnya)
+     */
+    public boolean hasMetadata() {
+        return hasMetadata;
+    }
+
+    /**
+     * Lebar gambar dari segmen SOF, 0 jika tidak ada
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Tinggi gambar dari segmen SOF, 0 jika tidak ada (atau ditunda ke marker DNL)
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Baca segmen header sampai awal data gambar (SOS)
+     *
+     * @return header, atau null jika stream bukan JPEG
+     */
+    public static JpegHeader read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readUnsignedShort() != 0xFFD8) {
+            return null;
+        }
+
+        int orientation = 1;
+        boolean hasMetadata = false;
+        int width = 0;
+        int height = 0;
+        while (true) {
+            int marker = in.readUnsignedByte();
+            if (marker != 0xFF) {
+                throw new IOException("Marker JPEG tidak valid");
+            }
+            while (marker == 0xFF) {
+                marker = in.readUnsignedByte(); // byte pengisi 0xFF boleh berulang
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                return new JpegHeader(orientation, hasMetadata, width, height);
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue; // marker tanpa panjang
+            }
+
+            int length = in.readUnsignedShort() - 2;
+            if (length < 0) {
+                throw new IOException("Panjang segmen JPEG tidak valid");
+            }
+            if ((marker >= 0xE1 && marker <= 0xEF) || marker == 0xFE) {
+                hasMetadata = true;
+            }
+            if (isStartOfFrame(marker) && length >= 5) {
+                in.readUnsignedByte(); // presisi sampel
+                height = in.readUnsignedShort();
+                width = in.readUnsignedShort();
+                in.skipNBytes(length - 5);
+            } else if (marker == 0xE1) {
+                byte[] segment = new byte[length];
+                in.readFully(segment);
+                orientation = exifOrientation(segment, orientation);
+            } else {
+                in.skipNBytes(length);
+            }
+        }
+    }
+
+    // SOF0-SOF15 kecuali DHT (C4), JPG (C8), dan DAC (CC) yang memakai nomor marker yang sama
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    // Segmen APP1: "Exif\0\0" diikuti header TIFF dan IFD0
+    private static int exifOrientation(byte[] segment, int fallback) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i'
+                || segment[3] != 'f' || segment[4] != 0 || segment[5] != 0) {
+            return fallback;
+        }
+        int tiff = 6;
+        boolean littleEndian = segment[tiff] == 'I' && segment[tiff + 1] == 'I';
+        if (!littleEndian && !(segment[tiff] == 'M' && segment[tiff + 1] == 'M')) {
+            return fallback;
+        }
+
+        long ifd = tiff + readInt(segment, tiff + 4, littleEndian);
+        if (ifd + 2 > segment.length) {
+            return fallback;
+        }
+        int entries = readShort(segment, (int) ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                break;
+            }
+            if (readShort(segment, entry, littleEndian) == TAG_ORIENTATION) {
+                int value = readShort(segment, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : fallback;
+            }
+        }
+        return fallback;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xff;
+        int b1 = data[offset + 1] & 0xff;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static long readInt(byte[] data, int offset, boolean littleEndian) {
+        long high = readShort(data, offset + (littleEndian ? 2 : 0), littleEndian);
+        long low = readShort(data, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+}
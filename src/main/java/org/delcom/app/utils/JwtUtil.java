@@ -2,66 +2,191 @@ package org.delcom.app.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
 public class JwtUtil {
 
-    // Ganti dengan secret key yang lebih aman dan simpan di tempat yang aman
+    // Key bawaan, dipakai jika keyring tidak dikonfigurasi (app.jwt.keys.*)
     private static final String SECRET_KEY = "NghR8fQn5O6V2z7VwpvQkDELCOMXoCYQbQZjx3xWUpPfw5i9L8RrGg==";
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
-    private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+
+    // kid untuk key bawaan, juga dipakai untuk token lama yang tidak memiliki header kid
+    public static final String DEFAULT_KID = "default";
+
+    // Snapshot keyring immutable, diganti utuh saat rotasi sehingga verifikasi tidak butuh lock
+    private static volatile Keyring keyring = Keyring.of(DEFAULT_KID, Map.of(DEFAULT_KID, SECRET_KEY));
+
+    // Parser immutable dan thread-safe, dibuat sekali lalu dipakai ulang untuk semua verifikasi.
+    // Key dipilih dari header kid sehingga rotasi keyring tidak perlu membuat parser baru.
+    private static final JwtParser parser = Jwts.parser().keyLocator(JwtUtil::locateKey).build();
+
+    // Claim penanda jenis token, dipakai untuk membedakan access token berumur pendek
+    public static final String CLAIM_TOKEN_TYPE = "type";
+    public static final String TOKEN_TYPE_ACCESS = "access";
+
+    /**
+     * Ganti keyring yang dipakai untuk sign dan verifikasi token.
+     * Token baru di-sign dengan key aktif, token dengan kid lain tetap diterima
+     * selama kid tersebut masih ada di keyring.
+     *
+     * @param activeKid kid key yang dipakai untuk sign token baru
+     * @param secrets   map kid ke secret (minimal 32 byte)
+     */
+    public static void configureKeys(String activeKid, Map<String, String> secrets) {
+        keyring = Keyring.of(activeKid, secrets);
+    }
+
+    public static void useDefaultKeys() {
+        configureKeys(DEFAULT_KID, Map.of(DEFAULT_KID, SECRET_KEY));
+    }
+
+    public static String getActiveKid() {
+        return keyring.activeKid;
+    }
 
     public static SecretKey getKey() {
-        return key;
+        return keyring.activeKey;
     }
 
     public static String generateToken(UUID userId) {
+        Keyring current = keyring;
         return Jwts.builder()
+                .header().keyId(current.activeKid).and()
                 .subject(userId.toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key)
+                .signWith(current.activeKey)
                 .compact();
     }
 
-    public static UUID extractUserId(String token) {
+    /**
+     * Generate access token berumur pendek untuk mode access + refresh token.
+     * Token ini tidak disimpan di database dan cukup diverifikasi di memori.
+     *
+     * @param userId    id user pemilik token
+     * @param ttlMillis umur token dalam milidetik
+     */
+    public static String generateAccessToken(UUID userId, long ttlMillis) {
+        Keyring current = keyring;
+        return Jwts.builder()
+                .header().keyId(current.activeKid).and()
+                .subject(userId.toString())
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(current.activeKey)
+                .compact();
+    }
+
+    // Dipanggil parser untuk setiap token: cukup satu lookup map, tanpa membuat objek baru
+    private static Key locateKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        SecretKey found = keyring.keys.get(kid != null ? kid : DEFAULT_KID);
+        if (found == null) {
+            throw new UnsupportedJwtException("Key id tidak dikenal: " + kid);
+        }
+        return found;
+    }
+
+    /**
+     * Verifikasi signature dan ambil claims dalam satu kali parsing.
+     * Gunakan ini jika butuh lebih dari satu informasi dari token yang sama.
+     *
+     * @param token         JWT token
+     * @param ignoreExpired jika true maka claims dari token expired tetap dikembalikan
+     * @return claims token, atau null jika token tidak valid
+     */
+    public static Claims parseClaims(String token, boolean ignoreExpired) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            if (ignoreExpired) {
+                return e.getClaims(); // signature sudah terverifikasi sebelum cek expired
+            }
+            return null;
+        } catch (Exception e) {
+            return null; // token invalid
+        }
+    }
 
+    public static UUID getUserId(Claims claims) {
+        if (claims == null) {
+            return null;
+        }
+        try {
             return UUID.fromString(claims.getSubject());
         } catch (Exception e) {
             return null;
         }
     }
 
+    public static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    public static boolean isAccessToken(Claims claims) {
+        return claims != null && TOKEN_TYPE_ACCESS.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    /**
+     * Cek apakah token adalah access token yang valid dan belum expired
+     */
+    public static boolean isAccessToken(String token) {
+        return isAccessToken(parseClaims(token, false));
+    }
+
+    public static UUID extractUserId(String token) {
+        return extractUserId(token, false);
+    }
+
+    /**
+     * Ekstrak userId dari token
+     *
+     * @param token         JWT token
+     * @param ignoreExpired jika true maka userId tetap diambil dari token expired
+     */
+    public static UUID extractUserId(String token, boolean ignoreExpired) {
+        return getUserId(parseClaims(token, ignoreExpired));
+    }
+
     /**
      * Validasi token
-     * 
+     *
      * @param token         JWT token
      * @param ignoreExpired jika true maka token expired tetap dianggap valid
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true; // valid
-        } catch (ExpiredJwtException e) {
-            if (ignoreExpired) {
-                return true; // abaikan expired
+        return parseClaims(token, ignoreExpired) != null;
+    }
+
+    private static final class Keyring {
+        private final String activeKid;
+        private final SecretKey activeKey;
+        private final Map<String, SecretKey> keys;
+
+        private Keyring(String activeKid, SecretKey activeKey, Map<String, SecretKey> keys) {
+            this.activeKid = activeKid;
+            this.activeKey = activeKey;
+            this.keys = keys;
+        }
+
+        // Key HMAC dihitung sekali saat keyring dibuat, bukan saat verifikasi
+        private static Keyring of(String activeKid, Map<String, String> secrets) {
+            Map<String, SecretKey> keys = new HashMap<>();
+            secrets.forEach((kid, secret) -> keys.put(kid, Keys.hmacShaKeyFor(secret.getBytes())));
+
+            SecretKey activeKey = keys.get(activeKid);
+            if (activeKey == null) {
+                throw new RuntimeException("Key aktif tidak ditemukan di keyring: " + activeKid);
             }
-            return false;
-        } catch (Exception e) {
-            return false; // token invalid
+            return new Keyring(activeKid, activeKey, Map.copyOf(keys));
         }
     }
 }
-
@@ -0,0 +1,188 @@
+package org.delcom.app.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sketch kuantil KLL (Karnin, Lang, Liberty): ringkasan sejumlah besar nilai dengan memori
+ * tetap (sekitar 3k nilai double, untuk k = 200 kurang dari 5 KB) dan error rank sekitar 1-2%.
+ *
+ * Nilai disimpan bertingkat. Level h berisi nilai dengan bobot 2^h; jika satu level penuh, isinya
+ * diurutkan lalu setengahnya (posisi genap atau ganjil, dipilih acak) naik ke level berikutnya.
+ * Dua sketch bisa digabung (merge) tanpa mengurangi akurasi, misalnya sketch per kondisi
+ * digabung menjadi sketch per kategori.
+ *
+ * Tidak thread-safe, pemanggil yang mengatur sinkronisasi.
+ */
+public class KllSketch {
+    public static final int DEFAULT_K = 200;
+
+    // Kapasitas level turun 2/3 untuk setiap level di bawah level teratas
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    private final int k;
+    private final Random random;
+    private final List<Level> levels = new ArrayList<>();
+    private long count;
+    private int retained;
+    private int maxRetained;
+
+    public KllSketch() {
+        this(DEFAULT_K, new Random());
+    }
+
+    public KllSketch(int k, Random random) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k minimal 8");
+        }
+        this.k = k;
+        this.random = random;
+        grow();
+    }
+
+    /**
+     * Jumlah nilai yang pernah dimasukkan
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Jumlah nilai yang benar-benar disimpan di memori
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    public void update(double value) {
+        levels.get(0).add(value);
+        count++;
+        retained++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Gabungkan isi sketch lain ke sketch ini. Sketch lain tidak diubah.
+     */
+    public void merge(KllSketch other) {
+        while (levels.size() < other.levels.size()) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            Level source = other.levels.get(h);
+            Level target = levels.get(h);
+            for (int i = 0; i < source.size; i++) {
+                target.add(source.items[i]);
+            }
+        }
+        count += other.count;
+        retained += other.retained;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Perkiraan nilai pada kuantil q (0 sampai 1), misalnya 0.5 untuk median
+     *
+     * @return nilai kuantil untuk setiap q, atau null jika sketch kosong
+     */
+    public double[] quantiles(double... qs) {
+        if (count == 0) {
+            return null;
+        }
+
+        // Semua nilai tersimpan beserta bobotnya, diurutkan berdasarkan nilai
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                values[n] = level.items[i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        // Bobot total sama dengan count karena setiap pasangan yang dipadatkan menjadi satu nilai berbobot ganda
+        double[] result = new double[qs.length];
+        for (int j = 0; j < qs.length; j++) {
+            double target = Math.min(1.0, Math.max(0.0, qs[j])) * count;
+            long cumulative = 0;
+            double value = values[order[n - 1]];
+            for (int i = 0; i < n; i++) {
+                cumulative += weights[order[i]];
+                if (cumulative >= target) {
+                    value = values[order[i]];
+                    break;
+                }
+            }
+            result[j] = value;
+        }
+        return result;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)) + 1;
+    }
+
+    private void grow() {
+        levels.add(new Level());
+        maxRetained = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    // Padatkan level terendah yang sudah penuh ke level di atasnya
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            if (level.size >= capacity(h)) {
+                if (h + 1 == levels.size()) {
+                    grow();
+                }
+                Level next = levels.get(h + 1);
+                int before = level.size;
+                level.compactInto(next, random.nextBoolean() ? 1 : 0);
+                // Setiap pasangan menjadi satu nilai di level berikutnya
+                retained -= (before - level.size) / 2;
+                return;
+            }
+        }
+    }
+
+    private static final class Level {
+        private double[] items = new double[16];
+        private int size;
+
+        private void add(double value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        // Urutkan, lalu dari setiap pasangan satu nilai naik ke level berikutnya dengan bobot ganda.
+        // Jika jumlahnya ganjil, nilai terkecil tetap di level ini.
+        private void compactInto(Level next, int offset) {
+            Arrays.sort(items, 0, size);
+            int start = size % 2;
+            for (int i = start; i + 1 < size; i += 2) {
+                next.add(items[i + offset]);
+            }
+            size = start;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.delcom.app.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream yang berhenti dengan error begitu jumlah byte melewati batas,
+ * sehingga upload yang terlalu besar ditolak tanpa menunggu seluruh body terbaca.
+ */
+public class LimitedInputStream extends FilterInputStream {
+    private final long maxBytes;
+    private final String message;
+    private long count;
+
+    public LimitedInputStream(InputStream in, long maxBytes, String message) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.message = message;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    private void count(long n) {
+        count += n;
+        if (count > maxBytes) {
+            throw new RuntimeException(message);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.delcom.app.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parser multipart/form-data yang membaca body request secara streaming.
+ *
+ * Isi part file diberikan ke handler sebagai InputStream yang langsung membaca dari body,
+ * jadi file bisa ditulis ke tujuan akhir tanpa buffer memori atau file sementara milik
+ * container. Memori yang dipakai hanya satu buffer tetap ditambah nilai field biasa
+ * (dibatasi maxFieldBytes).
+ */
+public class MultipartStreamParser {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_HEADER_LINE = 8192;
+    private static final int MAX_HEADERS = 16;
+    private static final int MAX_PARTS = 64;
+
+    public interface PartHandler {
+        void onField(String name, String value);
+
+        /**
+         * Dipanggil untuk part file. Isi yang tidak dibaca handler akan dilewati parser.
+         */
+        void onFile(String name, String filename, InputStream content) throws IOException;
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private final int maxFieldBytes;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    public MultipartStreamParser(InputStream in, String boundary, int maxFieldBytes) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        this.maxFieldBytes = maxFieldBytes;
+        // Body diawali "--boundary" tanpa CRLF, CRLF ditambahkan agar semua delimiter seragam
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+    }
+
+    /**
+     * Ambil boundary dari header Content-Type
+     *
+     * @return boundary, atau null jika bukan multipart/form-data
+     */
+    public static String extractBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        String boundary = parameters(contentType).get("boundary");
+        return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+
+    public void parse(PartHandler handler) throws IOException {
+        // Lewati preamble sampai delimiter pertama
+        new PartInputStream().transferTo(OutputStream.nullOutputStream());
+
+        int parts = 0;
+        while (readAfterDelimiter()) {
+            if (++parts > MAX_PARTS) {
+                throw new IOException("Jumlah part multipart terlalu banyak");
+            }
+            Map<String, String> headers = readHeaders();
+            String disposition = headers.get("content-disposition");
+            if (disposition == null) {
+                throw new IOException("Part multipart tanpa Content-Disposition");
+            }
+
+            Map<String, String> params = parameters(disposition);
+            String name = params.get("name");
+            String filename = params.get("filename");
+            PartInputStream content = new PartInputStream();
+            if (filename != null) {
+                handler.onFile(name, filename, content);
+                content.transferTo(OutputStream.nullOutputStream());
+            } else {
+                handler.onField(name, readField(name, content));
+            }
+        }
+    }
+
+    // Setelah delimiter: "--" berarti akhir body, selain itu sisa baris (CRLF) dilewati
+    private boolean readAfterDelimiter() throws IOException {
+        ensure(2);
+        if (limit - pos < 2) {
+            throw new IOException("Body multipart terpotong");
+        }
+        if (buffer[pos] == '-' && buffer[pos + 1] == '-') {
+            pos += 2;
+            return false;
+        }
+        readLine();
+        return true;
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i <= MAX_HEADERS; i++) {
+            String line = readLine();
+            if (line.isEmpty()) {
+                return headers;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        throw new IOException("Header part multipart terlalu banyak");
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            ensure(1);
+            if (pos == limit) {
+                throw new IOException("Body multipart terpotong");
+            }
+            byte b = buffer[pos++];
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            if (line.size() >= MAX_HEADER_LINE) {
+                throw new IOException("Header part multipart terlalu panjang");
+            }
+            line.write(b);
+        }
+    }
+
+    private String readField(String name, InputStream content) throws IOException {
+        byte[] value = content.readNBytes(maxFieldBytes + 1);
+        if (value.length > maxFieldBytes) {
+            throw new RuntimeException("Isi field " + name + " terlalu panjang");
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        while (limit - pos < bytes && !eof) {
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n == -1) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private int indexOfDelimiter() {
+        byte first = delimiter[0];
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = pos; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Parameter header seperti: form-data; name="image"; filename="a;b.jpg"
+    static Map<String, String> parameters(String header) {
+        Map<String, String> params = new HashMap<>();
+        int i = header.indexOf(';');
+        while (i >= 0 && i < header.length()) {
+            int eq = header.indexOf('=', i);
+            if (eq < 0) {
+                break;
+            }
+            String key = header.substring(i + 1, eq).trim().toLowerCase(Locale.ROOT);
+            int valueStart = eq + 1;
+            String value;
+            if (valueStart < header.length() && header.charAt(valueStart) == '"') {
+                int end = header.indexOf('"', valueStart + 1);
+                if (end < 0) {
+                    end = header.length();
+                }
+                value = header.substring(valueStart + 1, end);
+                i = header.indexOf(';', end);
+            } else {
+                int end = header.indexOf(';', valueStart);
+                value = header.substring(valueStart, end < 0 ? header.length() : end).trim();
+                i = end;
+            }
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    /**
+     * Isi satu part, berakhir tepat sebelum delimiter berikutnya
+     */
+    private class PartInputStream extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int index = indexOfDelimiter();
+                if (index == pos) {
+                    pos += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                // Tanpa delimiter, sisakan ekor buffer yang mungkin awal delimiter
+                int available = index > 0 ? index - pos : limit - pos - (delimiter.length - 1);
+                if (available > 0) {
+                    int n = Math.min(len, available);
+                    System.arraycopy(buffer, pos, b, off, n);
+                    pos += n;
+                    return n;
+                }
+                if (eof) {
+                    throw new IOException("Body multipart terpotong");
+                }
+                fill();
+            }
+        }
+
+        @Override
+        public void close() {
+            // Body request tetap dibaca parser untuk part berikutnya
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.delcom.app.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ring buffer berkapasitas tetap dengan banyak producer dan satu consumer, tanpa lock.
+ *
+ * Semua slot dibuat sekali di awal lalu dipakai ulang: producer mengklaim slot (tryClaim),
+ * mengisi objek di slot itu (get), lalu menandainya siap (publish). Setiap slot punya nomor
+ * urut sendiri (algoritma antrean terbatas Vyukov) sehingga producer hanya bersaing di satu
+ * compare-and-set dan consumer tidak pernah membaca slot yang belum selesai diisi.
+ */
+public class RingBuffer<E> {
+    private final E[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Hanya dibaca dan diubah thread consumer
+    private long head;
+
+    @SuppressWarnings("unchecked")
+    public RingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity harus pangkat dua, minimal 2");
+        }
+        this.slots = (E[]) new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = factory.get();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Klaim satu slot untuk diisi
+     *
+     * @return nomor urut slot, atau -1 jika buffer penuh
+     */
+    public long tryClaim() {
+        while (true) {
+            long position = tail.get();
+            long diff = sequences.get((int) position & mask) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (diff < 0) {
+                return -1;
+            }
+            // diff > 0: producer lain sudah mengklaim posisi ini, baca ulang tail
+        }
+    }
+
+    /**
+     * Objek di slot yang sudah diklaim
+     */
+    public E get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Tandai slot yang sudah diisi siap dibaca consumer
+     */
+    public void publish(long sequence) {
+        sequences.lazySet((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * Baca maksimal max slot yang sudah siap secara berurutan lalu kembalikan slotnya ke
+     * producer. Hanya boleh dipanggil dari satu thread consumer.
+     *
+     * @return jumlah slot yang dibaca
+     */
+    public int drain(Consumer<E> handler, int max) {
+        int count = 0;
+        while (count < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            handler.accept(slots[index]);
+            sequences.lazySet(index, head + slots.length);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,50 @@
+package org.delcom.app.utils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cookie sesi pada mode access + refresh token, dipakai bersama oleh AuthController
+ * (login, /auth/refresh, dan logout).
+ */
+public class SessionCookieUtil {
+    public static final String ACCESS_TOKEN_COOKIE = "token";
+    public static final String REFRESH_TOKEN_COOKIE = "refresh_token";
+    public static final String REFRESH_NONCE_COOKIE = "refresh_nonce";
+
+    // Refresh token hanya dikirim browser ke endpoint di bawah path ini, tidak ke setiap request
+    public static final String REFRESH_PATH = "/auth/refresh";
+
+    private SessionCookieUtil() {
+    }
+
+    /**
+     * Cookie token berisi access token dan hidup selama access token. Cookie refresh_token berisi
+     * refresh token dari database dan refresh_nonce nonce rotasinya, keduanya hidup selama refresh
+     * token dan hanya dikirim ke REFRESH_PATH.
+     */
+    public static void addSessionCookies(HttpServletResponse response, String accessToken, int accessMaxAgeSeconds,
+                                         String refreshToken, String refreshNonce, int refreshMaxAgeSeconds) {
+        response.addCookie(cookie(ACCESS_TOKEN_COOKIE, accessToken, "/", accessMaxAgeSeconds));
+        response.addCookie(cookie(REFRESH_TOKEN_COOKIE, refreshToken, REFRESH_PATH, refreshMaxAgeSeconds));
+        response.addCookie(cookie(REFRESH_NONCE_COOKIE, refreshNonce, REFRESH_PATH, refreshMaxAgeSeconds));
+    }
+
+    /**
+     * Hapus cookie sesi, termasuk cookie refresh_token lama yang dulu ditulis dengan path "/"
+     */
+    public static void clearSessionCookies(HttpServletResponse response) {
+        response.addCookie(cookie(ACCESS_TOKEN_COOKIE, "", "/", 0));
+        response.addCookie(cookie(REFRESH_TOKEN_COOKIE, "", REFRESH_PATH, 0));
+        response.addCookie(cookie(REFRESH_NONCE_COOKIE, "", REFRESH_PATH, 0));
+        response.addCookie(cookie(REFRESH_TOKEN_COOKIE, "", "/", 0));
+    }
+
+    private static Cookie cookie(String name, String value, String path, int maxAgeSeconds) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setHttpOnly(true);
+        cookie.setPath(path);
+        cookie.setMaxAge(maxAgeSeconds);
+        return cookie;
+    }
+}
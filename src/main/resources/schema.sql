@@ -0,0 +1,58 @@
+-- Dijalankan setelah Hibernate membuat/mengubah tabel (spring.jpa.defer-datasource-initialization=true).
+-- Semua statement harus idempotent karena dijalankan setiap aplikasi start.
+
+-- Akun lama yang emailnya hanya berbeda huruf besar/kecil akan bentrok di unique index di bawah.
+-- Akun terlama di setiap kelompok mempertahankan emailnya, sisanya diberi akhiran
+-- '#duplicate-<id>' (tidak bisa dipakai login) dan dilaporkan AuthService saat aplikasi start.
+-- Hanya kelompok yang masih punya email berhuruf besar yang diperiksa.
+UPDATE users u SET email = lower(u.email) || '#duplicate-' || u.id
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY lower(email) ORDER BY created_at, id) AS rn
+      FROM users
+      WHERE lower(email) IN (SELECT lower(email) FROM users WHERE email <> lower(email))) d
+WHERE u.id = d.id AND d.rn > 1;
+
+-- Email disimpan dalam bentuk ternormalisasi (huruf kecil); rapikan data lama sebelum membuat index
+UPDATE users SET email = lower(email) WHERE email <> lower(email);
+
+-- Unique index case-insensitive: jaminan akhir bahwa email tidak terdaftar dua kali
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
+
+-- Alur login lama (find + delete + save) bisa meninggalkan lebih dari satu sesi per user, sehingga
+-- Hibernate gagal menambah unique constraint user_id (hanya warning) dan upsert ON CONFLICT (user_id)
+-- selalu gagal. Sesi terbaru setiap user dipertahankan, sisanya dihapus (user cukup login ulang).
+DELETE FROM auth_tokens t
+USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY created_at DESC, id DESC) AS rn
+       FROM auth_tokens
+       WHERE user_id IN (SELECT user_id FROM auth_tokens GROUP BY user_id HAVING COUNT(*) > 1)) d
+WHERE t.id = d.id AND d.rn > 1;
+
+-- Target ON CONFLICT (user_id) di AuthTokenRepository.upsertToken, tidak bergantung pada ddl-auto
+CREATE UNIQUE INDEX IF NOT EXISTS ux_auth_tokens_user_id ON auth_tokens (user_id);
+
+-- Dipakai OrphanImageCollector untuk membaca image_url berurutan per byte secara bertahap
+CREATE INDEX IF NOT EXISTS ix_products_image_url_c ON products (image_url COLLATE "C");
+
+-- Isi awal product_stats dari produk yang sudah ada, hanya saat tabel masih kosong. Setelah itu
+-- tabel diperbarui ProductService dalam transaksi yang sama dengan perubahan produk.
+-- ON CONFLICT menjaga hasil tetap benar jika beberapa node menjalankan ini bersamaan.
+INSERT INTO product_stats (dimension, name, product_count)
+SELECT 'category', category, COUNT(*) FROM products
+WHERE NOT EXISTS (SELECT 1 FROM product_stats) GROUP BY category
+UNION ALL
+SELECT 'condition', condition, COUNT(*) FROM products
+WHERE NOT EXISTS (SELECT 1 FROM product_stats) GROUP BY condition
+ON CONFLICT (dimension, name) DO NOTHING;
+
+-- Isi awal seller_stats dari produk yang sudah ada, hanya saat tabel masih kosong (baris total
+-- dengan category '' dan satu baris per kategori). Setelah itu tabel diperbarui ProductService
+-- dan ProductViewCounter.
+INSERT INTO seller_stats (user_id, category, product_count, total_value, view_count, last_activity_at)
+SELECT user_id, CASE WHEN GROUPING(category) = 1 THEN '' ELSE category END, COUNT(*), SUM(price),
+       CASE WHEN GROUPING(category) = 1 THEN SUM(view_count) ELSE 0 END, MAX(updated_at)
+FROM products
+WHERE NOT EXISTS (SELECT 1 FROM seller_stats)
+GROUP BY GROUPING SETS ((user_id), (user_id, category))
+ON CONFLICT (user_id, category) DO NOTHING;
+
+-- Index lama yang sama persis dengan primary key (user_id, category) seller_stats
+DROP INDEX IF EXISTS ix_seller_stats_user_id_category;
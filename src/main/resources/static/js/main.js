@@ -1,6 +1,6 @@
 // Logout function
 async function logout() {
-    const response = await fetch('/auth/logout', {
+    const response = await fetch('/auth/refresh/logout', {
         method: 'POST'
     });
     const result = await response.json();
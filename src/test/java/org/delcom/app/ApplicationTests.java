@@ -42,6 +42,13 @@ class ApplicationTests {
 				.getAnnotation(org.springframework.boot.autoconfigure.SpringBootApplication.class));
 	}
 
+	@Test
+	void todoApplication_ShouldEnableScheduling() throws Exception {
+		// Scheduling dibutuhkan untuk job pembersihan token expired
+		assertNotNull(Application.class
+				.getAnnotation(org.springframework.scheduling.annotation.EnableScheduling.class));
+	}
+
 	@Test
 	void todoApplication_CanBeInstantiated() throws Exception {
 		// Test bahwa kita bisa membuat instance Application
@@ -0,0 +1,65 @@
+package org.delcom.app.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark verifikasi JWT per request (AuthService.getUserByToken).
+ *
+ * legacyValidateThenExtract meniru cara lama: membuat JwtParser baru dan memparsing token
+ * dua kali (validateToken lalu extractUserId). parseClaimsOnce memakai parser bersama dan
+ * satu kali parsing. Jalankan method main (classpath test, misalnya dari IDE); profiler GC
+ * menampilkan gc.alloc.rate.norm, yaitu byte yang dialokasikan per verifikasi.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public UUID legacyValidateThenExtract() {
+        Jwts.parser()
+                .verifyWith(JwtUtil.getKey())
+                .build()
+                .parseSignedClaims(token);
+        Claims claims = Jwts.parser()
+                .verifyWith(JwtUtil.getKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return UUID.fromString(claims.getSubject());
+    }
+
+    @Benchmark
+    public UUID parseClaimsOnce() {
+        return JwtUtil.getUserId(JwtUtil.parseClaims(token, false));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
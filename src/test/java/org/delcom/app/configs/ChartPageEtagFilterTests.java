@@ -0,0 +1,47 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartPageEtagFilterTests {
+    private final ChartPageEtagFilter filter = new ChartPageEtagFilter();
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> res.getOutputStream().write("<html>statistik</html>".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Halaman statistik mendapat ETag lemah dan dijawab 304 jika sama")
+    void doFilter_OnChartPage_ShouldAddWeakEtag() throws Exception {
+        MockHttpServletResponse first = run(new MockHttpServletRequest("GET", "/charts"));
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/charts");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse second = run(request);
+
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Path lain tidak diberi ETag")
+    void doFilter_OnOtherPath_ShouldSkip() throws Exception {
+        MockHttpServletResponse response = run(new MockHttpServletRequest("GET", "/charts/data"));
+
+        assertNull(response.getHeader("ETag"));
+        assertEquals("<html>statistik</html>", response.getContentAsString());
+    }
+}
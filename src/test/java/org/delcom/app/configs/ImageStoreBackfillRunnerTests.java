@@ -0,0 +1,35 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.ImageStoreBackfillService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageStoreBackfillRunnerTests {
+    @Test
+    @DisplayName("Runner menjalankan backfill dengan batch size dari konfigurasi")
+    void run_ShouldBackfillWithConfiguredBatchSize() {
+        ImageStoreBackfillService backfillService = mock(ImageStoreBackfillService.class);
+        ImageStoreBackfillRunner runner = new ImageStoreBackfillRunner(backfillService);
+        ReflectionTestUtils.setField(runner, "batchSize", 50);
+
+        runner.run(new DefaultApplicationArguments());
+
+        verify(backfillService, times(1)).backfill(50);
+    }
+
+    @Test
+    @DisplayName("Runner hanya aktif jika app.image-store.backfill=true")
+    void runner_ShouldBeConditionalOnProperty() {
+        ConditionalOnProperty condition = ImageStoreBackfillRunner.class.getAnnotation(ConditionalOnProperty.class);
+
+        assertNotNull(condition);
+        assertArrayEquals(new String[]{"app.image-store.backfill"}, condition.name());
+        assertEquals("true", condition.havingValue());
+    }
+}
@@ -0,0 +1,106 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyringConfigTests {
+    private static final String SECRET_A = "secret-a-that-is-long-enough-for-hmac-sha256-000000001";
+    private static final String SECRET_B = "secret-b-that-is-long-enough-for-hmac-sha256-000000002";
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        JwtUtil.useDefaultKeys();
+    }
+
+    @Test
+    @DisplayName("Tanpa konfigurasi keyring memakai key default")
+    void constructor_WithoutKeys_ShouldUseDefaultKeys() {
+        JwtUtil.configureKeys("a", java.util.Map.of("a", SECRET_A));
+
+        new JwtKeyringConfig(new MockEnvironment());
+
+        assertEquals(JwtUtil.DEFAULT_KID, JwtUtil.getActiveKid());
+    }
+
+    @Test
+    @DisplayName("Keyring dimuat dari properties app.jwt.keys")
+    void constructor_WithKeys_ShouldConfigureKeyring() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.jwt.active-kid", "b")
+                .withProperty("app.jwt.keys.a", SECRET_A)
+                .withProperty("app.jwt.keys.b", SECRET_B);
+
+        new JwtKeyringConfig(env);
+
+        assertEquals("b", JwtUtil.getActiveKid());
+    }
+
+    @Test
+    @DisplayName("Keyring tanpa active-kid throw exception")
+    void constructor_WithKeysWithoutActiveKid_ShouldThrowException() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.jwt.keys.a", SECRET_A);
+
+        assertThrows(RuntimeException.class, () -> new JwtKeyringConfig(env));
+    }
+
+    @Test
+    @DisplayName("Keyring file dibaca ulang saat berubah tanpa membatalkan token lama")
+    void reloadIfChanged_WithModifiedFile_ShouldRotateKeys() throws IOException {
+        Path file = tempDir.resolve("jwt-keyring.properties");
+        Files.writeString(file, "active-kid=a\nkeys.a=" + SECRET_A + "\n");
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.jwt.keyring-file", file.toString());
+
+        JwtKeyringConfig config = new JwtKeyringConfig(env);
+        assertEquals("a", JwtUtil.getActiveKid());
+        String oldToken = JwtUtil.generateToken(UUID.randomUUID());
+
+        // File tidak berubah, tidak ada reload
+        config.reloadIfChanged();
+        assertEquals("a", JwtUtil.getActiveKid());
+
+        Files.writeString(file, "active-kid=b\nkeys.a=" + SECRET_A + "\nkeys.b=" + SECRET_B + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        config.reloadIfChanged();
+
+        assertEquals("b", JwtUtil.getActiveKid());
+        assertTrue(JwtUtil.validateToken(oldToken, false));
+    }
+
+    @Test
+    @DisplayName("Keyring file yang tidak bisa dibaca mempertahankan keyring aktif")
+    void reloadIfChanged_WithMissingFile_ShouldKeepCurrentKeys() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.jwt.keyring-file", tempDir.resolve("missing.properties").toString());
+
+        JwtKeyringConfig config = new JwtKeyringConfig(env);
+        config.reloadIfChanged();
+
+        assertEquals(JwtUtil.DEFAULT_KID, JwtUtil.getActiveKid());
+    }
+
+    @Test
+    @DisplayName("Reload tanpa keyring file tidak melakukan apa-apa")
+    void reloadIfChanged_WithoutFile_ShouldDoNothing() {
+        JwtKeyringConfig config = new JwtKeyringConfig(new MockEnvironment());
+
+        assertDoesNotThrow(config::reloadIfChanged);
+        assertEquals(JwtUtil.DEFAULT_KID, JwtUtil.getActiveKid());
+    }
+}
@@ -5,21 +5,30 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.delcom.app.controllers.HomeController;
+import org.delcom.app.services.AccessLogWriter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.Model;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class RequestLoggingFilterTests {
+    private final AccessLogWriter accessLogWriter = mock(AccessLogWriter.class);
 
     @Test
     @DisplayName("Filter menampilkan log dengan warna cyan untuk status 100")
     void testLogCyanFor100() throws ServletException, IOException {
         // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -43,7 +52,7 @@ class RequestLoggingFilterTests {
     @DisplayName("Filter menampilkan log dengan warna hijau untuk status 200")
     void testLogGreenFor200() throws ServletException, IOException {
         // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -61,12 +70,13 @@ class RequestLoggingFilterTests {
 
         // Assert
         verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogWriter).log(eq("GET"), eq("/api/test"), eq(200), anyLong(), eq("-"), eq("127.0.0.1"));
     }
 
     @Test
     @DisplayName("Filter menampilkan log warna kuning untuk status 404")
     void testLogYellowFor404() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -87,7 +97,7 @@ class RequestLoggingFilterTests {
     @Test
     @DisplayName("Filter menampilkan log warna merah untuk status 500")
     void testLogRedFor500() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -108,7 +118,7 @@ class RequestLoggingFilterTests {
     @Test
     @DisplayName("Filter tidak menampilkan log untuk URI /.well-known")
     void testSkipWellKnown() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -124,12 +134,13 @@ class RequestLoggingFilterTests {
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        verifyNoInteractions(accessLogWriter);
     }
 
     @Test
-    @DisplayName("Filter menggunakan stack trace fallback ketika tidak menemukan org.delcom")
-    void testFilterUsesStackTraceFallback() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+    @DisplayName("Filter tetap mencatat request tanpa handler")
+    void testFilterWithoutHandler() throws ServletException, IOException {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -150,7 +161,7 @@ class RequestLoggingFilterTests {
     @Test
     @DisplayName("Filter menampilkan log untuk status 300")
     void testLogFor300() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -171,7 +182,7 @@ class RequestLoggingFilterTests {
     @Test
     @DisplayName("Filter menampilkan log untuk status 199")
     void testLogFor199() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
 
@@ -189,4 +200,41 @@ class RequestLoggingFilterTests {
         verify(chain, times(1)).doFilter(request, response);
     }
 
+    @Test
+    @DisplayName("Filter membaca handler dari atribut request setelah chain selesai")
+    void testFilterReadsHandlerAttribute() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+        Method method = HomeController.class.getMethod("home", String.class, Model.class);
+
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/");
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE))
+                .thenReturn(new HandlerMethod(new HomeController(null, null, null), method));
+        when(response.getStatus()).thenReturn(200);
+
+        filter.doFilterInternal(request, response, chain);
+
+        verify(accessLogWriter).log(eq("GET"), eq("/"), eq(200), anyLong(), eq("HomeController.home"), eq("127.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Nama handler diformat sekali lalu diambil dari cache")
+    void testHandlerNameIsCached() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter);
+        Method method = HomeController.class.getMethod("home", String.class, Model.class);
+        HomeController controller = new HomeController(null, null, null);
+
+        String first = filter.handlerName(new HandlerMethod(controller, method));
+        String second = filter.handlerName(new HandlerMethod(controller, method));
+
+        assertEquals("HomeController.home", first);
+        assertSame(first, second);
+        assertEquals("ResourceHttpRequestHandler", filter.handlerName(new ResourceHttpRequestHandler()));
+        assertEquals("-", filter.handlerName(null));
+    }
 }
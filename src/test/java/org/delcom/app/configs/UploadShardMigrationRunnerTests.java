@@ -0,0 +1,35 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.UploadShardMigrationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadShardMigrationRunnerTests {
+    @Test
+    @DisplayName("Runner menjalankan migrasi dengan batch size dari konfigurasi")
+    void run_ShouldMigrateWithConfiguredBatchSize() {
+        UploadShardMigrationService migrationService = mock(UploadShardMigrationService.class);
+        UploadShardMigrationRunner runner = new UploadShardMigrationRunner(migrationService);
+        ReflectionTestUtils.setField(runner, "batchSize", 50);
+
+        runner.run(new DefaultApplicationArguments());
+
+        verify(migrationService, times(1)).migrate(50);
+    }
+
+    @Test
+    @DisplayName("Runner hanya aktif jika app.upload.migrate-shards=true")
+    void runner_ShouldBeConditionalOnProperty() {
+        ConditionalOnProperty condition = UploadShardMigrationRunner.class.getAnnotation(ConditionalOnProperty.class);
+
+        assertNotNull(condition);
+        assertArrayEquals(new String[]{"app.upload.migrate-shards"}, condition.name());
+        assertEquals("true", condition.havingValue());
+    }
+}
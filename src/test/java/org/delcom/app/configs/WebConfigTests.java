@@ -335,4 +335,24 @@ class WebConfigTests {
         // Verify the method was called successfully
         assertNotNull(webMvcConfig);
     }
+
+    @Test
+    @DisplayName("WebMvcConfig hanya mendaftarkan resource handler upload jika zero-copy dimatikan")
+    void addResourceHandlers_ShouldDependOnZeroCopyFlag() {
+        GenericWebApplicationContext applicationContext = new GenericWebApplicationContext();
+        applicationContext.refresh();
+
+        WebMvcConfig zeroCopyConfig = new WebMvcConfig();
+        org.springframework.test.util.ReflectionTestUtils.setField(zeroCopyConfig, "uploadDir", "./uploads/images");
+        ResourceHandlerRegistry zeroCopyRegistry = new ResourceHandlerRegistry(applicationContext, null);
+        zeroCopyConfig.addResourceHandlers(zeroCopyRegistry);
+        assertFalse(zeroCopyRegistry.hasMappingForPattern("/uploads/images/**"));
+
+        WebMvcConfig resourceConfig = new WebMvcConfig();
+        org.springframework.test.util.ReflectionTestUtils.setField(resourceConfig, "uploadDir", "./uploads/images");
+        org.springframework.test.util.ReflectionTestUtils.setField(resourceConfig, "zeroCopyEnabled", false);
+        ResourceHandlerRegistry resourceRegistry = new ResourceHandlerRegistry(applicationContext, null);
+        resourceConfig.addResourceHandlers(resourceRegistry);
+        assertTrue(resourceRegistry.hasMappingForPattern("/uploads/images/**"));
+    }
 }
@@ -9,6 +9,7 @@ import org.delcom.app.services.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.Model;
 
 import java.util.Optional;
@@ -386,21 +387,122 @@ class AuthControllerTests {
     @Test
     @DisplayName("Logout berhasil mengembalikan success response")
     void logout_ShouldReturnSuccess() {
-        ApiResponse<String> result = authController.logout("test-token", response);
+        ApiResponse<String> result = authController.logout("test-token", null, response);
 
         assertEquals("success", result.getStatus());
-        verify(authService, times(1)).logout("test-token");
+        verify(authService, times(1)).logout("test-token", null);
         verify(response, times(1)).addCookie(any(Cookie.class));
     }
 
     @Test
     @DisplayName("Logout tanpa token tetap berhasil")
     void logout_WithoutToken_ShouldReturnSuccess() {
-        ApiResponse<String> result = authController.logout(null, response);
+        ApiResponse<String> result = authController.logout(null, null, response);
 
         assertEquals("success", result.getStatus());
-        verify(authService, never()).logout(any());
+        verify(authService, never()).logout(any(), any());
         verify(response, times(1)).addCookie(any(Cookie.class));
     }
-}
 
+    @Test
+    @DisplayName("Login pada mode refresh mengirim cookie access token, refresh token, dan nonce rotasi")
+    void login_WithRefreshTokenMode_ShouldSetSessionCookies() {
+        UUID userId = UUID.randomUUID();
+        AuthToken authToken = new AuthToken("refresh-token", userId);
+        authToken.setRotationNonce("nonce");
+        when(authService.login("test@example.com", "password123")).thenReturn(authToken);
+        when(authService.isRefreshTokenEnabled()).thenReturn(true);
+        when(authService.issueAccessToken(userId)).thenReturn("access-token");
+        when(authService.getAccessTokenMaxAgeSeconds()).thenReturn(600);
+        when(authService.getRefreshTokenMaxAgeSeconds()).thenReturn(1209600);
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+
+        ApiResponse<String> result = authController.login("test@example.com", "password123", null, mockResponse);
+
+        assertEquals("success", result.getStatus());
+        assertEquals(3, mockResponse.getCookies().length);
+        assertEquals(600, mockResponse.getCookie("token").getMaxAge());
+        assertEquals("/auth/refresh", mockResponse.getCookie("refresh_token").getPath());
+        assertEquals("nonce", mockResponse.getCookie("refresh_nonce").getValue());
+        assertEquals("/auth/refresh", mockResponse.getCookie("refresh_nonce").getPath());
+        verify(authService, times(1)).issueAccessToken(userId);
+    }
+
+    @Test
+    @DisplayName("Refresh dengan refresh token valid mengirim cookie baru")
+    void refresh_WithValidRefreshToken_ShouldReturnSuccess() {
+        UUID userId = UUID.randomUUID();
+        AuthToken rotated = new AuthToken("new-refresh", userId);
+        when(authService.refresh("old-refresh", "old-nonce")).thenReturn(Optional.of(rotated));
+        when(authService.issueAccessToken(userId)).thenReturn("access-token");
+
+        ApiResponse<String> result = authController.refresh("old-refresh", "old-nonce", response);
+
+        assertEquals("success", result.getStatus());
+        verify(response, times(3)).addCookie(any(Cookie.class));
+    }
+
+    @Test
+    @DisplayName("Refresh dengan refresh token invalid mengembalikan error")
+    void refresh_WithInvalidRefreshToken_ShouldReturnError() {
+        when(authService.refresh(any(), any())).thenReturn(Optional.empty());
+
+        ApiResponse<String> result = authController.refresh(null, null, response);
+
+        assertEquals("error", result.getStatus());
+        verify(response, never()).addCookie(any(Cookie.class));
+    }
+
+    @Test
+    @DisplayName("Logout pada mode refresh juga menghapus cookie refresh token")
+    void logout_WithRefreshTokenMode_ShouldClearBothCookies() {
+        when(authService.isRefreshTokenEnabled()).thenReturn(true);
+
+        ApiResponse<String> result = authController.logout("access-token", "refresh-token", response);
+
+        assertEquals("success", result.getStatus());
+        verify(authService, times(1)).logout("access-token", "refresh-token");
+        // token, refresh_token dan refresh_nonce di /auth/refresh, dan refresh_token lama di /
+        verify(response, times(4)).addCookie(any(Cookie.class));
+    }
+
+    @Test
+    @DisplayName("Refresh halaman web memperbarui cookie lalu mengulang request dengan 307")
+    void refreshAndRedirect_WithValidRefreshToken_ShouldRedirectBack() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(authService.refresh("old-refresh", "old-nonce")).thenReturn(Optional.of(new AuthToken("new-refresh", userId)));
+        when(authService.issueAccessToken(userId)).thenReturn("new-access");
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+
+        authController.refreshAndRedirect("/products/add?x=1", "old-refresh", "old-nonce", mockResponse);
+
+        assertEquals(307, mockResponse.getStatus());
+        assertEquals("/products/add?x=1", mockResponse.getHeader("Location"));
+        assertEquals("new-access", mockResponse.getCookie("token").getValue());
+        assertEquals("new-refresh", mockResponse.getCookie("refresh_token").getValue());
+    }
+
+    @Test
+    @DisplayName("Refresh halaman web tanpa sesi valid mengarahkan ke login")
+    void refreshAndRedirect_WithInvalidRefreshToken_ShouldRedirectToLogin() throws Exception {
+        when(authService.refresh(any(), any())).thenReturn(Optional.empty());
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+
+        authController.refreshAndRedirect("/products", null, null, mockResponse);
+
+        assertEquals("/auth/login?redirect=%2Fproducts", mockResponse.getRedirectedUrl());
+        assertNull(mockResponse.getCookie("token"));
+    }
+
+    @Test
+    @DisplayName("Refresh halaman web tidak mengarahkan ke URL di luar aplikasi")
+    void refreshAndRedirect_WithExternalUrl_ShouldRedirectToRoot() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(authService.refresh("old-refresh", "old-nonce")).thenReturn(Optional.of(new AuthToken("new-refresh", userId)));
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+
+        authController.refreshAndRedirect("//evil.example/x", "old-refresh", "old-nonce", mockResponse);
+
+        assertEquals("/", mockResponse.getHeader("Location"));
+    }
+}
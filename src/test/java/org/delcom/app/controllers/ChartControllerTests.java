@@ -1,13 +1,22 @@
 package org.delcom.app.controllers;
 
 import org.delcom.app.entities.User;
+import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.services.AuthService;
-import org.delcom.app.services.ProductService;
+import org.delcom.app.services.ChartDataService;
+import org.delcom.app.services.ListingActivityService;
+import org.delcom.app.services.PriceSketchService;
+import org.delcom.app.services.UniqueViewerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.Model;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,34 +24,35 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class ChartControllerTests {
-    private ProductService productService;
     private AuthService authService;
+    private ListingActivityService listingActivityService;
+    private PriceSketchService priceSketchService;
+    private ChartDataService chartDataService;
+    private UniqueViewerService uniqueViewerService;
     private ChartController chartController;
 
     @BeforeEach
     void setUp() {
-        productService = mock(ProductService.class);
         authService = mock(AuthService.class);
-        chartController = new ChartController(productService, authService);
+        listingActivityService = mock(ListingActivityService.class);
+        priceSketchService = mock(PriceSketchService.class);
+        chartDataService = mock(ChartDataService.class);
+        uniqueViewerService = mock(UniqueViewerService.class);
+        chartController = new ChartController(authService, listingActivityService, priceSketchService, chartDataService,
+            uniqueViewerService);
     }
 
     @Test
-    @DisplayName("Show charts mengembalikan view name")
+    @DisplayName("Show charts mengembalikan kerangka halaman tanpa data statistik")
     void showCharts_ShouldReturnViewName() {
         Model model = mock(Model.class);
-        List<Object[]> categoryStats = new ArrayList<>();
-        categoryStats.add(new Object[]{"Pakaian", 5L});
-        List<Object[]> conditionStats = new ArrayList<>();
-        conditionStats.add(new Object[]{"New", 2L});
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        when(productService.getCategoryStatistics()).thenReturn(categoryStats);
-        when(productService.getConditionStatistics()).thenReturn(conditionStats);
-
-        String result = chartController.showCharts(null, model);
+        String result = chartController.showCharts(null, model, response);
 
         assertEquals("charts/index", result);
-        verify(model, times(1)).addAttribute("categoryStats", categoryStats);
-        verify(model, times(1)).addAttribute("conditionStats", conditionStats);
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        verifyNoInteractions(model, chartDataService);
     }
 
     @Test
@@ -53,16 +63,9 @@ class ChartControllerTests {
         User user = new User();
         user.setId(UUID.randomUUID());
 
-        List<Object[]> categoryStats = new ArrayList<>();
-        categoryStats.add(new Object[]{"Pakaian", 5L});
-        List<Object[]> conditionStats = new ArrayList<>();
-        conditionStats.add(new Object[]{"New", 2L});
-
-        when(productService.getCategoryStatistics()).thenReturn(categoryStats);
-        when(productService.getConditionStatistics()).thenReturn(conditionStats);
         when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
 
-        String result = chartController.showCharts(token, model);
+        String result = chartController.showCharts(token, model, new MockHttpServletResponse());
 
         assertEquals("charts/index", result);
         verify(model, times(1)).addAttribute("currentUser", user);
@@ -74,19 +77,110 @@ class ChartControllerTests {
         Model model = mock(Model.class);
         String token = "invalid-token";
 
-        List<Object[]> categoryStats = new ArrayList<>();
-        categoryStats.add(new Object[]{"Pakaian", 5L});
-        List<Object[]> conditionStats = new ArrayList<>();
-        conditionStats.add(new Object[]{"New", 2L});
-
-        when(productService.getCategoryStatistics()).thenReturn(categoryStats);
-        when(productService.getConditionStatistics()).thenReturn(conditionStats);
         when(authService.getUserByToken(token)).thenReturn(Optional.empty());
 
-        String result = chartController.showCharts(token, model);
+        String result = chartController.showCharts(token, model, new MockHttpServletResponse());
 
         assertEquals("charts/index", result);
         verify(model, never()).addAttribute(eq("currentUser"), any());
     }
-}
 
+    private ChartDataService.Snapshot snapshot() {
+        ChartDataService.ChartData data = new ChartDataService.ChartData(
+            List.of(new ChartDataService.CountEntry("Pakaian", 5)),
+            List.of(new ChartDataService.CountEntry("New", 2)),
+            List.of(new ChartDataService.PriceEntry("Pakaian", 5,
+                new BigDecimal("10000"), new BigDecimal("50000"), new BigDecimal("90000"))));
+        ChartDataService.Snapshot snapshot = new ChartDataService.Snapshot(data, "W/\"stats-abc\"", 1, 0);
+        when(chartDataService.getSnapshot()).thenReturn(snapshot);
+        return snapshot;
+    }
+
+    @Test
+    @DisplayName("Data mengembalikan statistik dengan ETag dan Cache-Control")
+    void data_ShouldReturnStatisticsWithEtag() {
+        ChartDataService.Snapshot snapshot = snapshot();
+
+        ResponseEntity<ApiResponse<ChartDataService.ChartData>> result = chartController.data(null);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("W/\"stats-abc\"", result.getHeaders().getETag());
+        assertEquals("no-cache, private", result.getHeaders().getCacheControl());
+        assertEquals("success", result.getBody().getStatus());
+        assertSame(snapshot.data(), result.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("Data dengan If-None-Match yang sama dijawab 304 tanpa isi")
+    void data_WithMatchingEtag_ShouldReturnNotModified() {
+        snapshot();
+
+        ResponseEntity<ApiResponse<ChartDataService.ChartData>> result = chartController.data("W/\"stats-abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertEquals("W/\"stats-abc\"", result.getHeaders().getETag());
+        assertNull(result.getBody());
+    }
+
+    @Test
+    @DisplayName("Data dengan ETag lama mengembalikan isi terbaru")
+    void data_WithStaleEtag_ShouldReturnBody() {
+        snapshot();
+
+        ResponseEntity<ApiResponse<ChartDataService.ChartData>> result = chartController.data("W/\"stats-lama\"");
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+    }
+
+    @Test
+    @DisplayName("Activity mengembalikan data tren dari rollup")
+    void activity_ShouldReturnChartData() {
+        ListingActivityService.ActivityChart chart = new ListingActivityService.ActivityChart("day", List.of(), List.of());
+        when(listingActivityService.getActivity("day", 30)).thenReturn(chart);
+
+        ApiResponse<ListingActivityService.ActivityChart> result = chartController.activity("day", 30);
+
+        assertEquals("success", result.getStatus());
+        assertSame(chart, result.getData());
+    }
+
+    @Test
+    @DisplayName("Activity dengan granularity tidak valid mengembalikan error")
+    void activity_WithInvalidGranularity_ShouldReturnError() {
+        when(listingActivityService.getActivity("week", 30))
+            .thenThrow(new RuntimeException("Granularity harus hour atau day"));
+
+        ApiResponse<ListingActivityService.ActivityChart> result = chartController.activity("week", 30);
+
+        assertEquals("error", result.getStatus());
+        assertEquals("Granularity harus hour atau day", result.getMessage());
+        assertNull(result.getData());
+    }
+
+    @Test
+    @DisplayName("Prices dengan parameter kosong menggabungkan semua kategori atau kondisi")
+    void prices_WithBlankParameters_ShouldQueryAllValues() {
+        PriceSketchService.PriceQuantiles quantiles = new PriceSketchService.PriceQuantiles(
+            3, new BigDecimal("100"), new BigDecimal("200"), new BigDecimal("300"));
+        when(priceSketchService.getQuantiles("Elektronik", null)).thenReturn(quantiles);
+
+        ApiResponse<PriceSketchService.PriceQuantiles> result = chartController.prices("Elektronik", "");
+
+        assertEquals("success", result.getStatus());
+        assertSame(quantiles, result.getData());
+        verify(priceSketchService).getQuantiles("Elektronik", null);
+    }
+
+    @Test
+    @DisplayName("Viewers mengembalikan perkiraan pengunjung unik per kategori")
+    void viewers_ShouldReturnCategoryEstimates() {
+        Map<String, Long> estimates = Map.of("Buku", 12L);
+        when(uniqueViewerService.estimateCategories()).thenReturn(estimates);
+
+        ApiResponse<Map<String, Long>> result = chartController.viewers();
+
+        assertEquals("success", result.getStatus());
+        assertSame(estimates, result.getData());
+    }
+}
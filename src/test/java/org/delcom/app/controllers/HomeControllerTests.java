@@ -3,6 +3,7 @@ package org.delcom.app.controllers;
 import org.delcom.app.entities.Product;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.ProductService;
+import org.delcom.app.services.TrendingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.ui.Model;
@@ -21,11 +22,14 @@ class HomeControllerTests {
         // Arrange
         ProductService productService = mock(ProductService.class);
         AuthService authService = mock(AuthService.class);
+        TrendingService trendingService = mock(TrendingService.class);
         Model model = mock(Model.class);
-        HomeController controller = new HomeController(productService, authService);
+        HomeController controller = new HomeController(productService, authService, trendingService);
         
         List<Product> products = new ArrayList<>();
+        List<Product> trending = List.of(new Product());
         when(productService.getAllProducts()).thenReturn(products);
+        when(trendingService.getTrending()).thenReturn(trending);
 
         // Act
         String result = controller.home(null, model);
@@ -34,6 +38,7 @@ class HomeControllerTests {
         assertEquals("index", result);
         verify(productService, times(1)).getAllProducts();
         verify(model, times(1)).addAttribute("products", products);
+        verify(model, times(1)).addAttribute("trendingProducts", trending);
     }
 
     @Test
@@ -42,8 +47,9 @@ class HomeControllerTests {
         // Arrange
         ProductService productService = mock(ProductService.class);
         AuthService authService = mock(AuthService.class);
+        TrendingService trendingService = mock(TrendingService.class);
         Model model = mock(Model.class);
-        HomeController controller = new HomeController(productService, authService);
+        HomeController controller = new HomeController(productService, authService, trendingService);
         
         List<Product> products = new ArrayList<>();
         org.delcom.app.entities.User user = new org.delcom.app.entities.User();
@@ -67,8 +73,9 @@ class HomeControllerTests {
         // Arrange
         ProductService productService = mock(ProductService.class);
         AuthService authService = mock(AuthService.class);
+        TrendingService trendingService = mock(TrendingService.class);
         Model model = mock(Model.class);
-        HomeController controller = new HomeController(productService, authService);
+        HomeController controller = new HomeController(productService, authService, trendingService);
         
         List<Product> products = new ArrayList<>();
         when(productService.getAllProducts()).thenReturn(products);
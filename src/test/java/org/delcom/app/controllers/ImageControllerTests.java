@@ -0,0 +1,229 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageReencoder;
+import org.delcom.app.services.ImageStore;
+import org.delcom.app.services.LocalImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageControllerTests {
+    private static final String URL = "/uploads/images/ab/cd/abcd.jpg";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageController imageController;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(uploadDir.resolve("ab/cd"));
+        Files.writeString(uploadDir.resolve("ab/cd/abcd.jpg"), CONTENT);
+        imageController = new ImageController(storageService(uploadDir.toString()), 2);
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    @Test
+    @DisplayName("Serve image mengirim file utuh dengan ETag dan cache immutable")
+    void serveImage_ShouldSendWholeFile() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request(URL), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("\"abcd.jpg\"", response.getHeader("ETag"));
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+    }
+
+    @Test
+    @DisplayName("Serve image dengan If-None-Match yang cocok mengembalikan 304")
+    void serveImage_WithMatchingEtag_ShouldReturnNotModified() throws IOException {
+        MockHttpServletRequest request = request(URL);
+        request.addHeader("If-None-Match", "\"abcd.jpg\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Serve image dengan Range mengirim sebagian file")
+    void serveImage_WithRange_ShouldSendPartialContent() throws IOException {
+        MockHttpServletRequest request = request(URL);
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    @DisplayName("Serve image dengan suffix Range mengirim akhir file")
+    void serveImage_WithSuffixRange_ShouldSendTail() throws IOException {
+        MockHttpServletRequest request = request(URL);
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Serve image dengan Range di luar file mengembalikan 416")
+    void serveImage_WithUnsatisfiableRange_ShouldReturn416() throws IOException {
+        MockHttpServletRequest request = request(URL);
+        request.addHeader("Range", "bytes=50-60");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    @DisplayName("Serve image dengan multi-range, Range tidak valid, atau If-Range berbeda mengirim file utuh")
+    void serveImage_WithUnsupportedRange_ShouldSendWholeFile() throws IOException {
+        String[][] headers = {
+            {"bytes=0-1,4-5", null},
+            {"items=1-2", null},
+            {"bytes=0-1", "\"lain.jpg\""},
+        };
+        for (String[] header : headers) {
+            MockHttpServletRequest request = request(URL);
+            request.addHeader("Range", header[0]);
+            if (header[1] != null) {
+                request.addHeader("If-Range", header[1]);
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            imageController.serveImage(request, response);
+
+            assertEquals(200, response.getStatus(), header[0]);
+            assertEquals(CONTENT, response.getContentAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("Serve image di Tomcat menyerahkan file ke sendfile")
+    void serveImage_WithSendfileSupport_ShouldSetSendfileAttributes() throws IOException {
+        MockHttpServletRequest request = request(URL);
+        request.setAttribute(ImageController.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=1-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(uploadDir.resolve("ab/cd/abcd.jpg").toString(), request.getAttribute(ImageController.SENDFILE_FILENAME));
+        assertEquals(1L, request.getAttribute(ImageController.SENDFILE_START));
+        assertEquals(4L, request.getAttribute(ImageController.SENDFILE_END));
+    }
+
+    @Test
+    @DisplayName("Serve image dengan HEAD tidak mengirim body")
+    void serveImage_WithHead_ShouldNotSendBody() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", URL);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageController.serveImage(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Serve image dengan file tidak ada atau path traversal mengembalikan 404")
+    void serveImage_WithMissingFile_ShouldReturn404() throws IOException {
+        for (String uri : new String[]{"/uploads/images/ab/cd/none.jpg", "/uploads/images/../secret", "/uploads/images/"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            imageController.serveImage(request(uri), response);
+            assertEquals(404, response.getStatus(), uri);
+        }
+    }
+
+    @Test
+    @DisplayName("Serve image memakai cache metadata dan mendeteksi file yang sudah dihapus")
+    void serveImage_WithDeletedCachedFile_ShouldReturn404() throws IOException {
+        imageController.serveImage(request(URL), new MockHttpServletResponse());
+        assertEquals(1, imageController.getCachedMetadataCount());
+
+        Files.delete(uploadDir.resolve("ab/cd/abcd.jpg"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageController.serveImage(request(URL), response);
+
+        assertEquals(404, response.getStatus());
+        assertEquals(0, imageController.getCachedMetadataCount());
+    }
+
+    @Test
+    @DisplayName("Cache metadata dibatasi jumlah entrinya")
+    void metadataCache_ShouldEvictEldestEntry() throws IOException {
+        Files.writeString(uploadDir.resolve("a1.png"), "a");
+        Files.writeString(uploadDir.resolve("a2"), "");
+
+        imageController.serveImage(request(URL), new MockHttpServletResponse());
+        imageController.serveImage(request("/uploads/images/a1.png"), new MockHttpServletResponse());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageController.serveImage(request("/uploads/images/a2"), response);
+
+        assertEquals(2, imageController.getCachedMetadataCount());
+        assertEquals("application/octet-stream", response.getContentType());
+        assertEquals(0, response.getContentLengthLong());
+    }
+
+    @Test
+    @DisplayName("Serve image dengan object storage mengarahkan ke presigned URL")
+    void serveImage_WithRemoteStore_ShouldRedirect() throws IOException {
+        ImageStore imageStore = mock(ImageStore.class);
+        when(imageStore.isLocal()).thenReturn(false);
+        when(imageStore.presignedUrl("ab/cd/abcd.jpg"))
+            .thenReturn(URI.create("https://storage.example/ab/cd/abcd.jpg?X-Amz-Signature=abc"));
+        FileStorageService fileStorageService = storageService(uploadDir.toString(), imageStore);
+        ImageController controller = new ImageController(fileStorageService, 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serveImage(request(URL), response);
+
+        assertEquals(302, response.getStatus());
+        assertEquals("https://storage.example/ab/cd/abcd.jpg?X-Amz-Signature=abc", response.getHeader("Location"));
+        assertTrue(response.getHeader("Cache-Control").contains("private"));
+    }
+
+    private static FileStorageService storageService(String uploadDir) {
+        return storageService(uploadDir, new LocalImageStore());
+    }
+
+    private static FileStorageService storageService(String uploadDir, ImageStore imageStore) {
+        return new FileStorageService(uploadDir, imageStore, mock(ImageReencoder.class));
+    }
+}
@@ -5,10 +5,17 @@ import org.delcom.app.entities.Product;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageProcessingQueue;
 import org.delcom.app.services.ProductService;
+import org.delcom.app.services.ProductViewCounter;
+import org.delcom.app.services.StreamingUploadService;
+import org.delcom.app.services.StreamingUploadService.UploadForm;
+import org.delcom.app.services.TrendingService;
+import org.delcom.app.services.UniqueViewerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.ui.Model;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,6 +30,11 @@ class ProductControllerTests {
     private ProductService productService;
     private AuthService authService;
     private FileStorageService fileStorageService;
+    private ImageProcessingQueue imageProcessingQueue;
+    private StreamingUploadService streamingUploadService;
+    private ProductViewCounter productViewCounter;
+    private UniqueViewerService uniqueViewerService;
+    private TrendingService trendingService;
     private ProductController productController;
 
     @BeforeEach
@@ -30,7 +42,14 @@ class ProductControllerTests {
         productService = mock(ProductService.class);
         authService = mock(AuthService.class);
         fileStorageService = mock(FileStorageService.class);
-        productController = new ProductController(productService, authService, fileStorageService);
+        imageProcessingQueue = mock(ImageProcessingQueue.class);
+        streamingUploadService = mock(StreamingUploadService.class);
+        productViewCounter = mock(ProductViewCounter.class);
+        uniqueViewerService = mock(UniqueViewerService.class);
+        trendingService = mock(TrendingService.class);
+        productController = new ProductController(productService, authService, fileStorageService,
+            imageProcessingQueue, streamingUploadService, productViewCounter, uniqueViewerService,
+            trendingService);
     }
 
     @Test
@@ -64,11 +83,43 @@ class ProductControllerTests {
 
         when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
         when(productService.getProductsByUserId(user.getId())).thenReturn(new ArrayList<>());
+        when(uniqueViewerService.estimateSeller(user.getId())).thenReturn(42L);
 
         String result = productController.myProducts(token, model);
 
         assertEquals("products/my-products", result);
         verify(model, times(1)).addAttribute("currentUser", user);
+        verify(model, times(1)).addAttribute("uniqueViewers", 42L);
+    }
+
+    @Test
+    @DisplayName("Dashboard tanpa token redirect ke login")
+    void dashboard_WithoutToken_ShouldRedirectToLogin() {
+        Model model = mock(Model.class);
+        when(authService.getUserByToken("invalid-token")).thenReturn(Optional.empty());
+
+        assertEquals("redirect:/auth/login", productController.dashboard(null, model));
+        assertEquals("redirect:/auth/login", productController.dashboard("invalid-token", model));
+        verify(productService, never()).getSellerDashboard(any());
+    }
+
+    @Test
+    @DisplayName("Dashboard dengan token valid menampilkan ringkasan penjual")
+    void dashboard_WithValidToken_ShouldReturnView() {
+        Model model = mock(Model.class);
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        ProductService.SellerDashboard dashboard = new ProductService.SellerDashboard(
+            2, new BigDecimal("300"), 10, null, List.of(), List.of());
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getSellerDashboard(user.getId())).thenReturn(dashboard);
+
+        String result = productController.dashboard("valid-token", model);
+
+        assertEquals("products/dashboard", result);
+        verify(model).addAttribute("dashboard", dashboard);
+        verify(model).addAttribute("currentUser", user);
     }
 
     @Test
@@ -87,6 +138,24 @@ class ProductControllerTests {
         verify(model, times(1)).addAttribute("product", product);
     }
 
+    @Test
+    @DisplayName("Product detail mencatat kunjungan dan menampilkan jumlah termasuk yang belum di-flush")
+    void productDetail_ShouldRecordViewAndShowCount() {
+        Model model = mock(Model.class);
+        UUID productId = UUID.randomUUID();
+        Product product = new Product();
+        product.setId(productId);
+        product.setViewCount(10);
+
+        when(productService.getProductById(productId)).thenReturn(Optional.of(product));
+        when(productViewCounter.getPendingViews(productId)).thenReturn(3L);
+
+        productController.productDetail(productId, model, null);
+
+        verify(productViewCounter).recordView(productId);
+        verify(model).addAttribute("viewCount", 13L);
+    }
+
     @Test
     @DisplayName("Show add form tanpa token redirect ke login")
     void showAddForm_WithoutToken_ShouldRedirectToLogin() {
@@ -229,10 +298,15 @@ class ProductControllerTests {
         when(productService.getProductById(productId)).thenReturn(Optional.of(product));
         when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
 
+        when(uniqueViewerService.estimateProduct(productId)).thenReturn(7L);
+
         String result = productController.productDetail(productId, model, token);
 
         assertEquals("products/detail", result);
         verify(model, times(1)).addAttribute("isOwner", true);
+        verify(model, times(1)).addAttribute("uniqueViewers", 7L);
+        verify(uniqueViewerService, never()).recordVisitor(any(), any());
+        verify(trendingService, never()).recordView(any(), any());
     }
 
     @Test
@@ -444,10 +518,66 @@ class ProductControllerTests {
             "Name", "Desc", new BigDecimal("100000"), "Category", "New", image);
 
         assertEquals("success", result.getStatus());
-        verify(fileStorageService, times(1)).deleteFile("/uploads/old.jpg");
+        // Gambar lama dibersihkan OrphanImageCollector, bukan dihapus langsung
+        verify(fileStorageService, never()).deleteFile(anyString());
         verify(fileStorageService, times(1)).storeFile(image);
     }
 
+    @Test
+    @DisplayName("Update product dengan image oleh user lain tidak menghapus gambar lama")
+    void updateProduct_WithImageByNonOwner_ShouldNotReleaseOldImage() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        User user = new User();
+        user.setId(userId);
+        Product oldProduct = new Product();
+        oldProduct.setId(productId);
+        oldProduct.setUserId(UUID.randomUUID());
+        oldProduct.setImageUrl("/uploads/images/victim.jpg");
+        MultipartFile image = mock(MultipartFile.class);
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(oldProduct));
+        when(image.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(image)).thenReturn("/uploads/images/new.jpg");
+        when(productService.updateProduct(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenThrow(new RuntimeException("Anda tidak memiliki akses untuk mengubah produk ini"));
+
+        ApiResponse<Product> result = productController.updateProduct(productId, "valid-token",
+            "Name", "Desc", new BigDecimal("100000"), "Category", "New", image);
+
+        assertEquals("error", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(anyString());
+        verify(imageProcessingQueue, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("Update product dengan gambar yang isinya sama tidak menghapus gambar lama")
+    void updateProduct_WithSameImage_ShouldNotReleaseImage() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        User user = new User();
+        user.setId(userId);
+        Product oldProduct = new Product();
+        oldProduct.setId(productId);
+        oldProduct.setUserId(userId);
+        oldProduct.setImageUrl("/uploads/images/same.jpg");
+        MultipartFile image = mock(MultipartFile.class);
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(oldProduct));
+        when(image.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(image)).thenReturn("/uploads/images/same.jpg");
+        when(productService.updateProduct(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(oldProduct);
+
+        ApiResponse<Product> result = productController.updateProduct(productId, "valid-token",
+            "Name", "Desc", new BigDecimal("100000"), "Category", "New", image);
+
+        assertEquals("success", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(anyString());
+    }
+
     @Test
     @DisplayName("Update product dengan image empty tidak menyimpan image")
     void updateProduct_WithEmptyImage_ShouldReturnSuccessWithoutImage() {
@@ -605,6 +735,9 @@ class ProductControllerTests {
 
         assertEquals("products/detail", result);
         verify(model, times(1)).addAttribute("isOwner", false);
+        verify(uniqueViewerService).recordVisitor(productId, userId.toString());
+        verify(trendingService).recordView(productId, userId);
+        verify(model, never()).addAttribute(eq("uniqueViewers"), any());
     }
 
     @Test
@@ -646,7 +779,8 @@ class ProductControllerTests {
         ApiResponse<String> result = productController.deleteProduct(productId, token);
 
         assertEquals("success", result.getStatus());
-        verify(fileStorageService, times(1)).deleteFile("/uploads/test.jpg");
+        verify(productService, times(1)).deleteProduct(productId, userId);
+        verify(fileStorageService, never()).deleteFile(anyString());
     }
 
     @Test
@@ -672,6 +806,30 @@ class ProductControllerTests {
         assertEquals("Error deleting product", result.getMessage());
     }
 
+    @Test
+    @DisplayName("Delete product milik user lain tidak menghapus file gambar")
+    void deleteProduct_ByNonOwner_ShouldNotReleaseImage() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        User user = new User();
+        user.setId(userId);
+        Product product = new Product();
+        product.setId(productId);
+        product.setUserId(UUID.randomUUID());
+        product.setImageUrl("/uploads/images/victim.jpg");
+        product.setImageVariants("200");
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(product));
+        doThrow(new RuntimeException("Anda tidak memiliki akses untuk menghapus produk ini"))
+            .when(productService).deleteProduct(productId, userId);
+
+        ApiResponse<String> result = productController.deleteProduct(productId, "valid-token");
+
+        assertEquals("error", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(anyString());
+    }
+
     @Test
     @DisplayName("Delete product dengan token invalid mengembalikan error")
     void deleteProduct_WithInvalidToken_ShouldReturnError() {
@@ -706,5 +864,267 @@ class ProductControllerTests {
         assertEquals("success", result.getStatus());
         verify(fileStorageService, never()).deleteFile(anyString());
     }
-}
 
+    @Test
+    @DisplayName("Add product dengan image mengantrekan pembuatan thumbnail")
+    void addProduct_WithImage_ShouldSubmitImageJob() {
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        MultipartFile image = mock(MultipartFile.class);
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(image.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(image)).thenReturn("/uploads/images/test.jpg");
+        when(productService.createProduct(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(product);
+
+        productController.addProduct(token, "Name", "Desc",
+            new BigDecimal("100000"), "Category", "New", image);
+
+        verify(imageProcessingQueue, times(1)).submit(product);
+    }
+
+    @Test
+    @DisplayName("Add product tanpa image tidak mengantrekan job gambar")
+    void addProduct_WithoutImage_ShouldNotSubmitImageJob() {
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(productService.createProduct(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(new Product());
+
+        productController.addProduct(token, "Name", "Desc",
+            new BigDecimal("100000"), "Category", "New", null);
+
+        verify(imageProcessingQueue, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("Update product dengan image mengantrekan gambar baru tanpa menghapus thumbnail lama")
+    void updateProduct_WithImage_ShouldSubmitWithoutDeletingOldVariants() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        String token = "valid-token";
+        User user = new User();
+        user.setId(userId);
+        Product oldProduct = new Product();
+        oldProduct.setId(productId);
+        oldProduct.setUserId(userId);
+        oldProduct.setImageUrl("/uploads/images/old.jpg");
+        oldProduct.setImageVariants("200,480");
+        Product updatedProduct = new Product();
+        updatedProduct.setId(productId);
+        MultipartFile image = mock(MultipartFile.class);
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(oldProduct));
+        when(image.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(image)).thenReturn("/uploads/images/new.jpg");
+        when(productService.updateProduct(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(updatedProduct);
+
+        productController.updateProduct(productId, token,
+            "Name", "Desc", new BigDecimal("100000"), "Category", "New", image);
+
+        verify(fileStorageService, never()).deleteFile(anyString());
+        verify(imageProcessingQueue, times(1)).submit(updatedProduct);
+    }
+
+    private UploadForm uploadForm(String price, String imageUrl) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("name", "Name");
+        fields.put("description", "Desc");
+        fields.put("price", price);
+        fields.put("category", "Category");
+        fields.put("condition", "New");
+        return new UploadForm(fields, imageUrl);
+    }
+
+    @Test
+    @DisplayName("Add product streaming memakai field dan gambar dari body multipart")
+    void addProductStreaming_WithImage_ShouldCreateProductAndSubmitJob() throws Exception {
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product product = new Product();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(streamingUploadService.parse(request, "image"))
+            .thenReturn(uploadForm("100000", "/uploads/images/ab/cd/abcd.jpg"));
+        when(productService.createProduct(user.getId(), "Name", "Desc", new BigDecimal("100000"),
+            "Category", "New", "/uploads/images/ab/cd/abcd.jpg")).thenReturn(product);
+
+        ApiResponse<Product> result = productController.addProductStreaming(token, request);
+
+        assertEquals("success", result.getStatus());
+        assertEquals(product, result.getData());
+        verify(imageProcessingQueue).submit(product);
+    }
+
+    @Test
+    @DisplayName("Add product streaming tanpa login tidak membaca body")
+    void addProductStreaming_WithoutToken_ShouldReturnError() throws Exception {
+        ApiResponse<Product> result = productController.addProductStreaming(null, new MockHttpServletRequest());
+
+        assertEquals("error", result.getStatus());
+        verify(streamingUploadService, never()).parse(any(), any());
+    }
+
+    @Test
+    @DisplayName("Add product streaming dengan harga tidak valid mengembalikan error")
+    void addProductStreaming_WithInvalidPrice_ShouldReturnError() throws Exception {
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(streamingUploadService.parse(request, "image")).thenReturn(uploadForm("abc", null));
+
+        ApiResponse<Product> result = productController.addProductStreaming(token, request);
+
+        assertEquals("error", result.getStatus());
+        assertEquals("Harga tidak valid", result.getMessage());
+        verify(productService, never()).createProduct(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Update product streaming mengganti gambar tanpa menghapus gambar lama secara langsung")
+    void updateProductStreaming_WithNewImage_ShouldLeaveOldImageToCollector() throws Exception {
+        UUID productId = UUID.randomUUID();
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product oldProduct = new Product();
+        oldProduct.setId(productId);
+        oldProduct.setImageUrl("/uploads/images/old.jpg");
+        oldProduct.setImageVariants("200");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(streamingUploadService.parse(request, "image"))
+            .thenReturn(uploadForm("100000", "/uploads/images/new.jpg"));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(oldProduct));
+        when(productService.updateProduct(eq(productId), eq(user.getId()), any(), any(), any(), any(), any(),
+            eq("/uploads/images/new.jpg"))).thenAnswer(invocation -> {
+                // Entity yang sama diubah oleh service
+                oldProduct.setImageUrl("/uploads/images/new.jpg");
+                oldProduct.setImageVariants(null);
+                return oldProduct;
+            });
+
+        ApiResponse<Product> result = productController.updateProductStreaming(productId, token, request);
+
+        assertEquals("success", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(imageProcessingQueue).submit(oldProduct);
+    }
+
+    @Test
+    @DisplayName("Update product streaming dengan gambar yang sama tidak menghapus file")
+    void updateProductStreaming_WithSameImage_ShouldKeepFile() throws Exception {
+        UUID productId = UUID.randomUUID();
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product product = new Product();
+        product.setId(productId);
+        product.setImageUrl("/uploads/images/same.jpg");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(streamingUploadService.parse(request, "image"))
+            .thenReturn(uploadForm("100000", "/uploads/images/same.jpg"));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(product));
+        when(productService.updateProduct(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(product);
+
+        ApiResponse<Product> result = productController.updateProductStreaming(productId, token, request);
+
+        assertEquals("success", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(any());
+    }
+
+    @Test
+    @DisplayName("Update product streaming yang gagal tidak menghapus gambar lama")
+    void updateProductStreaming_WithException_ShouldKeepOldImage() throws Exception {
+        UUID productId = UUID.randomUUID();
+        String token = "valid-token";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product oldProduct = new Product();
+        oldProduct.setImageUrl("/uploads/images/old.jpg");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        when(authService.getUserByToken(token)).thenReturn(Optional.of(user));
+        when(streamingUploadService.parse(request, "image"))
+            .thenReturn(uploadForm("100000", "/uploads/images/new.jpg"));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(oldProduct));
+        when(productService.updateProduct(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenThrow(new RuntimeException("Anda tidak memiliki akses untuk mengubah produk ini"));
+
+        ApiResponse<Product> result = productController.updateProductStreaming(productId, token, request);
+
+        assertEquals("error", result.getStatus());
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(imageProcessingQueue, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("Contact seller mencatat minat untuk produk trending")
+    void contactSeller_ShouldRecordContact() {
+        UUID productId = UUID.randomUUID();
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product product = new Product();
+        product.setId(productId);
+        product.setUserId(UUID.randomUUID());
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(product));
+
+        ApiResponse<String> result = productController.contactSeller(productId, "valid-token");
+
+        assertEquals("success", result.getStatus());
+        verify(trendingService).recordContact(productId, user.getId());
+    }
+
+    @Test
+    @DisplayName("Contact seller oleh pemilik produk tidak dicatat")
+    void contactSeller_ByOwner_ShouldNotRecord() {
+        UUID productId = UUID.randomUUID();
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Product product = new Product();
+        product.setId(productId);
+        product.setUserId(user.getId());
+
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.of(product));
+
+        ApiResponse<String> result = productController.contactSeller(productId, "valid-token");
+
+        assertEquals("success", result.getStatus());
+        verify(trendingService, never()).recordContact(any(), any());
+    }
+
+    @Test
+    @DisplayName("Contact seller tanpa login atau produk tidak ada mengembalikan error")
+    void contactSeller_WithoutLoginOrProduct_ShouldReturnError() {
+        UUID productId = UUID.randomUUID();
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        when(authService.getUserByToken("valid-token")).thenReturn(Optional.of(user));
+        when(productService.getProductById(productId)).thenReturn(Optional.empty());
+
+        assertEquals("Anda harus login terlebih dahulu", productController.contactSeller(productId, null).getMessage());
+        assertEquals("Token tidak valid", productController.contactSeller(productId, "invalid-token").getMessage());
+        assertEquals("Product tidak ditemukan", productController.contactSeller(productId, "valid-token").getMessage());
+        verify(trendingService, never()).recordContact(any(), any());
+    }
+}
@@ -58,5 +58,40 @@ class AuthTokenTests {
 
         assertNotNull(authToken.getCreatedAt());
     }
-}
 
+    @Test
+    @DisplayName("AuthToken getter dan setter expiresAt berfungsi")
+    void authToken_ExpiresAt_ShouldWork() {
+        AuthToken authToken = new AuthToken();
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(14);
+
+        authToken.setExpiresAt(expiresAt);
+
+        assertEquals(expiresAt, authToken.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("AuthToken getter dan setter previousToken dan rotatedAt berfungsi")
+    void authToken_PreviousToken_ShouldWork() {
+        AuthToken authToken = new AuthToken();
+        LocalDateTime rotatedAt = LocalDateTime.now();
+
+        authToken.setPreviousToken("old-refresh");
+        authToken.setRotatedAt(rotatedAt);
+
+        assertEquals("old-refresh", authToken.getPreviousToken());
+        assertEquals(rotatedAt, authToken.getRotatedAt());
+    }
+
+    @Test
+    @DisplayName("AuthToken getter dan setter rotationNonce dan previousNonce berfungsi")
+    void authToken_RotationNonce_ShouldWork() {
+        AuthToken authToken = new AuthToken();
+
+        authToken.setRotationNonce("new-nonce");
+        authToken.setPreviousNonce("old-nonce");
+
+        assertEquals("new-nonce", authToken.getRotationNonce());
+        assertEquals("old-nonce", authToken.getPreviousNonce());
+    }
+}
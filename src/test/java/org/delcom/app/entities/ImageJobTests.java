@@ -0,0 +1,68 @@
+package org.delcom.app.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageJobTests {
+    @Test
+    @DisplayName("ImageJob constructor dengan parameter berstatus PENDING")
+    void imageJob_ConstructorWithParams_ShouldBePending() {
+        UUID productId = UUID.randomUUID();
+        ImageJob job = new ImageJob(productId, "/uploads/images/a.jpg");
+
+        assertEquals(productId, job.getProductId());
+        assertEquals("/uploads/images/a.jpg", job.getImageUrl());
+        assertEquals(ImageJob.STATUS_PENDING, job.getStatus());
+        assertEquals(0, job.getAttempts());
+    }
+
+    @Test
+    @DisplayName("ImageJob getter dan setter berfungsi")
+    void imageJob_GettersAndSetters_ShouldWork() {
+        ImageJob job = new ImageJob();
+        UUID id = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        job.setId(id);
+        job.setProductId(productId);
+        job.setImageUrl("/uploads/images/b.png");
+        job.setStatus(ImageJob.STATUS_FAILED);
+        job.setAttempts(3);
+        job.setLastError("error");
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+
+        assertEquals(id, job.getId());
+        assertEquals(productId, job.getProductId());
+        assertEquals("/uploads/images/b.png", job.getImageUrl());
+        assertEquals(ImageJob.STATUS_FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals("error", job.getLastError());
+        assertEquals(now, job.getCreatedAt());
+        assertEquals(now, job.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("ImageJob PrePersist dan PreUpdate mengatur timestamp")
+    void imageJob_Callbacks_ShouldSetTimestamps() throws Exception {
+        ImageJob job = new ImageJob();
+
+        java.lang.reflect.Method onCreate = ImageJob.class.getDeclaredMethod("onCreate");
+        onCreate.setAccessible(true);
+        onCreate.invoke(job);
+        assertNotNull(job.getCreatedAt());
+        assertNotNull(job.getUpdatedAt());
+
+        job.setUpdatedAt(null);
+        java.lang.reflect.Method onUpdate = ImageJob.class.getDeclaredMethod("onUpdate");
+        onUpdate.setAccessible(true);
+        onUpdate.invoke(job);
+        assertNotNull(job.getUpdatedAt());
+    }
+}
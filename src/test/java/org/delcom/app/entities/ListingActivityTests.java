@@ -0,0 +1,39 @@
+package org.delcom.app.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingActivityTests {
+    @Test
+    @DisplayName("ListingActivity getter dan setter berfungsi")
+    void listingActivity_GettersAndSetters_ShouldWork() {
+        LocalDateTime bucket = LocalDateTime.of(2025, 6, 1, 0, 0);
+        ListingActivity activity = new ListingActivity();
+
+        activity.setGranularity(ListingActivity.GRANULARITY_DAY);
+        activity.setBucketStart(bucket);
+        activity.setCategory("Pakaian");
+        activity.setListingCount(3);
+
+        assertEquals(ListingActivity.GRANULARITY_DAY, activity.getGranularity());
+        assertEquals(bucket, activity.getBucketStart());
+        assertEquals("Pakaian", activity.getCategory());
+        assertEquals(3, activity.getListingCount());
+    }
+
+    @Test
+    @DisplayName("Key dengan nilai sama dianggap sama")
+    void key_WithSameValues_ShouldBeEqual() {
+        LocalDateTime bucket = LocalDateTime.of(2025, 6, 1, 9, 0);
+        ListingActivity.Key key = new ListingActivity.Key(ListingActivity.GRANULARITY_HOUR, bucket, "Pakaian");
+
+        assertEquals(key, new ListingActivity.Key(ListingActivity.GRANULARITY_HOUR, bucket, "Pakaian"));
+        assertEquals(key.hashCode(), new ListingActivity.Key(ListingActivity.GRANULARITY_HOUR, bucket, "Pakaian").hashCode());
+        assertNotEquals(key, new ListingActivity.Key(ListingActivity.GRANULARITY_DAY, bucket, "Pakaian"));
+        assertNotEquals(key, new ListingActivity.Key());
+    }
+}
@@ -0,0 +1,39 @@
+package org.delcom.app.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStatTests {
+    @Test
+    @DisplayName("ProductStat getter dan setter berfungsi")
+    void productStat_GettersAndSetters_ShouldWork() {
+        ProductStat stat = new ProductStat();
+
+        stat.setDimension(ProductStat.DIMENSION_CATEGORY);
+        stat.setName("Pakaian");
+        stat.setProductCount(7);
+
+        assertEquals(ProductStat.DIMENSION_CATEGORY, stat.getDimension());
+        assertEquals("Pakaian", stat.getName());
+        assertEquals(7, stat.getProductCount());
+    }
+
+    @Test
+    @DisplayName("Key dibandingkan berdasarkan dimensi lalu nama")
+    void key_ShouldCompareByDimensionThenName() {
+        ProductStat.Key a = new ProductStat.Key(ProductStat.DIMENSION_CONDITION, "Good");
+        ProductStat.Key b = new ProductStat.Key(ProductStat.DIMENSION_CATEGORY, "Pakaian");
+        ProductStat.Key c = new ProductStat.Key(ProductStat.DIMENSION_CATEGORY, "Elektronik");
+
+        assertEquals(List.of(c, b, a), List.copyOf(new TreeSet<>(List.of(a, b, c))));
+        assertEquals(b, new ProductStat.Key(ProductStat.DIMENSION_CATEGORY, "Pakaian"));
+        assertEquals(b.hashCode(), new ProductStat.Key(ProductStat.DIMENSION_CATEGORY, "Pakaian").hashCode());
+        assertNotEquals(b, c);
+        assertNotEquals(b, new ProductStat.Key());
+    }
+}
@@ -109,5 +109,18 @@ class ProductTests {
         assertTrue(product.getUpdatedAt().isAfter(oldTime));
         assertEquals(oldTime, product.getCreatedAt()); // createdAt should not change
     }
-}
 
+    @Test
+    @DisplayName("Product imageSrcset disusun dari imageVariants")
+    void product_ImageSrcset_ShouldUseImageVariants() {
+        Product product = new Product();
+        product.setImageUrl("/uploads/images/abc.jpg");
+        assertNull(product.getImageSrcset());
+
+        product.setImageVariants("200,480");
+
+        assertEquals("200,480", product.getImageVariants());
+        assertEquals("/uploads/images/abc_w200.jpg 200w, /uploads/images/abc_w480.jpg 480w",
+            product.getImageSrcset());
+    }
+}
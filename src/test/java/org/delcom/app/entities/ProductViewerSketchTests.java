@@ -0,0 +1,32 @@
+package org.delcom.app.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductViewerSketchTests {
+    @Test
+    @DisplayName("ProductViewerSketch getter, setter, dan updatedAt berfungsi")
+    void productViewerSketch_GettersAndSetters_ShouldWork() {
+        UUID productId = UUID.randomUUID();
+        ProductViewerSketch sketch = new ProductViewerSketch(productId, new byte[]{1, 2});
+
+        sketch.onUpdate();
+
+        assertEquals(productId, sketch.getProductId());
+        assertArrayEquals(new byte[]{1, 2}, sketch.getSketch());
+        assertNotNull(sketch.getUpdatedAt());
+
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        sketch.setProductId(null);
+        sketch.setSketch(new byte[]{3});
+        sketch.setUpdatedAt(updatedAt);
+        assertNull(sketch.getProductId());
+        assertArrayEquals(new byte[]{3}, sketch.getSketch());
+        assertEquals(updatedAt, sketch.getUpdatedAt());
+    }
+}
@@ -0,0 +1,27 @@
+package org.delcom.app.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupWatermarkTests {
+    @Test
+    @DisplayName("RollupWatermark getter dan setter berfungsi")
+    void rollupWatermark_GettersAndSetters_ShouldWork() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.now();
+        RollupWatermark watermark = new RollupWatermark();
+
+        watermark.setName("listing_activity");
+        watermark.setLastCreatedAt(createdAt);
+        watermark.setLastProductId(id);
+
+        assertEquals("listing_activity", watermark.getName());
+        assertEquals(createdAt, watermark.getLastCreatedAt());
+        assertEquals(id, watermark.getLastProductId());
+    }
+}
@@ -283,5 +283,26 @@ class AuthInterceptorTests {
         assertEquals(401, response.getStatus());
         assertTrue(response.getContentAsString().contains("Format token autentikasi tidak valid"));
     }
-}
 
+    @Test
+    @DisplayName("AuthInterceptor preHandle dengan access token tidak mengecek database token")
+    void preHandle_WithAccessToken_ShouldSkipTokenLookup() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateAccessToken(userId, 60000);
+        User user = new User();
+        user.setId(userId);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        boolean result = authInterceptor.preHandle(request, response, null);
+
+        assertTrue(result);
+        verify(authTokenRepository, never()).findByToken(any());
+        verify(authContext, times(1)).setAuthUser(user);
+    }
+}
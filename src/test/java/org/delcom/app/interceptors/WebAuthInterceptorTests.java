@@ -337,5 +337,58 @@ class WebAuthInterceptorTests {
         assertTrue(response.getRedirectedUrl().contains("%2Fproducts"));
         verify(authService, never()).getUserByToken(any());
     }
-}
 
+    @Test
+    @DisplayName("WebAuthInterceptor dengan access token expired pada mode refresh mengarahkan ke /auth/refresh")
+    void preHandle_WithExpiredAccessToken_ShouldRedirectToRefresh() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setMethod("POST");
+        request.setRequestURI("/products/add");
+        request.setQueryString("x=1");
+        request.setCookies(new Cookie("token", "expired-access"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(authService.getUserByToken("expired-access")).thenReturn(Optional.empty());
+        when(authService.isRefreshTokenEnabled()).thenReturn(true);
+
+        boolean result = webAuthInterceptor.preHandle(request, response, null);
+
+        assertFalse(result);
+        // 307 agar POST diteruskan apa adanya ke /auth/refresh lalu kembali ke URL asal
+        assertEquals(307, response.getStatus());
+        assertEquals("/auth/refresh?redirect=%2Fproducts%2Fadd%3Fx%3D1", response.getHeader("Location"));
+        verify(authService, never()).refresh(any(), any());
+    }
+
+    @Test
+    @DisplayName("WebAuthInterceptor tanpa access token pada mode refresh mengarahkan ke /auth/refresh")
+    void preHandle_WithoutAccessToken_ShouldRedirectToRefresh() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(authService.isRefreshTokenEnabled()).thenReturn(true);
+
+        boolean result = webAuthInterceptor.preHandle(request, response, null);
+
+        assertFalse(result);
+        assertEquals(307, response.getStatus());
+        assertEquals("/auth/refresh?redirect=%2Fproducts", response.getHeader("Location"));
+        verify(authService, never()).getUserByToken(any());
+    }
+
+    @Test
+    @DisplayName("WebAuthInterceptor mengabaikan refresh token saat mode refresh nonaktif")
+    void preHandle_WithRefreshTokenModeDisabled_ShouldNotRefresh() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/products");
+        request.setCookies(new Cookie("refresh_token", "old-refresh"), new Cookie("token", ""));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean result = webAuthInterceptor.preHandle(request, response, null);
+
+        assertFalse(result);
+        assertEquals("/auth/login?redirect=%2Fproducts", response.getRedirectedUrl());
+        verify(authService, never()).refresh(any(), any());
+    }
+}
@@ -0,0 +1,159 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogWriterTests {
+    @TempDir
+    Path tempDir;
+
+    private AccessLogWriter writer;
+
+    // Consumer tidak dijalankan; test memanggil drain() langsung
+    private AccessLogWriter writer(int bufferSize) {
+        writer = new AccessLogWriter(bufferSize);
+        ReflectionTestUtils.setField(writer, "file", tempDir.resolve("access.log").toString());
+        ReflectionTestUtils.setField(writer, "console", false);
+        return writer;
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Tutup file yang masih terbuka
+        ReflectionTestUtils.invokeMethod(writer, "closeFile");
+    }
+
+    @Test
+    @DisplayName("Event ditulis ke file oleh consumer")
+    void drain_ShouldWriteEventsToFile() throws IOException {
+        writer(8);
+        writer.log("GET", "/products", 200, 12, "ProductController.listProducts", "127.0.0.1");
+        writer.log("POST", "/auth/login", 302, 5, "AuthController.login", "10.0.0.1");
+
+        assertEquals(2, writer.drain());
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("access.log"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("GET    /products 200 12ms [ProductController.listProducts] from 127.0.0.1"));
+        assertTrue(lines.get(1).endsWith("POST   /auth/login 302 5ms [AuthController.login] from 10.0.0.1"));
+        assertEquals(0, writer.drain());
+    }
+
+    @Test
+    @DisplayName("Buffer penuh membuang event dan mencatat jumlahnya")
+    void log_WhenFull_ShouldDropAndCount() throws IOException {
+        writer(2);
+        for (int i = 0; i < 5; i++) {
+            writer.log("GET", "/" + i, 200, 1, "-", "127.0.0.1");
+        }
+
+        assertEquals(3, writer.getDroppedCount());
+        assertEquals(2, writer.drain());
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("access.log"));
+        assertEquals(3, lines.size());
+        assertEquals("Access log penuh, 3 request tidak dicatat", lines.get(2));
+
+        // Jumlah yang sudah dilaporkan tidak ditulis ulang
+        writer.drain();
+        assertEquals(3, Files.readAllLines(tempDir.resolve("access.log")).size());
+    }
+
+    @Test
+    @DisplayName("Tanpa consumer yang berjalan, mode tunggu tetap membuang event agar request tidak macet")
+    void log_WhenFullWithoutConsumer_ShouldNotBlock() {
+        writer(2);
+        ReflectionTestUtils.setField(writer, "dropWhenFull", false);
+        for (int i = 0; i < 3; i++) {
+            writer.log("GET", "/", 200, 1, "-", "127.0.0.1");
+        }
+
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("File dirotasi saat melewati batas ukuran")
+    void drain_WhenFileTooLarge_ShouldRotate() throws IOException {
+        writer(8);
+        ReflectionTestUtils.setField(writer, "maxFileSizeMb", 0L);
+        ReflectionTestUtils.setField(writer, "maxFiles", 2);
+
+        for (int i = 1; i <= 3; i++) {
+            writer.log("GET", "/" + i, 200, 1, "-", "127.0.0.1");
+            writer.drain();
+        }
+
+        assertTrue(Files.readAllLines(tempDir.resolve("access.log.1")).get(0).contains("GET    /3 "));
+        assertTrue(Files.readAllLines(tempDir.resolve("access.log.2")).get(0).contains("GET    /2 "));
+        assertFalse(Files.exists(tempDir.resolve("access.log.3")));
+        assertTrue(Files.readAllLines(tempDir.resolve("access.log")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Access log nonaktif tidak menyimpan event")
+    void log_WhenDisabled_ShouldIgnore() {
+        writer(2);
+        ReflectionTestUtils.setField(writer, "enabled", false);
+
+        writer.log("GET", "/", 200, 1, "-", "127.0.0.1");
+
+        assertEquals(0, writer.drain());
+        assertFalse(Files.exists(tempDir.resolve("access.log")));
+    }
+
+    @Test
+    @DisplayName("Consumer background menulis event lalu berhenti saat shutdown")
+    void start_ShouldWriteInBackgroundUntilShutdown() throws Exception {
+        writer(8);
+        writer.start();
+        writer.log("GET", "/", 200, 1, "HomeController.home", "127.0.0.1");
+
+        writer.shutdown();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("access.log"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("[HomeController.home]"));
+    }
+
+    @Test
+    @DisplayName("Ukuran file untuk rotasi dihitung dalam byte UTF-8, bukan jumlah karakter")
+    void drain_WithNonAsciiUri_ShouldCountUtf8Bytes() throws IOException {
+        writer(8);
+        writer.log("GET", "/produk/kopi-\u00E9\u4E2D\uD83D\uDE00", 200, 1, "-", "127.0.0.1");
+        writer.drain();
+
+        assertEquals(Files.size(tempDir.resolve("access.log")), ReflectionTestUtils.getField(writer, "fileSize"));
+        assertEquals(1 + 2 + 3 + 4, AccessLogWriter.utf8Length("a\u00E9\u4E2D\uD83D\uDE00"));
+    }
+
+    @Test
+    @DisplayName("Consumer yang tidur karena buffer kosong dibangunkan oleh event baru")
+    void log_WhenConsumerIdle_ShouldWakeConsumer() throws Exception {
+        writer(8);
+        writer.start();
+        Path path = tempDir.resolve("access.log");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!(boolean) ReflectionTestUtils.getField(writer, "idle") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        writer.log("GET", "/", 200, 1, "HomeController.home", "127.0.0.1");
+        while (!Files.exists(path) || Files.size(path) == 0) {
+            assertTrue(System.nanoTime() < deadline, "Event tidak ditulis oleh consumer");
+            Thread.sleep(1);
+        }
+
+        writer.shutdown();
+        assertEquals(1, Files.readAllLines(path).size());
+    }
+}
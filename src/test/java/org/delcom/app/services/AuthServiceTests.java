@@ -7,12 +7,20 @@ import org.delcom.app.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class AuthServiceTests {
@@ -34,8 +42,7 @@ class AuthServiceTests {
         String email = "test@example.com";
         String password = "password123";
 
-        when(userRepository.existsByEmail(email)).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             user.setId(UUID.randomUUID());
             return user;
@@ -47,18 +54,86 @@ class AuthServiceTests {
         assertEquals(name, result.getName());
         assertEquals(email, result.getEmail());
         assertNotNull(result.getPassword());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(any());
     }
 
     @Test
     @DisplayName("Register dengan email yang sudah ada throw exception")
     void register_WithExistingEmail_ShouldThrowException() {
         String email = "existing@example.com";
-        when(userRepository.existsByEmail(email)).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(constraintViolation("23505", "ux_users_email_lower"));
 
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             authService.register("Test", email, "password");
         });
+        assertEquals("Email sudah terdaftar", exception.getMessage());
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Register dengan unique violation pada constraint kolom email dipastikan lewat existsByEmail")
+    void register_WithColumnUniqueViolation_ShouldConfirmWithExistsByEmail() {
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(constraintViolation("23505", "users_email_key"));
+        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            authService.register("Test", "Existing@Example.com", "password");
+        });
+        assertEquals("Email sudah terdaftar", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Register dengan pelanggaran not-null pada kolom email tidak dianggap email terdaftar")
+    void register_WithNotNullEmailViolation_ShouldRethrow() {
+        DataIntegrityViolationException violation = constraintViolation("23502", null);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> {
+            authService.register("Test", null, "password");
+        });
+        assertSame(violation, exception);
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String sqlState, String constraintName) {
+        String message = "violation on column \"email\"";
+        return new DataIntegrityViolationException(message,
+                new ConstraintViolationException(message, new SQLException(message, sqlState), constraintName));
+    }
+
+    @Test
+    @DisplayName("Register menyimpan email dalam huruf kecil tanpa spasi")
+    void register_WithMixedCaseEmail_ShouldNormalizeEmail() {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = authService.register("Test", "  Test@Example.COM ", "password");
+
+        assertEquals("test@example.com", result.getEmail());
+    }
+
+    @Test
+    @DisplayName("Register dengan pelanggaran constraint lain meneruskan exception asli")
+    void register_WithOtherConstraintViolation_ShouldRethrow() {
+        DataIntegrityViolationException violation =
+                new DataIntegrityViolationException("null value in column \"name\" violates not-null constraint");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> {
+            authService.register(null, "test@example.com", "password");
+        });
+        assertSame(violation, exception);
+    }
+
+    @Test
+    @DisplayName("Login mencari user dengan email ternormalisasi")
+    void login_WithMixedCaseEmail_ShouldLookupNormalizedEmail() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> authService.login(" Test@Example.com", "password"));
+        verify(userRepository, times(1)).findByEmail("test@example.com");
     }
 
     @Test
@@ -110,19 +185,16 @@ class AuthServiceTests {
         user.setPassword(encodedPassword);
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(authTokenRepository.findByUserId(userId)).thenReturn(Optional.empty());
-        when(authTokenRepository.save(any(AuthToken.class))).thenAnswer(invocation -> {
-            AuthToken token = invocation.getArgument(0);
-            token.setId(UUID.randomUUID());
-            return token;
-        });
 
         AuthToken result = authService.login(email, password);
 
         assertNotNull(result);
+        assertNotNull(result.getId());
         assertNotNull(result.getToken());
         assertFalse(result.getToken().isEmpty());
-        verify(authTokenRepository, times(1)).save(any(AuthToken.class));
+        assertNotNull(result.getExpiresAt());
+        verify(authTokenRepository, times(1)).upsertToken(result.getId(), result.getToken(), null, userId,
+                result.getCreatedAt(), result.getExpiresAt());
     }
 
     @Test
@@ -157,7 +229,7 @@ class AuthServiceTests {
     @DisplayName("Logout berhasil menghapus token")
     void logout_ShouldDeleteToken() {
         String token = "test-token";
-        authService.logout(token);
+        authService.logout(token, null);
         verify(authTokenRepository, times(1)).deleteByToken(token);
     }
 
@@ -187,8 +259,8 @@ class AuthServiceTests {
     }
 
     @Test
-    @DisplayName("Login dengan existing token menghapus token lama")
-    void login_WithExistingToken_ShouldDeleteOldToken() {
+    @DisplayName("Login dengan existing token mengganti token lama lewat satu upsert")
+    void login_WithExistingToken_ShouldReplaceOldTokenWithUpsert() {
         String email = "test@example.com";
         String password = "password123";
         UUID userId = UUID.randomUUID();
@@ -202,24 +274,15 @@ class AuthServiceTests {
         user.setEmail(email);
         user.setPassword(encodedPassword);
 
-        AuthToken existingToken = new AuthToken();
-        existingToken.setId(UUID.randomUUID());
-        existingToken.setToken("old-token");
-        existingToken.setUserId(userId);
-
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(authTokenRepository.findByUserId(userId)).thenReturn(Optional.of(existingToken));
-        when(authTokenRepository.save(any(AuthToken.class))).thenAnswer(invocation -> {
-            AuthToken token = invocation.getArgument(0);
-            token.setId(UUID.randomUUID());
-            return token;
-        });
 
         AuthToken result = authService.login(email, password);
 
         assertNotNull(result);
-        verify(authTokenRepository, times(1)).delete(existingToken);
-        verify(authTokenRepository, times(1)).save(any(AuthToken.class));
+        verify(authTokenRepository, never()).findByUserId(any());
+        verify(authTokenRepository, never()).delete(any(AuthToken.class));
+        verify(authTokenRepository, never()).save(any(AuthToken.class));
+        verify(authTokenRepository, times(1)).upsertToken(any(), anyString(), any(), eq(userId), any(), any());
     }
 
     @Test
@@ -255,5 +318,320 @@ class AuthServiceTests {
         // Should not call userRepository because extractUserId returns null
         verify(userRepository, never()).findById(any());
     }
-}
 
+    private void enableRefreshTokenMode() {
+        ReflectionTestUtils.setField(authService, "refreshTokenEnabled", true);
+        ReflectionTestUtils.setField(authService, "accessTokenTtlMinutes", 10L);
+        ReflectionTestUtils.setField(authService, "refreshTokenTtlDays", 14L);
+    }
+
+    @Test
+    @DisplayName("Login pada mode refresh menyimpan refresh token acak, bukan JWT")
+    void login_WithRefreshTokenMode_ShouldStoreOpaqueRefreshToken() {
+        enableRefreshTokenMode();
+        String email = "test@example.com";
+        String password = "password123";
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder().encode(password));
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+
+        AuthToken result = authService.login(email, password);
+
+        assertNotNull(result.getToken());
+        assertFalse(org.delcom.app.utils.JwtUtil.validateToken(result.getToken(), true));
+        assertTrue(result.getExpiresAt().isAfter(LocalDateTime.now().plusDays(13)));
+        assertNotNull(result.getRotationNonce());
+        assertTrue(authService.isRefreshTokenEnabled());
+        assertEquals(14 * 24 * 60 * 60, authService.getRefreshTokenMaxAgeSeconds());
+    }
+
+    @Test
+    @DisplayName("Issue access token menghasilkan access token untuk user")
+    void issueAccessToken_ShouldReturnAccessToken() {
+        enableRefreshTokenMode();
+        UUID userId = UUID.randomUUID();
+
+        String token = authService.issueAccessToken(userId);
+
+        assertTrue(org.delcom.app.utils.JwtUtil.isAccessToken(token));
+        assertEquals(userId, org.delcom.app.utils.JwtUtil.extractUserId(token));
+    }
+
+    @Test
+    @DisplayName("Refresh dengan refresh token dan nonce valid merotasi token dan nonce")
+    void refresh_WithValidToken_ShouldRotateToken() {
+        enableRefreshTokenMode();
+        UUID userId = UUID.randomUUID();
+        AuthToken stored = new AuthToken("old-refresh", userId);
+        stored.setRotationNonce("old-nonce");
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+        when(authTokenRepository.rotateToken(eq("old-refresh"), anyString(), anyString(), any(), any())).thenReturn(1);
+
+        Optional<AuthToken> result = authService.refresh("old-refresh", "old-nonce");
+
+        assertTrue(result.isPresent());
+        assertNotEquals("old-refresh", result.get().getToken());
+        assertNotEquals("old-nonce", result.get().getRotationNonce());
+        assertEquals(userId, result.get().getUserId());
+        assertTrue(result.get().getExpiresAt().isAfter(LocalDateTime.now().plusDays(13)));
+        assertEquals("old-refresh", result.get().getPreviousToken());
+        assertEquals("old-nonce", result.get().getPreviousNonce());
+    }
+
+    @Test
+    @DisplayName("Refresh token berlaku dengan nonce salah atau tanpa nonce mencabut sesi")
+    void refresh_WithCurrentTokenAndWrongNonce_ShouldRevokeSession() {
+        enableRefreshTokenMode();
+        AuthToken stored = new AuthToken("old-refresh", UUID.randomUUID());
+        stored.setRotationNonce("old-nonce");
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+
+        assertFalse(authService.refresh("old-refresh", "other-nonce").isPresent());
+        assertFalse(authService.refresh("old-refresh", null).isPresent());
+        verify(authTokenRepository, times(2)).delete(stored);
+        verify(authTokenRepository, never()).rotateToken(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Sesi lama tanpa nonce tetap bisa di-refresh")
+    void refresh_WithLegacyTokenWithoutNonce_ShouldRotateToken() {
+        enableRefreshTokenMode();
+        AuthToken stored = new AuthToken("old-refresh", UUID.randomUUID());
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+        when(authTokenRepository.rotateToken(eq("old-refresh"), anyString(), anyString(), any(), any())).thenReturn(1);
+
+        Optional<AuthToken> result = authService.refresh("old-refresh", null);
+
+        assertTrue(result.isPresent());
+        assertNotNull(result.get().getRotationNonce());
+    }
+
+    @Test
+    @DisplayName("Refresh gagal jika token sudah dirotasi oleh request lain dan tidak ada hasil rotasinya")
+    void refresh_WithConcurrentRotation_ShouldReturnEmpty() {
+        enableRefreshTokenMode();
+        AuthToken stored = new AuthToken("old-refresh", UUID.randomUUID());
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+        when(authTokenRepository.rotateToken(eq("old-refresh"), anyString(), anyString(), any(), any())).thenReturn(0);
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.empty());
+
+        assertFalse(authService.refresh("old-refresh", null).isPresent());
+        verify(authTokenRepository, never()).delete(any(AuthToken.class));
+    }
+
+    @Test
+    @DisplayName("Refresh yang kalah rotasi bersamaan dari client yang sama mendapat hasil rotasi pemenangnya")
+    void refresh_WithConcurrentRotationInGracePeriod_ShouldReturnRotatedToken() {
+        enableRefreshTokenMode();
+        UUID userId = UUID.randomUUID();
+        AuthToken stored = new AuthToken("old-refresh", userId);
+        stored.setRotationNonce("old-nonce");
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        AuthToken rotated = rotatedToken(userId, "old-nonce", LocalDateTime.now());
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+        when(authTokenRepository.rotateToken(eq("old-refresh"), anyString(), anyString(), any(), any())).thenReturn(0);
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.of(rotated));
+
+        Optional<AuthToken> result = authService.refresh("old-refresh", "old-nonce");
+
+        assertTrue(result.isPresent());
+        assertEquals("winner-refresh", result.get().getToken());
+        verify(authTokenRepository, never()).delete(any(AuthToken.class));
+    }
+
+    @Test
+    @DisplayName("Refresh token yang baru dirotasi diterima selama masa tenggang hanya dari client yang sama")
+    void refresh_WithJustRotatedTokenFromSameClient_ShouldReturnCurrentToken() {
+        enableRefreshTokenMode();
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGraceSeconds", 30L);
+        AuthToken rotated = rotatedToken(UUID.randomUUID(), "old-nonce", LocalDateTime.now().minusSeconds(5));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.empty());
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.of(rotated));
+
+        Optional<AuthToken> result = authService.refresh("old-refresh", "old-nonce");
+
+        assertTrue(result.isPresent());
+        assertEquals("winner-refresh", result.get().getToken());
+        verify(authTokenRepository, never()).rotateToken(any(), any(), any(), any(), any());
+        verify(authTokenRepository, never()).delete(any(AuthToken.class));
+    }
+
+    @Test
+    @DisplayName("Refresh token lama dari client lain di masa tenggang dianggap pencurian dan sesi dicabut")
+    void refresh_WithJustRotatedTokenFromOtherClient_ShouldRevokeSession() {
+        enableRefreshTokenMode();
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGraceSeconds", 30L);
+        AuthToken rotated = rotatedToken(UUID.randomUUID(), "old-nonce", LocalDateTime.now().minusSeconds(5));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.empty());
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.of(rotated));
+
+        assertFalse(authService.refresh("old-refresh", "stolen-nonce").isPresent());
+        assertFalse(authService.refresh("old-refresh", null).isPresent());
+        verify(authTokenRepository, times(2)).delete(rotated);
+    }
+
+    @Test
+    @DisplayName("Refresh token lama dipakai setelah masa tenggang mencabut sesi walau nonce cocok")
+    void refresh_WithRotatedTokenAfterGracePeriod_ShouldRevokeSession() {
+        enableRefreshTokenMode();
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGraceSeconds", 30L);
+        AuthToken rotated = rotatedToken(UUID.randomUUID(), "old-nonce", LocalDateTime.now().minusSeconds(31));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.empty());
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.of(rotated));
+
+        assertFalse(authService.refresh("old-refresh", "old-nonce").isPresent());
+        verify(authTokenRepository, times(1)).delete(rotated);
+    }
+
+    @Test
+    @DisplayName("Masa tenggang 0 menolak refresh token lama dan mencabut sesi")
+    void refresh_WithGracePeriodDisabled_ShouldRevokeOnRotatedToken() {
+        enableRefreshTokenMode();
+        ReflectionTestUtils.setField(authService, "refreshTokenReuseGraceSeconds", 0L);
+        AuthToken rotated = rotatedToken(UUID.randomUUID(), "old-nonce", LocalDateTime.now());
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.empty());
+        when(authTokenRepository.findByPreviousToken("old-refresh")).thenReturn(Optional.of(rotated));
+
+        assertFalse(authService.refresh("old-refresh", "old-nonce").isPresent());
+        verify(authTokenRepository, times(1)).delete(rotated);
+    }
+
+    @Test
+    @DisplayName("Refresh dengan refresh token expired menghapus token")
+    void refresh_WithExpiredToken_ShouldDeleteAndReturnEmpty() {
+        enableRefreshTokenMode();
+        AuthToken stored = new AuthToken("old-refresh", UUID.randomUUID());
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+
+        assertFalse(authService.refresh("old-refresh", null).isPresent());
+        verify(authTokenRepository, times(1)).delete(stored);
+        verify(authTokenRepository, never()).rotateToken(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Refresh dengan token tanpa expiresAt menghapus token")
+    void refresh_WithoutExpiresAt_ShouldDeleteAndReturnEmpty() {
+        enableRefreshTokenMode();
+        AuthToken stored = new AuthToken("old-refresh", UUID.randomUUID());
+
+        when(authTokenRepository.findByToken("old-refresh")).thenReturn(Optional.of(stored));
+
+        assertFalse(authService.refresh("old-refresh", null).isPresent());
+        verify(authTokenRepository, times(1)).delete(stored);
+    }
+
+    @Test
+    @DisplayName("Refresh dengan token tidak dikenal, kosong, atau mode nonaktif mengembalikan empty")
+    void refresh_WithUnknownTokenOrDisabledMode_ShouldReturnEmpty() {
+        assertFalse(authService.refresh("any-token", null).isPresent());
+
+        enableRefreshTokenMode();
+        when(authTokenRepository.findByToken("unknown")).thenReturn(Optional.empty());
+        when(authTokenRepository.findByPreviousToken("unknown")).thenReturn(Optional.empty());
+
+        assertFalse(authService.refresh("unknown", null).isPresent());
+        assertFalse(authService.refresh("", null).isPresent());
+        assertFalse(authService.refresh(null, null).isPresent());
+    }
+
+    private static AuthToken rotatedToken(UUID userId, String previousNonce, LocalDateTime rotatedAt) {
+        AuthToken rotated = new AuthToken("winner-refresh", userId);
+        rotated.setRotationNonce("winner-nonce");
+        rotated.setExpiresAt(LocalDateTime.now().plusDays(14));
+        rotated.setPreviousToken("old-refresh");
+        rotated.setPreviousNonce(previousNonce);
+        rotated.setRotatedAt(rotatedAt);
+        return rotated;
+    }
+
+    @Test
+    @DisplayName("Logout pada mode refresh menghapus refresh token milik user")
+    void logout_WithRefreshTokenMode_ShouldDeleteByUserId() {
+        enableRefreshTokenMode();
+        UUID userId = UUID.randomUUID();
+        String accessToken = org.delcom.app.utils.JwtUtil.generateAccessToken(userId, -1000);
+
+        authService.logout(accessToken, null);
+
+        verify(authTokenRepository, times(1)).deleteByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("Logout pada mode refresh dengan token invalid tidak menghapus berdasarkan userId")
+    void logout_WithRefreshTokenModeAndInvalidToken_ShouldNotDeleteByUserId() {
+        enableRefreshTokenMode();
+
+        authService.logout("invalid-token", null);
+
+        verify(authTokenRepository, times(1)).deleteByToken("invalid-token");
+        verify(authTokenRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Logout pada mode refresh tanpa access token mencabut sesi lewat refresh token")
+    void logout_WithRefreshTokenModeAndOnlyRefreshToken_ShouldDeleteRefreshToken() {
+        enableRefreshTokenMode();
+
+        authService.logout(null, "refresh-token");
+
+        verify(authTokenRepository, times(1)).deleteByToken("refresh-token");
+        verify(authTokenRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Umur cookie access token mengikuti umur access token")
+    void getAccessTokenMaxAgeSeconds_ShouldUseAccessTokenTtl() {
+        enableRefreshTokenMode();
+
+        assertEquals(10 * 60, authService.getAccessTokenMaxAgeSeconds());
+    }
+
+    @Test
+    @DisplayName("Purge token expired menghapus per batch sampai habis")
+    void purgeExpiredTokens_ShouldDeleteInBatches() {
+        ReflectionTestUtils.setField(authService, "tokenPurgeBatchSize", 2);
+        when(authTokenRepository.deleteExpiredBatch(any(), any(), eq(2))).thenReturn(2, 2, 1);
+
+        int total = authService.purgeExpiredTokens();
+
+        assertEquals(5, total);
+        verify(authTokenRepository, times(3)).deleteExpiredBatch(any(), any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Purge token expired tanpa token expired tidak menghapus apa pun")
+    void purgeExpiredTokens_WithNothingExpired_ShouldReturnZero() {
+        when(authTokenRepository.deleteExpiredBatch(any(), any(), anyInt())).thenReturn(0);
+
+        assertEquals(0, authService.purgeExpiredTokens());
+        verify(authTokenRepository, times(1)).deleteExpiredBatch(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("reportDuplicateEmails menghitung akun yang ditandai schema.sql")
+    void reportDuplicateEmails_ShouldCountMarkedAccounts() {
+        when(userRepository.countByEmailContaining("#duplicate-")).thenReturn(2L);
+
+        authService.reportDuplicateEmails();
+
+        verify(userRepository).countByEmailContaining("#duplicate-");
+    }
+}
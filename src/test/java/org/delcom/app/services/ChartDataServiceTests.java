@@ -0,0 +1,89 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChartDataServiceTests {
+    private ProductService productService;
+    private PriceSketchService priceSketchService;
+    private ChartDataService chartDataService;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        priceSketchService = mock(PriceSketchService.class);
+        chartDataService = new ChartDataService(productService, priceSketchService);
+
+        List<Object[]> categoryStats = new ArrayList<>();
+        categoryStats.add(new Object[]{"Pakaian", 5L});
+        List<Object[]> conditionStats = new ArrayList<>();
+        conditionStats.add(new Object[]{"New", 2L});
+        when(productService.getCategoryStatistics()).thenReturn(categoryStats);
+        when(productService.getConditionStatistics()).thenReturn(conditionStats);
+        when(priceSketchService.getCategoryQuantiles()).thenReturn(Map.of("Pakaian",
+            new PriceSketchService.PriceQuantiles(5, new BigDecimal("10000"), new BigDecimal("50000"), new BigDecimal("90000"))));
+    }
+
+    @Test
+    @DisplayName("Snapshot berisi DTO jumlah produk dan persentil harga dengan ETag lemah")
+    void getSnapshot_ShouldMapStatistics() {
+        ChartDataService.Snapshot snapshot = chartDataService.getSnapshot();
+
+        assertEquals(List.of(new ChartDataService.CountEntry("Pakaian", 5)), snapshot.data().categories());
+        assertEquals(List.of(new ChartDataService.CountEntry("New", 2)), snapshot.data().conditions());
+        assertEquals(List.of(new ChartDataService.PriceEntry("Pakaian", 5,
+            new BigDecimal("10000"), new BigDecimal("50000"), new BigDecimal("90000"))), snapshot.data().prices());
+        assertTrue(snapshot.etag().matches("W/\"stats-[0-9a-f]{16}\""), snapshot.etag());
+    }
+
+    @Test
+    @DisplayName("Snapshot dipakai ulang selama versi statistik sama")
+    void getSnapshot_WithSameVersion_ShouldReuseSnapshot() {
+        ChartDataService.Snapshot first = chartDataService.getSnapshot();
+        ChartDataService.Snapshot second = chartDataService.getSnapshot();
+
+        assertSame(first, second);
+        verify(productService, times(1)).getCategoryStatistics();
+    }
+
+    @Test
+    @DisplayName("Versi statistik berubah membuat snapshot baru, ETag hanya berubah jika isinya berubah")
+    void getSnapshot_WithNewVersion_ShouldReload() {
+        ChartDataService.Snapshot first = chartDataService.getSnapshot();
+
+        when(productService.getStatsVersion()).thenReturn(1L);
+        ChartDataService.Snapshot sameContent = chartDataService.getSnapshot();
+        assertNotSame(first, sameContent);
+        assertEquals(first.etag(), sameContent.etag(), "ETag dari isi, sama di semua node");
+
+        List<Object[]> categoryStats = new ArrayList<>();
+        categoryStats.add(new Object[]{"Pakaian", 6L});
+        when(productService.getCategoryStatistics()).thenReturn(categoryStats);
+        when(productService.getStatsVersion()).thenReturn(2L);
+        ChartDataService.Snapshot changed = chartDataService.getSnapshot();
+
+        assertNotEquals(first.etag(), changed.etag());
+        assertEquals(6, changed.data().categories().get(0).count());
+    }
+
+    @Test
+    @DisplayName("Snapshot yang melewati cache-seconds dibaca ulang")
+    void getSnapshot_WhenExpired_ShouldReload() {
+        ReflectionTestUtils.setField(chartDataService, "cacheSeconds", 0L);
+
+        chartDataService.getSnapshot();
+        chartDataService.getSnapshot();
+
+        verify(productService, times(2)).getCategoryStatistics();
+    }
+}
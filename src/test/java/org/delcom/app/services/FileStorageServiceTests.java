@@ -1,18 +1,34 @@
 package org.delcom.app.services;
 
+import org.delcom.app.utils.JpegHeader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class FileStorageServiceTests {
@@ -21,7 +37,17 @@ class FileStorageServiceTests {
 
     @BeforeEach
     void setUp() {
-        fileStorageService = new FileStorageService(TEST_UPLOAD_DIR);
+        fileStorageService = storageService(TEST_UPLOAD_DIR);
+    }
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
     }
 
     @Test
@@ -30,7 +56,7 @@ class FileStorageServiceTests {
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn("test.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("test content".getBytes()));
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(image("jpg", 4, 4)));
 
         String result = fileStorageService.storeFile(file);
 
@@ -84,18 +110,18 @@ class FileStorageServiceTests {
     }
 
     @Test
-    @DisplayName("Store file dengan filename tanpa extension berhasil")
-    void storeFile_WithNoExtension_ShouldReturnPath() throws IOException {
+    @DisplayName("Store file dengan filename tanpa extension memakai extension dari isi file")
+    void storeFile_WithNoExtension_ShouldUseDetectedExtension() throws IOException {
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn("testfile");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("test content".getBytes()));
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(image("png", 4, 4)));
 
         String result = fileStorageService.storeFile(file);
 
         assertNotNull(result);
         assertTrue(result.startsWith("/uploads/images/"));
-        assertFalse(result.contains("."));
+        assertTrue(result.endsWith(".png"));
     }
 
     @Test
@@ -104,7 +130,7 @@ class FileStorageServiceTests {
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn(null);
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("test content".getBytes()));
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(image("gif", 4, 4)));
 
         String result = fileStorageService.storeFile(file);
 
@@ -227,7 +253,7 @@ class FileStorageServiceTests {
         // Now create a new instance - this should NOT call Files.createDirectories
         // because directory already exists (Files.exists returns true)
         // The constructor should skip the createDirectories call
-        FileStorageService newService = new FileStorageService(uniqueTestDir);
+        FileStorageService newService = storageService(uniqueTestDir);
         assertNotNull(newService);
         
         // Verify directory still exists (wasn't deleted or recreated)
@@ -273,7 +299,7 @@ class FileStorageServiceTests {
         }
         
         // Now create a new instance - this should call Files.createDirectories
-        FileStorageService newService = new FileStorageService(uniqueTestDir);
+        FileStorageService newService = storageService(uniqueTestDir);
         assertNotNull(newService);
         
         // Verify directory was created
@@ -338,7 +364,7 @@ class FileStorageServiceTests {
             
             // Constructor should throw RuntimeException when IOException occurs
             RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-                new FileStorageService(TEST_UPLOAD_DIR);
+                storageService(TEST_UPLOAD_DIR);
             });
             
             assertTrue(exception.getMessage().contains("Tidak dapat membuat direktori upload"));
@@ -346,5 +372,390 @@ class FileStorageServiceTests {
             assertTrue(exception.getCause() instanceof IOException);
         }
     }
-}
 
+    @Test
+    @DisplayName("Resolve path mengembalikan lokasi file di direktori upload")
+    void resolvePath_ShouldReturnPathInUploadDirectory() {
+        Path expected = Paths.get(TEST_UPLOAD_DIR).toAbsolutePath().normalize().resolve("abc_w200.jpg");
+        assertEquals(expected, fileStorageService.resolvePath("/uploads/images/abc_w200.jpg"));
+    }
+
+    private MultipartFile mockFile(String filename, byte[] content) throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getOriginalFilename()).thenReturn(filename);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(content));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Store file memberi nama file berdasarkan hash SHA-256 isi")
+    void storeFile_ShouldNameFileBySha256(@TempDir Path tempDir) throws Exception {
+        FileStorageService service = storageService(tempDir.toString());
+        byte[] content = image("jpg", 4, 4);
+
+        String result = service.storeFile(mockFile("foto.JPG", content));
+
+        String hash = sha256(content);
+        assertEquals("/uploads/images/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".jpg", result);
+        assertArrayEquals(content, Files.readAllBytes(service.resolvePath(result)));
+    }
+
+    @Test
+    @DisplayName("Store file dengan isi sama hanya disimpan sekali")
+    void storeFile_WithSameContent_ShouldDeduplicate(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        String first = service.storeFile(mockFile("a.png", image("png", 4, 4)));
+        String second = service.storeFile(mockFile("b.png", image("png", 4, 4)));
+        String other = service.storeFile(mockFile("c.png", image("png", 5, 5)));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        try (var files = Files.walk(tempDir)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count(), "File sementara harus sudah dihapus");
+        }
+    }
+
+    @Test
+    @DisplayName("Store file dengan isi sama memperbarui umur file yang sudah ada")
+    void storeFile_WithSameContent_ShouldRefreshModifiedTime(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+        String url = service.storeFile(mockFile("a.png", image("png", 4, 4)));
+        Path stored = service.resolvePath(url);
+        Files.setLastModifiedTime(stored, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+
+        service.storeFile(mockFile("b.png", image("png", 4, 4)));
+
+        assertTrue(Files.getLastModifiedTime(stored).toInstant().isAfter(Instant.now().minus(Duration.ofMinutes(1))));
+    }
+
+    @Test
+    @DisplayName("Store stream mengabaikan extension yang tidak valid")
+    void storeStream_WithInvalidExtension_ShouldDropExtension(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        String result = service.storeStream(new ByteArrayInputStream("abc".getBytes()), "x.jpg/../../evil", 10);
+
+        assertEquals("/uploads/images/ba/78/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", result);
+        assertTrue(Files.exists(tempDir.resolve("ba/78/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad")));
+    }
+
+    @Test
+    @DisplayName("Store file gagal menghapus file sementara")
+    void storeFile_WithIOException_ShouldRemoveTempFile(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getOriginalFilename()).thenReturn("a.jpg");
+        when(file.getInputStream()).thenThrow(new IOException("koneksi terputus"));
+
+        assertThrows(RuntimeException.class, () -> service.storeFile(file));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Sharded path memakai 4 karakter hex pertama sebagai dua level direktori")
+    void shardedPath_WithHexName_ShouldUsePrefix() {
+        assertEquals("ab/cd/abcdef.jpg", FileStorageService.shardedPath("abcdef.jpg"));
+        assertEquals("01/5b/015b6295-3c3a-4469-9f88-8e0c68b71f7a",
+            FileStorageService.shardedPath("015b6295-3c3a-4469-9f88-8e0c68b71f7a"));
+    }
+
+    @Test
+    @DisplayName("Sharded path untuk nama bukan hex tetap dua level direktori")
+    void shardedPath_WithNonHexName_ShouldUseNameHash() {
+        String result = FileStorageService.shardedPath("foto.jpg");
+
+        assertTrue(result.matches("[0-9a-f]{2}/[0-9a-f]{2}/foto\\.jpg"), result);
+        assertEquals(result, FileStorageService.shardedPath("foto.jpg"));
+        assertTrue(FileStorageService.shardedPath("a").endsWith("/a"));
+    }
+
+    @Test
+    @DisplayName("Resolve path mendukung URL berlapis dan menolak path traversal")
+    void resolvePath_WithNestedUrl_ShouldStayInUploadDirectory() {
+        Path base = Paths.get(TEST_UPLOAD_DIR).toAbsolutePath().normalize();
+
+        assertEquals(base.resolve("ab/cd/abcd.jpg"), fileStorageService.resolvePath("/uploads/images/ab/cd/abcd.jpg"));
+        assertThrows(RuntimeException.class, () -> fileStorageService.resolvePath("/uploads/images/../secret.txt"));
+        assertThrows(RuntimeException.class, () -> fileStorageService.resolvePath("/uploads/images/"));
+        assertDoesNotThrow(() -> fileStorageService.deleteFile("/uploads/images/../../secret.txt"));
+    }
+
+    @Test
+    @DisplayName("Get upload path mengembalikan direktori upload absolut")
+    void getUploadPath_ShouldReturnAbsolutePath() {
+        assertEquals(Paths.get(TEST_UPLOAD_DIR).toAbsolutePath().normalize(), fileStorageService.getUploadPath());
+    }
+
+    @Test
+    @DisplayName("Store stream menyimpan isi dengan nama hash yang sama seperti storeFile")
+    void storeStream_ShouldStoreContent(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        String result = service.storeStream(new ByteArrayInputStream("abc".getBytes()), "foto.jpg", 10);
+
+        assertEquals("/uploads/images/ba/78/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.jpg", result);
+        assertEquals("abc", Files.readString(service.resolvePath(result)));
+    }
+
+    @Test
+    @DisplayName("Store stream melebihi batas ukuran dihentikan dan file sementara dihapus")
+    void storeStream_WithTooLargeContent_ShouldThrowAndCleanUp(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.storeStream(new ByteArrayInputStream(new byte[100]), "a.jpg", 99));
+
+        assertEquals("Ukuran file melebihi batas", exception.getMessage());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Store stream tanpa isi throw exception")
+    void storeStream_WithEmptyContent_ShouldThrowException(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.storeStream(new ByteArrayInputStream(new byte[0]), "a.jpg", 99));
+
+        assertEquals("File kosong", exception.getMessage());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ImageStore remoteStore(Map<String, String> objects) throws IOException {
+        ImageStore imageStore = mock(ImageStore.class);
+        when(imageStore.isLocal()).thenReturn(false);
+        doAnswer(invocation -> {
+            objects.put(invocation.getArgument(0), Files.readString(invocation.<Path>getArgument(1)));
+            return null;
+        }).when(imageStore).put(anyString(), any(Path.class));
+        when(imageStore.fetch(anyString(), any(Path.class))).thenAnswer(invocation -> {
+            String content = objects.get(invocation.<String>getArgument(0));
+            if (content == null) {
+                return false;
+            }
+            Files.writeString(invocation.<Path>getArgument(1), content);
+            return true;
+        });
+        doAnswer(invocation -> objects.remove(invocation.<String>getArgument(0)))
+            .when(imageStore).delete(anyString());
+        return imageStore;
+    }
+
+    @Test
+    @DisplayName("File yang disimpan sudah ada di object storage saat URL-nya dikembalikan")
+    void storeStream_WithRemoteStore_ShouldUploadBeforeReturning(@TempDir Path tempDir) throws IOException {
+        Map<String, String> objects = new ConcurrentHashMap<>();
+        FileStorageService service = storageService(tempDir.toString(), remoteStore(objects));
+
+        String url = service.storeStream(new ByteArrayInputStream("abc".getBytes()), "a.jpg", 10);
+
+        String key = "ba/78/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.jpg";
+        assertEquals("/uploads/images/" + key, url);
+        assertEquals("abc", objects.get(key));
+    }
+
+    @Test
+    @DisplayName("File dengan isi sama diupload ulang ke object storage meski salinan lokal sudah ada")
+    void storeStream_WithRemoteStoreAndExistingLocalCopy_ShouldUploadAgain(@TempDir Path tempDir) throws IOException {
+        Map<String, String> objects = new ConcurrentHashMap<>();
+        FileStorageService service = storageService(tempDir.toString(), remoteStore(objects));
+        String url = service.storeStream(new ByteArrayInputStream("abc".getBytes()), "a.jpg", 10);
+        objects.clear(); // misalnya upload pertama gagal atau object sudah dihapus
+
+        assertEquals(url, service.storeStream(new ByteArrayInputStream("abc".getBytes()), "a.jpg", 10));
+
+        assertEquals("abc", objects.get("ba/78/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.jpg"));
+    }
+
+    @Test
+    @DisplayName("Upload yang tetap gagal ke object storage menggagalkan penyimpanan file")
+    void storeStream_WithFailingRemoteStore_ShouldThrowAfterRetries(@TempDir Path tempDir) throws IOException {
+        ImageStore imageStore = remoteStore(new ConcurrentHashMap<>());
+        doThrow(new IOException("503 Slow Down")).when(imageStore).put(anyString(), any(Path.class));
+        FileStorageService service = storageService(tempDir.toString(), imageStore);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> service.storeStream(new ByteArrayInputStream("abc".getBytes()), "a.jpg", 10));
+
+        assertTrue(exception.getMessage().contains("503 Slow Down"));
+        verify(imageStore, times(3)).put(anyString(), any(Path.class));
+    }
+
+    @Test
+    @DisplayName("Local file mengunduh file dari object storage jika belum ada di node ini")
+    void localFile_WithRemoteStore_ShouldFetchMissingFile(@TempDir Path tempDir) throws IOException {
+        Map<String, String> objects = new ConcurrentHashMap<>();
+        objects.put("ab/cd/abcd.jpg", "isi dari node lain");
+        FileStorageService service = storageService(tempDir.toString(), remoteStore(objects));
+
+        Path path = service.localFile("/uploads/images/ab/cd/abcd.jpg");
+
+        assertEquals(tempDir.resolve("ab/cd/abcd.jpg"), path);
+        assertEquals("isi dari node lain", Files.readString(path));
+        assertThrows(RuntimeException.class, () -> service.localFile("/uploads/images/ab/cd/abce.jpg"));
+    }
+
+    @Test
+    @DisplayName("Delete file ikut menghapus salinan di object storage")
+    void deleteFile_WithRemoteStore_ShouldDeleteRemoteCopy(@TempDir Path tempDir) throws IOException {
+        Map<String, String> objects = new ConcurrentHashMap<>();
+        objects.put("ab/cd/abcd.jpg", "isi");
+        FileStorageService service = storageService(tempDir.toString(), remoteStore(objects));
+
+        service.deleteFile("/uploads/images/ab/cd/abcd.jpg");
+
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Remote read URL hanya tersedia jika store bukan lokal")
+    void remoteReadUrl_ShouldUsePresignedUrl(@TempDir Path tempDir) throws IOException {
+        ImageStore imageStore = remoteStore(new ConcurrentHashMap<>());
+        when(imageStore.presignedUrl("ab/cd/abcd.jpg")).thenReturn(URI.create("https://storage.example/x"));
+        FileStorageService service = storageService(tempDir.toString(), imageStore);
+
+        assertEquals(URI.create("https://storage.example/x"), service.remoteReadUrl("/uploads/images/ab/cd/abcd.jpg"));
+        assertNull(storageService(tempDir.toString()).remoteReadUrl("/uploads/images/ab/cd/abcd.jpg"));
+    }
+
+    @Test
+    @DisplayName("Store file memakai extension dari isi file, bukan dari nama file client")
+    void storeFile_WithMismatchedExtension_ShouldUseDetectedFormat(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        String result = service.storeFile(mockFile("foto.html", image("png", 4, 4)));
+
+        assertTrue(result.endsWith(".png"));
+    }
+
+    @Test
+    @DisplayName("Store file yang bukan gambar ditolak tanpa menyisakan file")
+    void storeFile_WithNonImage_ShouldThrowAndCleanUp(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.storeFile(mockFile("foto.jpg", "<script>alert(1)</script>".getBytes())));
+
+        assertEquals("File harus berupa gambar JPEG, PNG, GIF, atau WebP", exception.getMessage());
+        try (var files = Files.walk(tempDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Store image menolak gambar dengan jumlah pixel melebihi batas")
+    void storeImage_WithTooManyPixels_ShouldThrow(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+        ReflectionTestUtils.setField(service, "maxImagePixels", 100L);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.storeImage(new ByteArrayInputStream(image("png", 20, 10)), Long.MAX_VALUE));
+
+        assertEquals("Resolusi gambar terlalu besar: 20x10", exception.getMessage());
+        try (var files = Files.walk(tempDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Store image menolak decompression bomb hanya dari header PNG")
+    void storeImage_WithDecompressionBomb_ShouldRejectFromHeader(@TempDir Path tempDir) {
+        FileStorageService service = storageService(tempDir.toString());
+        // Header PNG yang mengaku 100000 x 100000 pixel, tanpa data gambar yang valid
+        byte[] bomb = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+            0, 0, 0, 13, 'I', 'H', 'D', 'R',
+            0, 1, (byte) 0x86, (byte) 0xA0, 0, 1, (byte) 0x86, (byte) 0xA0,
+            8, 2, 0, 0, 0
+        };
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.storeImage(new ByteArrayInputStream(bomb), Long.MAX_VALUE));
+
+        assertEquals("Resolusi gambar terlalu besar: 100000x100000", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Inspect image membaca format dan dimensi tanpa decode")
+    void inspectImage_ShouldReturnHeader(@TempDir Path tempDir) throws IOException {
+        FileStorageService service = storageService(tempDir.toString());
+        Path file = tempDir.resolve("a.gif");
+        Files.write(file, image("gif", 30, 20));
+
+        var header = service.inspectImage(file);
+
+        assertEquals("gif", header.getFormat());
+        assertEquals(30, header.getWidth());
+        assertEquals(20, header.getHeight());
+    }
+
+    // Sisipkan segmen APP1 EXIF (big endian) dengan tag Orientation setelah SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+            0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + exif.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(exif, 0, result, 2, exif.length);
+        System.arraycopy(jpeg, 2, result, 2 + exif.length, jpeg.length - 2);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Store image membuang metadata JPEG sebelum URL dikembalikan")
+    void storeImage_WithExif_ShouldStripMetadataBeforeReturning(@TempDir Path tempDir) throws Exception {
+        FileStorageService service = new FileStorageService(tempDir.toString(), new LocalImageStore(),
+                new ImageReencoder());
+
+        String url = service.storeImage(new ByteArrayInputStream(withExifOrientation(image("jpg", 8, 4), 6)),
+                Long.MAX_VALUE);
+
+        byte[] stored = Files.readAllBytes(service.resolvePath(url));
+        try (var in = new ByteArrayInputStream(stored)) {
+            JpegHeader header = JpegHeader.read(in);
+            assertFalse(header.hasMetadata());
+            assertEquals(1, header.getOrientation());
+        }
+        assertEquals(4, ImageIO.read(new ByteArrayInputStream(stored)).getWidth());
+        // Nama file berasal dari isi yang benar-benar disimpan
+        assertTrue(url.endsWith("/" + sha256(stored) + ".jpg"));
+        try (var files = Files.walk(tempDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Store image menyimpan JPEG tanpa metadata apa adanya")
+    void storeImage_WithCleanJpeg_ShouldKeepContent(@TempDir Path tempDir) throws Exception {
+        FileStorageService service = new FileStorageService(tempDir.toString(), new LocalImageStore(),
+                new ImageReencoder());
+        byte[] content = image("jpg", 8, 4);
+
+        String url = service.storeImage(new ByteArrayInputStream(content), Long.MAX_VALUE);
+
+        assertArrayEquals(content, Files.readAllBytes(service.resolvePath(url)));
+        assertTrue(url.endsWith("/" + sha256(content) + ".jpg"));
+    }
+
+    private static FileStorageService storageService(String uploadDir) {
+        return storageService(uploadDir, new LocalImageStore());
+    }
+
+    private static FileStorageService storageService(String uploadDir, ImageStore imageStore) {
+        return new FileStorageService(uploadDir, imageStore, mock(ImageReencoder.class));
+    }
+}
@@ -0,0 +1,184 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.utils.JpegHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImageOptimizationServiceTests {
+    @TempDir
+    Path uploadDir;
+
+    @TempDir
+    Path originalsDir;
+
+    private FileStorageService fileStorageService;
+    private ProductRepository productRepository;
+    private ImageReencoder imageReencoder;
+    private ImageOptimizationService imageOptimizationService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(uploadDir.toString(), new LocalImageStore(),
+                mock(ImageReencoder.class));
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.replaceImageUrl(any(), any(), any())).thenReturn(1);
+        imageReencoder = new ImageReencoder();
+        imageOptimizationService = new ImageOptimizationService(fileStorageService, productRepository, imageReencoder);
+        ReflectionTestUtils.setField(imageOptimizationService, "originalsDir", originalsDir.toString());
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height); // setengah kiri merah, untuk mengecek arah putaran
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    // Sisipkan segmen APP1 EXIF (big endian) dengan tag Orientation setelah SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+            0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + exif.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(exif, 0, result, 2, exif.length);
+        System.arraycopy(jpeg, 2, result, 2 + exif.length, jpeg.length - 2);
+        return result;
+    }
+
+    private String store(byte[] content, String filename) {
+        return fileStorageService.storeStream(new ByteArrayInputStream(content), filename, Long.MAX_VALUE);
+    }
+
+    private BufferedImage read(String url) throws IOException {
+        return ImageIO.read(fileStorageService.resolvePath(url).toFile());
+    }
+
+    @Test
+    @DisplayName("Orientasi EXIF diterapkan ke pixel dan metadata dibuang")
+    void optimize_WithExifOrientation_ShouldRotateAndStripMetadata() throws IOException {
+        UUID productId = UUID.randomUUID();
+        String imageUrl = store(withExifOrientation(jpeg(40, 20), 6), "foto.jpeg");
+
+        String result = imageOptimizationService.optimize(productId, imageUrl);
+
+        assertNotEquals(imageUrl, result);
+        assertTrue(result.endsWith(".jpg"));
+        BufferedImage image = read(result);
+        assertEquals(20, image.getWidth());
+        assertEquals(40, image.getHeight());
+        // Diputar 90 derajat searah jarum jam: sisi kiri yang merah menjadi bagian atas
+        assertTrue(new Color(image.getRGB(10, 5)).getRed() > 200);
+        assertTrue(new Color(image.getRGB(10, 35)).getRed() < 60);
+        try (InputStream in = Files.newInputStream(fileStorageService.resolvePath(result))) {
+            JpegHeader header = JpegHeader.read(in);
+            assertFalse(header.hasMetadata());
+            assertEquals(1, header.getOrientation());
+        }
+        verify(productRepository).replaceImageUrl(productId, imageUrl, result);
+        assertTrue(Files.exists(fileStorageService.resolvePath(imageUrl)),
+                "Gambar asli dibersihkan OrphanImageCollector, bukan dihapus langsung");
+    }
+
+    @Test
+    @DisplayName("Gambar yang terlalu besar diperkecil sesuai sisi terpanjang")
+    void optimize_WithLargeImage_ShouldCapDimensions() throws IOException {
+        ReflectionTestUtils.setField(imageReencoder, "maxDimension", 100);
+        String imageUrl = store(jpeg(500, 250), "besar.jpg");
+
+        String result = imageOptimizationService.optimize(UUID.randomUUID(), imageUrl);
+
+        BufferedImage image = read(result);
+        assertEquals(100, image.getWidth());
+        assertEquals(50, image.getHeight());
+    }
+
+    @Test
+    @DisplayName("JPEG tanpa metadata dan dalam batas ukuran tidak di-encode ulang")
+    void optimize_WithCleanJpeg_ShouldKeepImage() {
+        String imageUrl = store(jpeg(40, 20), "bersih.jpg");
+
+        assertEquals(imageUrl, imageOptimizationService.optimize(UUID.randomUUID(), imageUrl));
+        verify(productRepository, never()).replaceImageUrl(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Gambar asli disimpan di direktori terpisah jika keep-original aktif")
+    void optimize_WithKeepOriginal_ShouldCopyOriginal() throws IOException {
+        ReflectionTestUtils.setField(imageOptimizationService, "keepOriginal", true);
+        String imageUrl = store(withExifOrientation(jpeg(40, 20), 3), "foto.jpg");
+        String filename = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+
+        imageOptimizationService.optimize(UUID.randomUUID(), imageUrl);
+
+        assertTrue(Files.exists(originalsDir.resolve(FileStorageService.shardedPath(filename))));
+    }
+
+    @Test
+    @DisplayName("Percobaan ulang setelah produk memakai hasil re-encode melanjutkan dengan URL yang sama")
+    void optimize_WhenAlreadyReplacedByPreviousAttempt_ShouldReturnOptimizedUrl() {
+        UUID productId = UUID.randomUUID();
+        String imageUrl = store(withExifOrientation(jpeg(40, 20), 8), "foto.jpg");
+        String first = imageOptimizationService.optimize(productId, imageUrl);
+        when(productRepository.replaceImageUrl(any(), any(), any())).thenReturn(0);
+        when(productRepository.existsByIdAndImageUrl(productId, first)).thenReturn(true);
+
+        assertEquals(first, imageOptimizationService.optimize(productId, imageUrl));
+        assertEquals(first, imageOptimizationService.optimize(productId, first));
+    }
+
+    @Test
+    @DisplayName("Produk yang gambarnya sudah diganti tidak ikut diubah")
+    void optimize_WhenProductImageChanged_ShouldReturnNull() {
+        String imageUrl = store(withExifOrientation(jpeg(40, 20), 6), "foto.jpg");
+        when(productRepository.replaceImageUrl(any(), any(), any())).thenReturn(0);
+
+        assertNull(imageOptimizationService.optimize(UUID.randomUUID(), imageUrl));
+        assertTrue(Files.exists(fileStorageService.resolvePath(imageUrl)));
+    }
+
+    @Test
+    @DisplayName("File yang bukan gambar dibiarkan apa adanya")
+    void optimize_WithNonImage_ShouldKeepUrl() {
+        String imageUrl = store("bukan gambar".getBytes(), "a.jpg");
+
+        assertEquals(imageUrl, imageOptimizationService.optimize(UUID.randomUUID(), imageUrl));
+    }
+
+    @Test
+    @DisplayName("Optimasi yang dimatikan tidak memproses gambar")
+    void optimize_WhenDisabled_ShouldReturnSameUrl() {
+        ReflectionTestUtils.setField(imageReencoder, "enabled", false);
+
+        assertEquals("/uploads/images/a.jpg", imageOptimizationService.optimize(UUID.randomUUID(), "/uploads/images/a.jpg"));
+    }
+}
@@ -0,0 +1,220 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.ImageJob;
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ImageJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImageProcessingQueueTests {
+    private ImageJobRepository imageJobRepository;
+    private ImageVariantService imageVariantService;
+    private ImageOptimizationService imageOptimizationService;
+    private ImageProcessingQueue imageProcessingQueue;
+
+    @BeforeEach
+    void setUp() {
+        imageJobRepository = mock(ImageJobRepository.class);
+        imageVariantService = mock(ImageVariantService.class);
+        imageOptimizationService = mock(ImageOptimizationService.class);
+        when(imageOptimizationService.optimize(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        imageProcessingQueue = new ImageProcessingQueue(imageJobRepository, imageVariantService,
+            imageOptimizationService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageProcessingQueue.shutdown();
+    }
+
+    private ImageJob pendingJob() {
+        ImageJob job = new ImageJob(UUID.randomUUID(), "/uploads/images/a.jpg");
+        job.setId(UUID.randomUUID());
+        return job;
+    }
+
+    @Test
+    @DisplayName("Submit menyimpan job lalu memprosesnya di background")
+    void submit_ShouldSaveJobAndProcessInBackground() {
+        ImageJob job = pendingJob();
+        Product product = new Product();
+        product.setId(job.getProductId());
+        product.setImageUrl(job.getImageUrl());
+
+        when(imageJobRepository.save(any(ImageJob.class))).thenReturn(job);
+        when(imageJobRepository.transition(eq(job.getId()), eq(ImageJob.STATUS_PENDING),
+            eq(ImageJob.STATUS_PROCESSING), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        ImageJob result = imageProcessingQueue.submit(product);
+        imageProcessingQueue.shutdown(); // tunggu worker selesai
+
+        assertSame(job, result);
+        verify(imageVariantService, times(1)).generateVariants(job.getProductId(), "/uploads/images/a.jpg");
+        verify(imageJobRepository, times(1)).deleteById(job.getId());
+    }
+
+    @Test
+    @DisplayName("Submit setelah shutdown tetap menyimpan job sebagai PENDING")
+    void submit_AfterShutdown_ShouldKeepJobPending() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.save(any(ImageJob.class))).thenReturn(job);
+        imageProcessingQueue.shutdown();
+
+        assertSame(job, imageProcessingQueue.submit(new Product()));
+        verify(imageJobRepository, never()).transition(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Process job yang sudah diambil worker lain tidak melakukan apa-apa")
+    void process_WhenAlreadyClaimed_ShouldSkip() {
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(0);
+
+        imageProcessingQueue.process(UUID.randomUUID());
+
+        verify(imageVariantService, never()).generateVariants(any(UUID.class), any());
+        verify(imageJobRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Process job yang sudah dihapus tidak melakukan apa-apa")
+    void process_WhenJobMissing_ShouldSkip() {
+        UUID jobId = UUID.randomUUID();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        imageProcessingQueue.process(jobId);
+
+        verify(imageVariantService, never()).generateVariants(any(UUID.class), any());
+    }
+
+    @Test
+    @DisplayName("Process gagal dikembalikan ke PENDING selama percobaan belum habis")
+    void process_WithError_ShouldRetry() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(imageVariantService.generateVariants(any(UUID.class), any())).thenThrow(new RuntimeException("disk penuh"));
+
+        imageProcessingQueue.process(job.getId());
+
+        verify(imageJobRepository, times(1))
+            .markFailed(eq(job.getId()), eq(ImageJob.STATUS_PENDING), eq(1), eq("disk penuh"), any());
+        verify(imageJobRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Process gagal ditandai FAILED setelah percobaan terakhir")
+    void process_WithErrorOnLastAttempt_ShouldMarkFailed() {
+        ImageJob job = pendingJob();
+        job.setAttempts(2);
+        String longError = "x".repeat(2000);
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(imageVariantService.generateVariants(any(UUID.class), any())).thenThrow(new RuntimeException(longError));
+
+        imageProcessingQueue.process(job.getId());
+
+        verify(imageJobRepository, times(1))
+            .markFailed(eq(job.getId()), eq(ImageJob.STATUS_FAILED), eq(3), eq("x".repeat(1000)), any());
+    }
+
+    @Test
+    @DisplayName("Resume pending jobs mereset job macet dan mengirim ulang job PENDING")
+    void resumePendingJobs_ShouldResetStaleAndDispatchPending() {
+        ReflectionTestUtils.setField(imageProcessingQueue, "staleAfterMs", 1000L);
+        ImageJob job = pendingJob();
+        when(imageJobRepository.findTop100ByStatusAndUpdatedAtBeforeOrderByCreatedAtAsc(eq(ImageJob.STATUS_PENDING), any()))
+            .thenReturn(List.of(job));
+        when(imageJobRepository.transition(eq(job.getId()), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        int result = imageProcessingQueue.resumePendingJobs();
+        imageProcessingQueue.shutdown();
+
+        assertEquals(1, result);
+        verify(imageJobRepository, times(1)).resetStaleJobs(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(imageVariantService, times(1)).generateVariants(job.getProductId(), job.getImageUrl());
+    }
+
+    @Test
+    @DisplayName("Shutdown yang diinterupsi tetap menandai thread")
+    void shutdown_WhenInterrupted_ShouldRestoreInterruptFlag() {
+        Thread.currentThread().interrupt();
+        imageProcessingQueue.shutdown();
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    @DisplayName("Thumbnail dibuat dari URL hasil re-encode")
+    void process_ShouldGenerateVariantsFromOptimizedImage() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(imageOptimizationService.optimize(job.getProductId(), "/uploads/images/a.jpg"))
+            .thenReturn("/uploads/images/b.jpg");
+
+        imageProcessingQueue.process(job.getId());
+
+        verify(imageVariantService, times(1)).generateVariants(job.getProductId(), "/uploads/images/b.jpg");
+        verify(imageJobRepository, times(1)).deleteById(job.getId());
+    }
+
+    @Test
+    @DisplayName("Thumbnail tidak dibuat jika gambar produk sudah diganti saat re-encode")
+    void process_WhenImageReplacedDuringOptimize_ShouldSkipVariants() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(imageOptimizationService.optimize(any(), any())).thenReturn(null);
+
+        imageProcessingQueue.process(job.getId());
+
+        verify(imageVariantService, never()).generateVariants(any(UUID.class), any());
+        verify(imageJobRepository, times(1)).deleteById(job.getId());
+    }
+
+    @Test
+    @DisplayName("Thumbnail yang gagal setelah re-encode dicoba ulang dari URL hasil re-encode")
+    void process_WithVariantErrorAfterOptimize_ShouldRetryFromOptimizedUrl() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(imageOptimizationService.optimize(job.getProductId(), "/uploads/images/a.jpg"))
+            .thenReturn("/uploads/images/b.jpg");
+        when(imageVariantService.generateVariants(any(UUID.class), any())).thenThrow(new RuntimeException("disk penuh"));
+
+        imageProcessingQueue.process(job.getId());
+
+        var order = inOrder(imageJobRepository, imageVariantService);
+        order.verify(imageJobRepository).updateJobImageUrl(job.getId(), "/uploads/images/b.jpg");
+        order.verify(imageVariantService).generateVariants(job.getProductId(), "/uploads/images/b.jpg");
+        order.verify(imageJobRepository)
+            .markFailed(eq(job.getId()), eq(ImageJob.STATUS_PENDING), eq(1), eq("disk penuh"), any());
+    }
+
+    @Test
+    @DisplayName("URL job tidak diubah jika re-encode tidak mengganti gambar")
+    void process_WhenImageUnchanged_ShouldKeepJobUrl() {
+        ImageJob job = pendingJob();
+        when(imageJobRepository.transition(any(), any(), any(), any())).thenReturn(1);
+        when(imageJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        imageProcessingQueue.process(job.getId());
+
+        verify(imageJobRepository, never()).updateJobImageUrl(any(), any());
+    }
+}
@@ -0,0 +1,87 @@
+package org.delcom.app.services;
+
+import org.delcom.app.utils.ImageHeader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageReencoderTests {
+    @TempDir
+    Path tempDir;
+
+    private final ImageReencoder imageReencoder = new ImageReencoder();
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    // Sisipkan segmen APP1 EXIF (big endian) dengan tag Orientation setelah SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+            0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + exif.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(exif, 0, result, 2, exif.length);
+        System.arraycopy(jpeg, 2, result, 2 + exif.length, jpeg.length - 2);
+        return result;
+    }
+
+    private Path write(byte[] content) throws IOException {
+        return Files.write(tempDir.resolve("gambar"), content);
+    }
+
+    @Test
+    @DisplayName("Hanya JPEG dengan metadata yang perlu dibersihkan saat upload")
+    void hasMetadata_ShouldDetectJpegMetadata() throws IOException {
+        assertTrue(imageReencoder.hasMetadata(write(withExifOrientation(image("jpg", 8, 4), 1))));
+        assertFalse(imageReencoder.hasMetadata(write(image("jpg", 8, 4))));
+        assertFalse(imageReencoder.hasMetadata(write(image("png", 8, 4))));
+    }
+
+    @Test
+    @DisplayName("Hasil encode JPEG dengan metadata tidak lagi berisi metadata dan orientasinya diterapkan")
+    void reencode_WithExif_ShouldStripMetadata() throws IOException {
+        Path source = write(withExifOrientation(image("jpg", 8, 4), 6));
+
+        ImageHeader header;
+        try (InputStream in = Files.newInputStream(source)) {
+            header = ImageHeader.read(in);
+        }
+        ImageReencoder.Encoded encoded = imageReencoder.reencode(source, header);
+
+        assertEquals(".jpg", encoded.extension());
+        Path result = Files.write(tempDir.resolve("hasil"), encoded.bytes());
+        assertFalse(imageReencoder.hasMetadata(result));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(encoded.bytes()));
+        assertEquals(4, image.getWidth());
+        assertEquals(8, image.getHeight());
+    }
+
+    @Test
+    @DisplayName("Dimensi yang berbeda dari header yang sudah diperiksa ditolak")
+    void reencode_WithMismatchedHeader_ShouldThrow() throws IOException {
+        Path source = write(withExifOrientation(image("jpg", 8, 4), 1));
+        ImageHeader header = ImageHeader.read(new ByteArrayInputStream(image("jpg", 2, 2)));
+
+        assertThrows(RuntimeException.class, () -> imageReencoder.reencode(source, header));
+    }
+}
@@ -0,0 +1,128 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageStoreBackfillServiceTests {
+    @TempDir
+    Path uploadDir;
+
+    // Isi store di memori, listing berurutan key seperti S3
+    private final TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+    private ImageStore imageStore;
+    private ImageStoreBackfillService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = mock(ImageStore.class);
+        when(imageStore.isLocal()).thenReturn(false);
+        when(imageStore.list(anyString(), anyInt())).thenAnswer(invocation -> objects
+                .tailMap(invocation.<String>getArgument(0), false).values().stream()
+                .limit(invocation.<Integer>getArgument(1)).toList());
+        doAnswer(invocation -> objects.put(invocation.getArgument(0),
+                new ImageStore.StoredObject(invocation.getArgument(0), 3, Instant.now())))
+                .when(imageStore).put(anyString(), any(Path.class));
+        service = new ImageStoreBackfillService(storageService(uploadDir.toString(), imageStore));
+    }
+
+    private void write(String relativePath) throws IOException {
+        Path file = uploadDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "isi");
+    }
+
+    @Test
+    @DisplayName("Hanya file yang belum ada di store yang diunggah")
+    void backfill_ShouldUploadMissingFilesOnly() throws IOException {
+        for (String path : new String[]{"ab/cd/abcd0001.jpg", "ab/cd/abcd0001_w200.jpg", "ab/cd/abcd0002.jpg",
+                "ef/01/ef010003.jpg"}) {
+            write(path);
+        }
+        objects.put("ab/cd/abcd0001.jpg", new ImageStore.StoredObject("ab/cd/abcd0001.jpg", 3, Instant.now()));
+        objects.put("ab/cd/abcd0002.jpg", new ImageStore.StoredObject("ab/cd/abcd0002.jpg", 3, Instant.now()));
+        objects.put("cc/00/cc000009.jpg", new ImageStore.StoredObject("cc/00/cc000009.jpg", 3, Instant.now()));
+
+        ImageStoreBackfillService.Result result = service.backfill(1);
+
+        assertEquals(4, result.scannedFiles());
+        assertEquals(2, result.uploadedFiles());
+        verify(imageStore).put(eq("ab/cd/abcd0001_w200.jpg"), any(Path.class));
+        verify(imageStore).put(eq("ef/01/ef010003.jpg"), any(Path.class));
+        verify(imageStore, never()).put(eq("ab/cd/abcd0001.jpg"), any(Path.class));
+        verify(imageStore, never()).put(eq("ab/cd/abcd0002.jpg"), any(Path.class));
+    }
+
+    @Test
+    @DisplayName("File layout lama diunggah, file sementara dilewati")
+    void backfill_ShouldUploadFlatFilesAndSkipTemporaryFiles() throws IOException {
+        write("legacy.jpg");
+        write(".tmp-sedang-upload");
+
+        ImageStoreBackfillService.Result result = service.backfill(100);
+
+        assertEquals(1, result.uploadedFiles());
+        assertEquals(Set.of("legacy.jpg"), objects.keySet());
+    }
+
+    @Test
+    @DisplayName("Menjalankan ulang backfill tidak mengunggah file yang sama lagi")
+    void backfill_RunTwice_ShouldNotUploadAgain() throws IOException {
+        write("ab/cd/abcd0001.jpg");
+        write("ab/cd/abcd0002.jpg");
+
+        service.backfill(1);
+        ImageStoreBackfillService.Result second = service.backfill(1);
+
+        assertEquals(0, second.uploadedFiles());
+        verify(imageStore, times(2)).put(anyString(), any(Path.class));
+    }
+
+    @Test
+    @DisplayName("Upload yang gagal dihitung dan file berikutnya tetap diproses")
+    void backfill_WithFailingUpload_ShouldContinue() throws IOException {
+        write("ab/cd/abcd0001.jpg");
+        write("ab/cd/abcd0002.jpg");
+        doThrow(new IOException("storage tidak tersedia"))
+                .when(imageStore).put(eq("ab/cd/abcd0001.jpg"), any(Path.class));
+
+        ImageStoreBackfillService.Result result = service.backfill(100);
+
+        assertEquals(1, result.failedFiles());
+        assertEquals(1, result.uploadedFiles());
+        assertTrue(objects.containsKey("ab/cd/abcd0002.jpg"));
+    }
+
+    @Test
+    @DisplayName("Store lokal tidak perlu backfill")
+    void backfill_WithLocalStore_ShouldDoNothing() throws IOException {
+        write("ab/cd/abcd0001.jpg");
+        service = new ImageStoreBackfillService(storageService(uploadDir.toString()));
+
+        ImageStoreBackfillService.Result result = service.backfill(100);
+
+        assertEquals(new ImageStoreBackfillService.Result(0, 0, 0), result);
+    }
+
+    private static FileStorageService storageService(String uploadDir) {
+        return storageService(uploadDir, new LocalImageStore());
+    }
+
+    private static FileStorageService storageService(String uploadDir, ImageStore imageStore) {
+        return new FileStorageService(uploadDir, imageStore, mock(ImageReencoder.class));
+    }
+}
@@ -0,0 +1,201 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTests {
+    @TempDir
+    Path uploadDir;
+
+    private ProductRepository productRepository;
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        imageVariantService = new ImageVariantService(storageService(uploadDir.toString()), productRepository);
+    }
+
+    private void writeImage(String filename, int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(image, format, uploadDir.resolve(filename).toFile());
+    }
+
+    @Test
+    @DisplayName("Create variants membuat thumbnail untuk semua lebar yang lebih kecil")
+    void createVariants_WithLargeImage_ShouldCreateAllWidths() throws IOException {
+        writeImage("large.jpg", 1600, 1200, "jpg");
+
+        String result = imageVariantService.createVariants("/uploads/images/large.jpg");
+
+        assertEquals("200,480,1024", result);
+        BufferedImage thumbnail = ImageIO.read(uploadDir.resolve("large_w200.jpg").toFile());
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(150, thumbnail.getHeight());
+        assertEquals(1024, ImageIO.read(uploadDir.resolve("large_w1024.jpg").toFile()).getWidth());
+    }
+
+    @Test
+    @DisplayName("Create variants tidak memperbesar gambar kecil")
+    void createVariants_WithSmallImage_ShouldNotUpscale() throws IOException {
+        writeImage("small.png", 500, 300, "png");
+
+        assertEquals("200,480", imageVariantService.createVariants("/uploads/images/small.png"));
+        assertFalse(Files.exists(uploadDir.resolve("small_w1024.png")));
+    }
+
+    @Test
+    @DisplayName("Create variants dengan gambar lebih kecil dari semua lebar mengembalikan null")
+    void createVariants_WithTinyImage_ShouldReturnNull() throws IOException {
+        writeImage("tiny.png", 100, 100, "png");
+
+        assertNull(imageVariantService.createVariants("/uploads/images/tiny.png"));
+    }
+
+    @Test
+    @DisplayName("Create variants dengan file bukan gambar mengembalikan null")
+    void createVariants_WithNonImage_ShouldReturnNull() throws IOException {
+        Files.writeString(uploadDir.resolve("text.jpg"), "bukan gambar");
+
+        assertNull(imageVariantService.createVariants("/uploads/images/text.jpg"));
+    }
+
+    @Test
+    @DisplayName("Create variants dengan file tidak ada melempar exception agar job dicoba ulang")
+    void createVariants_WithMissingFile_ShouldThrow() {
+        assertThrows(RuntimeException.class,
+                () -> imageVariantService.createVariants("/uploads/images/missing.jpg"));
+    }
+
+    @Test
+    @DisplayName("Create variants meneruskan kegagalan upload thumbnail ke image store")
+    void createVariants_WithPublishFailure_ShouldThrow() throws IOException {
+        FileStorageService storage = spy(storageService(uploadDir.toString()));
+        doThrow(new RuntimeException("Gagal mengunggah gambar")).when(storage).publish(anyString());
+        ImageVariantService service = new ImageVariantService(storage, productRepository);
+        writeImage("flaky.png", 400, 300, "png");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.createVariants("/uploads/images/flaky.png"));
+        assertEquals("Gagal mengunggah gambar", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Create variants memakai lebar dari konfigurasi")
+    void createVariants_WithConfiguredWidths_ShouldUseThem() throws IOException {
+        ReflectionTestUtils.setField(imageVariantService, "variantWidths", new int[]{300, 100});
+        writeImage("custom.png", 400, 400, "png");
+
+        assertEquals("100,300", imageVariantService.createVariants("/uploads/images/custom.png"));
+    }
+
+    @Test
+    @DisplayName("Generate variants menyimpan daftar thumbnail ke product")
+    void generateVariants_WithImage_ShouldUpdateProduct() throws IOException {
+        writeImage("product.jpg", 800, 600, "jpg");
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setImageUrl("/uploads/images/product.jpg");
+
+        imageVariantService.generateVariants(product);
+
+        assertEquals("200,480", product.getImageVariants());
+        verify(productRepository, times(1))
+            .updateImageVariants(product.getId(), "/uploads/images/product.jpg", "200,480");
+    }
+
+    @Test
+    @DisplayName("Generate variants tanpa gambar tidak melakukan apa-apa")
+    void generateVariants_WithoutImage_ShouldDoNothing() {
+        Product product = new Product();
+        imageVariantService.generateVariants(product);
+
+        product.setImageUrl("");
+        imageVariantService.generateVariants(product);
+
+        verify(productRepository, never()).updateImageVariants(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Generate variants tanpa thumbnail tidak mengubah database")
+    void generateVariants_WithoutVariants_ShouldNotUpdate() throws IOException {
+        writeImage("tiny.jpg", 50, 50, "jpg");
+        Product product = new Product();
+        product.setImageUrl("/uploads/images/tiny.jpg");
+
+        imageVariantService.generateVariants(product);
+
+        assertNull(product.getImageVariants());
+        verify(productRepository, never()).updateImageVariants(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Generate variants dengan id produk mengembalikan daftar lebar")
+    void generateVariants_WithProductId_ShouldReturnVariants() throws IOException {
+        writeImage("byid.png", 300, 300, "png");
+        UUID productId = UUID.randomUUID();
+
+        assertEquals("200", imageVariantService.generateVariants(productId, "/uploads/images/byid.png"));
+        assertNull(imageVariantService.generateVariants(productId, null));
+        verify(productRepository, times(1)).updateImageVariants(productId, "/uploads/images/byid.png", "200");
+    }
+
+    @Test
+    @DisplayName("Generate variants memakai ulang thumbnail dari produk lain dengan gambar sama")
+    void generateVariants_WithProcessedImage_ShouldReuseVariants() {
+        Product processed = new Product();
+        processed.setImageVariants("200,480");
+        UUID productId = UUID.randomUUID();
+        when(productRepository.findFirstByImageUrlAndImageVariantsIsNotNull("/uploads/images/shared.jpg"))
+            .thenReturn(java.util.Optional.of(processed));
+
+        // File tidak ada di disk, jadi hasil hanya mungkin berasal dari produk lain
+        assertEquals("200,480", imageVariantService.generateVariants(productId, "/uploads/images/shared.jpg"));
+        verify(productRepository, times(1)).updateImageVariants(productId, "/uploads/images/shared.jpg", "200,480");
+    }
+
+    @Test
+    @DisplayName("Create variants tidak men-decode gambar yang melebihi batas pixel")
+    void createVariants_WithTooManyPixels_ShouldReturnNull() throws IOException {
+        FileStorageService storage = storageService(uploadDir.toString());
+        ReflectionTestUtils.setField(storage, "maxImagePixels", 1000L);
+        ImageVariantService service = new ImageVariantService(storage, productRepository);
+        writeImage("large.png", 400, 300, "png");
+
+        assertNull(service.createVariants("/uploads/images/large.png"));
+        assertFalse(Files.exists(uploadDir.resolve("large_w200.png")));
+    }
+
+    @Test
+    @DisplayName("Create variants dari gambar besar di-decode dengan subsampling")
+    void createVariants_WithLargeImage_ShouldKeepAspectRatio() throws IOException {
+        ReflectionTestUtils.setField(imageVariantService, "variantWidths", new int[]{100});
+        writeImage("wide.png", 1000, 500, "png");
+
+        assertEquals("100", imageVariantService.createVariants("/uploads/images/wide.png"));
+        BufferedImage thumbnail = ImageIO.read(uploadDir.resolve("wide_w100.png").toFile());
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(50, thumbnail.getHeight());
+    }
+
+    private static FileStorageService storageService(String uploadDir) {
+        return new FileStorageService(uploadDir, new LocalImageStore(), mock(ImageReencoder.class));
+    }
+}
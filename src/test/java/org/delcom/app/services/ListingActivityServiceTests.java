@@ -0,0 +1,161 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.ListingActivity;
+import org.delcom.app.entities.RollupWatermark;
+import org.delcom.app.repositories.ListingActivityRepository;
+import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.repositories.RollupWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ListingActivityServiceTests {
+    private ProductRepository productRepository;
+    private ListingActivityRepository listingActivityRepository;
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    private ListingActivityService listingActivityService;
+    private RollupWatermark watermark;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        listingActivityRepository = mock(ListingActivityRepository.class);
+        rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+        listingActivityService = new ListingActivityService(productRepository, listingActivityRepository,
+                rollupWatermarkRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        watermark = new RollupWatermark(ListingActivityService.WATERMARK_NAME,
+                LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L));
+        when(rollupWatermarkRepository.findForUpdate(ListingActivityService.WATERMARK_NAME))
+                .thenReturn(Optional.of(watermark));
+    }
+
+    private static Object[] row(UUID id, String category, LocalDateTime createdAt) {
+        return new Object[]{id, category, createdAt};
+    }
+
+    @Test
+    @DisplayName("Rollup menambahkan produk baru ke bucket per jam dan per hari lalu memajukan watermark")
+    void rollup_ShouldIncrementBucketsAndAdvanceWatermark() {
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime first = LocalDateTime.of(2025, 6, 1, 9, 15);
+        LocalDateTime second = LocalDateTime.of(2025, 6, 1, 9, 40);
+        LocalDateTime third = LocalDateTime.of(2025, 6, 1, 13, 5);
+        when(productRepository.findCreatedBatch(any(), any(), any(), any())).thenReturn(List.of(
+                row(UUID.randomUUID(), "Pakaian", first),
+                row(UUID.randomUUID(), "Pakaian", second),
+                row(lastId, "Elektronik", third)));
+
+        int processed = listingActivityService.rollup();
+
+        assertEquals(3, processed);
+        verify(rollupWatermarkRepository).createIfMissing(eq(ListingActivityService.WATERMARK_NAME), any(), any());
+        verify(listingActivityRepository).increment(ListingActivity.GRANULARITY_HOUR,
+                LocalDateTime.of(2025, 6, 1, 9, 0), "Pakaian", 2);
+        verify(listingActivityRepository).increment(ListingActivity.GRANULARITY_HOUR,
+                LocalDateTime.of(2025, 6, 1, 13, 0), "Elektronik", 1);
+        verify(listingActivityRepository).increment(ListingActivity.GRANULARITY_DAY,
+                LocalDateTime.of(2025, 6, 1, 0, 0), "Pakaian", 2);
+        verify(listingActivityRepository).increment(ListingActivity.GRANULARITY_DAY,
+                LocalDateTime.of(2025, 6, 1, 0, 0), "Elektronik", 1);
+        assertEquals(lastId, watermark.getLastProductId());
+        assertEquals(third, watermark.getLastCreatedAt());
+        verify(rollupWatermarkRepository).save(watermark);
+    }
+
+    @Test
+    @DisplayName("Rollup membaca batch berikutnya dari watermark terakhir sampai batch tidak penuh")
+    void rollup_WithFullBatch_ShouldContinueFromWatermark() {
+        ReflectionTestUtils.setField(listingActivityService, "batchSize", 2);
+        UUID secondId = UUID.randomUUID();
+        LocalDateTime time = LocalDateTime.of(2025, 6, 1, 9, 0);
+        when(productRepository.findCreatedBatch(any(), any(), any(), any())).thenReturn(
+                List.of(row(UUID.randomUUID(), "Pakaian", time), row(secondId, "Pakaian", time)),
+                List.of(row(UUID.randomUUID(), "Pakaian", time.plusMinutes(1))));
+
+        int processed = listingActivityService.rollup();
+
+        assertEquals(3, processed);
+        verify(productRepository).findCreatedBatch(eq(time), eq(secondId), any(), any());
+        verify(productRepository, times(2)).findCreatedBatch(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Rollup tanpa produk baru tidak mengubah rollup maupun watermark")
+    void rollup_WithoutNewProducts_ShouldDoNothing() {
+        when(productRepository.findCreatedBatch(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, listingActivityService.rollup());
+
+        verify(listingActivityRepository, never()).increment(anyString(), any(), anyString(), anyLong());
+        verify(rollupWatermarkRepository, never()).save(any());
+        verify(listingActivityRepository).deleteOlderThan(eq(ListingActivity.GRANULARITY_HOUR), any());
+    }
+
+    @Test
+    @DisplayName("Rollup hanya membaca produk yang lebih tua dari lag")
+    void rollup_ShouldOnlyReadProductsOlderThanLag() {
+        when(productRepository.findCreatedBatch(any(), any(), any(), any())).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now().minusSeconds(120);
+
+        listingActivityService.rollup();
+
+        verify(productRepository).findCreatedBatch(any(), any(),
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(LocalDateTime.now().minusSeconds(60))), any());
+    }
+
+    @Test
+    @DisplayName("Get activity mengisi bucket kosong dengan 0 dan mengelompokkan per kategori")
+    void getActivity_ShouldFillBucketsPerCategory() {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        when(listingActivityRepository.findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+                ListingActivity.GRANULARITY_DAY, today.minusDays(2))).thenReturn(List.of(
+                new ListingActivity(ListingActivity.GRANULARITY_DAY, today.minusDays(2), "Pakaian", 4),
+                new ListingActivity(ListingActivity.GRANULARITY_DAY, today, "Elektronik", 1),
+                new ListingActivity(ListingActivity.GRANULARITY_DAY, today, "Pakaian", 2)));
+
+        ListingActivityService.ActivityChart chart = listingActivityService.getActivity("day", 3);
+
+        assertEquals("day", chart.granularity());
+        assertEquals(List.of(today.minusDays(2), today.minusDays(1), today), chart.buckets());
+        assertEquals(2, chart.series().size());
+        assertEquals("Elektronik", chart.series().get(0).category());
+        assertEquals(List.of(0L, 0L, 1L), chart.series().get(0).counts());
+        assertEquals(List.of(4L, 0L, 2L), chart.series().get(1).counts());
+    }
+
+    @Test
+    @DisplayName("Get activity membatasi jumlah bucket per jam")
+    void getActivity_WithTooManyPeriods_ShouldClamp() {
+        ListingActivityService.ActivityChart chart = listingActivityService.getActivity("HOUR", 10_000);
+
+        assertEquals("hour", chart.granularity());
+        assertEquals(ListingActivityService.MAX_HOURS, chart.buckets().size());
+        assertTrue(chart.series().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Get activity dengan granularity tidak dikenal throw exception")
+    void getActivity_WithUnknownGranularity_ShouldThrow() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> listingActivityService.getActivity("week", 4));
+
+        assertEquals("Granularity harus hour atau day", exception.getMessage());
+    }
+}
@@ -0,0 +1,274 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OrphanImageCollectorTests {
+    private static final String REFERENCED = "ab/cd/abcd0001.jpg";
+    private static final String ORPHAN = "ab/cd/abcd0002.jpg";
+
+    @TempDir
+    Path uploadDir;
+
+    private final TreeSet<String> imageUrls = new TreeSet<>();
+    private ProductRepository productRepository;
+    private OrphanImageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.existsByImageUrl(anyString()))
+                .thenAnswer(invocation -> imageUrls.contains(invocation.<String>getArgument(0)));
+        when(productRepository.findImageUrlsAfter(anyString(), anyInt())).thenAnswer(invocation -> {
+            List<String> batch = new ArrayList<>(imageUrls.tailSet(invocation.getArgument(0), false));
+            return batch.subList(0, Math.min(batch.size(), invocation.<Integer>getArgument(1)));
+        });
+        collector = new OrphanImageCollector(productRepository, storageService(uploadDir.toString()));
+        ReflectionTestUtils.setField(collector, "batchSize", 2);
+    }
+
+    private Path write(String relativePath, boolean old) throws IOException {
+        Path file = uploadDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "isi");
+        if (old) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        }
+        return file;
+    }
+
+    @Test
+    @DisplayName("File yatim yang lebih tua dari grace period dihapus beserta thumbnail-nya")
+    void collect_ShouldDeleteExpiredOrphansAndTheirVariants() throws IOException {
+        imageUrls.add("/uploads/images/" + REFERENCED);
+        Path referenced = write(REFERENCED, true);
+        Path referencedVariant = write("ab/cd/abcd0001_w200.jpg", true);
+        Path orphan = write(ORPHAN, true);
+        Path orphanVariant = write("ab/cd/abcd0002_w200.jpg", true);
+        Path staleTemp = write(".tmp-lama", true);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(referencedVariant));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanVariant));
+        assertFalse(Files.exists(staleTemp));
+        assertEquals(5, report.scannedFiles());
+        assertEquals(3, report.deletedFiles());
+        assertEquals(9, report.freedBytes());
+        assertEquals(0, report.danglingReferences());
+    }
+
+    @Test
+    @DisplayName("File yatim yang masih baru tidak dihapus")
+    void collect_WithinGracePeriod_ShouldKeepFiles() throws IOException {
+        Path orphan = write(ORPHAN, false);
+        Path temp = write(".tmp-sedang-upload", false);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertTrue(Files.exists(orphan));
+        assertTrue(Files.exists(temp));
+        assertEquals(0, report.deletedFiles());
+        verify(productRepository, never()).existsByImageUrl(anyString());
+    }
+
+    @Test
+    @DisplayName("image_url tanpa file dilaporkan tanpa menghapus apa pun")
+    void collect_ShouldReportDanglingReferences() throws IOException {
+        imageUrls.add("/uploads/images/" + REFERENCED);
+        imageUrls.add("/uploads/images/00/00/0000hilang.jpg");
+        imageUrls.add("/uploads/images/ff/ff/ffffhilang.jpg");
+        imageUrls.add("/uploads/images/legacy.jpg");
+        write(REFERENCED, true);
+        Path legacy = write("legacy.jpg", true);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertEquals(2, report.danglingReferences());
+        assertEquals(0, report.deletedFiles());
+        assertTrue(Files.exists(legacy));
+    }
+
+    @Test
+    @DisplayName("Image_url dibaca per batch, tidak sekaligus")
+    void collect_ShouldReadReferencesInBatches() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            String path = "ab/cd/abcd000" + i + ".jpg";
+            imageUrls.add("/uploads/images/" + path);
+            write(path, true);
+        }
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertEquals(0, report.deletedFiles());
+        verify(productRepository, times(3)).findImageUrlsAfter(anyString(), eq(2));
+        verify(productRepository, never()).existsByImageUrl(anyString());
+    }
+
+    @Test
+    @DisplayName("Dry-run hanya melaporkan file yatim")
+    void collect_WithDryRun_ShouldNotDelete() throws IOException {
+        ReflectionTestUtils.setField(collector, "dryRun", true);
+        Path orphan = write(ORPHAN, true);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertEquals(1, report.deletedFiles());
+        assertTrue(Files.exists(orphan));
+    }
+
+    // Store bukan lokal berisi object di memori, listing berurutan key seperti S3
+    private ImageStore remoteStore(TreeMap<String, ImageStore.StoredObject> objects) throws IOException {
+        ImageStore imageStore = mock(ImageStore.class);
+        when(imageStore.isLocal()).thenReturn(false);
+        when(imageStore.list(anyString(), anyInt())).thenAnswer(invocation -> objects
+                .tailMap(invocation.<String>getArgument(0), false).values().stream()
+                .limit(invocation.<Integer>getArgument(1)).toList());
+        when(imageStore.lastModified(anyString())).thenAnswer(invocation -> {
+            ImageStore.StoredObject object = objects.get(invocation.<String>getArgument(0));
+            return object != null ? object.lastModified() : null;
+        });
+        doAnswer(invocation -> objects.remove(invocation.<String>getArgument(0)))
+                .when(imageStore).delete(anyString());
+        return imageStore;
+    }
+
+    private static ImageStore.StoredObject object(String key, boolean old) {
+        return new ImageStore.StoredObject(key, 3,
+                old ? Instant.now().minus(Duration.ofDays(2)) : Instant.now());
+    }
+
+    @Test
+    @DisplayName("Pada object storage, object yatim dihapus lewat store beserta salinan lokalnya")
+    void collect_WithRemoteStore_ShouldDeleteOrphansThroughStore() throws IOException {
+        TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+        objects.put(REFERENCED, object(REFERENCED, true));
+        objects.put("ab/cd/abcd0001_w200.jpg", object("ab/cd/abcd0001_w200.jpg", true));
+        objects.put(ORPHAN, object(ORPHAN, true));
+        objects.put("ab/cd/abcd0002_w200.jpg", object("ab/cd/abcd0002_w200.jpg", true));
+        objects.put("ab/cd/abcd0003.jpg", object("ab/cd/abcd0003.jpg", false));
+        ImageStore imageStore = remoteStore(objects);
+        collector = new OrphanImageCollector(productRepository,
+                storageService(uploadDir.toString(), imageStore));
+        ReflectionTestUtils.setField(collector, "batchSize", 2);
+        imageUrls.add("/uploads/images/" + REFERENCED);
+        Path orphanCopy = write(ORPHAN, true);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertEquals(Set.of(REFERENCED, "ab/cd/abcd0001_w200.jpg", "ab/cd/abcd0003.jpg"), objects.keySet());
+        assertFalse(Files.exists(orphanCopy));
+        verify(imageStore).delete(ORPHAN);
+        verify(imageStore).delete("ab/cd/abcd0002_w200.jpg");
+        assertEquals(2, report.deletedFiles());
+        assertEquals(6, report.freedBytes());
+        assertEquals(0, report.danglingReferences());
+    }
+
+    @Test
+    @DisplayName("Pada object storage, dangling dihitung dari isi bucket, bukan dari salinan lokal")
+    void collect_WithRemoteStore_ShouldReportDanglingFromBucket() throws IOException {
+        TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+        objects.put(REFERENCED, object(REFERENCED, true));
+        objects.put("legacy.jpg", object("legacy.jpg", true));
+        ImageStore imageStore = remoteStore(objects);
+        collector = new OrphanImageCollector(productRepository,
+                storageService(uploadDir.toString(), imageStore));
+        imageUrls.add("/uploads/images/" + REFERENCED);
+        imageUrls.add("/uploads/images/legacy.jpg");
+        imageUrls.add("/uploads/images/ff/ff/ffffhilang.jpg");
+        // Node ini tidak punya salinan lokal sama sekali
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertEquals(1, report.danglingReferences());
+        assertEquals(0, report.deletedFiles());
+        verify(imageStore, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Pada object storage, salinan lokal yang objectnya masih dipakai tidak dihapus")
+    void collect_WithRemoteStore_ShouldKeepReferencedLocalCopies() throws IOException {
+        TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+        objects.put(REFERENCED, object(REFERENCED, true));
+        collector = new OrphanImageCollector(productRepository,
+                storageService(uploadDir.toString(), remoteStore(objects)));
+        imageUrls.add("/uploads/images/" + REFERENCED);
+        Path referencedCopy = write(REFERENCED, true);
+        Path staleTemp = write(".tmp-lama", true);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertTrue(Files.exists(referencedCopy));
+        assertFalse(Files.exists(staleTemp));
+        assertEquals(1, report.deletedFiles());
+        assertEquals(0, report.danglingReferences());
+    }
+
+    @Test
+    @DisplayName("Pada object storage, object yang di-put ulang setelah listing dibaca tidak dihapus")
+    void collect_WithRemoteStore_ShouldKeepObjectReuploadedAfterListing() throws IOException {
+        TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+        objects.put(ORPHAN, object(ORPHAN, true));
+        ImageStore imageStore = remoteStore(objects);
+        // Upload isi yang sama di node lain antara listing dan pengecekan
+        when(imageStore.lastModified(ORPHAN)).thenReturn(Instant.now());
+        collector = new OrphanImageCollector(productRepository,
+                storageService(uploadDir.toString(), imageStore));
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertTrue(objects.containsKey(ORPHAN));
+        verify(imageStore, never()).delete(anyString());
+        assertEquals(0, report.deletedFiles());
+    }
+
+    @Test
+    @DisplayName("Pada object storage, object yang salinan lokalnya baru di-touch upload tidak dihapus")
+    void collect_WithRemoteStore_ShouldKeepObjectWithFreshLocalCopy() throws IOException {
+        TreeMap<String, ImageStore.StoredObject> objects = new TreeMap<>();
+        objects.put(ORPHAN, object(ORPHAN, true));
+        ImageStore imageStore = remoteStore(objects);
+        collector = new OrphanImageCollector(productRepository,
+                storageService(uploadDir.toString(), imageStore));
+        Path localCopy = write(ORPHAN, false);
+
+        OrphanImageCollector.Report report = collector.collect();
+
+        assertTrue(objects.containsKey(ORPHAN));
+        assertTrue(Files.exists(localCopy));
+        verify(imageStore, never()).delete(anyString());
+        assertEquals(0, report.deletedFiles());
+    }
+
+    private static FileStorageService storageService(String uploadDir) {
+        return storageService(uploadDir, new LocalImageStore());
+    }
+
+    private static FileStorageService storageService(String uploadDir, ImageStore imageStore) {
+        return new FileStorageService(uploadDir, imageStore, mock(ImageReencoder.class));
+    }
+}
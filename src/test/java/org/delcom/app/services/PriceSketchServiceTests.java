@@ -0,0 +1,115 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PriceSketchServiceTests {
+    private ProductRepository productRepository;
+    private PriceSketchService priceSketchService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        priceSketchService = new PriceSketchService(productRepository);
+    }
+
+    private static Object[] row(UUID id, String category, String condition, String price) {
+        return new Object[]{id, category, condition, new BigDecimal(price)};
+    }
+
+    @Test
+    @DisplayName("Tanpa data, persentil harga kosong")
+    void getQuantiles_WithoutData_ShouldReturnEmpty() {
+        PriceSketchService.PriceQuantiles result = priceSketchService.getQuantiles(null, null);
+
+        assertEquals(0, result.count());
+        assertNull(result.p50());
+        assertTrue(priceSketchService.getCategoryQuantiles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Harga yang dicatat tanpa transaksi langsung masuk sketch, difilter per kategori dan kondisi")
+    void record_WithoutTransaction_ShouldUpdateImmediately() {
+        for (int i = 1; i <= 10; i++) {
+            priceSketchService.record("Elektronik", "Good", BigDecimal.valueOf(i * 1000L));
+            priceSketchService.record("Elektronik", "New", BigDecimal.valueOf(i * 10000L));
+        }
+        priceSketchService.record("Buku", "Good", new BigDecimal("5000"));
+
+        PriceSketchService.PriceQuantiles good = priceSketchService.getQuantiles("Elektronik", "Good");
+        assertEquals(10, good.count());
+        assertEquals(new BigDecimal("1000"), good.p10());
+        assertEquals(new BigDecimal("5000"), good.p50());
+        assertEquals(new BigDecimal("9000"), good.p90());
+
+        assertEquals(20, priceSketchService.getQuantiles("Elektronik", null).count());
+        assertEquals(11, priceSketchService.getQuantiles(null, "Good").count());
+
+        Map<String, PriceSketchService.PriceQuantiles> categories = priceSketchService.getCategoryQuantiles();
+        assertEquals(List.of("Buku", "Elektronik"), List.copyOf(categories.keySet()));
+        assertEquals(new BigDecimal("5000"), categories.get("Buku").p50());
+    }
+
+    @Test
+    @DisplayName("Harga yang dicatat dalam transaksi baru masuk sketch setelah commit")
+    void record_InTransaction_ShouldWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            priceSketchService.record("Buku", "Good", new BigDecimal("5000"));
+            assertEquals(0, priceSketchService.getQuantiles(null, null).count());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, priceSketchService.getQuantiles("Buku", "Good").count());
+    }
+
+    @Test
+    @DisplayName("Record dengan harga null diabaikan")
+    void record_WithNullPrice_ShouldBeIgnored() {
+        priceSketchService.record("Buku", "Good", null);
+
+        assertEquals(0, priceSketchService.getQuantiles(null, null).count());
+    }
+
+    @Test
+    @DisplayName("Rebuild membaca produk per batch lalu mengganti sketch lama")
+    void rebuild_ShouldScanBatchesAndReplaceSketches() {
+        ReflectionTestUtils.setField(priceSketchService, "batchSize", 2);
+        priceSketchService.record("Lainnya", "Fair", new BigDecimal("1")); // sudah dihapus dari database
+
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        UUID third = UUID.fromString("00000000-0000-0000-0000-000000000003");
+        when(productRepository.findPriceBatch(eq(new UUID(0L, 0L)), any(Pageable.class)))
+            .thenReturn(List.of(row(first, "Buku", "Good", "1000"), row(second, "Buku", "New", "3000")));
+        when(productRepository.findPriceBatch(eq(second), any(Pageable.class)))
+            .thenReturn(List.<Object[]>of(row(third, "Pakaian", "Good", "2000")));
+
+        long total = priceSketchService.rebuild();
+
+        assertEquals(3, total);
+        verify(productRepository, times(2)).findPriceBatch(any(), any(Pageable.class));
+        assertEquals(0, priceSketchService.getQuantiles("Lainnya", null).count());
+        assertEquals(2, priceSketchService.getQuantiles("Buku", null).count());
+        assertEquals(new BigDecimal("2000"), priceSketchService.getQuantiles("Pakaian", "Good").p50());
+    }
+}
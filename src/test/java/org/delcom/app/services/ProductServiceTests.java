@@ -1,26 +1,43 @@
 package org.delcom.app.services;
 
 import org.delcom.app.entities.Product;
+import org.delcom.app.entities.ProductStat;
+import org.delcom.app.entities.SellerStat;
 import org.delcom.app.repositories.ProductRepository;
+import org.delcom.app.repositories.ProductStatRepository;
+import org.delcom.app.repositories.SellerStatRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class ProductServiceTests {
     private ProductRepository productRepository;
+    private ProductStatRepository productStatRepository;
+    private PriceSketchService priceSketchService;
+    private SellerStatRepository sellerStatRepository;
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        productService = new ProductService(productRepository);
+        productStatRepository = mock(ProductStatRepository.class);
+        priceSketchService = mock(PriceSketchService.class);
+        sellerStatRepository = mock(SellerStatRepository.class);
+        productService = new ProductService(productRepository, productStatRepository, priceSketchService,
+            sellerStatRepository);
     }
 
     @Test
@@ -241,43 +258,299 @@ class ProductServiceTests {
     @Test
     @DisplayName("Get category statistics berhasil")
     void getCategoryStatistics_ShouldReturnStatistics() {
-        List<Object[]> stats = Arrays.asList(
-            new Object[]{"Pakaian", 5L},
-            new Object[]{"Elektronik", 3L}
+        List<ProductStat> stats = Arrays.asList(
+            new ProductStat(ProductStat.DIMENSION_CATEGORY, "Elektronik", 3L),
+            new ProductStat(ProductStat.DIMENSION_CATEGORY, "Pakaian", 5L)
         );
-        when(productRepository.countByCategory()).thenReturn(stats);
+        when(productStatRepository.findByDimensionAndProductCountGreaterThanOrderByNameAsc(
+            ProductStat.DIMENSION_CATEGORY, 0)).thenReturn(stats);
 
         List<Object[]> result = productService.getCategoryStatistics();
 
         assertEquals(2, result.size());
-        verify(productRepository, times(1)).countByCategory();
+        assertArrayEquals(new Object[]{"Pakaian", 5L}, result.get(1));
+        verify(productRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Get condition statistics berhasil")
     void getConditionStatistics_ShouldReturnStatistics() {
-        List<Object[]> stats = Arrays.asList(
-            new Object[]{"New", 2L},
-            new Object[]{"Like New", 3L}
+        List<ProductStat> stats = Arrays.asList(
+            new ProductStat(ProductStat.DIMENSION_CONDITION, "Like New", 3L),
+            new ProductStat(ProductStat.DIMENSION_CONDITION, "New", 2L)
         );
-        when(productRepository.countByCondition()).thenReturn(stats);
+        when(productStatRepository.findByDimensionAndProductCountGreaterThanOrderByNameAsc(
+            ProductStat.DIMENSION_CONDITION, 0)).thenReturn(stats);
 
         List<Object[]> result = productService.getConditionStatistics();
 
         assertEquals(2, result.size());
-        verify(productRepository, times(1)).countByCondition();
+        assertArrayEquals(new Object[]{"Like New", 3L}, result.get(0));
     }
 
     @Test
-    @DisplayName("Count products by user ID berhasil")
+    @DisplayName("Count products by user ID dibaca dari baris total seller_stats")
     void countProductsByUserId_ShouldReturnCount() {
         UUID userId = UUID.randomUUID();
-        when(productRepository.countByUserId(userId)).thenReturn(5L);
+        when(sellerStatRepository.findById(new SellerStat.Key(userId, SellerStat.TOTAL)))
+            .thenReturn(Optional.of(new SellerStat(userId, SellerStat.TOTAL, 5, new BigDecimal("100"))));
 
-        Long result = productService.countProductsByUserId(userId);
+        assertEquals(5L, productService.countProductsByUserId(userId));
+        assertEquals(0L, productService.countProductsByUserId(UUID.randomUUID()));
+        verify(productRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Update product dengan gambar baru menghapus daftar thumbnail lama")
+    void updateProduct_WithNewImage_ShouldResetImageVariants() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product();
+        product.setId(productId);
+        product.setUserId(userId);
+        product.setImageUrl("/uploads/images/old.jpg");
+        product.setImageVariants("200,480");
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        Product result = productService.updateProduct(
+            productId, userId, "New Name", "New Desc",
+            new BigDecimal("200000"), "Elektronik", "Like New", "/uploads/images/new.jpg"
+        );
 
-        assertEquals(5L, result);
-        verify(productRepository, times(1)).countByUserId(userId);
+        assertEquals("/uploads/images/new.jpg", result.getImageUrl());
+        assertNull(result.getImageVariants());
     }
-}
 
+    @Test
+    @DisplayName("Create product menambah jumlah kategori dan kondisi di product_stats")
+    void createProduct_ShouldIncrementStats() {
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.createProduct(UUID.randomUUID(), "Kemeja", "Desc", new BigDecimal("50000"),
+            "Pakaian", "New", null);
+
+        verify(productStatRepository).increment(ProductStat.DIMENSION_CATEGORY, "Pakaian", 1);
+        verify(productStatRepository).increment(ProductStat.DIMENSION_CONDITION, "New", 1);
+        verifyNoMoreInteractions(productStatRepository);
+    }
+
+    @Test
+    @DisplayName("Update product memindahkan jumlah ke kategori dan kondisi baru dengan urutan tetap")
+    void updateProduct_WithChangedCategory_ShouldMoveStats() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Pakaian", "New", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct(productId, userId, "Laptop", "Desc", new BigDecimal("100"),
+            "Elektronik", "Good", null);
+
+        // Baris dikunci berurutan (dimensi lalu nama) agar transaksi lain tidak deadlock
+        InOrder inOrder = inOrder(productStatRepository);
+        inOrder.verify(productStatRepository).increment(ProductStat.DIMENSION_CATEGORY, "Elektronik", 1);
+        inOrder.verify(productStatRepository).increment(ProductStat.DIMENSION_CATEGORY, "Pakaian", -1);
+        inOrder.verify(productStatRepository).increment(ProductStat.DIMENSION_CONDITION, "Good", 1);
+        inOrder.verify(productStatRepository).increment(ProductStat.DIMENSION_CONDITION, "New", -1);
+        verifyNoMoreInteractions(productStatRepository);
+    }
+
+    @Test
+    @DisplayName("Update product tanpa perubahan kategori dan kondisi tidak mengubah product_stats")
+    void updateProduct_WithSameCategory_ShouldNotTouchStats() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Elektronik", "Good", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct(productId, userId, "Laptop Baru", "Desc", new BigDecimal("90"),
+            "Elektronik", "Good", null);
+
+        verify(productStatRepository, never()).increment(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Delete product mengurangi jumlah kategori dan kondisi di product_stats")
+    void deleteProduct_ShouldDecrementStats() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Elektronik", "Good", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        productService.deleteProduct(productId, userId);
+
+        verify(productStatRepository).increment(ProductStat.DIMENSION_CATEGORY, "Elektronik", -1);
+        verify(productStatRepository).increment(ProductStat.DIMENSION_CONDITION, "Good", -1);
+    }
+
+    @Test
+    @DisplayName("Create product mencatat harga ke sketch persentil")
+    void createProduct_ShouldRecordPrice() {
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.createProduct(UUID.randomUUID(), "Kemeja", "Desc", new BigDecimal("50000"),
+            "Pakaian", "New", null);
+
+        verify(priceSketchService).record("Pakaian", "New", new BigDecimal("50000"));
+    }
+
+    @Test
+    @DisplayName("Update product mencatat harga hanya jika harga, kategori, atau kondisi berubah")
+    void updateProduct_ShouldRecordPriceOnlyWhenChanged() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100.00"), "Elektronik", "Good", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct(productId, userId, "Laptop Baru", "Desc", new BigDecimal("100"),
+            "Elektronik", "Good", null);
+        verify(priceSketchService, never()).record(anyString(), anyString(), any());
+
+        productService.updateProduct(productId, userId, "Laptop Baru", "Desc", new BigDecimal("90"),
+            "Elektronik", "Good", null);
+        verify(priceSketchService).record("Elektronik", "Good", new BigDecimal("90"));
+    }
+
+    @Test
+    @DisplayName("Versi statistik naik setelah transaksi commit")
+    void createProduct_ShouldIncrementStatsVersionAfterCommit() {
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        long before = productService.getStatsVersion();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.createProduct(UUID.randomUUID(), "Kemeja", "Desc", new BigDecimal("50000"),
+                "Pakaian", "New", null);
+            assertEquals(before, productService.getStatsVersion(), "Belum commit");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(before + 1, productService.getStatsVersion());
+    }
+
+    @Test
+    @DisplayName("Create product menambah jumlah dan nilai produk penjual di seller_stats")
+    void createProduct_ShouldIncrementSellerStats() {
+        UUID userId = UUID.randomUUID();
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.createProduct(userId, "Kemeja", "Desc", new BigDecimal("50000"), "Pakaian", "New", null);
+
+        InOrder inOrder = inOrder(sellerStatRepository);
+        inOrder.verify(sellerStatRepository).increment(eq(userId), eq(SellerStat.TOTAL), eq(1L),
+            eq(new BigDecimal("50000")), any(LocalDateTime.class));
+        inOrder.verify(sellerStatRepository).increment(eq(userId), eq("Pakaian"), eq(1L),
+            eq(new BigDecimal("50000")), any(LocalDateTime.class));
+        verifyNoMoreInteractions(sellerStatRepository);
+    }
+
+    @Test
+    @DisplayName("Update product memindahkan nilai ke kategori baru di seller_stats")
+    void updateProduct_WithChangedCategory_ShouldMoveSellerStats() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Pakaian", "New", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct(productId, userId, "Laptop", "Desc", new BigDecimal("150"),
+            "Elektronik", "New", null);
+
+        InOrder inOrder = inOrder(sellerStatRepository);
+        inOrder.verify(sellerStatRepository).increment(eq(userId), eq(SellerStat.TOTAL), eq(0L),
+            eq(new BigDecimal("50")), any(LocalDateTime.class));
+        inOrder.verify(sellerStatRepository).increment(eq(userId), eq("Elektronik"), eq(1L),
+            eq(new BigDecimal("150")), any(LocalDateTime.class));
+        inOrder.verify(sellerStatRepository).increment(eq(userId), eq("Pakaian"), eq(-1L),
+            eq(new BigDecimal("-100")), any(LocalDateTime.class));
+        verifyNoMoreInteractions(sellerStatRepository);
+    }
+
+    @Test
+    @DisplayName("Update product tanpa perubahan harga dan kategori hanya menyentuh baris total")
+    void updateProduct_WithSamePriceAndCategory_ShouldOnlyTouchTotal() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Elektronik", "Good", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct(productId, userId, "Laptop Baru", "Desc", new BigDecimal("100"),
+            "Elektronik", "Good", null);
+
+        verify(sellerStatRepository).increment(eq(userId), eq(SellerStat.TOTAL), eq(0L),
+            eq(new BigDecimal("0")), any(LocalDateTime.class));
+        verifyNoMoreInteractions(sellerStatRepository);
+    }
+
+    @Test
+    @DisplayName("Delete product mengurangi jumlah dan nilai produk penjual")
+    void deleteProduct_ShouldDecrementSellerStats() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(userId, "Laptop", "Desc", new BigDecimal("100"), "Elektronik", "Good", null);
+        product.setId(productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        productService.deleteProduct(productId, userId);
+
+        verify(sellerStatRepository).increment(eq(userId), eq(SellerStat.TOTAL), eq(-1L),
+            eq(new BigDecimal("-100")), any(LocalDateTime.class));
+        verify(sellerStatRepository).increment(eq(userId), eq("Elektronik"), eq(-1L),
+            eq(new BigDecimal("-100")), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Dashboard penjual memisahkan baris total dan kategori yang masih punya produk")
+    void getSellerDashboard_ShouldSplitTotalAndCategories() {
+        UUID userId = UUID.randomUUID();
+        SellerStat total = new SellerStat(userId, SellerStat.TOTAL, 3, new BigDecimal("600"));
+        total.setViewCount(42);
+        LocalDateTime lastActivity = LocalDateTime.of(2025, 6, 1, 10, 0);
+        total.setLastActivityAt(lastActivity);
+        List<Product> recent = List.of(new Product());
+        when(sellerStatRepository.findByUserIdOrderByCategoryAsc(userId)).thenReturn(List.of(
+            total,
+            new SellerStat(userId, "Buku", 0, BigDecimal.ZERO),
+            new SellerStat(userId, "Elektronik", 3, new BigDecimal("600"))));
+        when(productRepository.findTop5ByUserIdOrderByUpdatedAtDesc(userId)).thenReturn(recent);
+
+        ProductService.SellerDashboard dashboard = productService.getSellerDashboard(userId);
+
+        assertEquals(3, dashboard.productCount());
+        assertEquals(new BigDecimal("600"), dashboard.totalValue());
+        assertEquals(42, dashboard.viewCount());
+        assertEquals(lastActivity, dashboard.lastActivityAt());
+        assertEquals(List.of(new ProductService.SellerCategory("Elektronik", 3, new BigDecimal("600"))),
+            dashboard.categories());
+        assertSame(recent, dashboard.recentProducts());
+    }
+
+    @Test
+    @DisplayName("Dashboard penjual tanpa produk berisi angka nol")
+    void getSellerDashboard_WithoutStats_ShouldReturnZero() {
+        UUID userId = UUID.randomUUID();
+        when(sellerStatRepository.findByUserIdOrderByCategoryAsc(userId)).thenReturn(List.of());
+        when(productRepository.findTop5ByUserIdOrderByUpdatedAtDesc(userId)).thenReturn(List.of());
+
+        ProductService.SellerDashboard dashboard = productService.getSellerDashboard(userId);
+
+        assertEquals(0, dashboard.productCount());
+        assertEquals(BigDecimal.ZERO, dashboard.totalValue());
+        assertNull(dashboard.lastActivityAt());
+        assertTrue(dashboard.categories().isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProductViewCounterTests {
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private ProductRepository productRepository;
+    private ProductViewCounter productViewCounter;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productViewCounter = new ProductViewCounter(productRepository);
+    }
+
+    @Test
+    @DisplayName("Kunjungan dikumpulkan di memori tanpa menyentuh database")
+    void recordView_ShouldOnlyCountInMemory() {
+        productViewCounter.recordView(FIRST);
+        productViewCounter.recordView(FIRST);
+
+        assertEquals(2, productViewCounter.getPendingViews(FIRST));
+        assertEquals(0, productViewCounter.getPendingViews(SECOND));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Flush mengirim delta semua produk dalam satu UPDATE, urut per id")
+    void flush_ShouldSendDeltasInOneStatement() {
+        productViewCounter.recordView(SECOND);
+        productViewCounter.recordView(FIRST);
+        productViewCounter.recordView(SECOND);
+
+        long total = productViewCounter.flush();
+
+        assertEquals(3, total);
+        verify(productRepository).addViewCounts(FIRST + "," + SECOND, "1,2");
+        assertEquals(0, productViewCounter.getPendingViews(SECOND));
+
+        // Tidak ada kunjungan baru, tidak ada UPDATE
+        assertEquals(0, productViewCounter.flush());
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Flush membagi produk per batch-size")
+    void flush_ShouldSplitIntoBatches() {
+        ReflectionTestUtils.setField(productViewCounter, "batchSize", 1);
+        productViewCounter.recordView(FIRST);
+        productViewCounter.recordView(SECOND);
+
+        productViewCounter.flush();
+
+        verify(productRepository).addViewCounts(FIRST.toString(), "1");
+        verify(productRepository).addViewCounts(SECOND.toString(), "1");
+    }
+
+    @Test
+    @DisplayName("Flush yang gagal mengembalikan delta untuk dicoba lagi")
+    void flush_WhenUpdateFails_ShouldKeepDeltas() {
+        when(productRepository.addViewCounts(anyString(), anyString()))
+            .thenThrow(new RuntimeException("database tidak tersedia"))
+            .thenReturn(1);
+        productViewCounter.recordView(FIRST);
+
+        assertEquals(0, productViewCounter.flush());
+        assertEquals(1, productViewCounter.getPendingViews(FIRST));
+
+        productViewCounter.recordView(FIRST);
+        assertEquals(2, productViewCounter.flush());
+        verify(productRepository).addViewCounts(FIRST.toString(), "2");
+    }
+
+    @Test
+    @DisplayName("Kunjungan bersamaan tidak ada yang hilang")
+    void recordView_Concurrently_ShouldCountAll() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    productViewCounter.recordView(FIRST);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8000, productViewCounter.flush());
+        verify(productRepository).addViewCounts(FIRST.toString(), "8000");
+    }
+
+    @Test
+    @DisplayName("Kunjungan yang datang saat flush membuang produk menganggur tidak hilang")
+    void recordView_ConcurrentWithFlush_ShouldNotLoseViews() throws InterruptedException {
+        AtomicLong written = new AtomicLong();
+        when(productRepository.addViewCounts(anyString(), anyString())).thenAnswer(invocation -> {
+            for (String delta : invocation.<String>getArgument(1).split(",")) {
+                written.addAndGet(Long.parseLong(delta));
+            }
+            return 1;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    productViewCounter.recordView(j % 2 == 0 ? FIRST : SECOND);
+                    if (j % 50 == 0) {
+                        Thread.yield(); // beri kesempatan flush melihat adder bernilai nol
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            productViewCounter.flush();
+        }
+        productViewCounter.flush();
+
+        assertEquals(80000, written.get());
+    }
+
+    @Test
+    @DisplayName("Shutdown mengirim sisa kunjungan")
+    void shutdown_ShouldFlush() {
+        productViewCounter.recordView(FIRST);
+
+        productViewCounter.shutdown();
+
+        verify(productRepository).addViewCounts(FIRST.toString(), "1");
+    }
+}
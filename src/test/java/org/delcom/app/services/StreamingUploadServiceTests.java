@@ -0,0 +1,124 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class StreamingUploadServiceTests {
+    private static final String BOUNDARY = "batas123";
+
+    // GIF 1x1 pixel
+    private static final byte[] GIF = {
+        'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, (byte) 0x80, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+        0, 0, 0, ',', 0, 0, 0, 0, 1, 0, 1, 0, 0, 2, 2, 'D', 1, 0, ';'
+    };
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+    private StreamingUploadService streamingUploadService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(uploadDir.toString(), new LocalImageStore(),
+                mock(ImageReencoder.class));
+        streamingUploadService = new StreamingUploadService(fileStorageService);
+    }
+
+    private MockHttpServletRequest request(String imageFilename, String imageContent) {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "Kamera\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"" + imageFilename + "\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n"
+                + imageContent + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products/add/stream");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body.getBytes(StandardCharsets.ISO_8859_1)); // isi file biner dibawa apa adanya
+        return request;
+    }
+
+    @Test
+    @DisplayName("Parse menyimpan gambar langsung ke direktori upload dan mengembalikan field")
+    void parse_WithImage_ShouldStoreFileAndReturnFields() throws IOException {
+        StreamingUploadService.UploadForm form = streamingUploadService.parse(
+                request("foto.jpg", new String(GIF, StandardCharsets.ISO_8859_1)), "image");
+
+        assertEquals("Kamera", form.field("name"));
+        assertTrue(form.fileUrl().startsWith("/uploads/images/"));
+        assertTrue(form.fileUrl().endsWith(".gif"), "Extension mengikuti isi file");
+        assertArrayEquals(GIF, Files.readAllBytes(fileStorageService.resolvePath(form.fileUrl())));
+    }
+
+    @Test
+    @DisplayName("Parse dengan part file yang bukan gambar ditolak tanpa menyisakan file")
+    void parse_WithNonImage_ShouldThrow() throws IOException {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> streamingUploadService.parse(request("foto.jpg", "bukan gambar"), "image"));
+
+        assertEquals("File harus berupa gambar JPEG, PNG, GIF, atau WebP", exception.getMessage());
+        try (var files = Files.walk(uploadDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Parse dengan input file kosong tidak menyimpan file")
+    void parse_WithEmptyFileInput_ShouldReturnNullFileUrl() throws IOException {
+        StreamingUploadService.UploadForm form = streamingUploadService.parse(request("", ""), "image");
+
+        assertNull(form.fileUrl());
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Parse dengan gambar melebihi max-file-size ditolak tanpa menyisakan file")
+    void parse_WithTooLargeImage_ShouldThrow() {
+        ReflectionTestUtils.setField(streamingUploadService, "maxFileSize", DataSize.ofBytes(2));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> streamingUploadService.parse(request("foto.jpg", "abc"), "image"));
+
+        assertEquals("Ukuran file melebihi batas", exception.getMessage());
+        try (var files = Files.walk(uploadDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Parse request yang bukan multipart ditolak")
+    void parse_WithNonMultipartRequest_ShouldThrow() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products/add/stream");
+        request.setContentType("application/json");
+
+        assertThrows(RuntimeException.class, () -> streamingUploadService.parse(request, "image"));
+    }
+
+    @Test
+    @DisplayName("Field wajib yang tidak dikirim menghasilkan pesan error")
+    void uploadForm_WithMissingField_ShouldThrow() throws IOException {
+        StreamingUploadService.UploadForm form = streamingUploadService.parse(request("", ""), "image");
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> form.field("price"));
+        assertEquals("Parameter price wajib diisi", exception.getMessage());
+    }
+}
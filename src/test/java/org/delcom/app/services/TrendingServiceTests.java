@@ -0,0 +1,150 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTests {
+    private ProductRepository productRepository;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        trendingService = new TrendingService(productRepository, 100, 6);
+        ReflectionTestUtils.setField(trendingService, "size", 2);
+    }
+
+    private Product product(UUID id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Belum ada kejadian berarti daftar trending kosong")
+    void getTrending_BeforeRefresh_ShouldBeEmpty() {
+        assertTrue(trendingService.getTrending().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Refresh mengurutkan produk dari skor tertinggi dan membatasi jumlahnya")
+    void refresh_ShouldOrderByScoreAndLimitSize() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        trendingService.recordView(third, UUID.randomUUID());
+        trendingService.recordView(second, UUID.randomUUID());
+        trendingService.recordView(second, UUID.randomUUID());
+        trendingService.recordContact(first, UUID.randomUUID());
+        when(productRepository.findAllById(List.of(first, second)))
+                .thenReturn(List.of(product(second), product(first)));
+
+        trendingService.refresh();
+
+        List<Product> trending = trendingService.getTrending();
+        assertEquals(2, trending.size());
+        assertEquals(first, trending.get(0).getId());
+        assertEquals(second, trending.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Klik beli lebih berbobot dari beberapa kunjungan")
+    void recordContact_ShouldOutweighViews() {
+        UUID viewed = UUID.randomUUID();
+        UUID contacted = UUID.randomUUID();
+        for (int i = 0; i < 4; i++) {
+            trendingService.recordView(viewed, UUID.randomUUID());
+        }
+        trendingService.recordContact(contacted, UUID.randomUUID());
+        when(productRepository.findAllById(List.of(contacted, viewed)))
+                .thenReturn(List.of(product(contacted), product(viewed)));
+
+        trendingService.refresh();
+
+        assertEquals(contacted, trendingService.getTrending().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Produk yang sudah dihapus dibuang dari trending")
+    void refresh_WithDeletedProduct_ShouldDropIt() {
+        UUID deleted = UUID.randomUUID();
+        UUID alive = UUID.randomUUID();
+        trendingService.recordContact(deleted, UUID.randomUUID());
+        trendingService.recordView(alive, UUID.randomUUID());
+        when(productRepository.findAllById(anyList())).thenReturn(List.of(product(alive)));
+
+        trendingService.refresh();
+        trendingService.refresh();
+
+        assertEquals(List.of(alive), trendingService.getTrending().stream().map(Product::getId).toList());
+        verify(productRepository).findAllById(List.of(alive));
+    }
+
+    @Test
+    @DisplayName("Kunjungan dan klik berulang dari user yang sama hanya dihitung sekali per jendela")
+    void record_RepeatedBySameUser_ShouldCountOnce() {
+        UUID spammed = UUID.randomUUID();
+        UUID popular = UUID.randomUUID();
+        UUID spammer = UUID.randomUUID();
+        for (int i = 0; i < 50; i++) {
+            trendingService.recordView(spammed, spammer);
+            trendingService.recordContact(spammed, spammer);
+        }
+        for (int i = 0; i < 10; i++) {
+            trendingService.recordView(popular, UUID.randomUUID());
+        }
+        when(productRepository.findAllById(List.of(popular, spammed)))
+                .thenReturn(List.of(product(popular), product(spammed)));
+
+        trendingService.refresh();
+
+        // Satu kunjungan (1) dan satu klik (5) dari spammer kalah dari 10 user berbeda
+        assertEquals(List.of(popular, spammed), trendingService.getTrending().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Kejadian dihitung lagi setelah jendela dedupe lewat")
+    void record_AfterWindow_ShouldCountAgain() {
+        ReflectionTestUtils.setField(trendingService, "dedupeWindowMinutes", 0L);
+        UUID repeated = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID user = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            trendingService.recordView(repeated, user);
+        }
+        trendingService.recordView(other, UUID.randomUUID());
+        trendingService.recordView(other, UUID.randomUUID());
+        when(productRepository.findAllById(List.of(repeated, other)))
+                .thenReturn(List.of(product(repeated), product(other)));
+
+        trendingService.refresh();
+
+        assertEquals(repeated, trendingService.getTrending().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Jika catatan dedupe penuh, kejadian dari pasangan baru tidak dihitung")
+    void record_WhenDedupeFull_ShouldSkipNewPairs() {
+        ReflectionTestUtils.setField(trendingService, "dedupeMaxEntries", 1);
+        UUID counted = UUID.randomUUID();
+        UUID skipped = UUID.randomUUID();
+        trendingService.recordView(counted, UUID.randomUUID());
+        trendingService.recordContact(skipped, UUID.randomUUID());
+        when(productRepository.findAllById(List.of(counted))).thenReturn(List.of(product(counted)));
+
+        trendingService.refresh();
+
+        assertEquals(List.of(counted), trendingService.getTrending().stream().map(Product::getId).toList());
+    }
+}
@@ -0,0 +1,163 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.ProductViewerSketch;
+import org.delcom.app.repositories.ProductViewerSketchRepository;
+import org.delcom.app.utils.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UniqueViewerServiceTests {
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private ProductViewerSketchRepository sketchRepository;
+    private UniqueViewerService uniqueViewerService;
+
+    @BeforeEach
+    void setUp() {
+        sketchRepository = mock(ProductViewerSketchRepository.class);
+        uniqueViewerService = new UniqueViewerService(sketchRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    private static byte[] sketchOf(String... visitors) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (String visitor : visitors) {
+            sketch.add(HyperLogLog.hash(visitor));
+        }
+        return sketch.toBytes();
+    }
+
+    @Test
+    @DisplayName("Perkiraan produk menggabungkan sketch database dan kunjungan yang belum di-flush")
+    void estimateProduct_ShouldMergeStoredAndPending() {
+        when(sketchRepository.findById(FIRST))
+            .thenReturn(Optional.of(new ProductViewerSketch(FIRST, sketchOf("a", "b"))));
+
+        uniqueViewerService.recordVisitor(FIRST, "b");
+        uniqueViewerService.recordVisitor(FIRST, "c");
+        uniqueViewerService.recordVisitor(FIRST, "c");
+
+        assertEquals(3, uniqueViewerService.estimateProduct(FIRST));
+    }
+
+    @Test
+    @DisplayName("Flush membuat baris sketch baru untuk produk yang belum punya sketch")
+    void flush_WithNewProduct_ShouldInsertSketch() {
+        when(sketchRepository.createIfMissing(eq(FIRST), any())).thenReturn(1);
+        uniqueViewerService.recordVisitor(FIRST, "a");
+
+        assertEquals(1, uniqueViewerService.flush());
+
+        verify(sketchRepository).createIfMissing(FIRST, sketchOf("a"));
+        verify(sketchRepository, never()).findForUpdate(any());
+        assertEquals(0, uniqueViewerService.flush(), "Sketch di memori sudah dikosongkan");
+    }
+
+    @Test
+    @DisplayName("Flush menggabungkan sketch ke baris yang sudah ada dengan lock")
+    void flush_WithExistingSketch_ShouldMergeUnderLock() {
+        ProductViewerSketch row = new ProductViewerSketch(FIRST, sketchOf("a", "b"));
+        when(sketchRepository.createIfMissing(eq(FIRST), any())).thenReturn(0);
+        when(sketchRepository.findForUpdate(FIRST)).thenReturn(Optional.of(row));
+        uniqueViewerService.recordVisitor(FIRST, "b");
+        uniqueViewerService.recordVisitor(FIRST, "c");
+
+        uniqueViewerService.flush();
+
+        verify(sketchRepository).save(row);
+        assertEquals(3, HyperLogLog.fromBytes(row.getSketch()).estimate());
+    }
+
+    @Test
+    @DisplayName("Flush yang gagal mengembalikan sketch ke memori")
+    void flush_WhenWriteFails_ShouldKeepSketch() {
+        when(sketchRepository.createIfMissing(eq(FIRST), any()))
+            .thenThrow(new RuntimeException("database tidak tersedia"));
+        uniqueViewerService.recordVisitor(FIRST, "a");
+
+        assertEquals(0, uniqueViewerService.flush());
+
+        assertEquals(1, uniqueViewerService.estimateProduct(FIRST));
+    }
+
+    @Test
+    @DisplayName("Total penjual menghitung pengunjung yang melihat beberapa produk satu kali")
+    void estimateSeller_ShouldMergeSketches() {
+        UUID sellerId = UUID.randomUUID();
+        when(sketchRepository.findSketchesBySeller(sellerId))
+            .thenReturn(List.of(sketchOf("a", "b"), sketchOf("b", "c")));
+
+        assertEquals(3, uniqueViewerService.estimateSeller(sellerId));
+    }
+
+    @Test
+    @DisplayName("Total penjual dipakai ulang dari cache per penjual sampai kedaluwarsa")
+    void estimateSeller_ShouldCacheResultPerSeller() {
+        UUID sellerId = UUID.randomUUID();
+        UUID otherSellerId = UUID.randomUUID();
+        when(sketchRepository.findSketchesBySeller(sellerId)).thenReturn(List.of(sketchOf("a", "b")));
+        when(sketchRepository.findSketchesBySeller(otherSellerId)).thenReturn(List.of(sketchOf("c")));
+
+        assertEquals(2, uniqueViewerService.estimateSeller(sellerId));
+        assertEquals(2, uniqueViewerService.estimateSeller(sellerId));
+        assertEquals(1, uniqueViewerService.estimateSeller(otherSellerId));
+
+        verify(sketchRepository, times(1)).findSketchesBySeller(sellerId);
+        verify(sketchRepository, times(1)).findSketchesBySeller(otherSellerId);
+
+        ReflectionTestUtils.setField(uniqueViewerService, "sellerCacheSeconds", 0L);
+        uniqueViewerService.estimateSeller(sellerId);
+        verify(sketchRepository, times(2)).findSketchesBySeller(sellerId);
+    }
+
+    @Test
+    @DisplayName("Total per kategori dibaca per batch dan diurutkan berdasarkan nama kategori")
+    void estimateCategories_ShouldScanBatches() {
+        ReflectionTestUtils.setField(uniqueViewerService, "batchSize", 2);
+        UUID third = UUID.fromString("00000000-0000-0000-0000-000000000003");
+        when(sketchRepository.findCategorySketchBatch(eq(new UUID(0L, 0L)), any(Pageable.class)))
+            .thenReturn(List.of(new Object[]{FIRST, "Elektronik", sketchOf("a", "b")},
+                new Object[]{SECOND, "Buku", sketchOf("a")}));
+        when(sketchRepository.findCategorySketchBatch(eq(SECOND), any(Pageable.class)))
+            .thenReturn(List.<Object[]>of(new Object[]{third, "Elektronik", sketchOf("b", "c")}));
+
+        Map<String, Long> result = uniqueViewerService.estimateCategories();
+
+        assertEquals(List.of("Buku", "Elektronik"), List.copyOf(result.keySet()));
+        assertEquals(1L, result.get("Buku"));
+        assertEquals(3L, result.get("Elektronik"));
+    }
+
+    @Test
+    @DisplayName("Total per kategori dipakai ulang dari cache sampai kedaluwarsa")
+    void estimateCategories_ShouldCacheResult() {
+        when(sketchRepository.findCategorySketchBatch(any(), any(Pageable.class)))
+            .thenReturn(List.<Object[]>of(new Object[]{FIRST, "Buku", sketchOf("a")}));
+
+        Map<String, Long> first = uniqueViewerService.estimateCategories();
+        Map<String, Long> second = uniqueViewerService.estimateCategories();
+
+        assertSame(first, second);
+        verify(sketchRepository, times(1)).findCategorySketchBatch(any(), any(Pageable.class));
+
+        ReflectionTestUtils.setField(uniqueViewerService, "categoryCacheSeconds", 0L);
+        uniqueViewerService.estimateCategories();
+        verify(sketchRepository, times(2)).findCategorySketchBatch(any(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,131 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Product;
+import org.delcom.app.repositories.ImageJobRepository;
+import org.delcom.app.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UploadShardMigrationServiceTests {
+    @TempDir
+    Path uploadDir;
+
+    private ProductRepository productRepository;
+    private ImageJobRepository imageJobRepository;
+    private UploadShardMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        imageJobRepository = mock(ImageJobRepository.class);
+        migrationService = new UploadShardMigrationService(productRepository, imageJobRepository,
+            new FileStorageService(uploadDir.toString(), new LocalImageStore(),
+                mock(ImageReencoder.class)));
+    }
+
+    private Product product(String imageUrl, String variants) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setImageUrl(imageUrl);
+        product.setImageVariants(variants);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Migrate memindahkan gambar dan thumbnail lalu mengubah image_url")
+    void migrate_ShouldMoveFilesAndRewriteUrl() throws IOException {
+        Files.writeString(uploadDir.resolve("abcd1234.jpg"), "asli");
+        Files.writeString(uploadDir.resolve("abcd1234_w200.jpg"), "thumbnail");
+        Product product = product("/uploads/images/abcd1234.jpg", "200");
+
+        when(productRepository.findFlatImageBatch(any(), any(Pageable.class))).thenReturn(List.of(product));
+        when(productRepository.updateImageUrl("/uploads/images/abcd1234.jpg", "/uploads/images/ab/cd/abcd1234.jpg"))
+            .thenReturn(1);
+
+        int result = migrationService.migrate(10);
+
+        assertEquals(1, result);
+        assertEquals("asli", Files.readString(uploadDir.resolve("ab/cd/abcd1234.jpg")));
+        assertEquals("thumbnail", Files.readString(uploadDir.resolve("ab/cd/abcd1234_w200.jpg")));
+        assertFalse(Files.exists(uploadDir.resolve("abcd1234.jpg")));
+        assertFalse(Files.exists(uploadDir.resolve("abcd1234_w200.jpg")));
+        verify(imageJobRepository, times(1))
+            .updateImageUrl("/uploads/images/abcd1234.jpg", "/uploads/images/ab/cd/abcd1234.jpg");
+    }
+
+    @Test
+    @DisplayName("Migrate membaca produk per batch dengan keyset id")
+    void migrate_WithFullBatch_ShouldReadNextBatch() throws IOException {
+        Product first = product("/uploads/images/aaaa.jpg", null);
+        Product second = product("/uploads/images/bbbb.jpg", "");
+        Files.writeString(uploadDir.resolve("aaaa.jpg"), "a");
+        Files.writeString(uploadDir.resolve("bbbb.jpg"), "b");
+
+        when(productRepository.findFlatImageBatch(eq(new UUID(0L, 0L)), any(Pageable.class))).thenReturn(List.of(first));
+        when(productRepository.findFlatImageBatch(eq(first.getId()), any(Pageable.class))).thenReturn(List.of(second));
+        when(productRepository.findFlatImageBatch(eq(second.getId()), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.updateImageUrl(any(), any())).thenReturn(1);
+
+        assertEquals(2, migrationService.migrate(1));
+        assertTrue(Files.exists(uploadDir.resolve("aa/aa/aaaa.jpg")));
+        assertTrue(Files.exists(uploadDir.resolve("bb/bb/bbbb.jpg")));
+    }
+
+    @Test
+    @DisplayName("Migrate gambar yang dipakai beberapa produk hanya dihitung sekali")
+    void migrate_WithSharedImage_ShouldCountOnce() throws IOException {
+        Files.writeString(uploadDir.resolve("cccc.png"), "c");
+        Product first = product("/uploads/images/cccc.png", null);
+        Product second = product("/uploads/images/cccc.png", null);
+
+        when(productRepository.findFlatImageBatch(any(), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(productRepository.updateImageUrl(any(), any())).thenReturn(2, 0);
+
+        assertEquals(1, migrationService.migrate(10));
+        assertTrue(Files.exists(uploadDir.resolve("cc/cc/cccc.png")));
+    }
+
+    @Test
+    @DisplayName("Migrate dengan file tujuan sudah ada tetap mengubah URL")
+    void migrate_WithExistingTarget_ShouldRewriteUrl() throws IOException {
+        Files.writeString(uploadDir.resolve("dddd.jpg"), "d");
+        Files.createDirectories(uploadDir.resolve("dd/dd"));
+        Files.writeString(uploadDir.resolve("dd/dd/dddd.jpg"), "d");
+
+        when(productRepository.findFlatImageBatch(any(), any(Pageable.class)))
+            .thenReturn(List.of(product("/uploads/images/dddd.jpg", null)));
+        when(productRepository.updateImageUrl(any(), any())).thenReturn(1);
+
+        assertEquals(1, migrationService.migrate(10));
+        assertFalse(Files.exists(uploadDir.resolve("dddd.jpg")));
+    }
+
+    @Test
+    @DisplayName("Migrate dengan URL gagal di-resolve tidak mengubah database")
+    void migrate_WithFailedMove_ShouldKeepUrl() throws IOException {
+        // Direktori shard berupa file sehingga createDirectories gagal
+        Files.writeString(uploadDir.resolve("eeee.jpg"), "e");
+        Files.writeString(uploadDir.resolve("ee"), "bukan direktori");
+
+        when(productRepository.findFlatImageBatch(any(), any(Pageable.class)))
+            .thenReturn(List.of(product("/uploads/images/eeee.jpg", null)));
+
+        assertEquals(0, migrationService.migrate(10));
+        verify(productRepository, never()).updateImageUrl(any(), any());
+        assertTrue(Files.exists(uploadDir.resolve("eeee.jpg")));
+    }
+}
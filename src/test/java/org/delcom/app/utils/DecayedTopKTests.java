@@ -0,0 +1,96 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayedTopKTests {
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    @DisplayName("Top mengurutkan item dari skor tertinggi")
+    void top_ShouldOrderByScore() {
+        DecayedTopK<String> topK = new DecayedTopK<>(10, Duration.ofHours(1), 0);
+        topK.add("a", 1, 0);
+        topK.add("b", 3, 0);
+        topK.add("c", 2, 0);
+
+        assertEquals(List.of("b", "c", "a"), topK.top(10));
+        assertEquals(List.of("b", "c"), topK.top(2));
+    }
+
+    @Test
+    @DisplayName("Skor meluruh setengahnya setiap half-life")
+    void score_ShouldHalveEveryHalfLife() {
+        DecayedTopK<String> topK = new DecayedTopK<>(10, Duration.ofHours(1), 0);
+        topK.add("a", 8, 0);
+
+        assertEquals(8, topK.score("a", 0), 1e-9);
+        assertEquals(4, topK.score("a", HOUR), 1e-9);
+        assertEquals(1, topK.score("a", 3 * HOUR), 1e-9);
+        assertEquals(0, topK.score("tidak-ada", 0));
+    }
+
+    @Test
+    @DisplayName("Kejadian baru mengalahkan kejadian lama yang lebih banyak")
+    void add_RecentEvents_ShouldOutrankOldEvents() {
+        DecayedTopK<String> topK = new DecayedTopK<>(10, Duration.ofHours(1), 0);
+        topK.add("lama", 10, 0);
+        topK.add("baru", 2, 5 * HOUR);
+
+        assertEquals(List.of("baru", "lama"), topK.top(2));
+    }
+
+    @Test
+    @DisplayName("Item baru saat penuh mengambil alih item dengan skor terkecil")
+    void add_WhenFull_ShouldEvictSmallest() {
+        DecayedTopK<String> topK = new DecayedTopK<>(2, Duration.ofHours(1), 0);
+        topK.add("a", 5, 0);
+        topK.add("b", 1, 0);
+        topK.add("c", 1, 0);
+
+        assertEquals(2, topK.size());
+        assertEquals(List.of("a", "c"), topK.top(2));
+        // Space-Saving mewarisi skor item yang digantikan
+        assertEquals(2, topK.score("c", 0), 1e-9);
+        assertEquals(0, topK.score("b", 0));
+    }
+
+    @Test
+    @DisplayName("Skala ulang tidak mengubah skor maupun urutan")
+    void add_AfterLongTime_ShouldRescaleWithoutOverflow() {
+        DecayedTopK<String> topK = new DecayedTopK<>(10, Duration.ofMillis(1), 0);
+        topK.add("a", 1, 0);
+        topK.add("b", 1, 1000);
+        topK.add("b", 1, 2000);
+
+        assertEquals(List.of("b", "a"), topK.top(2));
+        assertEquals(1, topK.score("b", 2000), 1e-9);
+        assertFalse(Double.isNaN(topK.score("a", 2000)));
+    }
+
+    @Test
+    @DisplayName("Remove membuang item dari top-K")
+    void remove_ShouldDropItem() {
+        DecayedTopK<String> topK = new DecayedTopK<>(10, Duration.ofHours(1), 0);
+        topK.add("a", 1, 0);
+        topK.add("b", 2, 0);
+
+        topK.remove("b");
+        topK.remove("tidak-ada");
+
+        assertEquals(List.of("a"), topK.top(10));
+        assertEquals(1, topK.size());
+    }
+
+    @Test
+    @DisplayName("Parameter tidak valid ditolak")
+    void constructor_WithInvalidParameters_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new DecayedTopK<String>(0, Duration.ofHours(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new DecayedTopK<String>(1, Duration.ZERO, 0));
+    }
+}
@@ -0,0 +1,82 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTests {
+
+    private static HyperLogLog sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(HyperLogLog.hash("user-" + i));
+        }
+        return sketch;
+    }
+
+    @Test
+    @DisplayName("Sketch kosong memperkirakan nol")
+    void estimate_WithEmptySketch_ShouldBeZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    @DisplayName("Nilai yang sama hanya dihitung sekali")
+    void add_WithDuplicates_ShouldCountOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketch.add(HyperLogLog.hash("user-1"));
+            sketch.add(HyperLogLog.hash("user-2"));
+        }
+
+        assertEquals(2, sketch.estimate());
+    }
+
+    @Test
+    @DisplayName("Perkiraan jumlah besar dalam batas error sekitar 3%")
+    void estimate_WithManyValues_ShouldBeAccurate() {
+        assertEquals(1_000, sketch(0, 1_000).estimate(), 50);
+        assertEquals(100_000, sketch(0, 100_000).estimate(), 10_000);
+    }
+
+    @Test
+    @DisplayName("Merge menghitung nilai yang ada di kedua sketch satu kali")
+    void merge_ShouldCountUnion() {
+        HyperLogLog first = sketch(0, 5_000);
+        HyperLogLog second = sketch(2_500, 7_500);
+
+        first.merge(second);
+
+        assertEquals(7_500, first.estimate(), 500);
+    }
+
+    @Test
+    @DisplayName("Merge dengan precision berbeda ditolak")
+    void merge_WithDifferentPrecision_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    @DisplayName("Sketch sedikit terisi disimpan sparse, sketch penuh tetap 1 byte per register")
+    void toBytes_ShouldPickCompactFormat() {
+        HyperLogLog small = sketch(0, 10);
+        HyperLogLog large = sketch(0, 100_000);
+
+        byte[] smallBytes = small.toBytes();
+        byte[] largeBytes = large.toBytes();
+
+        assertEquals(1 + 10 * 3, smallBytes.length);
+        assertEquals(1 + 1024, largeBytes.length);
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(smallBytes).estimate());
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(largeBytes).estimate());
+    }
+
+    @Test
+    @DisplayName("Data sketch yang rusak ditolak")
+    void fromBytes_WithInvalidData_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{10, 1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{(byte) 0x8a, 0x7f, 0, 1}));
+    }
+}
@@ -0,0 +1,95 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageHeaderTests {
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static ImageHeader read(byte[] content) throws IOException {
+        return ImageHeader.read(new ByteArrayInputStream(content));
+    }
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Membaca format dan dimensi JPEG, PNG, dan GIF")
+    void read_WithCommonFormats_ShouldReturnDimensions() throws IOException {
+        ImageHeader jpeg = read(image("jpg", 64, 48));
+        ImageHeader png = read(image("png", 30, 70));
+        ImageHeader gif = read(image("gif", 12, 5));
+
+        assertEquals("jpeg", jpeg.getFormat());
+        assertEquals(".jpg", jpeg.getExtension());
+        assertEquals(64, jpeg.getWidth());
+        assertEquals(48, jpeg.getHeight());
+        assertEquals("png", png.getFormat());
+        assertEquals(30 * 70, png.getPixels());
+        assertEquals(".gif", gif.getExtension());
+        assertEquals(12, gif.getWidth());
+        assertEquals(5, gif.getHeight());
+    }
+
+    @Test
+    @DisplayName("Membaca dimensi WebP lossy, lossless, dan extended")
+    void read_WithWebp_ShouldReturnDimensions() throws IOException {
+        ImageHeader lossy = read(bytes('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+                'V', 'P', '8', ' ', 0, 0, 0, 0, 0, 0, 0, 0x9D, 0x01, 0x2A, 0x80, 0x02, 0xE0, 0x01));
+        ImageHeader lossless = read(bytes('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+                'V', 'P', '8', 'L', 0, 0, 0, 0, 0x2F, 0x8F, 0xC1, 0x4A, 0x00));
+        ImageHeader extended = read(bytes('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+                'V', 'P', '8', 'X', 10, 0, 0, 0, 0, 0, 0, 0, 0xE7, 0x03, 0x00, 0xF3, 0x01, 0x00));
+
+        assertEquals("webp", lossy.getFormat());
+        assertEquals(640, lossy.getWidth());
+        assertEquals(480, lossy.getHeight());
+        assertEquals(400, lossless.getWidth());
+        assertEquals(300, lossless.getHeight());
+        assertEquals(1000, extended.getWidth());
+        assertEquals(500, extended.getHeight());
+    }
+
+    @Test
+    @DisplayName("Dimensi dibaca dari header walaupun data pixel tidak ada")
+    void read_WithHeaderOnly_ShouldNotNeedPixelData() throws IOException {
+        ImageHeader png = read(bytes(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+                0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 1, 0x86, 0xA0, 0, 1, 0x86, 0xA0));
+
+        assertEquals(100000, png.getWidth());
+        assertEquals(10_000_000_000L, png.getPixels());
+    }
+
+    @Test
+    @DisplayName("Format yang tidak dikenali mengembalikan null")
+    void read_WithUnknownFormat_ShouldReturnNull() throws IOException {
+        assertNull(read("<html></html>".getBytes()));
+        assertNull(read(image("bmp", 4, 4)));
+        assertNull(read(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Header terpotong atau dimensi nol menghasilkan IOException")
+    void read_WithInvalidHeader_ShouldThrow() {
+        assertThrows(IOException.class, () -> read(bytes('G', 'I', 'F', '8', '9', 'a', 1)));
+        assertThrows(IOException.class, () -> read(bytes('G', 'I', 'F', '8', '9', 'a', 0, 0, 1, 0)));
+        assertThrows(IOException.class, () -> read(bytes(0xFF, 0xD8, 0xFF, 0xDA)));
+    }
+}
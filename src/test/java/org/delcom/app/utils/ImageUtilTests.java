@@ -0,0 +1,50 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageUtilTests {
+    @Test
+    @DisplayName("ImageUtil constructor berhasil")
+    void imageUtil_Constructor_ShouldCreateInstance() {
+        assertNotNull(new ImageUtil());
+    }
+
+    @Test
+    @DisplayName("Variant URL menyisipkan lebar sebelum extension")
+    void variantUrl_WithExtension_ShouldInsertWidthBeforeExtension() {
+        assertEquals("/uploads/images/abc_w480.jpg", ImageUtil.variantUrl("/uploads/images/abc.jpg", 480));
+    }
+
+    @Test
+    @DisplayName("Variant URL tanpa extension menambahkan lebar di akhir")
+    void variantUrl_WithoutExtension_ShouldAppendWidth() {
+        assertEquals("/uploads/images/abc_w200", ImageUtil.variantUrl("/uploads/images/abc", 200));
+        assertEquals("/uploads/my.images/abc_w200", ImageUtil.variantUrl("/uploads/my.images/abc", 200));
+    }
+
+    @Test
+    @DisplayName("Srcset disusun dari daftar lebar")
+    void srcset_WithVariants_ShouldReturnSrcset() {
+        assertEquals("/a/b_w200.png 200w, /a/b_w1024.png 1024w", ImageUtil.srcset("/a/b.png", "200, 1024"));
+    }
+
+    @Test
+    @DisplayName("Srcset tanpa thumbnail mengembalikan null")
+    void srcset_WithoutVariants_ShouldReturnNull() {
+        assertNull(ImageUtil.srcset(null, "200"));
+        assertNull(ImageUtil.srcset("/a/b.png", null));
+        assertNull(ImageUtil.srcset("/a/b.png", ""));
+    }
+
+    @Test
+    @DisplayName("Original URL mengembalikan gambar asli dari URL thumbnail")
+    void originalUrl_ShouldReverseVariantUrl() {
+        assertEquals("/uploads/images/ab/cd/abc.jpg", ImageUtil.originalUrl("/uploads/images/ab/cd/abc_w480.jpg"));
+        assertEquals("/uploads/images/abc", ImageUtil.originalUrl("/uploads/images/abc_w200"));
+        assertNull(ImageUtil.originalUrl("/uploads/images/ab/cd/abc.jpg"));
+        assertNull(ImageUtil.originalUrl("/uploads/images/ab/cd/_w200.jpg"));
+    }
+}
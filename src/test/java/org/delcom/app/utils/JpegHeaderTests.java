@@ -0,0 +1,73 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpegHeaderTests {
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Membaca orientasi EXIF little endian")
+    void read_WithLittleEndianExif_ShouldReturnOrientation() throws IOException {
+        byte[] jpeg = bytes(
+            0xFF, 0xD8,
+            0xFF, 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'I', 'I', 42, 0, 8, 0, 0, 0,
+            1, 0,
+            0x12, 0x01, 3, 0, 1, 0, 0, 0, 8, 0, 0, 0,
+            0, 0, 0, 0,
+            0xFF, 0xDA);
+
+        JpegHeader header = JpegHeader.read(new ByteArrayInputStream(jpeg));
+
+        assertEquals(8, header.getOrientation());
+        assertTrue(header.hasMetadata());
+    }
+
+    @Test
+    @DisplayName("JPEG dengan JFIF saja dianggap tanpa metadata")
+    void read_WithOnlyJfif_ShouldHaveNoMetadata() throws IOException {
+        byte[] jpeg = bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 4, 'J', 'F', 0xFF, 0xDA);
+
+        JpegHeader header = JpegHeader.read(new ByteArrayInputStream(jpeg));
+
+        assertEquals(1, header.getOrientation());
+        assertFalse(header.hasMetadata());
+    }
+
+    @Test
+    @DisplayName("Stream yang bukan JPEG mengembalikan null")
+    void read_WithNonJpeg_ShouldReturnNull() throws IOException {
+        assertNull(JpegHeader.read(new ByteArrayInputStream(bytes(0x89, 'P', 'N', 'G'))));
+    }
+
+    @Test
+    @DisplayName("Header yang terpotong menghasilkan IOException")
+    void read_WithTruncatedHeader_ShouldThrow() {
+        assertThrows(IOException.class,
+            () -> JpegHeader.read(new ByteArrayInputStream(bytes(0xFF, 0xD8, 0xFF, 0xE1, 0, 40, 'E'))));
+    }
+
+    @Test
+    @DisplayName("Membaca lebar dan tinggi dari segmen SOF")
+    void read_WithStartOfFrame_ShouldReturnDimensions() throws IOException {
+        byte[] jpeg = bytes(0xFF, 0xD8, 0xFF, 0xC2, 0, 11, 8, 0x01, 0x2C, 0x02, 0x58, 3, 0, 0, 0, 0xFF, 0xDA);
+
+        JpegHeader header = JpegHeader.read(new ByteArrayInputStream(jpeg));
+
+        assertEquals(600, header.getWidth());
+        assertEquals(300, header.getHeight());
+    }
+}
@@ -1,13 +1,22 @@
 package org.delcom.app.utils;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtUtilTests {
+    private static final String OLD_SECRET = "old-secret-key-that-is-long-enough-for-hmac-sha256-0001";
+    private static final String NEW_SECRET = "new-secret-key-that-is-long-enough-for-hmac-sha256-0002";
+
+    @AfterEach
+    void tearDown() {
+        JwtUtil.useDefaultKeys();
+    }
 
     @Test
     @DisplayName("Generate token berhasil")
@@ -229,5 +238,155 @@ class JwtUtilTests {
         JwtUtil jwtUtil = new JwtUtil();
         assertNotNull(jwtUtil);
     }
-}
 
+    @Test
+    @DisplayName("Generate access token menghasilkan token bertipe access")
+    void generateAccessToken_ShouldReturnAccessToken() {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateAccessToken(userId, 60000);
+
+        assertTrue(JwtUtil.isAccessToken(token));
+        assertTrue(JwtUtil.validateToken(token, false));
+        assertEquals(userId, JwtUtil.extractUserId(token));
+    }
+
+    @Test
+    @DisplayName("Token sesi biasa bukan access token")
+    void isAccessToken_WithSessionToken_ShouldReturnFalse() {
+        String token = JwtUtil.generateToken(UUID.randomUUID());
+
+        assertFalse(JwtUtil.isAccessToken(token));
+    }
+
+    @Test
+    @DisplayName("Access token expired bukan access token yang valid")
+    void isAccessToken_WithExpiredAccessToken_ShouldReturnFalse() {
+        String token = JwtUtil.generateAccessToken(UUID.randomUUID(), -1000);
+
+        assertFalse(JwtUtil.isAccessToken(token));
+        assertFalse(JwtUtil.isAccessToken("invalid-token"));
+    }
+
+    @Test
+    @DisplayName("Extract user ID dari expired token dengan ignoreExpired true berhasil")
+    void extractUserId_WithExpiredTokenAndIgnoreExpired_ShouldReturnUserId() {
+        UUID userId = UUID.randomUUID();
+        String expiredToken = JwtUtil.generateAccessToken(userId, -1000);
+
+        assertEquals(userId, JwtUtil.extractUserId(expiredToken, true));
+        assertNull(JwtUtil.extractUserId(expiredToken, false));
+    }
+
+    @Test
+    @DisplayName("Extract user ID dari expired token dengan subject bukan UUID mengembalikan null")
+    void extractUserId_WithExpiredTokenInvalidSubject_ShouldReturnNull() {
+        String expiredToken = io.jsonwebtoken.Jwts.builder()
+                .subject("invalid-uuid-format")
+                .issuedAt(new java.util.Date(System.currentTimeMillis() - 100000))
+                .expiration(new java.util.Date(System.currentTimeMillis() - 1000))
+                .signWith(JwtUtil.getKey())
+                .compact();
+
+        assertNull(JwtUtil.extractUserId(expiredToken, true));
+    }
+
+    @Test
+    @DisplayName("Parse claims sekali mengembalikan subject dan tipe token")
+    void parseClaims_WithValidToken_ShouldReturnClaims() {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateAccessToken(userId, 60000);
+
+        io.jsonwebtoken.Claims claims = JwtUtil.parseClaims(token, false);
+
+        assertNotNull(claims);
+        assertEquals(userId, JwtUtil.getUserId(claims));
+        assertTrue(JwtUtil.isAccessToken(claims));
+        assertFalse(JwtUtil.isExpired(claims));
+    }
+
+    @Test
+    @DisplayName("Parse claims dari expired token hanya berhasil jika ignoreExpired true")
+    void parseClaims_WithExpiredToken_ShouldRespectIgnoreExpired() {
+        String expiredToken = JwtUtil.generateAccessToken(UUID.randomUUID(), -1000);
+
+        assertNull(JwtUtil.parseClaims(expiredToken, false));
+        io.jsonwebtoken.Claims claims = JwtUtil.parseClaims(expiredToken, true);
+        assertNotNull(claims);
+        assertTrue(JwtUtil.isExpired(claims));
+    }
+
+    @Test
+    @DisplayName("Parse claims dari token invalid mengembalikan null")
+    void parseClaims_WithInvalidToken_ShouldReturnNull() {
+        assertNull(JwtUtil.parseClaims("invalid-token", true));
+        assertNull(JwtUtil.getUserId(null));
+        assertFalse(JwtUtil.isAccessToken((io.jsonwebtoken.Claims) null));
+    }
+
+    @Test
+    @DisplayName("Claims tanpa expiration tidak dianggap expired")
+    void isExpired_WithoutExpiration_ShouldReturnFalse() {
+        String token = io.jsonwebtoken.Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .signWith(JwtUtil.getKey())
+                .compact();
+
+        assertFalse(JwtUtil.isExpired(JwtUtil.parseClaims(token, false)));
+    }
+
+    @Test
+    @DisplayName("Token baru membawa header kid dari key aktif")
+    void generateToken_ShouldContainActiveKid() {
+        JwtUtil.configureKeys("k1", Map.of("k1", OLD_SECRET));
+
+        String token = JwtUtil.generateToken(UUID.randomUUID());
+        String header = new String(java.util.Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+        assertEquals("k1", JwtUtil.getActiveKid());
+        assertTrue(header.contains("\"kid\":\"k1\""));
+    }
+
+    @Test
+    @DisplayName("Token dengan key lama tetap valid selama rotasi")
+    void validateToken_AfterRotation_ShouldAcceptPreviousKey() {
+        JwtUtil.configureKeys("k1", Map.of("k1", OLD_SECRET));
+        UUID userId = UUID.randomUUID();
+        String oldToken = JwtUtil.generateToken(userId);
+
+        JwtUtil.configureKeys("k2", Map.of("k1", OLD_SECRET, "k2", NEW_SECRET));
+        String newToken = JwtUtil.generateToken(userId);
+
+        assertEquals(userId, JwtUtil.extractUserId(oldToken));
+        assertEquals(userId, JwtUtil.extractUserId(newToken));
+
+        // Setelah key lama dihapus, token lama tidak berlaku lagi
+        JwtUtil.configureKeys("k2", Map.of("k2", NEW_SECRET));
+        assertFalse(JwtUtil.validateToken(oldToken, true));
+        assertTrue(JwtUtil.validateToken(newToken, false));
+    }
+
+    @Test
+    @DisplayName("Token tanpa kid diverifikasi dengan key default")
+    void validateToken_WithoutKid_ShouldUseDefaultKid() {
+        String legacyToken = io.jsonwebtoken.Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(new java.util.Date(System.currentTimeMillis() + 60000))
+                .signWith(JwtUtil.getKey())
+                .compact();
+
+        assertTrue(JwtUtil.validateToken(legacyToken, false));
+
+        JwtUtil.configureKeys("k2", Map.of("k2", NEW_SECRET));
+        assertFalse(JwtUtil.validateToken(legacyToken, false));
+    }
+
+    @Test
+    @DisplayName("Konfigurasi keyring tanpa key aktif throw exception")
+    void configureKeys_WithMissingActiveKid_ShouldThrowException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> JwtUtil.configureKeys("missing", Map.of("k1", OLD_SECRET)));
+
+        assertTrue(exception.getMessage().contains("missing"));
+        assertEquals(JwtUtil.DEFAULT_KID, JwtUtil.getActiveKid());
+    }
+}
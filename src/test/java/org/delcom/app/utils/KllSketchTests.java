@@ -0,0 +1,92 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KllSketchTests {
+
+    private static List<Double> shuffled(int from, int to, long seed) {
+        List<Double> values = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+
+    @Test
+    @DisplayName("Sketch kosong tidak punya kuantil")
+    void quantiles_WithEmptySketch_ShouldReturnNull() {
+        KllSketch sketch = new KllSketch();
+
+        assertEquals(0, sketch.getCount());
+        assertNull(sketch.quantiles(0.5));
+    }
+
+    @Test
+    @DisplayName("Sketch kecil yang belum dipadatkan memberi kuantil tepat")
+    void quantiles_WithFewValues_ShouldBeExact() {
+        KllSketch sketch = new KllSketch(200, new Random(1));
+        for (double value : shuffled(1, 101, 1)) {
+            sketch.update(value);
+        }
+
+        double[] result = sketch.quantiles(0.0, 0.1, 0.5, 1.0);
+
+        assertEquals(1.0, result[0]);
+        assertEquals(10.0, result[1]);
+        assertEquals(50.0, result[2]);
+        assertEquals(100.0, result[3]);
+    }
+
+    @Test
+    @DisplayName("Sejuta nilai diringkas dengan memori tetap dan error rank di bawah 2%")
+    void quantiles_WithManyValues_ShouldStayAccurateWithBoundedMemory() {
+        int n = 1_000_000;
+        KllSketch sketch = new KllSketch(200, new Random(1));
+        for (double value : shuffled(0, n, 2)) {
+            sketch.update(value);
+        }
+
+        double[] result = sketch.quantiles(0.1, 0.5, 0.9);
+
+        assertEquals(n, sketch.getCount());
+        assertTrue(sketch.getRetained() < 1000, "Jumlah nilai tersimpan: " + sketch.getRetained());
+        assertEquals(0.1 * n, result[0], 0.02 * n);
+        assertEquals(0.5 * n, result[1], 0.02 * n);
+        assertEquals(0.9 * n, result[2], 0.02 * n);
+    }
+
+    @Test
+    @DisplayName("Merge dua sketch sama dengan sketch dari gabungan nilainya")
+    void merge_ShouldCombineCountsAndQuantiles() {
+        KllSketch low = new KllSketch(200, new Random(1));
+        KllSketch high = new KllSketch(200, new Random(2));
+        for (double value : shuffled(0, 50_000, 3)) {
+            low.update(value);
+        }
+        for (double value : shuffled(50_000, 100_000, 4)) {
+            high.update(value);
+        }
+
+        low.merge(high);
+
+        assertEquals(100_000, low.getCount());
+        assertEquals(50_000, high.getCount(), "Sketch sumber tidak berubah");
+        assertEquals(50_000, low.quantiles(0.5)[0], 2_000);
+        assertEquals(90_000, low.quantiles(0.9)[0], 2_000);
+    }
+
+    @Test
+    @DisplayName("k terlalu kecil ditolak")
+    void constructor_WithTooSmallK_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(4, new Random()));
+    }
+}
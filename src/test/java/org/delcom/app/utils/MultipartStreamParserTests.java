@@ -0,0 +1,148 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamParserTests {
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    private static class RecordingHandler implements MultipartStreamParser.PartHandler {
+        final Map<String, String> fields = new HashMap<>();
+        final List<String> filenames = new ArrayList<>();
+        final List<byte[]> files = new ArrayList<>();
+
+        @Override
+        public void onField(String name, String value) {
+            fields.put(name, value);
+        }
+
+        @Override
+        public void onFile(String name, String filename, InputStream content) throws IOException {
+            filenames.add(filename);
+            files.add(content.readAllBytes());
+        }
+    }
+
+    private static byte[] body(byte[] fileContent) {
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "Sepatu Bekas\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"foto;1.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"price\"\r\n\r\n"
+                + "150000\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+        byte[] tailBytes = tail.getBytes(StandardCharsets.UTF_8);
+        byte[] result = Arrays.copyOf(headBytes, headBytes.length + fileContent.length + tailBytes.length);
+        System.arraycopy(fileContent, 0, result, headBytes.length, fileContent.length);
+        System.arraycopy(tailBytes, 0, result, headBytes.length + fileContent.length, tailBytes.length);
+        return result;
+    }
+
+    // Meniru socket yang mengembalikan data sedikit demi sedikit
+    private static InputStream trickle(byte[] data, int chunk) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, chunk));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Extract boundary dari Content-Type multipart")
+    void extractBoundary_ShouldReadBoundaryParameter() {
+        assertEquals("abc", MultipartStreamParser.extractBoundary("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStreamParser.extractBoundary("multipart/form-data; charset=utf-8; boundary=\"a b\""));
+        assertNull(MultipartStreamParser.extractBoundary("application/json"));
+        assertNull(MultipartStreamParser.extractBoundary("multipart/form-data"));
+        assertNull(MultipartStreamParser.extractBoundary(null));
+    }
+
+    @Test
+    @DisplayName("Parse membaca field dan file sesuai urutan part")
+    void parse_ShouldReadFieldsAndFile() throws IOException {
+        byte[] image = new byte[50_000];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) (i * 31);
+        }
+        RecordingHandler handler = new RecordingHandler();
+
+        new MultipartStreamParser(new ByteArrayInputStream(body(image)), BOUNDARY, 1024).parse(handler);
+
+        assertEquals("Sepatu Bekas", handler.fields.get("name"));
+        assertEquals("150000", handler.fields.get("price"));
+        assertEquals(List.of("foto;1.jpg"), handler.filenames);
+        assertArrayEquals(image, handler.files.get(0));
+    }
+
+    @Test
+    @DisplayName("Parse tetap benar jika delimiter terpotong di antara dua read")
+    void parse_WithSmallReads_ShouldFindSplitDelimiter() throws IOException {
+        byte[] image = "isi\r\n--bukan-boundary\r\n-".getBytes(StandardCharsets.UTF_8);
+        for (int chunk : new int[] {1, 3, 7, 64}) {
+            RecordingHandler handler = new RecordingHandler();
+
+            new MultipartStreamParser(trickle(body(image), chunk), BOUNDARY, 1024).parse(handler);
+
+            assertArrayEquals(image, handler.files.get(0), "chunk " + chunk);
+            assertEquals("150000", handler.fields.get("price"), "chunk " + chunk);
+        }
+    }
+
+    @Test
+    @DisplayName("Isi file yang tidak dibaca handler dilewati")
+    void parse_WithUnreadFile_ShouldSkipContent() throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        MultipartStreamParser.PartHandler handler = new MultipartStreamParser.PartHandler() {
+            @Override
+            public void onField(String name, String value) {
+                fields.put(name, value);
+            }
+
+            @Override
+            public void onFile(String name, String filename, InputStream content) {
+            }
+        };
+
+        new MultipartStreamParser(new ByteArrayInputStream(body(new byte[20_000])), BOUNDARY, 1024).parse(handler);
+
+        assertEquals("150000", fields.get("price"));
+    }
+
+    @Test
+    @DisplayName("Field yang melebihi batas ukuran ditolak")
+    void parse_WithTooLongField_ShouldThrow() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                new MultipartStreamParser(new ByteArrayInputStream(body(new byte[0])), BOUNDARY, 5)
+                        .parse(new RecordingHandler()));
+
+        assertEquals("Isi field name terlalu panjang", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Body yang terpotong menghasilkan IOException")
+    void parse_WithTruncatedBody_ShouldThrowIOException() {
+        byte[] full = body(new byte[1000]);
+        byte[] truncated = Arrays.copyOf(full, full.length - 60);
+
+        assertThrows(IOException.class, () ->
+                new MultipartStreamParser(new ByteArrayInputStream(truncated), BOUNDARY, 1024)
+                        .parse(new RecordingHandler()));
+    }
+}
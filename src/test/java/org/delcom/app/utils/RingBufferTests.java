@@ -0,0 +1,118 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTests {
+
+    private static final class Slot {
+        private int value;
+    }
+
+    private static void offer(RingBuffer<Slot> ring, int value) {
+        long sequence = ring.tryClaim();
+        assertTrue(sequence >= 0);
+        ring.get(sequence).value = value;
+        ring.publish(sequence);
+    }
+
+    @Test
+    @DisplayName("Consumer membaca slot dengan urutan publish")
+    void drain_ShouldReadInOrder() {
+        RingBuffer<Slot> ring = new RingBuffer<>(4, Slot::new);
+        offer(ring, 1);
+        offer(ring, 2);
+        offer(ring, 3);
+
+        List<Integer> values = new ArrayList<>();
+        assertEquals(2, ring.drain(slot -> values.add(slot.value), 2));
+        assertEquals(1, ring.drain(slot -> values.add(slot.value), 10));
+        assertEquals(0, ring.drain(slot -> values.add(slot.value), 10));
+
+        assertEquals(List.of(1, 2, 3), values);
+    }
+
+    @Test
+    @DisplayName("Buffer penuh menolak klaim baru sampai consumer membaca")
+    void tryClaim_WhenFull_ShouldReturnMinusOne() {
+        RingBuffer<Slot> ring = new RingBuffer<>(2, Slot::new);
+        offer(ring, 1);
+        offer(ring, 2);
+
+        assertEquals(-1, ring.tryClaim());
+
+        ring.drain(slot -> { }, 1);
+        assertTrue(ring.tryClaim() >= 0);
+    }
+
+    @Test
+    @DisplayName("Slot yang diklaim tetapi belum dipublish tidak dibaca consumer")
+    void drain_ShouldStopAtUnpublishedSlot() {
+        RingBuffer<Slot> ring = new RingBuffer<>(4, Slot::new);
+        long first = ring.tryClaim();
+        offer(ring, 2);
+
+        assertEquals(0, ring.drain(slot -> { }, 10));
+
+        ring.publish(first);
+        assertEquals(2, ring.drain(slot -> { }, 10));
+    }
+
+    @Test
+    @DisplayName("Slot dialokasikan sekali dan dipakai ulang")
+    void get_ShouldReuseSlots() {
+        RingBuffer<Slot> ring = new RingBuffer<>(2, Slot::new);
+        long first = ring.tryClaim();
+        Slot slot = ring.get(first);
+        ring.publish(first);
+        ring.drain(s -> { }, 1);
+        offer(ring, 0);
+        ring.drain(s -> { }, 1);
+
+        assertSame(slot, ring.get(ring.tryClaim()));
+    }
+
+    @Test
+    @DisplayName("Banyak producer bersamaan tidak kehilangan maupun menggandakan event")
+    void tryClaim_WithConcurrentProducers_ShouldDeliverEveryEvent() throws InterruptedException {
+        RingBuffer<Slot> ring = new RingBuffer<>(1024, Slot::new);
+        int producers = 4;
+        int perProducer = 200;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    offer(ring, base + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        boolean[] seen = new boolean[producers * perProducer];
+        AtomicInteger count = new AtomicInteger();
+        ring.drain(slot -> {
+            assertFalse(seen[slot.value]);
+            seen[slot.value] = true;
+            count.incrementAndGet();
+        }, Integer.MAX_VALUE);
+
+        assertEquals(producers * perProducer, count.get());
+    }
+
+    @Test
+    @DisplayName("Capacity harus pangkat dua")
+    void constructor_WithInvalidCapacity_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(3, Slot::new));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(1, Slot::new));
+        assertEquals(8, new RingBuffer<>(8, Slot::new).capacity());
+    }
+}
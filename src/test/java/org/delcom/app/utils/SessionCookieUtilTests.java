@@ -0,0 +1,56 @@
+package org.delcom.app.utils;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCookieUtilTests {
+
+    @Test
+    @DisplayName("addSessionCookies menulis cookie access token seumur access token, refresh token dan nonce di path refresh")
+    void addSessionCookies_ShouldWriteSessionCookies() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        SessionCookieUtil.addSessionCookies(response, "access", 600, "refresh", "nonce", 1209600);
+
+        Cookie access = response.getCookie("token");
+        Cookie refresh = response.getCookie("refresh_token");
+        Cookie nonce = response.getCookie("refresh_nonce");
+        assertNotNull(access);
+        assertNotNull(refresh);
+        assertNotNull(nonce);
+        assertEquals("access", access.getValue());
+        assertEquals("/", access.getPath());
+        assertEquals(600, access.getMaxAge());
+        assertEquals("refresh", refresh.getValue());
+        assertEquals("/auth/refresh", refresh.getPath());
+        assertEquals(1209600, refresh.getMaxAge());
+        assertEquals("nonce", nonce.getValue());
+        assertEquals("/auth/refresh", nonce.getPath());
+        assertEquals(1209600, nonce.getMaxAge());
+        assertTrue(access.isHttpOnly());
+        assertTrue(refresh.isHttpOnly());
+        assertTrue(nonce.isHttpOnly());
+    }
+
+    @Test
+    @DisplayName("clearSessionCookies menghapus cookie sesi termasuk refresh token lama di path /")
+    void clearSessionCookies_ShouldExpireAllSessionCookies() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        SessionCookieUtil.clearSessionCookies(response);
+
+        Cookie[] cookies = response.getCookies();
+        assertEquals(4, cookies.length);
+        for (Cookie cookie : cookies) {
+            assertEquals(0, cookie.getMaxAge());
+        }
+        assertEquals("/auth/refresh", cookies[1].getPath());
+        assertEquals("refresh_nonce", cookies[2].getName());
+        assertEquals("/auth/refresh", cookies[2].getPath());
+        assertEquals("/", cookies[3].getPath());
+    }
+}